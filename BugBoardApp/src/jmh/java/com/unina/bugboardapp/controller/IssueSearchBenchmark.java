@@ -0,0 +1,120 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Issue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static com.unina.bugboardapp.service.IssueFixtures.issue;
+
+/**
+ * Filtro testuale della tabella su 50.000 issue: un'operazione corrisponde a un carattere digitato, cioè
+ * alla valutazione del predicato su tutte le issue per una nuova query.
+ * <p>
+ * {@link #linearScan()} riproduce il vecchio {@code IssueListGUI.isMatch} ({@code toLowerCase()} di titolo e
+ * descrizione per ogni issue), {@link #searchIndex()} il predicato di {@link IssueSearchIndex}. Le query
+ * simulano la digitazione progressiva di alcune parole, così che ogni operazione usi una query diversa
+ * dalla precedente e la cache dell'ultimo risultato non venga mai riutilizzata.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssueSearchBenchmark {
+    private static final int ISSUES = 50_000;
+    private static final String[] WORDS = {
+            "crash", "salvataggio", "login", "lento", "errore", "pagina", "allegato", "immagine", "utente",
+            "commento", "tabella", "filtro", "ricerca", "sincronizzazione", "notifica", "password", "sessione",
+            "caricamento", "finestra", "pulsante", "elenco", "priorità", "stato", "modifica", "eliminazione",
+            "documentazione", "configurazione", "server", "timeout", "connessione", "perché", "però", "città",
+            "attività", "risposta", "richiesta", "formato", "data", "ordinamento", "esportazione"
+    };
+    private static final String[] TYPED = {"salvataggio", "sincronizzazione", "perche", "login lento", "timeout"};
+
+    private ObservableList<Issue> issues;
+    private IssueSearchIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Issue> generated = new ArrayList<>(ISSUES);
+        for (int id = 1; id <= ISSUES; id++) {
+            generated.add(issue(id, sentence(random, 5), sentence(random, 25)));
+        }
+        issues = FXCollections.observableArrayList(generated);
+        index = new IssueSearchIndex(issues);
+
+        List<String> prefixes = new ArrayList<>();
+        for (String word : TYPED) {
+            for (int length = 1; length <= word.length(); length++) {
+                prefixes.add(word.substring(0, length));
+            }
+        }
+        queries = prefixes.toArray(String[]::new);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringJoiner sentence = new StringJoiner(" ");
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            sentence.add(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        }
+        return sentence.toString();
+    }
+
+    private String nextQuery() {
+        String query = queries[next];
+        next = (next + 1) % queries.length;
+        return query;
+    }
+
+    @Benchmark
+    public int linearScan() {
+        String lowerCaseFilter = nextQuery().toLowerCase();
+        return count(issue -> issue.getTitle().toLowerCase().contains(lowerCaseFilter)
+                || issue.getDescription().toLowerCase().contains(lowerCaseFilter));
+    }
+
+    @Benchmark
+    public int searchIndex() {
+        return count(index.matching(nextQuery()));
+    }
+
+    /**
+     * Costruzione dell'indice da zero, come al primo caricamento della lista.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IssueSearchIndex buildIndex() {
+        return new IssueSearchIndex(FXCollections.observableArrayList(issues));
+    }
+
+    private int count(Predicate<Issue> predicate) {
+        int matches = 0;
+        for (Issue issue : issues) {
+            if (predicate.test(issue)) matches++;
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,72 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.unina.bugboardapp.model.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lettura di una risposta {@code /issues} da 10.000 issue con i reader condivisi di {@link JsonSupport},
+ * confrontata con i due modi in cui i service la leggevano prima:
+ * <ul>
+ *   <li>un {@link ObjectMapper} per service e un nuovo {@link TypeReference} a ogni chiamata;</li>
+ *   <li>un {@link ObjectMapper} appena costruito, come alla prima chiamata di ogni service.</li>
+ * </ul>
+ * Le allocazioni per chiamata si leggono con {@code -prof gc} ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssueReaderBenchmark {
+    private String payload;
+    private ObjectMapper serviceMapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = new String(IssueFixtures.json(IssueFixtures.issues(10_000)), StandardCharsets.UTF_8);
+        serviceMapper = newMapper();
+    }
+
+    private static ObjectMapper newMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    @Benchmark
+    public List<Issue> sharedReader() throws IOException {
+        return JsonSupport.issueListReader().readValue(payload);
+    }
+
+    @Benchmark
+    public List<Issue> mapperPerServiceWithTypeReference() throws IOException {
+        return serviceMapper.readValue(payload, new TypeReference<List<Issue>>() {
+        });
+    }
+
+    @Benchmark
+    public List<Issue> newMapperPerCall() throws IOException {
+        return newMapper().readValue(payload, new TypeReference<List<Issue>>() {
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.UserType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Tempo per avere a disposizione la prima riga della tabella dopo il login, con 10.000 issue da 3 commenti:
+ * <ul>
+ *   <li>{@link #snapshot()}: lettura dello snapshot locale mappato in memoria, che la tabella mostra per intero;</li>
+ *   <li>{@link #coldFetchFirstBatch()}: download in streaming fino al primo lotto di
+ *       {@value #BATCH_SIZE} issue, come il refresh completo senza snapshot;</li>
+ *   <li>{@link #coldFetch()}: download completo, il tempo dopo cui la tabella senza snapshot è completa.</li>
+ * </ul>
+ * Il backend di prova è in loopback e non comprime: {@code serverDelayMillis} simula il tempo di risposta
+ * del backend reale (rete e query).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeToFirstRowBenchmark {
+    private static final int ISSUES = 10_000;
+    private static final int BATCH_SIZE = 200;
+    private static final String ACCOUNT = "dev@example.com";
+
+    /**
+     * Interrompe la lettura dello stream al primo lotto.
+     */
+    private static final class FirstBatchReceived extends RuntimeException {
+        FirstBatchReceived() {
+            super(null, null, false, false);
+        }
+    }
+
+    @Param({"0", "50"})
+    public long serverDelayMillis;
+
+    private Path directory;
+    private SnapshotStore store;
+    private StandInBackend backend;
+    private IssueService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        User reporter = new User(ACCOUNT, null, UserType.USER);
+        List<Issue> issues = IssueFixtures.issues(ISSUES);
+        for (Issue issue : issues) {
+            List<Comment> comments = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                comments.add(new Comment(reporter, "Commento " + i + " sulla issue " + issue.getId(), issue.getId()));
+            }
+            issue.setComments(comments);
+            issue.setReporter(reporter);
+        }
+
+        directory = Files.createTempDirectory("bugboard-bench");
+        store = new SnapshotStore(directory);
+        store.save(ACCOUNT, new SnapshotStore.Snapshot(Instant.now(), System.currentTimeMillis(), null, issues,
+                List.of(reporter)));
+
+        byte[] json = IssueFixtures.json(issues);
+        backend = StandInBackend.start();
+        backend.on("GET", "/issues", (request, exchange) -> {
+            try {
+                Thread.sleep(serverDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StandInBackend.respond(exchange, 200, "application/json", json);
+        });
+        service = new IssueService(backend.client(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        backend.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public Issue snapshot() {
+        return store.load(ACCOUNT).issues().get(0);
+    }
+
+    @Benchmark
+    public Issue coldFetchFirstBatch() throws Exception {
+        Issue[] first = new Issue[1];
+        try {
+            service.streamAllIssues(BATCH_SIZE, batch -> {
+                first[0] = batch.get(0);
+                throw new FirstBatchReceived();
+            });
+        } catch (Exception e) {
+            if (first[0] == null) throw e;
+        }
+        return first[0];
+    }
+
+    @Benchmark
+    public int coldFetch() throws Exception {
+        return service.streamAllIssues(BATCH_SIZE, batch -> { });
+    }
+}
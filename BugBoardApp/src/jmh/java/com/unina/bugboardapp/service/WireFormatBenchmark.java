@@ -0,0 +1,97 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.UserType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lettura in streaming di 10.000 issue con 3 commenti ciascuna, in JSON e in Smile, con lo stesso percorso
+ * di {@link IssueService#streamAllIssues(int, java.util.function.Consumer)}: parser scelto dal
+ * {@code Content-Type} e reader condiviso per ogni issue.
+ * <p>
+ * I byte trasferiti, con e senza gzip, vengono stampati all'avvio di ogni fork.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+    private static final int ISSUES = 10_000;
+
+    private byte[] json;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        User reporter = new User("dev@example.com", null, UserType.USER);
+        List<Issue> issues = IssueFixtures.issues(ISSUES);
+        for (Issue issue : issues) {
+            List<Comment> comments = new ArrayList<>();
+            for (int i = 1; i <= 3; i++) {
+                comments.add(new Comment(reporter, "Commento " + i + " sulla issue " + issue.getId(), issue.getId()));
+            }
+            issue.setComments(comments);
+            issue.setReporter(reporter);
+        }
+        json = IssueFixtures.json(issues);
+        smile = JsonSupport.mapper().copyWith(new SmileFactory()).writeValueAsBytes(issues);
+        System.out.printf("JSON: %,d B (gzip %,d B), Smile: %,d B (gzip %,d B)%n",
+                json.length, gzip(json).length, smile.length, gzip(smile).length);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream encoder = new GZIPOutputStream(out)) {
+            encoder.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public int json() throws IOException {
+        return read(json, "application/json");
+    }
+
+    @Benchmark
+    public int smile() throws IOException {
+        return read(smile, JsonSupport.SMILE_CONTENT_TYPE);
+    }
+
+    private static int read(byte[] body, String contentType) throws IOException {
+        int count = 0;
+        try (JsonParser parser = JsonSupport.createParser(new ByteArrayInputStream(body), contentType)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) throw new IOException("JSON array expected");
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Issue issue = JsonSupport.issueReader().readValue(parser);
+                count += issue.getComments().size();
+            }
+        }
+        return count;
+    }
+}
@@ -1,6 +1,8 @@
 package com.unina.bugboardapp;
 
 import atlantafx.base.theme.PrimerLight;
+import com.unina.bugboardapp.controller.AppController;
+import com.unina.bugboardapp.manager.TaskManager;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -38,6 +40,12 @@ public class StartApplication extends Application {
         }
     }
 
+    @Override
+    public void stop() {
+        AppController.getInstance().shutdown();
+        TaskManager.getInstance().shutdown();
+    }
+
     private Scene createScene(String fxmlFile, int width, int height) throws IOException {
         URL fxmlUrl = getResource(fxmlFile);
         if (fxmlUrl == null) {
@@ -54,6 +62,10 @@ public class StartApplication extends Application {
         stage.setMinWidth(MIN_WIDTH);
         stage.setMinHeight(MIN_HEIGHT);
         stage.centerOnScreen();
+        stage.focusedProperty().addListener((obs, was, focused) ->
+                AppController.getInstance().onWindowFocusChanged(focused));
+        stage.iconifiedProperty().addListener((obs, was, iconified) ->
+                AppController.getInstance().onWindowMinimizedChanged(iconified));
     }
 
     private URL getResource(String resourcePath) {
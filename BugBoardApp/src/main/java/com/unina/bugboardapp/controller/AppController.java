@@ -5,8 +5,13 @@ import com.unina.bugboardapp.model.enums.IssueState;
 import com.unina.bugboardapp.model.enums.IssueType;
 import com.unina.bugboardapp.model.enums.Priority;
 import com.unina.bugboardapp.model.enums.UserType;
+import com.unina.bugboardapp.service.ApiClient;
+import com.unina.bugboardapp.service.ChangeFeed;
+import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.collections.ObservableList;
 
+import java.util.List;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 /**
@@ -43,13 +48,19 @@ public class AppController {
     private final IssueController issueController;
     private final UserController userController;
     private final CommentController commentController;
+    private final IssueRefreshScheduler refreshScheduler;
+    private final ChangeFeedController changeFeedController;
+    private final OutboxController outboxController;
 
     private AppController() {
         this.appState = new AppState();
-        this.issueController = new IssueController(appState);
+        this.outboxController = new OutboxController(appState);
+        this.issueController = new IssueController(appState, outboxController);
         this.authController = new AuthenticationController(appState, issueController); // Auth triggera refresh issue
         this.userController = new UserController(appState);
-        this.commentController = new CommentController(appState);
+        this.commentController = new CommentController(appState, outboxController);
+        this.refreshScheduler = new IssueRefreshScheduler(issueController, appState.getIssues());
+        this.changeFeedController = new ChangeFeedController(appState, issueController, refreshScheduler);
     }
 
     /**
@@ -76,7 +87,10 @@ public class AppController {
      * In caso di autenticazione riuscita, lo stato applicativo viene aggiornato con
      * l'utente loggato
      * e può essere innescato un refresh dei dati (delegato al controller di
-     * autenticazione).
+     * autenticazione). Viene inoltre avviato l'aggiornamento delle issue, tranne in
+     * modalità paginata: in push ({@link ChangeFeedController}) se il flusso di modifiche
+     * è abilitato, altrimenti periodico ({@link IssueRefreshScheduler}), e riprende l'invio delle
+     * scritture rimaste in coda ({@link OutboxController}).
      * </p>
      *
      * @param email    email/username dell'utente
@@ -85,20 +99,91 @@ public class AppController {
      *         altrimenti
      */
     public boolean login(String email, String password) {
-        return authController.login(email, password);
+        boolean authenticated = authController.login(email, password);
+        if (authenticated) outboxController.start();
+        if (authenticated && !PagedIssueList.isEnabled()) {
+            if (ChangeFeed.isEnabled()) {
+                changeFeedController.start();
+            } else {
+                refreshScheduler.start();
+            }
+        }
+        return authenticated;
+    }
+
+    /**
+     * Avvia in background l'apertura della connessione verso il backend (es. alla schermata di login).
+     * <p>
+     * Delegato a {@link AuthenticationController#warmUpConnection()}.
+     * </p>
+     */
+    public void warmUpConnection() {
+        authController.warmUpConnection();
     }
 
     /**
      * Effettua il logout dell'utente corrente.
      * <p>
      * Delegato a {@link AuthenticationController}, che azzera l'utente nello
-     * {@link AppState}.
+     * {@link AppState}. L'aggiornamento delle issue (in push o periodico) viene arrestato, così come
+     * l'invio delle scritture accodate (che restano su disco per il prossimo login).
      * </p>
      */
     public void logout() {
+        outboxController.stop();
+        changeFeedController.stop();
+        refreshScheduler.stop();
         authController.logout();
     }
 
+    /**
+     * Notifica il cambio di focus della finestra principale: quando la finestra torna attiva
+     * l'aggiornamento periodico delle issue viene anticipato.
+     *
+     * @param focused {@code true} se la finestra ha ricevuto il focus
+     */
+    public void onWindowFocusChanged(boolean focused) {
+        if (focused) refreshScheduler.nudge();
+    }
+
+    /**
+     * Notifica la riduzione a icona (o il ripristino) della finestra principale: mentre è ridotta a icona
+     * l'aggiornamento periodico delle issue è sospeso.
+     *
+     * @param minimized {@code true} se la finestra è ridotta a icona
+     */
+    public void onWindowMinimizedChanged(boolean minimized) {
+        refreshScheduler.setPaused(minimized);
+    }
+
+    /**
+     * Arresta le attività periodiche e il client HTTP alla chiusura dell'applicazione.
+     */
+    public void shutdown() {
+        outboxController.stop();
+        changeFeedController.stop();
+        refreshScheduler.stop();
+        ApiClient.getInstance().shutdown();
+    }
+
+    /**
+     * Restituisce il pianificatore dell'aggiornamento periodico delle issue (es. per leggerne le metriche).
+     *
+     * @return pianificatore dell'aggiornamento periodico
+     */
+    public IssueRefreshScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
+
+    /**
+     * Restituisce la coda persistente delle scritture (es. per leggere il numero di operazioni in attesa).
+     *
+     * @return coda persistente delle scritture
+     */
+    public OutboxController getOutboxController() {
+        return outboxController;
+    }
+
     /**
      * Restituisce l'utente attualmente loggato.
      *
@@ -142,7 +227,8 @@ public class AppController {
      * Crea una nuova issue delegando la richiesta a {@link IssueController}.
      * <p>
      * Le validazioni (es. utente loggato, campi non null/blank) sono gestite dal
-     * controller delegato.
+     * controller delegato. La issue compare subito nella lista come provvisoria
+     * ({@link OptimisticUpdates}) e viene rimossa, con un avviso, se la creazione fallisce.
      * </p>
      *
      * @param title       titolo della issue
@@ -160,6 +246,7 @@ public class AppController {
     public void createIssue(String title, String description, IssueType type,
             Priority priority, String imagePath, IssueState state) {
         issueController.createIssue(title, description, type, priority, imagePath, state);
+        refreshScheduler.nudge();
     }
 
     /**
@@ -177,13 +264,55 @@ public class AppController {
         return appState.getIssues();
     }
 
+    /**
+     * Restituisce l'indice di ricerca testuale sulle issue di {@link #getAllIssues()}.
+     *
+     * @return indice di ricerca delle issue, aggiornato automaticamente con la lista
+     */
+    public IssueSearchIndex getIssueSearchIndex() {
+        return appState.getIssueSearchIndex();
+    }
+
+    /**
+     * Restituisce gli indici per tipo, priorità e stato delle issue di {@link #getAllIssues()}.
+     *
+     * @return indici delle issue, aggiornati automaticamente con la lista
+     */
+    public IssueAttributeIndex getIssueAttributeIndex() {
+        return appState.getIssueAttributeIndex();
+    }
+
+    /**
+     * Restituisce l'avanzamento dell'upload di allegati in corso.
+     * <p>
+     * Vale da 0 a 1 durante un upload e {@link AppState#NO_UPLOAD} altrimenti; adatta al binding con una
+     * {@link javafx.scene.control.ProgressBar}.
+     * </p>
+     *
+     * @return proprietà in sola lettura dell'avanzamento dell'upload
+     */
+    public ReadOnlyDoubleProperty uploadProgressProperty() {
+        return appState.uploadProgressProperty();
+    }
+
+    /**
+     * Restituisce gli avvisi da mostrare all'utente (es. creazioni annullate perché rifiutate dal server).
+     * <p>
+     * La vista che li mostra deve rimuoverli dalla lista.
+     * </p>
+     *
+     * @return lista osservabile degli avvisi
+     */
+    public ObservableList<String> getNotifications() {
+        return appState.getNotifications();
+    }
+
     /**
      * Restituisce una lista osservabile di issue filtrate per tipo.
      *
      * @param type tipo di issue su cui filtrare; se {@code null} viene restituita
-     *             una copia
-     *             contenente tutte le issue
-     * @return lista osservabile filtrata per {@code type}
+     *             la vista di tutte le issue
+     * @return vista viva e non modificabile filtrata per {@code type}
      */
     public ObservableList<Issue> getIssuesFiltered(IssueType type) {
         return issueController.getIssuesFiltered(type);
@@ -193,9 +322,8 @@ public class AppController {
      * Restituisce una lista osservabile di issue filtrate per priorità.
      *
      * @param priority priorità su cui filtrare; se {@code null} viene restituita
-     *                 una copia
-     *                 contenente tutte le issue
-     * @return lista osservabile filtrata per {@code priority}
+     *                 la vista di tutte le issue
+     * @return vista viva e non modificabile filtrata per {@code priority}
      */
     public ObservableList<Issue> getIssuesByPriority(Priority priority) {
         return issueController.getIssuesByPriority(priority);
@@ -204,10 +332,9 @@ public class AppController {
     /**
      * Restituisce una lista osservabile di issue filtrate per stato.
      *
-     * @param state stato su cui filtrare; se {@code null} viene restituita una
-     *              copia
-     *              contenente tutte le issue
-     * @return lista osservabile filtrata per {@code state}
+     * @param state stato su cui filtrare; se {@code null} viene restituita la
+     *              vista di tutte le issue
+     * @return vista viva e non modificabile filtrata per {@code state}
      */
     public ObservableList<Issue> getIssuesByState(IssueState state) {
         return issueController.getIssuesByState(state);
@@ -278,6 +405,26 @@ public class AppController {
      */
     public void addComment(Issue issue, String content, Consumer<Comment> onSuccess) {
         commentController.addComment(issue, content, onSuccess);
+        refreshScheduler.nudge();
+    }
+
+    /**
+     * Aggiunge un commento ad una issue mostrandolo subito come provvisorio; delegato a
+     * {@link CommentController#addComment(Issue, String, Consumer, Consumer, Runnable)}.
+     *
+     * @param issue     issue a cui associare il commento (non {@code null} e non provvisoria)
+     * @param content   contenuto del commento (non {@code null} e non vuoto)
+     * @param onPending callback opzionale invocata subito con il commento provvisorio
+     * @param onSuccess callback opzionale invocata con il {@link Comment} creato con successo
+     * @param onFailure callback opzionale invocata se la creazione fallisce
+     * @throws IllegalStateException    se l'utente non è loggato
+     * @throws IllegalArgumentException se {@code issue} è {@code null} o provvisoria oppure
+     *                                  {@code content} non è valido
+     */
+    public void addComment(Issue issue, String content, Consumer<Comment> onPending,
+            Consumer<Comment> onSuccess, Runnable onFailure) {
+        commentController.addComment(issue, content, onPending, onSuccess, onFailure);
+        refreshScheduler.nudge();
     }
 
     /**
@@ -294,4 +441,22 @@ public class AppController {
     public void loadCommentsForIssue(Issue issue) {
         commentController.loadCommentsForIssue(issue);
     }
+
+    /**
+     * Carica in background i commenti di una issue consegnandoli a blocchi nel thread JavaFX.
+     * <p>
+     * Delegato a {@link CommentController#loadCommentsForIssue(Issue, Consumer, Runnable, Consumer)}.
+     * Il caricamento può essere annullato tramite il {@link Future} restituito.
+     * </p>
+     *
+     * @param issue      issue per cui caricare i commenti (non {@code null})
+     * @param onBatch    callback opzionale invocata per ogni blocco di commenti ricevuto
+     * @param onComplete callback opzionale invocata al termine del caricamento
+     * @param onError    callback opzionale invocata in caso di errore
+     * @return handle del caricamento, utilizzabile per annullarlo
+     */
+    public Future<?> loadCommentsForIssue(Issue issue, Consumer<List<Comment>> onBatch,
+                                          Runnable onComplete, Consumer<Exception> onError) {
+        return commentController.loadCommentsForIssue(issue, onBatch, onComplete, onError);
+    }
 }
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.unina.bugboardapp.controller;
 import com.unina.bugboardapp.model.Issue;
 import com.unina.bugboardapp.model.User;
 import com.unina.bugboardapp.model.enums.UserType;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
@@ -13,7 +15,11 @@ import javafx.collections.ObservableList;
  * <ul>
  *   <li>la lista osservabile degli utenti caricati/creati ({@link #getUsers()})</li>
  *   <li>la lista osservabile delle issue disponibili ({@link #getIssues()})</li>
+ *   <li>l'indice di ricerca testuale sulle issue, aggiornato con la lista ({@link #getIssueSearchIndex()})</li>
+ *   <li>gli indici per tipo, priorità e stato delle issue, con le relative viste ({@link #getIssueAttributeIndex()})</li>
  *   <li>l'utente attualmente autenticato ({@link #getLoggedUser()})</li>
+ *   <li>l'avanzamento dell'upload di allegati in corso ({@link #uploadProgressProperty()})</li>
+ *   <li>gli avvisi da mostrare all'utente, es. le creazioni non riuscite ({@link #getNotifications()})</li>
  * </ul>
  * </p>
  *
@@ -23,9 +29,17 @@ import javafx.collections.ObservableList;
  * </p>
  */
 public class AppState {
+    /**
+     * Valore di {@link #uploadProgressProperty()} quando nessun upload è in corso.
+     */
+    public static final double NO_UPLOAD = -1;
     private final ObservableList<User> users;
     private final ObservableList<Issue> issues;
-    private User loggedUser;
+    private final IssueSearchIndex issueSearchIndex;
+    private final IssueAttributeIndex issueAttributeIndex;
+    private final DoubleProperty uploadProgress = new SimpleDoubleProperty(NO_UPLOAD);
+    private final ObservableList<String> notifications = FXCollections.observableArrayList();
+    private volatile User loggedUser;
 
     /**
      * Inizializza lo stato applicativo creando le liste osservabili di utenti e issue.
@@ -33,6 +47,8 @@ public class AppState {
     public AppState() {
         this.users = FXCollections.observableArrayList();
         this.issues = FXCollections.observableArrayList();
+        this.issueSearchIndex = new IssueSearchIndex(issues);
+        this.issueAttributeIndex = new IssueAttributeIndex(issues);
     }
 
     /**
@@ -53,6 +69,52 @@ public class AppState {
         return issues;
     }
 
+    /**
+     * Restituisce l'indice di ricerca testuale sulle issue di {@link #getIssues()}.
+     * <p>
+     * L'indice è registrato sulla lista prima di qualunque vista, quindi è già aggiornato quando le viste
+     * derivate (es. {@code FilteredList}) ricevono un evento di cambiamento.
+     * </p>
+     *
+     * @return indice di ricerca delle issue
+     */
+    public IssueSearchIndex getIssueSearchIndex() {
+        return issueSearchIndex;
+    }
+
+    /**
+     * Restituisce gli indici per tipo, priorità e stato delle issue di {@link #getIssues()}.
+     *
+     * @return indici secondari delle issue, aggiornati automaticamente con la lista
+     */
+    public IssueAttributeIndex getIssueAttributeIndex() {
+        return issueAttributeIndex;
+    }
+
+    /**
+     * Avanzamento dell'upload di allegati in corso, da 0 a 1, oppure {@link #NO_UPLOAD}.
+     * <p>
+     * Va modificata solo nel JavaFX Application Thread, perché può essere collegata alla UI.
+     * </p>
+     *
+     * @return proprietà dell'avanzamento dell'upload
+     */
+    public DoubleProperty uploadProgressProperty() {
+        return uploadProgress;
+    }
+
+    /**
+     * Avvisi in attesa di essere mostrati all'utente (es. una issue o un commento che il server non ha accettato).
+     * <p>
+     * La vista che li mostra li rimuove dalla lista; va modificata solo nel JavaFX Application Thread.
+     * </p>
+     *
+     * @return lista osservabile degli avvisi
+     */
+    public ObservableList<String> getNotifications() {
+        return notifications;
+    }
+
     /**
      * Restituisce l'utente attualmente loggato.
      *
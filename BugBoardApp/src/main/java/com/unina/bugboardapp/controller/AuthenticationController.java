@@ -1,6 +1,7 @@
 package com.unina.bugboardapp.controller;
 
 import com.unina.bugboardapp.exception.AuthenticationException;
+import com.unina.bugboardapp.manager.TaskManager;
 import com.unina.bugboardapp.model.User;
 import com.unina.bugboardapp.service.AuthService;
 
@@ -45,7 +46,10 @@ public class AuthenticationController {
      *   <li>valida che {@code email} e {@code password} non siano null/vuoti</li>
      *   <li>delega l'autenticazione a {@link AuthService#login(String, String)}</li>
      *   <li>se l'utente è restituito non-null, aggiorna {@link AppState#setLoggedUser(User)}</li>
-     *   <li>richiede {@link IssueController#refreshData()} per scaricare le issue post-login</li>
+     *   <li>ripristina in background l'ultimo stato salvato in locale, se abilitato, così che la tabella si
+     *       popoli subito, e scarica poi le issue post-login ({@link IssueController#restoreSnapshotAndRefresh()};
+     *       non in modalità paginata, dove la tabella scarica solo le pagine visibili: {@link PagedIssueList})</li>
+     *   <li>riprende gli upload di allegati rimasti incompleti ({@link IssueController#resumePendingUploads()})</li>
      * </ol>
      * </p>
      *
@@ -65,7 +69,10 @@ public class AuthenticationController {
 
             if (user != null) {
                 appState.setLoggedUser(user);
-                issueController.refreshData(); // Scarica i dati dopo il login
+                if (!PagedIssueList.isEnabled()) {
+                    issueController.restoreSnapshotAndRefresh(); // Scarica i dati dopo il login
+                }
+                issueController.resumePendingUploads();
                 logger.info("User logged in: " + user.getUsername() + " (" + user.getType() + ")");
                 return true;
             }
@@ -73,22 +80,41 @@ public class AuthenticationController {
             logger.log(Level.SEVERE, "Errore durante il login", e);
         } catch (Exception e1) {
             logger.log(Level.SEVERE, "Errore inaspettato durante il login", e1);
+            // Un errore dopo l'autenticazione non deve lasciare una sessione a metà
+            appState.setLoggedUser(null);
         }
         logger.warning("Login failed: Invalid email or password");
         return false;
     }
 
+    /**
+     * Avvia in background l'apertura della connessione verso il backend.
+     * <p>
+     * Pensato per essere invocato alla visualizzazione della schermata di login, così che
+     * la richiesta di autenticazione trovi la connessione già stabilita.
+     * </p>
+     */
+    public void warmUpConnection() {
+        authService.warmUpConnection();
+    }
+
     /**
      * Effettua il logout dell'utente corrente.
      * <p>
      * Se presente un utente nello stato applicativo, viene tracciato un log e lo stato viene aggiornato
-     * impostando {@code loggedUser} a {@code null}.
+     * impostando {@code loggedUser} a {@code null}. Le attività in background ancora in corso per la
+     * sessione vengono annullate tramite {@link TaskManager#cancelAll()}, il cursore di sincronizzazione
+     * delle issue viene scartato ({@link IssueController#resetSync()}) e la sessione lato client
+     * (token e cache delle risposte) viene chiusa tramite {@link AuthService#logout()}.
      * </p>
      */
     public void logout() {
+        TaskManager.getInstance().cancelAll();
+        issueController.resetSync();
         if (appState.getLoggedUser() != null) {
             logger.info("User logged out: " + appState.getLoggedUser().getUsername());
             appState.setLoggedUser(null);
         }
+        authService.logout();
     }
 }
\ No newline at end of file
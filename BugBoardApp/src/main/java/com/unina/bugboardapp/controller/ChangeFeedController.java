@@ -0,0 +1,141 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.service.ChangeFeed;
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Applica allo stato applicativo le modifiche ricevute in push dal {@link ChangeFeed}.
+ * <p>
+ * Quando il flusso di modifiche è abilitato ({@link ChangeFeed#isEnabled()}) sostituisce l'aggiornamento
+ * periodico:
+ * <ul>
+ *   <li>issue create o modificate vengono riconciliate per id con {@link AppState#getIssues()}
+ *       ({@link IssueReconciler#upsert(java.util.Collection)}), quelle eliminate rimosse;</li>
+ *   <li>i commenti vengono applicati alla issue di appartenenza indicata dall'evento;</li>
+ *   <li>se il flusso segnala eventi persi viene eseguita una sincronizzazione completa;</li>
+ *   <li>finché la connessione non è aperta (all'avvio o durante una riconnessione) resta attivo
+ *       {@link IssueRefreshScheduler}, che viene fermato non appena il flusso è connesso.</li>
+ * </ul>
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * Gli eventi arrivano dal thread del flusso e vengono applicati nel JavaFX Application Thread.
+ */
+public final class ChangeFeedController implements ChangeFeed.Listener {
+    private static final Logger logger = Logger.getLogger(ChangeFeedController.class.getName());
+
+    private final AppState appState;
+    private final IssueController issueController;
+    private final IssueRefreshScheduler fallback;
+    private final IssueReconciler reconciler;
+    private final ChangeFeed feed;
+
+    /**
+     * Crea il controller del flusso di modifiche.
+     *
+     * @param appState        stato applicativo da aggiornare
+     * @param issueController controller usato per le risincronizzazioni complete
+     * @param fallback        aggiornamento periodico da usare mentre il flusso non è connesso
+     */
+    public ChangeFeedController(AppState appState, IssueController issueController, IssueRefreshScheduler fallback) {
+        this.appState = appState;
+        this.issueController = issueController;
+        this.fallback = fallback;
+        this.reconciler = new IssueReconciler(appState.getIssues());
+        this.feed = new ChangeFeed(this);
+    }
+
+    /**
+     * Apre il flusso di modifiche (es. dopo il login); fino alla connessione resta attivo l'aggiornamento periodico.
+     */
+    public void start() {
+        fallback.start();
+        feed.start();
+    }
+
+    /**
+     * Chiude il flusso di modifiche (es. al logout).
+     */
+    public void stop() {
+        feed.stop();
+    }
+
+    /**
+     * @return contatori del flusso di modifiche
+     */
+    public ChangeFeed.Metrics getMetrics() {
+        return feed.getMetrics();
+    }
+
+    @Override
+    public void onEvent(ChangeFeed.ChangeEvent event) {
+        Platform.runLater(() -> {
+            switch (event.entity()) {
+                case ISSUE -> applyIssue(event);
+                case COMMENT -> applyComment(event);
+            }
+        });
+    }
+
+    @Override
+    public void onGap() {
+        logger.info("Eventi di modifica persi: sincronizzazione completa delle issue");
+        issueController.resetSync();
+        issueController.refreshData();
+    }
+
+    @Override
+    public void onConnectionChanged(boolean connected) {
+        if (connected) {
+            fallback.stop();
+        } else {
+            fallback.start();
+        }
+    }
+
+    private void applyIssue(ChangeFeed.ChangeEvent event) {
+        if (event.action() == ChangeFeed.Action.DELETED) {
+            if (event.id() != null) reconciler.remove(List.of(event.id()));
+        } else if (event.issue() != null && event.issue().getId() != null) {
+            reconciler.upsert(List.of(event.issue()));
+        }
+    }
+
+    /**
+     * Applica un evento di commento alla issue di appartenenza.
+     * <p>
+     * Un commento eliminato viene rimosso per id da qualunque issue lo contenga (l'evento di eliminazione
+     * non porta il payload); un commento creato o modificato sostituisce, per id, quello presente nella
+     * issue indicata da {@code appartieneId}. Gli eventi senza issue di appartenenza vengono ignorati.
+     * </p>
+     */
+    private void applyComment(ChangeFeed.ChangeEvent event) {
+        if (event.action() == ChangeFeed.Action.DELETED) {
+            if (event.id() == null) return;
+            for (Issue issue : appState.getIssues()) {
+                if (issue.getComments() != null && issue.getComments().removeIf(c -> Objects.equals(c.getId(), event.id()))) {
+                    return;
+                }
+            }
+            return;
+        }
+        Comment comment = event.comment();
+        if (comment == null || comment.getIssueId() == null) {
+            logger.fine("Evento di commento senza issue di appartenenza, ignorato");
+            return;
+        }
+        for (Issue issue : appState.getIssues()) {
+            if (!comment.getIssueId().equals(issue.getId())) continue;
+            List<Comment> comments = issue.getComments();
+            if (comments != null && event.id() != null) comments.removeIf(c -> Objects.equals(c.getId(), event.id()));
+            issue.addComment(comment);
+            return;
+        }
+    }
+}
@@ -4,9 +4,15 @@ import com.unina.bugboardapp.exception.CommentException;
 import com.unina.bugboardapp.model.Comment;
 import com.unina.bugboardapp.model.Issue;
 import com.unina.bugboardapp.service.CommentService;
+import com.unina.bugboardapp.service.OutboxJournal;
 import javafx.application.Platform;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -16,14 +22,14 @@ import java.util.logging.Logger;
  * <p>
  * Fornisce operazioni per:
  * <ul>
- *   <li>aggiungere un commento a una issue (con creazione lato backend e aggiornamento lato UI)</li>
+ *   <li>aggiungere un commento a una issue (con creazione lato backend e aggiornamento ottimistico lato UI)</li>
  *   <li>caricare i commenti di una issue dal backend</li>
  * </ul>
  * </p>
  *
  * <h2>Threading e UI</h2>
- * Le chiamate al backend vengono eseguite in un thread dedicato (tramite {@link Thread}) per non
- * bloccare la UI. Gli aggiornamenti del modello collegati alla UI vengono eseguiti nel JavaFX
+ * Le chiamate al backend usano le varianti asincrone di {@link CommentService}
+ * (basate su {@code CompletableFuture}) per non bloccare la UI. Gli aggiornamenti del modello collegati alla UI vengono eseguiti nel JavaFX
  * Application Thread tramite {@link Platform#runLater(Runnable)}.
  *
  * <h2>Stato applicativo</h2>
@@ -35,8 +41,14 @@ import java.util.logging.Logger;
  */
 public class CommentController {
     private static final Logger logger = Logger.getLogger(CommentController.class.getName());
+    /**
+     * Numero di commenti consegnati alla UI per ogni aggiornamento nel thread JavaFX.
+     */
+    private static final int COMMENT_BATCH_SIZE = 20;
     private final CommentService commentService;
     private final AppState appState;
+    private final OutboxController outbox;
+    private final OptimisticUpdates optimistic;
 
     /**
      * Crea un {@code CommentController} associato allo stato applicativo fornito.
@@ -44,65 +56,127 @@ public class CommentController {
      * @param appState stato applicativo da cui leggere l'utente loggato e lo stato di login
      */
     public CommentController(AppState appState) {
+        this(appState, null);
+    }
+
+    /**
+     * Crea un {@code CommentController} che, se la coda è attiva, accoda i nuovi commenti nella coda
+     * persistente delle scritture invece di inviarli direttamente.
+     *
+     * @param appState stato applicativo da cui leggere l'utente loggato e lo stato di login
+     * @param outbox   coda persistente delle scritture, o {@code null}
+     */
+    public CommentController(AppState appState, OutboxController outbox) {
         this.appState = appState;
         this.commentService = new CommentService();
+        this.outbox = outbox;
+        this.optimistic = new OptimisticUpdates(appState);
     }
 
     /**
      * Aggiunge un commento a una {@link Issue}.
      * <p>
+     * Equivale a {@link #addComment(Issue, String, Consumer, Consumer, Runnable)} senza le callback
+     * dell'aggiornamento ottimistico.
+     * </p>
+     *
+     * @param issue     issue a cui associare il commento (non {@code null})
+     * @param content   testo del commento (non {@code null} e non blank)
+     * @param onSuccess callback opzionale invocata (nel JavaFX Application Thread) con il commento creato
+     * @throws IllegalStateException    se non c'è un utente loggato
+     * @throws IllegalArgumentException se {@code issue} è {@code null} oppure {@code content} non è valido
+     */
+    public void addComment(Issue issue, String content, Consumer<Comment> onSuccess) {
+        addComment(issue, content, null, onSuccess, null);
+    }
+
+    /**
+     * Aggiunge un commento a una {@link Issue}, mostrandolo subito come provvisorio.
+     * <p>
      * Esegue le seguenti validazioni:
      * <ul>
      *   <li>l'utente deve essere loggato ({@link AppState#isLoggedIn()})</li>
-     *   <li>{@code issue} non deve essere {@code null}</li>
+     *   <li>{@code issue} non deve essere {@code null} né provvisoria ({@link OptimisticUpdates#isProvisional(Issue)})</li>
      *   <li>{@code content} non deve essere {@code null} né vuoto/blank</li>
      * </ul>
      * </p>
      *
      * <p>
-     * La creazione effettiva avviene in background tramite {@link CommentService#createComment(Comment)}.
-     * In caso di successo, il commento creato viene aggiunto alla issue (es. {@code issue.addComment(...)})
-     * nel thread JavaFX e, se presente, viene invocata la callback {@code onSuccess}.
+     * Il commento viene aggiunto subito alla issue come provvisorio ({@link OptimisticUpdates}) e passato a
+     * {@code onPending}. La creazione effettiva avviene in modo asincrono tramite
+     * {@link CommentService#createCommentAsync(Comment)}, senza occupare un thread in attesa della risposta.
+     * In caso di successo, nel thread JavaFX il commento provvisorio viene sostituito da quello creato e viene
+     * invocata {@code onSuccess}; in caso di errore viene rimosso, l'utente viene avvisato e viene invocata
+     * {@code onFailure}.
+     * Se la coda persistente delle scritture è attiva ({@link OutboxController#isActive()}) il commento
+     * viene invece registrato su disco e inviato in background, anche dopo un riavvio.
      * </p>
      *
      * @param issue     issue a cui associare il commento (non {@code null})
      * @param content   testo del commento (non {@code null} e non blank)
+     * @param onPending callback opzionale invocata subito con il commento provvisorio
      * @param onSuccess callback opzionale invocata (nel JavaFX Application Thread) con il commento creato
+     * @param onFailure callback opzionale invocata (nel JavaFX Application Thread) se la creazione fallisce
      * @throws IllegalStateException    se non c'è un utente loggato
-     * @throws IllegalArgumentException se {@code issue} è {@code null} oppure {@code content} non è valido
+     * @throws IllegalArgumentException se {@code issue} è {@code null} o provvisoria oppure {@code content}
+     *                                  non è valido
      */
-    public void addComment(Issue issue, String content, Consumer<Comment> onSuccess) {
+    public void addComment(Issue issue, String content, Consumer<Comment> onPending,
+                           Consumer<Comment> onSuccess, Runnable onFailure) {
         if (!appState.isLoggedIn()) {
             throw new IllegalStateException("User must be logged in to add comments");
         }
         if (issue == null) throw new IllegalArgumentException("Issue cannot be null");
+        if (OptimisticUpdates.isProvisional(issue)) throw new IllegalArgumentException("Issue has not been created yet");
         if (content == null || content.trim().isEmpty()) throw new IllegalArgumentException("Comment content cannot be empty");
 
         Comment newComment = new Comment(appState.getLoggedUser(), content.trim(), issue.getId());
-        new Thread(() -> {
+        Comment provisional = optimistic.insertComment(issue,
+                new Comment(appState.getLoggedUser(), content.trim(), issue.getId()));
+        if (onPending != null) onPending.accept(provisional);
+        Consumer<Comment> confirm = createdComment -> {
+            optimistic.confirmComment(issue, provisional, createdComment);
+            logger.info("Commento creato su server e UI");
+            if (onSuccess != null) onSuccess.accept(createdComment);
+        };
+        Runnable rollback = () -> {
+            optimistic.rollbackComment(issue, provisional);
+            if (onFailure != null) onFailure.run();
+        };
+
+        if (outbox != null && outbox.isActive()) {
             try {
-                Comment createdComment = commentService.createComment(newComment);
-                Platform.runLater(() -> {
-                    if (createdComment != null) {
-                        issue.addComment(createdComment);
-                        logger.info("Commento creato su server e UI");
-                        if (onSuccess != null) onSuccess.accept(createdComment);
-                    }
-                });
-            } catch (CommentException e) {
-                logger.log(Level.SEVERE, "Errore durante la creazione del commento", e);
-            } catch (Exception e1) {
-                logger.log(Level.SEVERE, "Errore inaspettato durante la creazione del commento", e1);
+                outbox.enqueueComment(OutboxJournal.Operation.comment(issue.getId(), content.trim()), confirm, rollback);
+                logger.info("Commento accodato per l'invio");
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Impossibile accodare il commento", e);
+                rollback.run();
             }
-        }).start();
+            return;
+        }
+
+        commentService.createCommentAsync(newComment).whenComplete((createdComment, error) -> {
+            if (error != null) {
+                logger.log(Level.SEVERE, "Errore durante la creazione del commento", unwrap(error));
+                Platform.runLater(rollback);
+                return;
+            }
+            Platform.runLater(() -> {
+                if (createdComment != null) {
+                    confirm.accept(createdComment);
+                } else {
+                    rollback.run();
+                }
+            });
+        });
     }
 
     /**
      * Carica dal backend i commenti associati a una {@link Issue} e li imposta sul modello.
      * <p>
-     * L'operazione viene eseguita in background tramite {@link CommentService#getCommentsByIssueId(Integer)}.
-     * Al termine, nel JavaFX Application Thread, se la lista ottenuta è non {@code null}, viene invocato
-     * {@code issue.setComments(comments)} per aggiornare i commenti della issue.
+     * Equivale a {@link #loadCommentsForIssue(Issue, Consumer, Runnable, Consumer)} senza callback:
+     * al termine, nel JavaFX Application Thread, i commenti ottenuti vengono impostati sulla issue
+     * tramite {@code issue.setComments(comments)}.
      * </p>
      *
      * <p><strong>Nota:</strong> questo metodo assume che {@code issue} sia non {@code null} e che
@@ -111,19 +185,93 @@ public class CommentController {
      * @param issue issue per cui caricare i commenti
      */
     public void loadCommentsForIssue(Issue issue) {
-        new Thread(() -> {
-            try {
-                List<Comment> comments = commentService.getCommentsByIssueId(issue.getId());
-                Platform.runLater(() -> {
-                    if (comments != null) {
-                        issue.setComments(comments);
-                    }
-                });
-            } catch (CommentException e) {
-                logger.log(Level.SEVERE, "Errore durante il caricamento dei commenti", e);
-            } catch (Exception e1) {
-                logger.log(Level.SEVERE, "Errore inaspettato durante il caricamento dei commenti", e1);
+        loadCommentsForIssue(issue, null, null, null);
+    }
+
+    /**
+     * Carica in background i commenti di una {@link Issue} consegnandoli alla UI a blocchi.
+     * <p>
+     * La richiesta viene eseguita in modo asincrono tramite {@link CommentService#getCommentsByIssueIdAsync(Integer)}:
+     * nessun thread resta bloccato in attesa della risposta, per cui più caricamenti concorrenti condividono
+     * i pochi thread del client HTTP. I commenti ottenuti vengono poi pubblicati nel thread JavaFX in blocchi
+     * di {@link #COMMENT_BATCH_SIZE} elementi (un {@link Platform#runLater(Runnable)} per blocco), così che
+     * anche liste lunghe vengano renderizzate progressivamente senza congelare la UI.
+     * </p>
+     *
+     * <p>
+     * Il {@link Future} restituito consente di annullare il caricamento (es. alla chiusura della finestra):
+     * dopo {@code cancel(true)} la richiesta HTTP in corso viene annullata e nessuna callback viene più invocata.
+     * </p>
+     *
+     * @param issue      issue per cui caricare i commenti (non {@code null})
+     * @param onBatch    callback opzionale invocata (nel thread JavaFX) per ogni blocco di commenti
+     * @param onComplete callback opzionale invocata (nel thread JavaFX) dopo l'ultimo blocco
+     * @param onError    callback opzionale invocata (nel thread JavaFX) in caso di errore
+     * @return handle del caricamento, utilizzabile per annullarlo
+     * @throws IllegalArgumentException se {@code issue} è {@code null}
+     */
+    public Future<?> loadCommentsForIssue(Issue issue, Consumer<List<Comment>> onBatch,
+                                          Runnable onComplete, Consumer<Exception> onError) {
+        if (issue == null) throw new IllegalArgumentException("Issue cannot be null");
+
+        CompletableFuture<List<Comment>> request = commentService.getCommentsByIssueIdAsync(issue.getId());
+        request.whenComplete((comments, error) -> {
+            if (error == null) {
+                publishComments(issue, comments, request, onBatch, onComplete);
+            } else {
+                notifyLoadError(request, unwrap(error), onError);
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Pubblica nel thread JavaFX i commenti caricati, suddivisi in blocchi.
+     * <p>
+     * Ogni blocco viene consegnato solo se il caricamento non è stato annullato nel frattempo.
+     * L'ultimo passo imposta i commenti sulla issue, mantenendo in coda quelli provvisori aggiunti durante
+     * il caricamento ({@link OptimisticUpdates#isProvisional(Comment)}), e invoca {@code onComplete}.
+     * </p>
+     */
+    private void publishComments(Issue issue, List<Comment> comments, Future<?> handle,
+                                 Consumer<List<Comment>> onBatch, Runnable onComplete) {
+        List<Comment> loaded = comments != null ? comments : List.of();
+        for (int from = 0; from < loaded.size(); from += COMMENT_BATCH_SIZE) {
+            List<Comment> batch = List.copyOf(loaded.subList(from, Math.min(from + COMMENT_BATCH_SIZE, loaded.size())));
+            Platform.runLater(() -> {
+                if (!handle.isCancelled() && onBatch != null) onBatch.accept(batch);
+            });
+        }
+        Platform.runLater(() -> {
+            if (handle.isCancelled()) return;
+            List<Comment> merged = new ArrayList<>(loaded);
+            if (issue.getComments() != null) {
+                issue.getComments().stream().filter(OptimisticUpdates::isProvisional).forEach(merged::add);
             }
-        }).start();
+            issue.setComments(merged);
+            if (onComplete != null) onComplete.run();
+        });
+    }
+
+    /**
+     * Registra un errore di caricamento e, se il caricamento non è stato annullato, lo notifica alla UI.
+     */
+    private void notifyLoadError(Future<?> handle, Exception e, Consumer<Exception> onError) {
+        if (handle.isCancelled()) {
+            logger.fine("Caricamento dei commenti annullato");
+            return;
+        }
+        logger.log(Level.SEVERE, "Errore durante il caricamento dei commenti", e);
+        Platform.runLater(() -> {
+            if (!handle.isCancelled() && onError != null) onError.accept(e);
+        });
+    }
+
+    /**
+     * Estrae l'eccezione effettiva da un errore ricevuto da un {@link CompletableFuture}.
+     */
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof Exception exception ? exception : new CommentException(cause.getMessage(), cause);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import com.unina.bugboardapp.model.enums.Priority;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Indici secondari delle {@link Issue} per tipo, priorità e stato.
+ * <p>
+ * Per ogni valore di {@link IssueType}, {@link Priority} e {@link IssueState} mantiene l'insieme degli id
+ * delle issue corrispondenti ({@link EnumMap} di insiemi di id), aggiornato in modo incrementale dagli eventi
+ * di cambiamento della lista. Su questi indici sono costruite viste filtrate <strong>vive</strong> e
+ * memorizzate: la prima richiesta di una vista costa O(N), le successive la riutilizzano e la vista si
+ * aggiorna da sola insieme alla lista, senza copie.
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * La lista indicizzata e le viste vanno usate nel JavaFX Application Thread.
+ */
+public class IssueAttributeIndex {
+
+    private final ObservableList<Issue> issues;
+    private final ObservableList<Issue> allView;
+    private final Attribute<IssueType> byType = new Attribute<>(IssueType.class, Issue::getType);
+    private final Attribute<Priority> byPriority = new Attribute<>(Priority.class, Issue::getPriority);
+    private final Attribute<IssueState> byState = new Attribute<>(IssueState.class, Issue::getState);
+
+    /**
+     * Crea gli indici e li collega alla lista indicata, indicizzando le issue già presenti.
+     * <p>
+     * Va creato prima di qualunque vista sulla lista, così che gli indici siano aggiornati quando le viste
+     * ricevono un evento di cambiamento.
+     * </p>
+     *
+     * @param issues lista osservabile da indicizzare (tipicamente {@link AppState#getIssues()})
+     */
+    public IssueAttributeIndex(ObservableList<Issue> issues) {
+        this.issues = issues;
+        this.allView = FXCollections.unmodifiableObservableList(issues);
+        issues.forEach(this::add);
+        issues.addListener((ListChangeListener<Issue>) this::onChanged);
+    }
+
+    /**
+     * Restituisce la vista viva delle issue del tipo indicato.
+     *
+     * @param type tipo richiesto; se {@code null} viene restituita la vista non modificabile di tutte le issue
+     * @return vista non modificabile, aggiornata automaticamente
+     */
+    public ObservableList<Issue> viewOf(IssueType type) {
+        return type == null ? allView : byType.view(type);
+    }
+
+    /**
+     * Restituisce la vista viva delle issue con la priorità indicata.
+     *
+     * @param priority priorità richiesta; se {@code null} viene restituita la vista di tutte le issue
+     * @return vista non modificabile, aggiornata automaticamente
+     */
+    public ObservableList<Issue> viewOf(Priority priority) {
+        return priority == null ? allView : byPriority.view(priority);
+    }
+
+    /**
+     * Restituisce la vista viva delle issue nello stato indicato.
+     *
+     * @param state stato richiesto; se {@code null} viene restituita la vista di tutte le issue
+     * @return vista non modificabile, aggiornata automaticamente
+     */
+    public ObservableList<Issue> viewOf(IssueState state) {
+        return state == null ? allView : byState.view(state);
+    }
+
+    /**
+     * @param type tipo richiesto
+     * @return id delle issue del tipo indicato (insieme non modificabile, aggiornato con la lista)
+     */
+    public Set<Integer> idsOf(IssueType type) {
+        return byType.ids(type);
+    }
+
+    /**
+     * @param priority priorità richiesta
+     * @return id delle issue con la priorità indicata (insieme non modificabile, aggiornato con la lista)
+     */
+    public Set<Integer> idsOf(Priority priority) {
+        return byPriority.ids(priority);
+    }
+
+    /**
+     * @param state stato richiesto
+     * @return id delle issue nello stato indicato (insieme non modificabile, aggiornato con la lista)
+     */
+    public Set<Integer> idsOf(IssueState state) {
+        return byState.ids(state);
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends Issue> change) {
+        while (change.next()) {
+            if (change.wasPermutated()) continue;
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    Issue issue = change.getList().get(i);
+                    remove(issue);
+                    add(issue);
+                }
+                continue;
+            }
+            change.getRemoved().forEach(this::remove);
+            change.getAddedSubList().forEach(this::add);
+        }
+    }
+
+    private void add(Issue issue) {
+        if (issue.getId() == null) return;
+        byType.add(issue);
+        byPriority.add(issue);
+        byState.add(issue);
+    }
+
+    private void remove(Issue issue) {
+        if (issue.getId() == null) return;
+        byType.remove(issue);
+        byPriority.remove(issue);
+        byState.remove(issue);
+    }
+
+    /**
+     * Indice di un singolo attributo enumerato: valore &rarr; id delle issue, più le viste memorizzate.
+     */
+    private final class Attribute<E extends Enum<E>> {
+        private final Function<Issue, E> getter;
+        private final Map<E, Set<Integer>> ids;
+        private final Map<E, ObservableList<Issue>> views;
+
+        private Attribute(Class<E> type, Function<Issue, E> getter) {
+            this.getter = getter;
+            this.ids = new EnumMap<>(type);
+            this.views = new EnumMap<>(type);
+            for (E value : type.getEnumConstants()) {
+                ids.put(value, new HashSet<>());
+            }
+        }
+
+        private void add(Issue issue) {
+            E value = getter.apply(issue);
+            if (value != null) ids.get(value).add(issue.getId());
+        }
+
+        private void remove(Issue issue) {
+            E value = getter.apply(issue);
+            if (value != null) ids.get(value).remove(issue.getId());
+        }
+
+        private Set<Integer> ids(E value) {
+            return Collections.unmodifiableSet(ids.get(value));
+        }
+
+        private ObservableList<Issue> view(E value) {
+            return views.computeIfAbsent(value, key -> {
+                Set<Integer> keyIds = ids.get(key);
+                return new FilteredList<>(issues, issue -> issue.getId() != null
+                        ? keyIds.contains(issue.getId())
+                        : getter.apply(issue) == key);
+            });
+        }
+    }
+}
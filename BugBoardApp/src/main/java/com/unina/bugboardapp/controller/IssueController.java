@@ -1,16 +1,33 @@
 package com.unina.bugboardapp.controller;
 
 import com.unina.bugboardapp.exception.IssueException;
+import com.unina.bugboardapp.manager.TaskManager;
+import com.unina.bugboardapp.model.Comment;
 import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
 import com.unina.bugboardapp.model.enums.IssueState;
 import com.unina.bugboardapp.model.enums.IssueType;
 import com.unina.bugboardapp.model.enums.Priority;
+import com.unina.bugboardapp.service.ApiClient;
+import com.unina.bugboardapp.service.ChunkedUploader;
 import com.unina.bugboardapp.service.IssueService;
+import com.unina.bugboardapp.service.OutboxJournal;
+import com.unina.bugboardapp.service.SnapshotStore;
+import com.unina.bugboardapp.service.TransferStats;
+import com.unina.bugboardapp.service.UploadProgressListener;
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -20,14 +37,15 @@ import java.util.stream.Collectors;
  * <p>
  * Incapsula la logica di:
  * <ul>
- *   <li>sincronizzazione delle issue dal backend nello stato applicativo ({@link AppState})</li>
+ *   <li>sincronizzazione delle issue dal backend nello stato applicativo ({@link AppState}), completa
+ *       o incrementale</li>
  *   <li>creazione di nuove issue (con validazione input e aggiornamento della lista UI-bound)</li>
- *   <li>ottenimento di viste filtrate delle issue (per tipo, priorità e stato)</li>
+ *   <li>ottenimento di viste filtrate e vive delle issue (per tipo, priorità e stato)</li>
  * </ul>
  * </p>
  *
  * <h2>Threading e UI</h2>
- * Le operazioni di rete verso il backend vengono eseguite in background tramite {@link Thread}
+ * Le operazioni di rete verso il backend vengono eseguite in background tramite {@link TaskManager}
  * per evitare il blocco della UI. Le modifiche a strutture osservabili usate dalla UI
  * vengono effettuate nel JavaFX Application Thread mediante {@link Platform#runLater(Runnable)}.
  *
@@ -37,8 +55,56 @@ import java.util.stream.Collectors;
  */
 public class IssueController {
     private static final Logger logger = Logger.getLogger(IssueController.class.getName());
+    /**
+     * Numero di issue deserializzate e consegnate alla UI per ogni lotto durante il refresh.
+     */
+    private static final int ISSUE_BATCH_SIZE = 500;
+    /**
+     * Numero massimo di lotti in attesa di essere applicati nel thread JavaFX.
+     */
+    private static final int MAX_PENDING_BATCHES = 2;
+    /**
+     * Intervallo massimo tra due sincronizzazioni complete, che rilevano anche le issue eliminate.
+     */
+    private static final Duration FULL_SYNC_INTERVAL =
+            Duration.ofMinutes(Long.getLong("bugboard.issues.fullSyncMinutes", 30));
+    /**
+     * Anticipo del cursore rispetto all'istante di inizio, per tollerare differenze di orologio.
+     */
+    private static final Duration CURSOR_OVERLAP =
+            Duration.ofSeconds(Long.getLong("bugboard.issues.syncOverlapSeconds", 120));
     private final IssueService issueService;
     private final AppState appState;
+    private final IssueReconciler reconciler;
+    private final SnapshotStore snapshotStore;
+    private final OutboxController outbox;
+    private final OptimisticUpdates optimistic;
+    private volatile String syncCursor;
+    private volatile long lastFullSyncMillis;
+    private volatile SyncMetrics lastSync;
+    private long lastSnapshotMillis;
+    private Future<?> inFlightSync;
+    /**
+     * Generazione delle sincronizzazioni, incrementata da {@link #resetSync()}: i lotti e i cursori di una
+     * sincronizzazione avviata prima di un logout vengono scartati.
+     */
+    private final AtomicLong syncGeneration = new AtomicLong();
+
+    /**
+     * Metriche di un ciclo di sincronizzazione.
+     * <p>
+     * I byte sono ricavati da {@link TransferStats}, che conta tutto il traffico del client: con altre
+     * richieste concorrenti il valore è un'approssimazione per eccesso.
+     * </p>
+     *
+     * @param full           {@code true} per una sincronizzazione completa, {@code false} per una incrementale
+     * @param received       issue ricevute (0 se la risposta era {@code 304 Not Modified})
+     * @param wireBytes      byte ricevuti in rete
+     * @param decodedBytes   byte ricevuti dopo l'eventuale decompressione
+     * @param durationMillis durata del ciclo, in millisecondi
+     */
+    public record SyncMetrics(boolean full, int received, long wireBytes, long decodedBytes, long durationMillis) {
+    }
 
     /**
      * Crea un {@code IssueController} associato allo stato applicativo fornito.
@@ -46,43 +112,341 @@ public class IssueController {
      * @param appState stato applicativo che contiene la lista osservabile delle issue e l'utente loggato
      */
     public IssueController(AppState appState) {
+        this(appState, null);
+    }
+
+    /**
+     * Crea un {@code IssueController} che, se la coda è attiva, accoda le creazioni nella coda
+     * persistente delle scritture invece di inviarle direttamente.
+     *
+     * @param appState stato applicativo che contiene la lista osservabile delle issue e l'utente loggato
+     * @param outbox   coda persistente delle scritture, o {@code null}
+     */
+    public IssueController(AppState appState, OutboxController outbox) {
         this.appState = appState;
         this.issueService = new IssueService();
+        this.reconciler = new IssueReconciler(appState.getIssues());
+        this.snapshotStore = new SnapshotStore();
+        this.outbox = outbox;
+        this.optimistic = new OptimisticUpdates(appState);
+    }
+
+    /**
+     * Aggiorna l'elenco delle issue dal backend, con una sincronizzazione completa o incrementale.
+     * <p>
+     * Se la sincronizzazione incrementale è abilitata ({@link #isDeltaSyncEnabled()}), esiste un cursore
+     * dell'ultima sincronizzazione e l'ultima riconciliazione completa risale a meno di
+     * {@code bugboard.issues.fullSyncMinutes} minuti (default 30), vengono scaricate solo le issue modificate
+     * ({@link #deltaSync()}). Altrimenti viene eseguita la sincronizzazione completa ({@link #fullSync()}),
+     * l'unica che rileva anche le issue eliminate.
+     * </p>
+     *
+     * <p>
+     * Le metriche dell'ultimo ciclo (tipo, issue ricevute, byte trasferiti, durata) sono disponibili in
+     * {@link #getLastSyncMetrics()}. In caso di errore, l'eccezione viene registrata nel {@link Logger}.
+     * Il metodo non lancia eccezioni verso il chiamante.
+     * </p>
+     *
+     * <p>
+     * Le sincronizzazioni non si sovrappongono: se ne è già in corso una (es. avviata da
+     * {@link IssueRefreshScheduler}), viene restituito il suo handle invece di avviarne un'altra.
+     * </p>
+     *
+     * @return handle dell'attività in background
+     */
+    public synchronized Future<?> refreshData() {
+        if (inFlightSync != null && !inFlightSync.isDone()) {
+            return inFlightSync;
+        }
+        if (isDeltaSyncEnabled() && syncCursor != null
+                && System.currentTimeMillis() - lastFullSyncMillis < FULL_SYNC_INTERVAL.toMillis()) {
+            inFlightSync = deltaSync();
+        } else {
+            inFlightSync = fullSync();
+        }
+        return inFlightSync;
+    }
+
+    /**
+     * Indica se la sincronizzazione incrementale è abilitata ({@code bugboard.issues.deltaSync=true}).
+     *
+     * @return {@code true} se la sincronizzazione incrementale è abilitata
+     */
+    public static boolean isDeltaSyncEnabled() {
+        return Boolean.getBoolean("bugboard.issues.deltaSync");
+    }
+
+    /**
+     * Dimentica il cursore di sincronizzazione (es. al logout): il refresh successivo sarà completo.
+     */
+    public void resetSync() {
+        syncGeneration.incrementAndGet();
+        syncCursor = null;
+        lastFullSyncMillis = 0;
+        lastSnapshotMillis = 0;
+    }
+
+    /**
+     * Ripristina issue, commenti e utenti dallo snapshot locale dell'utente loggato (es. subito dopo il login),
+     * così che la tabella si popoli senza attendere il backend, e avvia poi {@link #refreshData()}.
+     * <p>
+     * Il ripristino è attivo solo se l'archivio locale è abilitato ({@link SnapshotStore#isEnabled()}); altrimenti
+     * viene avviato subito il refresh. Il file viene letto in background tramite {@link TaskManager}, senza
+     * bloccare il thread chiamante; la lista viene aggiornata nel JavaFX Application Thread. Insieme ai dati
+     * viene ripristinato il cursore di sincronizzazione: il refresh, avviato al termine della lettura, può così
+     * essere incrementale e i suoi lotti vengono applicati dopo il contenuto dello snapshot.
+     * </p>
+     *
+     * @return handle dell'attività in background (lettura dello snapshot e avvio del refresh)
+     */
+    public Future<?> restoreSnapshotAndRefresh() {
+        User user = appState.getLoggedUser();
+        if (!SnapshotStore.isEnabled() || user == null) return refreshData();
+        return TaskManager.getInstance().submit(TaskManager.Category.BACKGROUND, "restore-snapshot", () -> {
+            try {
+                restoreSnapshot(user);
+            } finally {
+                if (appState.getLoggedUser() == user) refreshData();
+            }
+        });
+    }
+
+    private void restoreSnapshot(User user) {
+        long start = System.nanoTime();
+        SnapshotStore.Snapshot snapshot = snapshotStore.load(user.getUsername());
+        if (snapshot == null || appState.getLoggedUser() != user) return;
+        syncCursor = snapshot.syncCursor();
+        lastFullSyncMillis = snapshot.lastFullSyncMillis();
+        Platform.runLater(() -> {
+            // Logout avvenuto durante la lettura: lo snapshot non va mostrato
+            if (appState.getLoggedUser() != user) return;
+            appState.getIssues().setAll(snapshot.issues());
+            if (!snapshot.users().isEmpty()) appState.getUsers().setAll(snapshot.users());
+            logger.info(() -> "Snapshot locale ripristinato: " + snapshot.issues().size() + " issue del "
+                    + snapshot.savedAt() + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        });
+    }
+
+    /**
+     * Salva in background lo stato corrente nello snapshot locale dell'utente loggato.
+     * <p>
+     * Va invocato nel JavaFX Application Thread, dove vengono copiate la lista delle issue e le liste dei
+     * loro commenti ({@link #snapshotCopy(Issue)}), che il thread JavaFX continua a modificare mentre il
+     * salvataggio procede in background; non ha effetto se l'archivio
+     * locale non è abilitato. Dopo una sincronizzazione senza modifiche lo snapshot viene riscritto solo se
+     * più vecchio di {@code bugboard.issues.fullSyncMinutes} minuti ({@link #snapshotOutdated()}), per
+     * aggiornarne il cursore senza scrivere su disco ad ogni ciclo.
+     * </p>
+     */
+    private void saveSnapshot() {
+        User user = appState.getLoggedUser();
+        if (!SnapshotStore.isEnabled() || user == null) return;
+        lastSnapshotMillis = System.currentTimeMillis();
+        SnapshotStore.Snapshot snapshot = new SnapshotStore.Snapshot(Instant.now(), lastFullSyncMillis, syncCursor,
+                appState.getIssues().stream()
+                        .filter(issue -> !OptimisticUpdates.isProvisional(issue))
+                        .map(IssueController::snapshotCopy)
+                        .toList(),
+                List.copyOf(appState.getUsers()));
+        TaskManager.getInstance().submit(TaskManager.Category.BACKGROUND, "save-snapshot", () -> {
+            try {
+                snapshotStore.save(user.getUsername(), snapshot);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Impossibile salvare lo snapshot locale", e);
+            }
+        });
     }
 
     /**
-     * Aggiorna l'elenco delle issue scaricandole dal backend e sincronizzandole nello stato applicativo.
+     * Copia della issue per lo snapshot, con una lista dei commenti propria (senza quelli provvisori).
+     */
+    private static Issue snapshotCopy(Issue issue) {
+        Issue copy = new Issue(issue.getType(), issue.getTitle(), issue.getDescription(), issue.getImagePath(),
+                issue.getState(), issue.getPriority(), issue.getReporter());
+        copy.setId(issue.getId());
+        List<Comment> comments = issue.getComments();
+        copy.setComments(comments == null ? null : comments.stream()
+                .filter(comment -> !OptimisticUpdates.isProvisional(comment))
+                .collect(Collectors.toCollection(ArrayList::new)));
+        return copy;
+    }
+
+    private boolean snapshotOutdated() {
+        return System.currentTimeMillis() - lastSnapshotMillis > FULL_SYNC_INTERVAL.toMillis();
+    }
+
+    /**
+     * Restituisce le metriche dell'ultimo ciclo di sincronizzazione concluso con successo.
+     *
+     * @return metriche dell'ultimo ciclo, oppure {@code null} se nessuna sincronizzazione è stata completata
+     */
+    public SyncMetrics getLastSyncMetrics() {
+        return lastSync;
+    }
+
+    /**
+     * Sincronizzazione completa: scarica tutte le issue e le riconcilia con lo stato applicativo.
      * <p>
      * L'operazione:
      * <ol>
-     *   <li>avvia un thread in background</li>
-     *   <li>recupera le issue tramite {@link IssueService#fetchAllIssues()}</li>
-     *   <li>nel thread JavaFX svuota {@link AppState#getIssues()} e aggiunge le issue scaricate</li>
+     *   <li>avvia un'attività in background tramite {@link TaskManager}</li>
+     *   <li>legge le issue in streaming tramite {@link IssueService#streamAllIssues(int, java.util.function.Consumer)},
+     *       a lotti di {@link #ISSUE_BATCH_SIZE}</li>
+     *   <li>nel thread JavaFX riconcilia ogni lotto con {@link AppState#getIssues()} tramite
+     *       {@link IssueReconciler}, man mano che arriva, così che la tabella si popoli progressivamente</li>
+     *   <li>al termine rimuove le issue non più presenti sul backend</li>
      * </ol>
      * </p>
      *
      * <p>
-     * In caso di errore, l'eccezione viene registrata nel {@link Logger}. Il metodo non lancia
-     * eccezioni verso il chiamante.
+     * La riconciliazione per id applica solo inserimenti, aggiornamenti e rimozioni effettivi: un refresh
+     * senza modifiche non genera eventi sulla lista e la tabella conserva selezione e scorrimento.
+     * </p>
+     *
+     * <p>
+     * La lettura è condizionale: se il backend risponde {@code 304 Not Modified} la lista corrente è già
+     * aggiornata e nessuna riconciliazione viene eseguita.
+     * </p>
+     *
+     * <p>
+     * Al più {@link #MAX_PENDING_BATCHES} lotti possono essere in attesa del thread JavaFX: se la UI è più
+     * lenta della rete la lettura dallo stream viene sospesa, mantenendo limitata la memoria occupata
+     * indipendentemente dalla dimensione del payload. L'attesa è interrompibile: se l'attività viene annullata
+     * (es. {@link TaskManager#cancelAll()} al logout) la lettura si interrompe. I lotti arrivati dopo un
+     * {@link #resetSync()} non vengono applicati e la riconciliazione non viene conclusa.
+     * </p>
+     *
+     * <p>
+     * Al termine viene registrato il cursore per le sincronizzazioni incrementali successive: l'istante di
+     * inizio, anticipato di {@code bugboard.issues.syncOverlapSeconds} secondi (default 120) per tollerare
+     * differenze di orologio con il backend.
      * </p>
      */
-    public void refreshData() {
-        new Thread(() -> {
+    private Future<?> fullSync() {
+        return TaskManager.getInstance().submit(TaskManager.Category.NETWORK, "refresh-issues", () -> {
+            String cursor = Instant.now().minus(CURSOR_OVERLAP).toString();
+            long startedAt = System.nanoTime();
+            TransferStats.Snapshot before = ApiClient.getInstance().getTransferStats().snapshot();
+            long generation = syncGeneration.get();
+            Semaphore pendingBatches = new Semaphore(MAX_PENDING_BATCHES);
+            IssueReconciler.Session session = reconciler.begin();
             try {
-                List<Issue> realIssues = issueService.fetchAllIssues();
-                Platform.runLater(() -> {
-                    appState.getIssues().clear();
-                    if (realIssues != null) {
-                        appState.getIssues().addAll(realIssues);
+                int total = issueService.streamAllIssues(ISSUE_BATCH_SIZE, batch -> {
+                    try {
+                        pendingBatches.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Issue refresh interrupted");
+                    }
+                    if (syncGeneration.get() != generation) {
+                        pendingBatches.release();
+                        throw new CancellationException("Issue refresh superseded");
                     }
-                    logger.info("Dati aggiornati dal backend!");
+                    Platform.runLater(() -> {
+                        try {
+                            if (syncGeneration.get() == generation) session.apply(batch);
+                        } finally {
+                            pendingBatches.release();
+                        }
+                    });
+                });
+                if (syncGeneration.get() != generation) return;
+                syncCursor = cursor;
+                lastFullSyncMillis = System.currentTimeMillis();
+                if (total == IssueService.NOT_MODIFIED) {
+                    recordSync(true, 0, before, startedAt);
+                    logger.info("Issue invariate sul backend (304 Not Modified)");
+                    return;
+                }
+                SyncMetrics metrics = recordSync(true, total, before, startedAt);
+                Platform.runLater(() -> {
+                    // Logout avvenuto nel frattempo: la lista non va riconciliata con dati di un'altra sessione
+                    if (syncGeneration.get() != generation) return;
+                    IssueReconciler.ChangeSummary changes = session.finish();
+                    logger.info("Dati aggiornati dal backend! (" + total + " issue, " + changes + ", " + metrics + ")");
+                    if (!changes.isEmpty() || snapshotOutdated()) saveSnapshot();
                 });
             } catch (IssueException e) {
-                logger.warning("Impossibile scaricare le issue: " + e.getMessage());
+                if (Thread.currentThread().isInterrupted() || syncGeneration.get() != generation) {
+                    logger.fine("Download delle issue interrotto");
+                } else {
+                    logger.warning("Impossibile scaricare le issue: " + e.getMessage());
+                }
             } catch (Exception e1) {
                 logger.warning("Errore inaspettato durante il download dei dati: " + e1.getMessage());
             }
-        }).start();
+        });
+    }
+
+    /**
+     * Sincronizzazione incrementale: scarica solo le issue modificate dopo il cursore corrente
+     * ({@link IssueService#fetchIssuesModifiedSince(String)}) e le unisce per id allo stato applicativo
+     * ({@link IssueReconciler#upsert(java.util.Collection)}).
+     * <p>
+     * Il nuovo cursore è quello inviato dal backend, se presente, altrimenti l'istante di inizio anticipato
+     * come per {@link #fullSync()}: le issue ricevute due volte non generano modifiche. Se la richiesta
+     * fallisce il cursore viene scartato, così che il refresh successivo sia completo.
+     * </p>
+     */
+    private Future<?> deltaSync() {
+        return TaskManager.getInstance().submit(TaskManager.Category.NETWORK, "sync-issues", () -> {
+            String cursor = Instant.now().minus(CURSOR_OVERLAP).toString();
+            long startedAt = System.nanoTime();
+            TransferStats.Snapshot before = ApiClient.getInstance().getTransferStats().snapshot();
+            long generation = syncGeneration.get();
+            try {
+                IssueService.IssueDelta delta = issueService.fetchIssuesModifiedSince(syncCursor);
+                if (syncGeneration.get() != generation) return;
+                syncCursor = delta.cursor() != null ? delta.cursor() : cursor;
+                SyncMetrics metrics = recordSync(false, delta.issues().size(), before, startedAt);
+                if (delta.issues().isEmpty()) {
+                    logger.fine(() -> "Nessuna issue modificata (" + metrics + ")");
+                    return;
+                }
+                Platform.runLater(() -> {
+                    if (syncGeneration.get() != generation) return;
+                    IssueReconciler.ChangeSummary changes = reconciler.upsert(delta.issues());
+                    logger.info("Sincronizzazione incrementale: " + changes + ", " + metrics);
+                    if (!changes.isEmpty() || snapshotOutdated()) saveSnapshot();
+                });
+            } catch (IssueException e) {
+                if (syncGeneration.get() != generation) return;
+                syncCursor = null;
+                logger.warning("Sincronizzazione incrementale non riuscita: " + e.getMessage());
+            }
+        });
+    }
+
+    private SyncMetrics recordSync(boolean full, int received, TransferStats.Snapshot before, long startedAt) {
+        TransferStats.Snapshot after = ApiClient.getInstance().getTransferStats().snapshot();
+        SyncMetrics metrics = new SyncMetrics(full, received,
+                after.wireBytes() - before.wireBytes(), after.decodedBytes() - before.decodedBytes(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+        lastSync = metrics;
+        return metrics;
+    }
+
+    /**
+     * Riprende in background gli upload di allegati rimasti incompleti.
+     * <p>
+     * Attivo solo se gli upload a blocchi sono abilitati ({@link ChunkedUploader#isEnabled()}); gli
+     * allegati completati compariranno al refresh successivo delle issue. Eventuali errori vengono
+     * registrati nel {@link Logger}.
+     * </p>
+     */
+    public void resumePendingUploads() {
+        if (!ChunkedUploader.isEnabled()) return;
+        TaskManager.getInstance().submit(TaskManager.Category.NETWORK, "resume-uploads", () -> {
+            try {
+                int completed = issueService.resumePendingUploads();
+                if (completed > 0) {
+                    logger.info("Upload ripresi e completati: " + completed);
+                    refreshData();
+                }
+            } catch (IssueException e) {
+                logger.warning("Impossibile riprendere gli upload: " + e.getMessage());
+            }
+        });
     }
 
     /**
@@ -93,9 +457,21 @@ public class IssueController {
      * </p>
      *
      * <p>
-     * La richiesta di creazione viene eseguita in background tramite {@link IssueService#createIssue(Issue)}.
-     * In caso di successo, nel JavaFX Application Thread l'issue creata viene aggiunta a
-     * {@link AppState#getIssues()}.
+     * La richiesta di creazione viene eseguita in background tramite
+     * {@link IssueService#createIssue(Issue, UploadProgressListener)}; durante l'upload dell'immagine
+     * l'avanzamento è pubblicato in {@link AppState#uploadProgressProperty()}.
+     * </p>
+     *
+     * <p>
+     * La issue viene aggiunta subito a {@link AppState#getIssues()} come provvisoria ({@link OptimisticUpdates}):
+     * quando il server risponde viene sostituita da quella creata, con l'id definitivo; se la creazione
+     * fallisce viene rimossa e l'utente viene avvisato.
+     * </p>
+     *
+     * <p>
+     * Se la coda persistente delle scritture è attiva ({@link OutboxController#isActive()}) la creazione
+     * viene invece registrata su disco e inviata in background, anche dopo un riavvio se il backend non
+     * è raggiungibile; la issue provvisoria resta visibile finché il server non la crea o la rifiuta.
      * </p>
      *
      * @param title       titolo della issue (non {@code null} e non blank)
@@ -116,21 +492,69 @@ public class IssueController {
             newIssue.setImagePath(imagePath.trim());
         }
 
-        new Thread(() -> {
+        Issue provisional = optimistic.insertIssue(newIssue);
+        if (outbox != null && outbox.isActive()) {
+            enqueueIssue(provisional);
+            return;
+        }
+
+        boolean hasImage = newIssue.getImagePath() != null;
+        TaskManager.getInstance().submit(TaskManager.Category.NETWORK, "create-issue", () -> {
             try {
-                Issue createdIssue = issueService.createIssue(newIssue);
+                Issue createdIssue = issueService.createIssue(newIssue, hasImage ? uploadProgressListener() : null);
                 Platform.runLater(() -> {
                     if (createdIssue != null) {
-                        appState.getIssues().add(createdIssue);
+                        optimistic.confirmIssue(provisional, createdIssue);
                         logger.info("Issue creata su server e UI");
+                    } else {
+                        optimistic.rollbackIssue(provisional);
                     }
                 });
             } catch (IssueException e) {
                 logger.log(Level.SEVERE, "Errore durante la creazione della Issue", e);
+                Platform.runLater(() -> optimistic.rollbackIssue(provisional));
             } catch (Exception e1) {
                 logger.log(Level.SEVERE, "Errore inaspettato durante la creazione della Issue", e1);
+                Platform.runLater(() -> optimistic.rollbackIssue(provisional));
+            } finally {
+                if (hasImage) {
+                    Platform.runLater(() -> appState.uploadProgressProperty().set(AppState.NO_UPLOAD));
+                }
+            }
+        });
+    }
+
+    private void enqueueIssue(Issue provisional) {
+        try {
+            outbox.enqueueIssue(OutboxJournal.Operation.issue(provisional.getTitle(), provisional.getDescription(),
+                            provisional.getType(), provisional.getPriority(), provisional.getState(),
+                            provisional.getImagePath()),
+                    created -> optimistic.confirmIssue(provisional, created),
+                    () -> optimistic.rollbackIssue(provisional));
+            logger.info("Issue accodata per l'invio");
+        } catch (IOException e) {
+            logger.log(Level.SEVERE, "Impossibile accodare la creazione della Issue", e);
+            optimistic.rollbackIssue(provisional);
+        }
+    }
+
+    /**
+     * Crea un listener che riporta l'avanzamento dell'upload in {@link AppState#uploadProgressProperty()}.
+     * <p>
+     * Per non inondare il thread JavaFX, l'aggiornamento viene pubblicato solo quando l'avanzamento
+     * cresce di almeno un punto percentuale.
+     * </p>
+     */
+    private UploadProgressListener uploadProgressListener() {
+        AtomicInteger lastPercent = new AtomicInteger(-1);
+        return (sent, total) -> {
+            if (total <= 0) return;
+            int percent = (int) (sent * 100 / total);
+            if (percent > lastPercent.get()) {
+                lastPercent.set(percent);
+                Platform.runLater(() -> appState.uploadProgressProperty().set(percent / 100.0));
             }
-        }).start();
+        };
     }
 
     /**
@@ -163,53 +587,43 @@ public class IssueController {
     }
 
     /**
-     * Restituisce una lista osservabile di issue filtrate per {@link IssueType}.
+     * Restituisce la vista viva delle issue filtrate per {@link IssueType}.
      * <p>
-     * Se {@code type} è {@code null}, viene restituita una nuova lista contenente tutte le issue
-     * attualmente presenti nello stato (copia).
+     * La vista è costruita su {@link AppState#getIssueAttributeIndex()}, memorizzata e aggiornata
+     * automaticamente con {@link AppState#getIssues()}: chiamate successive non copiano la lista.
+     * Se {@code type} è {@code null}, viene restituita una vista non modificabile di tutte le issue.
      * </p>
      *
      * @param type tipo di issue per il filtro; se {@code null} non viene applicato alcun filtro
-     * @return lista osservabile con le issue filtrate per tipo
+     * @return lista osservabile non modificabile con le issue filtrate per tipo
      */
     public ObservableList<Issue> getIssuesFiltered(IssueType type) {
-        if (type == null) return FXCollections.observableArrayList(appState.getIssues());
-        return appState.getIssues().stream()
-                .filter(i -> i.getType() == type)
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
+        return appState.getIssueAttributeIndex().viewOf(type);
     }
 
     /**
-     * Restituisce una lista osservabile di issue filtrate per {@link Priority}.
+     * Restituisce la vista viva delle issue filtrate per {@link Priority}.
      * <p>
-     * Se {@code priority} è {@code null}, viene restituita una nuova lista contenente tutte le issue
-     * attualmente presenti nello stato (copia).
+     * Come {@link #getIssuesFiltered(IssueType)}, la vista è memorizzata e si aggiorna con la lista.
      * </p>
      *
      * @param priority priorità per il filtro; se {@code null} non viene applicato alcun filtro
-     * @return lista osservabile con le issue filtrate per priorità
+     * @return lista osservabile non modificabile con le issue filtrate per priorità
      */
     public ObservableList<Issue> getIssuesByPriority(Priority priority) {
-        if (priority == null) return FXCollections.observableArrayList(appState.getIssues());
-        return appState.getIssues().stream()
-                .filter(i -> i.getPriority() == priority)
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
+        return appState.getIssueAttributeIndex().viewOf(priority);
     }
 
     /**
-     * Restituisce una lista osservabile di issue filtrate per {@link IssueState}.
+     * Restituisce la vista viva delle issue filtrate per {@link IssueState}.
      * <p>
-     * Se {@code state} è {@code null}, viene restituita una nuova lista contenente tutte le issue
-     * attualmente presenti nello stato (copia).
+     * Come {@link #getIssuesFiltered(IssueType)}, la vista è memorizzata e si aggiorna con la lista.
      * </p>
      *
      * @param state stato per il filtro; se {@code null} non viene applicato alcun filtro
-     * @return lista osservabile con le issue filtrate per stato
+     * @return lista osservabile non modificabile con le issue filtrate per stato
      */
     public ObservableList<Issue> getIssuesByState(IssueState state) {
-        if (state == null) return FXCollections.observableArrayList(appState.getIssues());
-        return appState.getIssues().stream()
-                .filter(i -> i.getState() == state)
-                .collect(Collectors.toCollection(FXCollections::observableArrayList));
+        return appState.getIssueAttributeIndex().viewOf(state);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,220 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Issue;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Motore di riconciliazione delle {@link Issue} presenti in una {@link ObservableList}.
+ * <p>
+ * Invece di svuotare e ripopolare la lista ad ogni aggiornamento, confronta per id le issue ricevute
+ * dal backend con quelle già presenti e applica soltanto le differenze:
+ * <ul>
+ *   <li><strong>inserimenti</strong>: le issue con id sconosciuto vengono aggiunte con un'unica {@code addAll};</li>
+ *   <li><strong>aggiornamenti</strong>: le issue il cui contenuto è cambiato vengono sostituite in posizione
+ *       tramite {@code set}, mantenendo i commenti già caricati; quelle invariate non generano eventi;</li>
+ *   <li><strong>rimozioni</strong>: al termine di una riconciliazione completa, le issue non più presenti
+ *       lato server vengono rimosse con un'unica {@code removeAll}.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * In questo modo un refresh senza modifiche non produce alcun evento di cambiamento sulla lista e sulle
+ * viste derivate ({@code FilteredList}/{@code SortedList}), e la tabella conserva selezione e posizione
+ * di scorrimento.
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * Tutti i metodi modificano la lista osservata e vanno quindi invocati nel JavaFX Application Thread.
+ */
+public class IssueReconciler {
+
+    private final ObservableList<Issue> target;
+
+    /**
+     * Crea un reconciler che opera sulla lista indicata.
+     *
+     * @param target lista osservabile da mantenere allineata (tipicamente {@link AppState#getIssues()})
+     */
+    public IssueReconciler(ObservableList<Issue> target) {
+        this.target = target;
+    }
+
+    /**
+     * Avvia una riconciliazione completa, alimentata a lotti tramite {@link Session#apply(List)}.
+     * <p>
+     * Al termine, {@link Session#finish()} rimuove le issue che non sono comparse in nessun lotto.
+     * </p>
+     *
+     * @return nuova sessione di riconciliazione
+     */
+    public Session begin() {
+        return new Session();
+    }
+
+    /**
+     * Inserisce o aggiorna le issue indicate senza rimuovere quelle assenti (riconciliazione parziale).
+     *
+     * @param issues issue ricevute dal backend
+     * @return riepilogo delle modifiche applicate
+     */
+    public ChangeSummary upsert(Collection<Issue> issues) {
+        Session session = new Session();
+        session.apply(issues);
+        return session.summary();
+    }
+
+    /**
+     * Rimuove dalla lista le issue con gli id indicati.
+     *
+     * @param ids id delle issue da rimuovere
+     * @return numero di issue effettivamente rimosse
+     */
+    public int remove(Collection<Integer> ids) {
+        Set<Integer> toRemove = new HashSet<>(ids);
+        List<Issue> removed = new ArrayList<>();
+        for (Issue issue : target) {
+            if (issue.getId() != null && toRemove.contains(issue.getId())) {
+                removed.add(issue);
+            }
+        }
+        removeAll(removed);
+        return removed.size();
+    }
+
+    private void removeAll(List<Issue> issues) {
+        if (issues.isEmpty()) return;
+        Set<Issue> identities = Collections.newSetFromMap(new IdentityHashMap<>());
+        identities.addAll(issues);
+        target.removeAll(identities);
+    }
+
+    /**
+     * Indica se due issue con lo stesso id hanno anche lo stesso contenuto visibile.
+     */
+    private static boolean sameContent(Issue a, Issue b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && a.getType() == b.getType()
+                && a.getPriority() == b.getPriority()
+                && a.getState() == b.getState()
+                && Objects.equals(a.getReporter(), b.getReporter())
+                && Objects.equals(a.getImagePath(), b.getImagePath());
+    }
+
+    /**
+     * Riepilogo delle modifiche applicate da una riconciliazione.
+     *
+     * @param inserted numero di issue inserite
+     * @param updated  numero di issue sostituite perché modificate
+     * @param removed  numero di issue rimosse
+     */
+    public record ChangeSummary(int inserted, int updated, int removed) {
+
+        /**
+         * @return {@code true} se la riconciliazione non ha modificato la lista
+         */
+        public boolean isEmpty() {
+            return inserted == 0 && updated == 0 && removed == 0;
+        }
+    }
+
+    /**
+     * Sessione di riconciliazione: tiene traccia degli id ricevuti e delle posizioni nella lista.
+     */
+    public final class Session {
+        private final Set<Integer> seen = new HashSet<>();
+        private Map<Integer, Integer> positions;
+        private int inserted;
+        private int updated;
+
+        private Session() {
+        }
+
+        /**
+         * Applica un lotto di issue ricevute dal backend.
+         *
+         * @param batch issue del lotto; quelle senza id vengono ignorate
+         */
+        public void apply(Collection<Issue> batch) {
+            if (positions == null) {
+                rebuildPositions();
+            }
+            List<Issue> additions = new ArrayList<>();
+            for (Issue fresh : batch) {
+                Integer id = fresh.getId();
+                if (id == null || !seen.add(id)) continue;
+
+                Integer pos = positions.get(id);
+                if (pos != null && !isAt(pos, id)) {
+                    rebuildPositions();
+                    pos = positions.get(id);
+                }
+                if (pos == null) {
+                    additions.add(fresh);
+                    continue;
+                }
+                Issue current = target.get(pos);
+                if (!sameContent(current, fresh)) {
+                    fresh.setComments(current.getComments());
+                    target.set(pos, fresh);
+                    updated++;
+                }
+            }
+            if (!additions.isEmpty()) {
+                int base = target.size();
+                target.addAll(additions);
+                for (int i = 0; i < additions.size(); i++) {
+                    positions.put(additions.get(i).getId(), base + i);
+                }
+                inserted += additions.size();
+            }
+        }
+
+        /**
+         * Conclude la riconciliazione rimuovendo le issue non ricevute in nessun lotto.
+         * <p>
+         * Le issue provvisorie ({@link OptimisticUpdates#isProvisional(Issue)}), non ancora create sul server,
+         * vengono mantenute.
+         * </p>
+         *
+         * @return riepilogo delle modifiche applicate
+         */
+        public ChangeSummary finish() {
+            List<Issue> stale = new ArrayList<>();
+            for (Issue issue : target) {
+                if (issue.getId() != null && !seen.contains(issue.getId()) && !OptimisticUpdates.isProvisional(issue)) {
+                    stale.add(issue);
+                }
+            }
+            removeAll(stale);
+            return new ChangeSummary(inserted, updated, stale.size());
+        }
+
+        private ChangeSummary summary() {
+            return new ChangeSummary(inserted, updated, 0);
+        }
+
+        private boolean isAt(int pos, Integer id) {
+            return pos < target.size() && id.equals(target.get(pos).getId());
+        }
+
+        private void rebuildPositions() {
+            positions = new HashMap<>(target.size() * 2);
+            for (int i = 0; i < target.size(); i++) {
+                Integer id = target.get(i).getId();
+                if (id != null) positions.put(id, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Issue;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pianificatore dell'aggiornamento periodico delle issue, con intervallo adattivo.
+ * <p>
+ * Dopo il login richiede periodicamente {@link IssueController#refreshData()}:
+ * <ul>
+ *   <li>se un ciclo non porta modifiche alla lista l'intervallo raddoppia, fino a
+ *       {@code bugboard.refresh.maxSeconds} (default 300);</li>
+ *   <li>se la lista cambia, dopo una scrittura locale o quando la finestra riceve il focus ({@link #nudge()})
+ *       l'intervallo torna a {@code bugboard.refresh.minSeconds} (default 15) e, nei due ultimi casi, il ciclo
+ *       successivo viene anticipato;</li>
+ *   <li>mentre la finestra è ridotta a icona ({@link #setPaused(boolean)}) non viene eseguito alcun ciclo.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * I cicli non si sovrappongono mai: il successivo viene pianificato solo al termine del precedente
+ * (incluso l'aggiornamento della lista nel JavaFX Application Thread). Le metriche degli ultimi cicli
+ * (latenza, byte ricevuti, issue ricevute) sono disponibili in {@link #getRecentCycles()}.
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * I metodi pubblici possono essere invocati da qualunque thread. La pianificazione usa un unico thread
+ * daemon; il download vero e proprio avviene su {@link com.unina.bugboardapp.manager.TaskManager}.
+ */
+public class IssueRefreshScheduler {
+    private static final Logger logger = Logger.getLogger(IssueRefreshScheduler.class.getName());
+    private static final Duration NUDGE_DELAY = Duration.ofSeconds(2);
+    private static final long FX_BARRIER_TIMEOUT_SECONDS = 5;
+    private static final int HISTORY_SIZE = 20;
+
+    /**
+     * Metriche di un ciclo di aggiornamento.
+     *
+     * @param startedAt      istante di inizio del ciclo
+     * @param full           {@code true} se il ciclo ha eseguito una sincronizzazione completa
+     * @param latencyMillis  durata del ciclo, fino all'aggiornamento della lista, in millisecondi
+     * @param wireBytes      byte ricevuti in rete
+     * @param received       issue ricevute (0 se il backend ha risposto {@code 304 Not Modified})
+     * @param changed        {@code true} se la lista delle issue è cambiata
+     * @param nextDelayMillis attesa pianificata prima del ciclo successivo, in millisecondi
+     */
+    public record CycleMetrics(Instant startedAt, boolean full, long latencyMillis, long wireBytes, int received,
+                               boolean changed, long nextDelayMillis) {
+    }
+
+    /**
+     * Attesa che gli aggiornamenti prodotti da un ciclo siano stati applicati alla lista osservata.
+     */
+    @FunctionalInterface
+    interface Barrier {
+        void await() throws InterruptedException;
+    }
+
+    private final Supplier<? extends Future<?>> refreshAction;
+    private final Supplier<IssueController.SyncMetrics> syncMetrics;
+    private final Barrier barrier;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration nudgeDelay;
+    private final AtomicLong changes = new AtomicLong();
+    private final Deque<CycleMetrics> history = new ArrayDeque<>();
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> next;
+    private Duration interval;
+    private boolean cycleRunning;
+    private boolean nudged;
+    private volatile boolean paused;
+
+    /**
+     * Crea il pianificatore con gli intervalli letti dalle proprietà di sistema.
+     *
+     * @param issueController controller che esegue l'aggiornamento
+     * @param issues          lista delle issue, osservata per rilevare le modifiche
+     */
+    public IssueRefreshScheduler(IssueController issueController, ObservableList<Issue> issues) {
+        this(issueController::refreshData, issueController::getLastSyncMetrics,
+                IssueRefreshScheduler::awaitFxQueue, issues,
+                Duration.ofSeconds(Long.getLong("bugboard.refresh.minSeconds", 15)),
+                Duration.ofSeconds(Long.getLong("bugboard.refresh.maxSeconds", 300)));
+    }
+
+    /**
+     * Crea il pianificatore con un'azione di aggiornamento arbitraria (usato nei test).
+     *
+     * @param refreshAction avvia un aggiornamento e ne restituisce il completamento
+     * @param syncMetrics   metriche dell'ultima sincronizzazione, o {@code null} se non disponibili
+     * @param barrier       attesa dell'applicazione degli aggiornamenti alla lista
+     * @param issues        lista delle issue, osservata per rilevare le modifiche
+     * @param minInterval   intervallo minimo tra due cicli
+     * @param maxInterval   intervallo massimo tra due cicli
+     */
+    IssueRefreshScheduler(Supplier<? extends Future<?>> refreshAction,
+                          Supplier<IssueController.SyncMetrics> syncMetrics, Barrier barrier,
+                          ObservableList<Issue> issues, Duration minInterval, Duration maxInterval) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException("Invalid refresh intervals");
+        }
+        this.refreshAction = refreshAction;
+        this.syncMetrics = syncMetrics;
+        this.barrier = barrier;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        // L'anticipo non supera mai l'intervallo minimo
+        this.nudgeDelay = min(NUDGE_DELAY, minInterval);
+        this.interval = minInterval;
+        issues.addListener((ListChangeListener<Issue>) change -> changes.incrementAndGet());
+    }
+
+    /**
+     * Avvia gli aggiornamenti periodici (es. dopo il login); il primo ciclo parte dopo l'intervallo minimo.
+     * Non ha effetto se il pianificatore è già avviato.
+     */
+    public synchronized void start() {
+        if (executor != null) return;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bugboard-refresh-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        interval = minInterval;
+        schedule(minInterval);
+        logger.fine("Aggiornamento periodico delle issue avviato");
+    }
+
+    /**
+     * Arresta gli aggiornamenti periodici (es. al logout), interrompendo l'eventuale attesa in corso.
+     */
+    public synchronized void stop() {
+        if (executor == null) return;
+        executor.shutdownNow();
+        executor = null;
+        next = null;
+        cycleRunning = false;
+        nudged = false;
+    }
+
+    /**
+     * Riporta l'intervallo al minimo e anticipa il prossimo ciclo (es. dopo una scrittura locale o quando
+     * la finestra riceve il focus). Se un ciclo è in corso, il successivo partirà subito dopo.
+     */
+    public synchronized void nudge() {
+        interval = minInterval;
+        if (executor == null || paused) return;
+        if (cycleRunning) {
+            nudged = true;
+            return;
+        }
+        if (next != null && next.getDelay(TimeUnit.MILLISECONDS) <= nudgeDelay.toMillis()) return;
+        if (next != null) next.cancel(false);
+        schedule(nudgeDelay);
+    }
+
+    /**
+     * Sospende o riprende gli aggiornamenti (es. finestra ridotta a icona o ripristinata).
+     * <p>
+     * Alla ripresa viene anticipato un ciclo, così che i dati mostrati si aggiornino subito.
+     * </p>
+     *
+     * @param paused {@code true} per sospendere
+     */
+    public void setPaused(boolean paused) {
+        boolean resumed = this.paused && !paused;
+        this.paused = paused;
+        if (resumed) nudge();
+    }
+
+    /**
+     * Restituisce le metriche degli ultimi cicli eseguiti, dal più vecchio al più recente.
+     *
+     * @return metriche degli ultimi {@value #HISTORY_SIZE} cicli al più
+     */
+    public synchronized List<CycleMetrics> getRecentCycles() {
+        return List.copyOf(history);
+    }
+
+    /**
+     * @return intervallo corrente tra due cicli
+     */
+    public synchronized Duration getInterval() {
+        return interval;
+    }
+
+    private void schedule(Duration delay) {
+        next = executor.schedule(this::runCycle, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runCycle() {
+        synchronized (this) {
+            if (executor == null) return;
+            if (paused) {
+                // Nessun ciclo pianificato finché la finestra è ridotta a icona: la ripresa lo anticipa
+                next = null;
+                return;
+            }
+            cycleRunning = true;
+            next = null;
+        }
+
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long changesBefore = changes.get();
+        boolean completed = false;
+        try {
+            refreshAction.get().get();
+            barrier.await();
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            logger.log(Level.FINE, "Ciclo di aggiornamento non riuscito", e);
+        }
+
+        synchronized (this) {
+            cycleRunning = false;
+            if (executor == null || Thread.currentThread().isInterrupted()) return;
+            boolean changed = changes.get() != changesBefore;
+            interval = changed ? minInterval : min(interval.multipliedBy(2), maxInterval);
+            Duration delay = nudged ? nudgeDelay : interval;
+            nudged = false;
+            if (completed) record(startedAt, start, changed, delay);
+            schedule(delay);
+        }
+    }
+
+    /**
+     * Attende che il JavaFX Application Thread abbia applicato gli aggiornamenti già accodati.
+     */
+    private static void awaitFxQueue() throws InterruptedException {
+        CountDownLatch barrier = new CountDownLatch(1);
+        Platform.runLater(barrier::countDown);
+        barrier.await(FX_BARRIER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void record(Instant startedAt, long start, boolean changed, Duration delay) {
+        IssueController.SyncMetrics sync = syncMetrics != null ? syncMetrics.get() : null;
+        CycleMetrics metrics = new CycleMetrics(startedAt, sync != null && sync.full(),
+                (System.nanoTime() - start) / 1_000_000,
+                sync != null ? sync.wireBytes() : 0, sync != null ? sync.received() : 0,
+                changed, delay.toMillis());
+        if (history.size() == HISTORY_SIZE) history.removeFirst();
+        history.addLast(metrics);
+        logger.fine(() -> "Ciclo di aggiornamento: " + metrics);
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,276 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Issue;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Indice di ricerca testuale sulle {@link Issue} di una {@link ObservableList}.
+ * <p>
+ * Evita di normalizzare titolo e descrizione di ogni issue ad ogni carattere digitato nel campo di ricerca.
+ * L'indice viene aggiornato in modo incrementale dagli eventi di cambiamento della lista e mantiene:
+ * <ul>
+ *   <li>il <strong>testo normalizzato</strong> di ogni issue (titolo e descrizione, minuscolo e senza accenti);</li>
+ *   <li>un <strong>indice invertito per token</strong>: parola &rarr; issue che la contengono;</li>
+ *   <li>un <strong>indice per trigrammi</strong> del vocabolario: trigramma &rarr; parole che lo contengono,
+ *       per trovare rapidamente le parole che contengono un frammento digitato.</li>
+ * </ul>
+ * </p>
+ *
+ * <h2>Ricerca</h2>
+ * La semantica è quella di una ricerca per sottostringa, case-insensitive e insensibile agli accenti, su
+ * titolo e descrizione. Ogni parola della query deve comparire dentro una parola del testo: l'intersezione
+ * delle relative liste di issue fornisce i candidati, che vengono poi verificati sul testo normalizzato
+ * già in memoria (senza allocazioni). Il risultato dell'ultima query è memorizzato finché l'indice non cambia.
+ *
+ * <h2>Threading</h2>
+ * L'indice viene aggiornato nel JavaFX Application Thread (dagli eventi della lista); le ricerche possono
+ * essere eseguite da qualunque thread.
+ */
+public class IssueSearchIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Issue, String> texts = new IdentityHashMap<>();
+    private final Map<String, Set<Issue>> postings = new HashMap<>();
+    private final Map<String, Set<String>> grams = new HashMap<>();
+
+    private long version;
+    private String cachedQuery;
+    private long cachedVersion = -1;
+    private Set<Issue> cachedResult;
+
+    /**
+     * Crea l'indice e lo collega alla lista indicata, indicizzando le issue già presenti.
+     *
+     * @param issues lista osservabile da indicizzare (tipicamente {@link AppState#getIssues()})
+     */
+    public IssueSearchIndex(ObservableList<Issue> issues) {
+        addAll(issues);
+        issues.addListener((ListChangeListener<Issue>) this::onChanged);
+    }
+
+    /**
+     * Normalizza un testo per la ricerca: minuscolo e senza segni diacritici.
+     *
+     * @param text testo da normalizzare; {@code null} equivale a stringa vuota
+     * @return testo normalizzato
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) return "";
+        // Senza caratteri non ASCII non ci sono segni diacritici da rimuovere
+        if (isAscii(text)) return text.toLowerCase(Locale.ROOT);
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Restituisce le issue il cui titolo o descrizione contiene {@code query}.
+     *
+     * @param query testo cercato; se {@code null} o vuoto vengono restituite tutte le issue indicizzate
+     * @return insieme (per identità, non modificabile) delle issue che soddisfano la ricerca
+     */
+    public Set<Issue> search(String query) {
+        return searchNormalized(normalize(query));
+    }
+
+    private Set<Issue> searchNormalized(String normalized) {
+        lock.readLock().lock();
+        try {
+            synchronized (this) {
+                if (cachedVersion == version && normalized.equals(cachedQuery)) {
+                    return cachedResult;
+                }
+            }
+            Set<Issue> result = Collections.unmodifiableSet(resolve(normalized));
+            synchronized (this) {
+                cachedQuery = normalized;
+                cachedVersion = version;
+                cachedResult = result;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Restituisce un predicato per {@code FilteredList} che accetta le issue contenenti {@code query}.
+     * <p>
+     * La query viene normalizzata una sola volta. Il predicato interroga l'indice ad ogni valutazione, quindi
+     * resta corretto anche per le issue aggiunte o modificate dopo la sua creazione; finché l'indice non cambia
+     * il risultato della query è riutilizzato.
+     * </p>
+     *
+     * @param query testo cercato; se {@code null} o vuoto il predicato accetta tutte le issue
+     * @return predicato di ricerca testuale
+     */
+    public Predicate<Issue> matching(String query) {
+        if (query == null || query.isEmpty()) return issue -> true;
+        String normalized = normalize(query);
+        return issue -> searchNormalized(normalized).contains(issue);
+    }
+
+    private Set<Issue> resolve(String query) {
+        Set<Issue> all = Collections.newSetFromMap(new IdentityHashMap<>(texts.size()));
+        if (query.isEmpty()) {
+            all.addAll(texts.keySet());
+            return all;
+        }
+
+        List<String> queryTokens = tokenize(query);
+        Collection<Issue> candidates = queryTokens.isEmpty() ? texts.keySet() : null;
+        for (String token : queryTokens) {
+            Set<Issue> matches = issuesWithTokenContaining(token);
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) return all;
+        }
+        for (Issue issue : candidates) {
+            if (texts.get(issue).contains(query)) all.add(issue);
+        }
+        return all;
+    }
+
+    /**
+     * Unisce le liste delle issue di tutte le parole del vocabolario che contengono {@code fragment}.
+     */
+    private Set<Issue> issuesWithTokenContaining(String fragment) {
+        Set<Issue> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String token : tokensContaining(fragment)) {
+            result.addAll(postings.get(token));
+        }
+        return result;
+    }
+
+    private Collection<String> tokensContaining(String fragment) {
+        if (fragment.length() < GRAM) {
+            List<String> matches = new ArrayList<>();
+            for (String token : postings.keySet()) {
+                if (token.contains(fragment)) matches.add(token);
+            }
+            return matches;
+        }
+        Set<String> matches = null;
+        for (int i = 0; i + GRAM <= fragment.length(); i++) {
+            Set<String> withGram = grams.get(fragment.substring(i, i + GRAM));
+            if (withGram == null) return List.of();
+            if (matches == null) {
+                matches = new HashSet<>(withGram);
+            } else {
+                matches.retainAll(withGram);
+            }
+        }
+        matches.removeIf(token -> !token.contains(fragment));
+        return matches;
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends Issue> change) {
+        lock.writeLock().lock();
+        try {
+            while (change.next()) {
+                if (change.wasPermutated()) continue;
+                if (change.wasUpdated()) {
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+                        Issue issue = change.getList().get(i);
+                        remove(issue);
+                        add(issue);
+                    }
+                    continue;
+                }
+                change.getRemoved().forEach(this::remove);
+                change.getAddedSubList().forEach(this::add);
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addAll(Collection<? extends Issue> issues) {
+        lock.writeLock().lock();
+        try {
+            issues.forEach(this::add);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Issue issue) {
+        if (texts.containsKey(issue)) return;
+        String text = normalize(issue.getTitle()) + "\n" + normalize(issue.getDescription());
+        texts.put(issue, text);
+        for (String token : tokenize(text)) {
+            postings.computeIfAbsent(token, key -> {
+                for (int i = 0; i + GRAM <= key.length(); i++) {
+                    grams.computeIfAbsent(key.substring(i, i + GRAM), gram -> new HashSet<>()).add(key);
+                }
+                return Collections.newSetFromMap(new IdentityHashMap<>());
+            }).add(issue);
+        }
+    }
+
+    private void remove(Issue issue) {
+        String text = texts.remove(issue);
+        if (text == null) return;
+        for (String token : tokenize(text)) {
+            Set<Issue> issues = postings.get(token);
+            if (issues == null) continue;
+            issues.remove(issue);
+            if (issues.isEmpty()) {
+                postings.remove(token);
+                for (int i = 0; i + GRAM <= token.length(); i++) {
+                    String gram = token.substring(i, i + GRAM);
+                    Set<String> tokens = grams.get(gram);
+                    if (tokens != null && tokens.remove(token) && tokens.isEmpty()) grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Suddivide un testo normalizzato nelle parole distinte (sequenze di lettere e cifre).
+     */
+    private static List<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+}
@@ -0,0 +1,220 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Aggiornamenti ottimistici dello stato applicativo per la creazione di issue e commenti.
+ * <p>
+ * Invece di attendere la risposta del backend (e l'upload dell'eventuale immagine), l'entità da creare
+ * viene inserita subito nello stato come <strong>provvisoria</strong>, con un id temporaneo negativo
+ * ({@link #isProvisional(Integer)}), e poi:
+ * <ul>
+ *   <li><strong>confermata</strong> quando il server risponde: l'entità provvisoria viene sostituita in
+ *       posizione da quella creata, che porta l'id definitivo; i campi non restituiti dal server vengono
+ *       presi da quella provvisoria. Se l'entità definitiva è già arrivata per altra via (aggiornamento
+ *       periodico o flusso di modifiche), quella provvisoria viene semplicemente rimossa;</li>
+ *   <li><strong>annullata</strong> se la creazione fallisce: l'entità provvisoria viene rimossa e l'utente
+ *       viene avvisato tramite {@link AppState#getNotifications()}.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Le entità provvisorie non vengono rimosse dalle sincronizzazioni complete ({@link IssueReconciler}) né
+ * salvate nello snapshot locale.
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * Tutti i metodi modificano lo stato collegato alla UI e vanno invocati nel JavaFX Application Thread.
+ */
+public class OptimisticUpdates {
+    private static final Logger logger = Logger.getLogger(OptimisticUpdates.class.getName());
+    private static final AtomicInteger lastTemporaryId = new AtomicInteger();
+
+    private final AppState appState;
+
+    /**
+     * Crea il gestore degli aggiornamenti ottimistici sullo stato indicato.
+     *
+     * @param appState stato applicativo da aggiornare
+     */
+    public OptimisticUpdates(AppState appState) {
+        this.appState = appState;
+    }
+
+    /**
+     * Indica se l'id appartiene a un'entità provvisoria, non ancora creata sul server.
+     *
+     * @param id id dell'entità; può essere {@code null}
+     * @return {@code true} se l'id è temporaneo
+     */
+    public static boolean isProvisional(Integer id) {
+        return id != null && id < 0;
+    }
+
+    /**
+     * @param issue issue da verificare; può essere {@code null}
+     * @return {@code true} se la issue è provvisoria
+     */
+    public static boolean isProvisional(Issue issue) {
+        return issue != null && isProvisional(issue.getId());
+    }
+
+    /**
+     * @param comment commento da verificare; può essere {@code null}
+     * @return {@code true} se il commento è provvisorio
+     */
+    public static boolean isProvisional(Comment comment) {
+        return comment != null && isProvisional(comment.getId());
+    }
+
+    /**
+     * Inserisce una issue provvisoria in {@link AppState#getIssues()}.
+     *
+     * @param draft issue da creare; le viene assegnato un id temporaneo
+     * @return la stessa issue, ora provvisoria
+     */
+    public Issue insertIssue(Issue draft) {
+        draft.setId(nextTemporaryId());
+        appState.getIssues().add(draft);
+        return draft;
+    }
+
+    /**
+     * Sostituisce la issue provvisoria con quella creata dal server.
+     *
+     * @param provisional issue provvisoria restituita da {@link #insertIssue(Issue)}
+     * @param created     issue restituita dal server
+     * @return la issue presente nello stato al posto di quella provvisoria
+     */
+    public Issue confirmIssue(Issue provisional, Issue created) {
+        List<Issue> issues = appState.getIssues();
+        int pos = indexOf(issues, provisional);
+        Issue existing = findIssue(created.getId());
+        if (existing != null) {
+            // Già arrivata con un aggiornamento: basta togliere il segnaposto
+            if (pos >= 0) issues.remove(pos);
+            return existing;
+        }
+        merge(provisional, created);
+        if (pos >= 0) {
+            issues.set(pos, created);
+        } else {
+            issues.add(created);
+        }
+        return created;
+    }
+
+    /**
+     * Annulla l'inserimento di una issue provvisoria e avvisa l'utente.
+     *
+     * @param provisional issue provvisoria restituita da {@link #insertIssue(Issue)}
+     */
+    public void rollbackIssue(Issue provisional) {
+        List<Issue> issues = appState.getIssues();
+        int pos = indexOf(issues, provisional);
+        if (pos >= 0) issues.remove(pos);
+        notifyFailure("The issue \"" + provisional.getTitle() + "\" could not be created.");
+    }
+
+    /**
+     * Aggiunge un commento provvisorio alla issue indicata.
+     *
+     * @param issue issue commentata
+     * @param draft commento da creare; gli viene assegnato un id temporaneo
+     * @return lo stesso commento, ora provvisorio
+     */
+    public Comment insertComment(Issue issue, Comment draft) {
+        draft.setId(nextTemporaryId());
+        issue.addComment(draft);
+        return draft;
+    }
+
+    /**
+     * Sostituisce il commento provvisorio con quello creato dal server.
+     *
+     * @param issue       issue commentata
+     * @param provisional commento provvisorio restituito da {@link #insertComment(Issue, Comment)}
+     * @param created     commento restituito dal server
+     */
+    public void confirmComment(Issue issue, Comment provisional, Comment created) {
+        if (created.getAuthor() == null) created.setAuthor(provisional.getAuthor());
+        if (created.getContent() == null) created.setContent(provisional.getContent());
+        if (created.getIssueId() == null) created.setIssue(provisional.getIssueId());
+        if (created.getTimestamp() == null) created.setTimestamp(provisional.getTimestamp());
+
+        List<Comment> comments = issue.getComments();
+        if (comments == null) return;
+        int pos = indexOf(comments, provisional);
+        boolean present = created.getId() != null
+                && comments.stream().anyMatch(c -> Objects.equals(c.getId(), created.getId()));
+        if (pos < 0) {
+            if (!present) comments.add(created);
+        } else if (present) {
+            comments.remove(pos);
+        } else {
+            comments.set(pos, created);
+        }
+    }
+
+    /**
+     * Annulla l'inserimento di un commento provvisorio e avvisa l'utente.
+     *
+     * @param issue       issue commentata
+     * @param provisional commento provvisorio restituito da {@link #insertComment(Issue, Comment)}
+     */
+    public void rollbackComment(Issue issue, Comment provisional) {
+        List<Comment> comments = issue.getComments();
+        if (comments != null) {
+            int pos = indexOf(comments, provisional);
+            if (pos >= 0) comments.remove(pos);
+        }
+        notifyFailure("Your comment on \"" + issue.getTitle() + "\" could not be saved.");
+    }
+
+    /**
+     * Completa i campi della issue creata che il server non ha restituito con quelli della provvisoria.
+     */
+    private static void merge(Issue provisional, Issue created) {
+        if (created.getTitle() == null) created.setTitle(provisional.getTitle());
+        if (created.getDescription() == null) created.setDescription(provisional.getDescription());
+        if (created.getType() == null) created.setType(provisional.getType());
+        if (created.getPriority() == null) created.setPriority(provisional.getPriority());
+        if (created.getState() == null) created.setState(provisional.getState());
+        if (created.getReporter() == null) created.setReporter(provisional.getReporter());
+        if (created.getImagePath() == null) created.setImagePath(provisional.getImagePath());
+        if (created.getComments() == null) created.setComments(provisional.getComments());
+    }
+
+    private Issue findIssue(Integer id) {
+        if (id == null) return null;
+        for (Issue issue : appState.getIssues()) {
+            if (id.equals(issue.getId())) return issue;
+        }
+        return null;
+    }
+
+    private void notifyFailure(String message) {
+        logger.warning(message);
+        appState.getNotifications().add(message);
+    }
+
+    /**
+     * Posizione dell'elemento nella lista, confrontato per identità.
+     */
+    private static <T> int indexOf(List<T> list, T element) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == element) return i;
+        }
+        return -1;
+    }
+
+    private static int nextTemporaryId() {
+        return lastTemporaryId.decrementAndGet();
+    }
+}
@@ -0,0 +1,362 @@
+package com.unina.bugboardapp.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.unina.bugboardapp.exception.ApiException;
+import com.unina.bugboardapp.manager.TaskManager;
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.service.CommentService;
+import com.unina.bugboardapp.service.IssueService;
+import com.unina.bugboardapp.service.OutboxJournal;
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coda persistente delle scritture (creazione di issue e commenti) verso il backend.
+ * <p>
+ * Quando la coda è abilitata ({@link #isEnabled()}), le scritture non attendono la rete:
+ * <ol>
+ *   <li>l'operazione viene registrata nel journal su disco dell'account ({@link OutboxJournal}) e il
+ *       metodo restituisce subito;</li>
+ *   <li>la coda viene svuotata in background a lotti di {@value #BATCH_SIZE}, con al più
+ *       {@code bugboard.outbox.parallelism} (default 2) invii contemporanei;</li>
+ *   <li>ogni invio porta la chiave di idempotenza dell'operazione, così che ripetere una richiesta già
+ *       applicata (es. dopo un timeout) non crei duplicati;</li>
+ *   <li>i completamenti di un lotto vengono registrati nel journal con un'unica scrittura.</li>
+ * </ol>
+ * </p>
+ *
+ * <p>
+ * Se il backend è irraggiungibile o risponde con un errore temporaneo ({@code 408}, {@code 429},
+ * {@code 5xx}) lo svuotamento viene ripreso con backoff esponenziale (da 2 secondi a 2 minuti); le
+ * operazioni restano nel journal e vengono riprese anche al login successivo. Le operazioni rifiutate
+ * definitivamente dal server (altri {@code 4xx}) vengono scartate, registrate nel {@link Logger} e
+ * segnalate al chiamante (o all'utente, tramite {@link AppState#getNotifications()}, per quelle riprese
+ * da una sessione precedente).
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * I metodi pubblici vanno invocati nel JavaFX Application Thread; i risultati vengono applicati allo
+ * stato applicativo nello stesso thread.
+ */
+public class OutboxController {
+    private static final Logger logger = Logger.getLogger(OutboxController.class.getName());
+    private static final int BATCH_SIZE = 16;
+    private static final int PARALLELISM = Math.max(1, Integer.getInteger("bugboard.outbox.parallelism", 2));
+    private static final Duration MIN_RETRY = Duration.ofSeconds(2);
+    private static final Duration MAX_RETRY = Duration.ofMinutes(2);
+    private static final Executor NETWORK = task ->
+            TaskManager.getInstance().submit(TaskManager.Category.NETWORK, "send-outbox", task);
+
+    private final AppState appState;
+    private final IssueService issueService;
+    private final CommentService commentService;
+    private final IssueReconciler reconciler;
+    private final Deque<OutboxJournal.Operation> queue = new ArrayDeque<>();
+    private final Map<String, Callbacks> callbacks = new HashMap<>();
+
+    private OutboxJournal journal;
+    private User owner;
+    private boolean draining;
+    private long generation;
+    private Duration retryDelay = MIN_RETRY;
+
+    /**
+     * Esito dell'invio di un'operazione.
+     */
+    private enum Outcome {
+        SENT, RETRY, REJECTED
+    }
+
+    /**
+     * Callback di un'operazione accodata nella sessione corrente.
+     */
+    private record Callbacks(Consumer<Object> onCreated, Runnable onRejected) {
+    }
+
+    /**
+     * Crea la coda delle scritture associata allo stato applicativo.
+     *
+     * @param appState stato applicativo da aggiornare con le entità create
+     */
+    public OutboxController(AppState appState) {
+        this.appState = appState;
+        this.issueService = new IssueService();
+        this.commentService = new CommentService();
+        this.reconciler = new IssueReconciler(appState.getIssues());
+    }
+
+    /**
+     * Indica se la coda persistente delle scritture è abilitata ({@code bugboard.outbox.enabled=true}).
+     *
+     * @return {@code true} se la coda è abilitata
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("bugboard.outbox.enabled");
+    }
+
+    /**
+     * Apre il journal dell'utente loggato (es. dopo il login) e avvia l'invio delle operazioni rimaste
+     * pendenti da una sessione precedente.
+     */
+    public void start() {
+        User user = appState.getLoggedUser();
+        if (!isEnabled() || user == null) return;
+        stop();
+        owner = user;
+        journal = OutboxJournal.forAccount(user.getUsername());
+        queue.addAll(journal.load());
+        if (!queue.isEmpty()) logger.info("Scritture in attesa di invio: " + queue.size());
+        drain();
+    }
+
+    /**
+     * Sospende l'invio (es. al logout); le operazioni pendenti restano nel journal.
+     */
+    public void stop() {
+        generation++;
+        queue.clear();
+        callbacks.clear();
+        journal = null;
+        owner = null;
+        draining = false;
+        retryDelay = MIN_RETRY;
+    }
+
+    /**
+     * @return {@code true} se la coda è attiva per la sessione corrente
+     */
+    public boolean isActive() {
+        return journal != null;
+    }
+
+    /**
+     * @return numero di operazioni in attesa di invio
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Accoda la creazione di una issue.
+     * <p>
+     * Le callback valgono solo per la sessione corrente: le operazioni riprese da una sessione precedente
+     * vengono applicate direttamente allo stato applicativo.
+     * </p>
+     *
+     * @param operation  operazione di tipo {@link OutboxJournal.Kind#ISSUE}
+     * @param onCreated  callback invocata con la issue creata dal server
+     * @param onRejected callback invocata se il server rifiuta definitivamente la creazione
+     * @throws IOException se l'operazione non può essere registrata nel journal
+     */
+    public void enqueueIssue(OutboxJournal.Operation operation, Consumer<Issue> onCreated, Runnable onRejected)
+            throws IOException {
+        enqueue(operation, new Callbacks(created -> onCreated.accept((Issue) created), onRejected));
+    }
+
+    /**
+     * Accoda la creazione di un commento.
+     *
+     * @param operation  operazione di tipo {@link OutboxJournal.Kind#COMMENT}
+     * @param onCreated  callback invocata con il commento creato dal server
+     * @param onRejected callback invocata se il server rifiuta definitivamente il commento
+     * @throws IOException se l'operazione non può essere registrata nel journal
+     */
+    public void enqueueComment(OutboxJournal.Operation operation, Consumer<Comment> onCreated, Runnable onRejected)
+            throws IOException {
+        enqueue(operation, new Callbacks(created -> onCreated.accept((Comment) created), onRejected));
+    }
+
+    /**
+     * Riprende subito lo svuotamento della coda (es. quando la connessione torna disponibile),
+     * azzerando l'attesa del backoff.
+     */
+    public void flush() {
+        retryDelay = MIN_RETRY;
+        drain();
+    }
+
+    private void enqueue(OutboxJournal.Operation operation, Callbacks operationCallbacks) throws IOException {
+        if (journal == null) throw new IllegalStateException("Outbox not started");
+        journal.append(operation);
+        callbacks.put(operation.key(), operationCallbacks);
+        queue.addLast(operation);
+        drain();
+    }
+
+    /**
+     * Avvia in background l'invio del prossimo lotto, se non è già in corso.
+     */
+    private void drain() {
+        if (draining || queue.isEmpty() || journal == null) return;
+        draining = true;
+        List<OutboxJournal.Operation> batch = new ArrayList<>(queue).subList(0, Math.min(BATCH_SIZE, queue.size()));
+        long batchGeneration = generation;
+        OutboxJournal batchJournal = journal;
+        User author = owner;
+        TaskManager.getInstance().submit(TaskManager.Category.BACKGROUND, "drain-outbox", () -> {
+            Map<OutboxJournal.Operation, Object> results = new HashMap<>();
+            Map<OutboxJournal.Operation, Outcome> outcomes = sendAll(batch, author, results);
+            List<String> finished = new ArrayList<>();
+            outcomes.forEach((operation, outcome) -> {
+                if (outcome != Outcome.RETRY) finished.add(operation.key());
+            });
+            try {
+                batchJournal.complete(finished);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Impossibile aggiornare il journal delle scritture", e);
+            }
+            Platform.runLater(() -> onBatchSent(batchGeneration, outcomes, results));
+        });
+    }
+
+    /**
+     * Invia le operazioni del lotto con parallelismo limitato e ne raccoglie gli esiti.
+     */
+    private Map<OutboxJournal.Operation, Outcome> sendAll(List<OutboxJournal.Operation> batch, User author,
+                                                          Map<OutboxJournal.Operation, Object> results) {
+        Map<OutboxJournal.Operation, Outcome> outcomes = new HashMap<>();
+        for (int from = 0; from < batch.size(); from += PARALLELISM) {
+            List<OutboxJournal.Operation> group = batch.subList(from, Math.min(from + PARALLELISM, batch.size()));
+            List<CompletableFuture<Object>> sends = new ArrayList<>();
+            for (OutboxJournal.Operation operation : group) {
+                sends.add(CompletableFuture.supplyAsync(() -> send(operation, author), NETWORK));
+            }
+            for (int i = 0; i < group.size(); i++) {
+                OutboxJournal.Operation operation = group.get(i);
+                try {
+                    Object created = sends.get(i).get();
+                    results.put(operation, created);
+                    outcomes.put(operation, Outcome.SENT);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    outcomes.put(operation, Outcome.RETRY);
+                } catch (ExecutionException e) {
+                    Outcome outcome = isTransient(e.getCause()) ? Outcome.RETRY : Outcome.REJECTED;
+                    outcomes.put(operation, outcome);
+                    if (outcome == Outcome.REJECTED) {
+                        logger.log(Level.SEVERE, "Scrittura rifiutata dal server e scartata: " + operation, e.getCause());
+                    }
+                }
+            }
+            if (outcomes.containsValue(Outcome.RETRY)) {
+                // Backend non raggiungibile: inutile insistere con il resto del lotto
+                for (OutboxJournal.Operation operation : batch) outcomes.putIfAbsent(operation, Outcome.RETRY);
+                break;
+            }
+        }
+        return outcomes;
+    }
+
+    private Object send(OutboxJournal.Operation operation, User author) {
+        try {
+            return switch (operation.kind()) {
+                case ISSUE -> {
+                    Issue issue = new Issue(operation.type(), operation.title(), operation.description(),
+                            operation.imagePath(), operation.state(), operation.priority(), author);
+                    yield issueService.createIssue(issue, null, operation.key());
+                }
+                case COMMENT -> commentService.createComment(
+                        new Comment(author, operation.content(), operation.issueId()), operation.key());
+            };
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Applica nel thread JavaFX gli esiti di un lotto e pianifica il successivo (o un nuovo tentativo).
+     */
+    private void onBatchSent(long batchGeneration, Map<OutboxJournal.Operation, Outcome> outcomes,
+                             Map<OutboxJournal.Operation, Object> results) {
+        if (batchGeneration != generation) return;
+        draining = false;
+        boolean retry = false;
+        for (Map.Entry<OutboxJournal.Operation, Outcome> entry : outcomes.entrySet()) {
+            OutboxJournal.Operation operation = entry.getKey();
+            if (entry.getValue() == Outcome.RETRY) {
+                retry = true;
+                continue;
+            }
+            queue.remove(operation);
+            Callbacks operationCallbacks = callbacks.remove(operation.key());
+            if (entry.getValue() == Outcome.REJECTED) {
+                if (operationCallbacks != null) {
+                    operationCallbacks.onRejected().run();
+                } else {
+                    appState.getNotifications().add(operation.kind() == OutboxJournal.Kind.ISSUE
+                            ? "A queued issue (\"" + operation.title() + "\") was rejected by the server."
+                            : "A queued comment was rejected by the server.");
+                }
+                continue;
+            }
+            Object created = results.get(operation);
+            if (operationCallbacks != null) {
+                operationCallbacks.onCreated().accept(created);
+            } else if (created instanceof Issue issue) {
+                reconciler.upsert(List.of(issue));
+            } else if (created instanceof Comment comment) {
+                applyComment(operation, comment);
+            }
+        }
+        if (retry) {
+            Duration delay = retryDelay;
+            retryDelay = retryDelay.multipliedBy(2).compareTo(MAX_RETRY) > 0 ? MAX_RETRY : retryDelay.multipliedBy(2);
+            logger.info("Backend non raggiungibile: nuovo invio tra " + delay.toSeconds() + " s ("
+                    + queue.size() + " scritture in attesa)");
+            CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS)
+                    .execute(() -> Platform.runLater(() -> {
+                        if (batchGeneration == generation) drain();
+                    }));
+        } else {
+            retryDelay = MIN_RETRY;
+            drain();
+        }
+    }
+
+    /**
+     * Aggiunge un commento ripreso da una sessione precedente alla issue di appartenenza, se presente.
+     */
+    private void applyComment(OutboxJournal.Operation operation, Comment comment) {
+        for (Issue issue : appState.getIssues()) {
+            if (!operation.issueId().equals(issue.getId())) continue;
+            if (issue.getComments() == null || issue.getComments().stream()
+                    .noneMatch(c -> c.getId() != null && c.getId().equals(comment.getId()))) {
+                issue.addComment(comment);
+            }
+            break;
+        }
+    }
+
+    /**
+     * Indica se l'errore è temporaneo (rete, timeout, sovraccarico o errore del server) e l'invio va ripetuto.
+     */
+    private static boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ApiException api) {
+                int status = api.getStatusCode();
+                return status == 408 || status == 429 || status >= 500;
+            }
+            if (t instanceof JsonProcessingException) return false;
+            if (t instanceof IOException || t instanceof InterruptedException) return true;
+        }
+        return false;
+    }
+}
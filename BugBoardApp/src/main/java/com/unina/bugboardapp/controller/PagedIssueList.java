@@ -0,0 +1,221 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.exception.IssueException;
+import com.unina.bugboardapp.manager.TaskManager;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.service.IssueService;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Lista osservabile delle issue popolata a pagine, su richiesta, per la tabella in modalità paginata.
+ * <p>
+ * La lista ha sempre la dimensione del totale delle issue sul backend, ma tiene in memoria solo poche pagine:
+ * <ul>
+ *   <li>{@link #get(int)} restituisce la issue se la sua pagina è già caricata, altrimenti {@code null}
+ *       (riga segnaposto) e avvia in background il caricamento della pagina;</li>
+ *   <li>all'arrivo di una pagina le righe corrispondenti vengono notificate con un unico evento, così che
+ *       la tabella le ridisegni;</li>
+ *   <li>oltre {@code maxPages} pagine, vengono scartate quelle più lontane dall'ultima riga richiesta, cioè
+ *       dalla zona visibile della tabella, e ricaricate se tornano visibili.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Una {@code TableView} chiede solo le righe visibili, quindi memoria occupata e tempo del primo disegno
+ * dipendono dalla dimensione della pagina e non dal numero totale di issue. Ordinamento e filtri lato
+ * client non sono applicabili: richiederebbero di leggere tutte le righe.
+ * </p>
+ *
+ * <p>
+ * La modalità paginata è opzionale e si abilita con {@code bugboard.issues.paged=true} ({@link #isEnabled()}).
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * La lista va usata nel JavaFX Application Thread; le pagine vengono scaricate con {@link TaskManager}.
+ */
+public class PagedIssueList extends ObservableListBase<Issue> {
+    private static final Logger logger = Logger.getLogger(PagedIssueList.class.getName());
+    /**
+     * Numero di issue per pagina predefinito.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    /**
+     * Numero massimo predefinito di pagine tenute in memoria.
+     */
+    public static final int DEFAULT_MAX_PAGES = 8;
+
+    private final IssueService issueService;
+    private final int maxPages;
+    private final Map<Integer, List<Issue>> pages = new HashMap<>();
+    private final Set<Integer> loading = new HashSet<>();
+    private final Set<Future<?>> pending = new HashSet<>();
+
+    private int pageSize;
+    private int size;
+    /**
+     * Pagina dell'ultima riga richiesta da {@link #get(int)}: approssima la zona visibile della tabella.
+     */
+    private int focusPage;
+    private long generation;
+
+    /**
+     * Crea una lista paginata con i parametri predefiniti ({@link #DEFAULT_PAGE_SIZE}, {@link #DEFAULT_MAX_PAGES}).
+     */
+    public PagedIssueList() {
+        this(new IssueService(), DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * Crea una lista paginata.
+     *
+     * @param issueService service usato per scaricare le pagine
+     * @param pageSize     numero di issue per pagina
+     * @param maxPages     numero massimo di pagine tenute in memoria (almeno 2)
+     */
+    public PagedIssueList(IssueService issueService, int pageSize, int maxPages) {
+        if (pageSize <= 0 || maxPages < 2) throw new IllegalArgumentException("Invalid paging parameters");
+        this.issueService = issueService;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Indica se la tabella delle issue usa la modalità paginata ({@code bugboard.issues.paged=true}).
+     *
+     * @return {@code true} se la modalità paginata è abilitata
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("bugboard.issues.paged");
+    }
+
+    /**
+     * Scarta le pagine in memoria e ricarica la prima, che determina anche il numero totale di issue.
+     * <p>
+     * I caricamenti ancora in corso vengono annullati e il loro risultato ignorato.
+     * </p>
+     */
+    public void refresh() {
+        cancelPending();
+        generation++;
+        pages.clear();
+        load(0);
+    }
+
+    /**
+     * Annulla i caricamenti in corso (es. alla chiusura della vista o al logout).
+     */
+    public void cancelPending() {
+        pending.forEach(task -> task.cancel(true));
+        pending.clear();
+        loading.clear();
+    }
+
+    /**
+     * Restituisce la issue in posizione {@code index}, oppure {@code null} se la sua pagina non è ancora
+     * caricata (in tal caso il caricamento viene avviato).
+     *
+     * @param index posizione della riga
+     * @return issue della riga, oppure {@code null}
+     */
+    @Override
+    public Issue get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        int page = index / pageSize;
+        focusPage = page;
+        List<Issue> issues = pages.get(page);
+        if (issues == null) {
+            load(page);
+            return null;
+        }
+        int offset = index - page * pageSize;
+        return offset < issues.size() ? issues.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return numero di pagine attualmente in memoria
+     */
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    private void load(int page) {
+        if (!loading.add(page)) return;
+        long requestGeneration = generation;
+        int requestSize = pageSize;
+        Future<?>[] task = new Future<?>[1];
+        task[0] = TaskManager.getInstance().submit(TaskManager.Category.NETWORK, "issue-page-" + page, () -> {
+            try {
+                IssueService.IssuePage result = issueService.fetchIssuePage(page, requestSize);
+                Platform.runLater(() -> {
+                    pending.remove(task[0]);
+                    if (requestGeneration == generation) apply(result);
+                });
+            } catch (IssueException e) {
+                logger.warning("Impossibile scaricare la pagina " + page + ": " + e.getMessage());
+                Platform.runLater(() -> {
+                    pending.remove(task[0]);
+                    if (requestGeneration == generation) loading.remove(page);
+                });
+            }
+        });
+        pending.add(task[0]);
+    }
+
+    /**
+     * Scarta le pagine oltre {@code maxPages}, partendo da quelle più lontane da {@link #focusPage}.
+     */
+    private void evictDistantPages() {
+        while (pages.size() > maxPages) {
+            int farthest = Collections.max(pages.keySet(), Comparator.comparingInt(page -> Math.abs(page - focusPage)));
+            pages.remove(farthest);
+        }
+    }
+
+    /**
+     * Memorizza una pagina ricevuta e notifica in un unico evento il cambio di dimensione e le righe arrivate.
+     */
+    private void apply(IssueService.IssuePage result) {
+        loading.remove(result.page());
+        if (result.size() != pageSize) {
+            // Il backend ha restituito tutte le issue in un'unica pagina (nessuna paginazione lato server)
+            pageSize = result.size();
+            pages.clear();
+        }
+        pages.put(result.page(), result.issues());
+        evictDistantPages();
+
+        int oldSize = size;
+        int newSize = (int) Math.min(Integer.MAX_VALUE, result.totalElements());
+        int from = Math.min(result.page() * pageSize, newSize);
+        int to = Math.min(from + result.issues().size(), newSize);
+
+        beginChange();
+        size = newSize;
+        if (newSize > oldSize) {
+            nextAdd(oldSize, newSize);
+        } else if (newSize < oldSize) {
+            nextRemove(newSize, Collections.nCopies(oldSize - newSize, null));
+        }
+        int replaceTo = Math.min(to, Math.min(oldSize, newSize));
+        if (from < replaceTo) {
+            nextReplace(from, replaceTo, Collections.nCopies(replaceTo - from, null));
+        }
+        endChange();
+    }
+}
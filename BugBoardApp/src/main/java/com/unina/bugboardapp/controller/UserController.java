@@ -1,13 +1,13 @@
 package com.unina.bugboardapp.controller;
 
 import com.unina.bugboardapp.exception.ApiException;
-import com.unina.bugboardapp.exception.UserException;
 import com.unina.bugboardapp.model.User;
 import com.unina.bugboardapp.model.enums.UserType;
 import com.unina.bugboardapp.service.UserService;
 import javafx.application.Platform;
 
 import java.io.IOException;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,8 +26,8 @@ import java.util.logging.Logger;
  * (verifica tramite {@link AppState#isCurrentUserAdmin()}).
  *
  * <h2>Threading e UI</h2>
- * Le operazioni di creazione utente che coinvolgono chiamate di rete sono eseguite in background
- * tramite {@link Thread}. Gli aggiornamenti alla lista osservabile di utenti, usata tipicamente
+ * Le operazioni di creazione utente che coinvolgono chiamate di rete sono asincrone
+ * (basate su {@code CompletableFuture}) e non bloccano la UI. Gli aggiornamenti alla lista osservabile di utenti, usata tipicamente
  * dalla UI, vengono effettuati sul JavaFX Application Thread tramite {@link Platform#runLater(Runnable)}.
  *
  * <h2>Gestione errori</h2>
@@ -59,7 +59,7 @@ public class UserController {
      *   <li>valida i parametri tramite {@link #validateUserInput(String, String, UserType)}</li>
      *   <li>normalizza l'email ({@code trim + lowercase})</li>
      *   <li>verifica che l'utente non sia già presente nello stato locale ({@link AppState#getUsers()})</li>
-     *   <li>crea l'utente sul backend in background tramite {@link UserService#createUser(User)}</li>
+     *   <li>crea l'utente sul backend in modo asincrono tramite {@link UserService#createUserAsync(User)}</li>
      *   <li>in caso di successo, aggiunge l'utente creato a {@link AppState#getUsers()} nel thread JavaFX</li>
      * </ol>
      * </p>
@@ -82,21 +82,19 @@ public class UserController {
         }
 
         User newUser = new User(normalizedEmail, password, type);
-        new Thread(() -> {
-            try {
-                User createdUser = userService.createUser(newUser);
-                Platform.runLater(() -> {
-                    if (createdUser != null) {
-                        appState.getUsers().add(createdUser);
-                        logger.info("User creato su server e UI");
-                    }
-                });
-            } catch (UserException e) {
-                logger.warning("Errore durante la creazione dell'utente: " + e.getMessage());
-            } catch (Exception e1) {
-                logger.warning("Errore inaspettato durante la creazione dell'utente: " + e1.getMessage());
+        userService.createUserAsync(newUser).whenComplete((createdUser, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                logger.warning("Errore durante la creazione dell'utente: " + cause.getMessage());
+                return;
             }
-        }).start();
+            Platform.runLater(() -> {
+                if (createdUser != null) {
+                    appState.getUsers().add(createdUser);
+                    logger.info("User creato su server e UI");
+                }
+            });
+        });
     }
 
     /**
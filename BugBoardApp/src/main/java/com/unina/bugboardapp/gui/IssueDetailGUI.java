@@ -1,22 +1,28 @@
 package com.unina.bugboardapp.gui;
 
 import com.unina.bugboardapp.controller.AppController;
-import com.unina.bugboardapp.exception.CommentException;
+import com.unina.bugboardapp.controller.OptimisticUpdates;
+import com.unina.bugboardapp.manager.TaskManager;
 import com.unina.bugboardapp.model.Comment;
 import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.service.ImageCache;
 
-import com.unina.bugboardapp.service.CommentService;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
+import javafx.scene.Scene;
 import javafx.scene.control.Label;
-
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
 
 import java.io.File;
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * Controller JavaFX della vista di dettaglio di una {@link Issue}.
@@ -29,15 +35,24 @@ import java.util.List;
  * <h2>Gestione immagine</h2>
  * <ul>
  *   <li>Se {@code imagePath} è vuoto/nullo: l'area immagine viene nascosta.</li>
- *   <li>Se {@code imagePath} punta a un file esistente: viene caricata l'immagine locale.</li>
- *   <li>Se {@code imagePath} inizia con {@code http}: viene tentato il caricamento remoto.</li>
+ *   <li>Se {@code imagePath} punta a un file esistente: l'immagine locale viene decodificata in background
+ *       alla larghezza dell'anteprima.</li>
+ *   <li>Altrimenti la miniatura viene richiesta a {@link ImageCache}: se già in memoria è mostrata subito,
+ *       altrimenti viene caricata in background dalla cache su disco o dal server.</li>
+ *   <li>La risoluzione piena viene caricata solo su richiesta, in una finestra di zoom ({@link #onZoomImage(ActionEvent)}).</li>
  *   <li>In caso di errori: l'area immagine viene nascosta.</li>
  * </ul>
  *
  * <h2>Commenti</h2>
  * <ul>
- *   <li>I commenti vengono recuperati tramite {@link CommentService}.</li>
- *   <li>L'aggiunta commento delega a {@link AppController#addComment(Issue, String, java.util.function.Consumer)}.</li>
+ *   <li>I commenti vengono caricati in background tramite
+ *       {@link AppController#loadCommentsForIssue(Issue, java.util.function.Consumer, Runnable, java.util.function.Consumer)}:
+ *       nel frattempo viene mostrato un segnaposto e i commenti compaiono a blocchi man mano che arrivano.</li>
+ *   <li>Il caricamento in corso viene annullato alla chiusura della finestra ({@link #dispose()}).</li>
+ *   <li>L'aggiunta commento delega a
+ *       {@link AppController#addComment(Issue, String, java.util.function.Consumer, java.util.function.Consumer, Runnable)}:
+ *       il commento compare subito come provvisorio e viene rimosso se la creazione fallisce.</li>
+ *   <li>Una issue provvisoria (non ancora creata sul server) non ha commenti e non può essere commentata.</li>
  * </ul>
  */
 public class IssueDetailGUI {
@@ -71,10 +86,24 @@ public class IssueDetailGUI {
     private Issue issue;
 
     /**
-     * Servizio usato per recuperare i commenti associati alla issue.
+     * Caricamento dei commenti in corso; {@code null} se nessun caricamento è stato avviato.
+     */
+    private Future<?> commentsLoad;
+
+    /**
+     * Download dell'immagine remota in corso; {@code null} se nessun download è stato avviato.
+     */
+    private Future<?> imageLoad;
+
+    /**
+     * Segnaposto mostrato in {@link #commentsList} durante il caricamento o in assenza di commenti.
      */
-    private final CommentService commentService = new CommentService();
-    private final com.unina.bugboardapp.service.IssueService issueService = new com.unina.bugboardapp.service.IssueService();
+    private final Label commentsPlaceholder = new Label();
+
+    /**
+     * Opacità della cella di un commento in attesa di conferma dal server.
+     */
+    private static final double PENDING_OPACITY = 0.6;
 
     /**
      * Imposta la {@link Issue} da visualizzare e aggiorna la UI.
@@ -137,11 +166,20 @@ public class IssueDetailGUI {
             return;
         }
 
+        Image cached = ImageCache.getInstance().getIfPresent(issue.getImagePath(), imageView.getFitWidth(), 0);
+        if (cached != null) {
+            imageView.setImage(cached);
+            imageContainer.setVisible(true);
+            imageContainer.setManaged(true);
+            return;
+        }
+
         loadImageAsync();
     }
 
     /**
-     * Tenta di caricare l'immagine come file locale.
+     * Tenta di caricare l'immagine come file locale, decodificandola in background alla larghezza
+     * dell'anteprima.
      *
      * @return {@code true} se il file esiste ed è stato impostato su {@link #imageView},
      *         {@code false} altrimenti
@@ -149,56 +187,152 @@ public class IssueDetailGUI {
     private boolean tryLoadLocalImage() {
         File file = new File(issue.getImagePath());
         if (file.exists()) {
-            imageView.setImage(new Image(file.toURI().toString()));
+            Image image = new Image(file.toURI().toString(), imageView.getFitWidth(), 0, true, true, true);
+            image.errorProperty().addListener((obs, wasError, isError) -> {
+                if (Boolean.TRUE.equals(isError)) hideImage();
+            });
+            imageView.setImage(image);
             return true;
         }
         return false;
     }
 
     /**
-     * Tenta di caricare l'immagine da un URL remoto.
+     * Carica in background la miniatura dell'immagine remota tramite {@link ImageCache} (disco o server).
      * <p>
-     * Il caricamento viene tentato solo se {@code imagePath} inizia con {@code http}.
+     * In caso di errore l'area immagine viene nascosta.
      * </p>
-     *
-     * @return {@code true} se il percorso sembra un URL e l'immagine è stata impostata su {@link #imageView},
-     *         {@code false} altrimenti
      */
     private void loadImageAsync() {
-        new Thread(() -> {
+        imageLoad = TaskManager.getInstance().submit(TaskManager.Category.IMAGE, "load-image", () -> {
             try {
-                java.io.InputStream is = issueService.downloadImage(issue.getImagePath());
-                Image img = new Image(is);
-                javafx.application.Platform.runLater(() -> {
+                Image img = ImageCache.getInstance().loadThumbnail(issue.getImagePath(), imageView.getFitWidth(), 0);
+                Platform.runLater(() -> {
                     imageView.setImage(img);
                     imageContainer.setVisible(true);
                     imageContainer.setManaged(true);
                 });
             } catch (Exception e) {
-                javafx.application.Platform.runLater(this::hideImage);
+                Platform.runLater(this::hideImage);
             }
-        }).start();
+        });
     }
 
     /**
-     * Recupera e visualizza i commenti associati alla {@link #issue}.
+     * Handler del pulsante di zoom: apre una finestra con l'immagine a risoluzione piena.
      * <p>
-     * Pulisce prima il contenitore {@link #commentsList}. Se il servizio restituisce una lista non nulla,
-     * ogni commento viene renderizzato tramite {@link #addCommentToVBox(Comment)}.
+     * L'immagine viene caricata in background solo ora (file locale o {@link ImageCache}); nel frattempo
+     * la finestra mostra un indicatore di avanzamento. Chiudendo la finestra l'eventuale caricamento
+     * in corso viene annullato e l'immagine può essere rilasciata.
      * </p>
      *
-     * @throws IllegalStateException se si verifica un {@link CommentException} durante il recupero dei commenti
+     * @param event evento JavaFX associato all'azione; può essere {@code null}
+     */
+    @FXML
+    void onZoomImage(ActionEvent event) {
+        if (issue == null || issue.getImagePath() == null || issue.getImagePath().isEmpty())
+            return;
+
+        ScrollPane viewport = new ScrollPane(new ProgressIndicator());
+        viewport.setPannable(true);
+        Stage stage = new Stage();
+        stage.setTitle(issue.getTitle());
+        stage.setScene(new Scene(viewport, 900, 700));
+
+        String imagePath = issue.getImagePath();
+        File file = new File(imagePath);
+        Future<?> fullLoad = TaskManager.getInstance().submit(TaskManager.Category.IMAGE, "load-full-image", () -> {
+            try {
+                Image full = file.exists()
+                        ? new Image(file.toURI().toString())
+                        : ImageCache.getInstance().loadFullResolution(imagePath);
+                Platform.runLater(() -> viewport.setContent(new ImageView(full)));
+            } catch (Exception e) {
+                Platform.runLater(() -> viewport.setContent(new Label("Unable to load image")));
+            }
+        });
+        stage.setOnHidden(e -> fullLoad.cancel(true));
+        stage.show();
+    }
+
+    /**
+     * Avvia il caricamento asincrono dei commenti associati alla {@link #issue}.
+     * <p>
+     * Pulisce il contenitore {@link #commentsList} e vi inserisce subito un segnaposto; i commenti
+     * vengono poi aggiunti a blocchi tramite {@link #addCommentToVBox(Comment)} man mano che il
+     * controller li consegna nel thread JavaFX. Un eventuale caricamento precedente viene annullato.
+     * </p>
      */
     private void updateComments() {
+        cancelCommentsLoad();
         commentsList.getChildren().clear();
+        boolean provisional = OptimisticUpdates.isProvisional(issue);
+        commentArea.setDisable(provisional);
+        if (provisional) {
+            showCommentsPlaceholder("Comments will be available once the issue is saved.");
+            return;
+        }
+        showCommentsPlaceholder("Loading comments...");
 
-        try {
-            List<Comment> comments = commentService.getCommentsByIssueId(issue.getId());
-            if (comments != null) {
-                comments.forEach(this::addCommentToVBox);
-            }
-        } catch (CommentException e) {
-            throw new IllegalStateException("Error retrieving comments for issue " + issue.getId(), e);
+        commentsLoad = AppController.getInstance().loadCommentsForIssue(issue,
+                batch -> {
+                    commentsList.getChildren().remove(commentsPlaceholder);
+                    batch.forEach(this::addCommentToVBox);
+                },
+                () -> {
+                    if (!hasCommentCells()) {
+                        showCommentsPlaceholder("No comments yet.");
+                    }
+                },
+                e -> showCommentsPlaceholder("Unable to load comments."));
+    }
+
+    /**
+     * Indica se {@link #commentsList} contiene almeno una cella di commento (oltre al segnaposto).
+     *
+     * @return {@code true} se è visualizzato almeno un commento
+     */
+    private boolean hasCommentCells() {
+        return commentsList.getChildren().stream().anyMatch(node -> node != commentsPlaceholder);
+    }
+
+    /**
+     * Mostra {@link #commentsPlaceholder} con il testo indicato, aggiungendolo alla lista se necessario.
+     *
+     * @param text testo del segnaposto
+     */
+    private void showCommentsPlaceholder(String text) {
+        commentsPlaceholder.setText(text);
+        commentsPlaceholder.setStyle("-fx-font-size: 13; -fx-text-fill: -color-fg-muted;");
+        if (!commentsList.getChildren().contains(commentsPlaceholder)) {
+            commentsList.getChildren().add(commentsPlaceholder);
+        }
+    }
+
+    /**
+     * Annulla l'eventuale caricamento dei commenti ancora in corso.
+     */
+    private void cancelCommentsLoad() {
+        if (commentsLoad != null) {
+            commentsLoad.cancel(true);
+            commentsLoad = null;
+        }
+    }
+
+    /**
+     * Rilascia le risorse della vista; da invocare alla chiusura della finestra di dettaglio.
+     * <p>
+     * Annulla la richiesta dei commenti e il download dell'immagine eventualmente ancora in corso,
+     * così che non vengano effettuati aggiornamenti su una finestra non più visibile. Se nessun'altra
+     * vista attende la stessa immagine, {@link com.unina.bugboardapp.service.AttachmentDownloader} chiude
+     * anche la connessione del download.
+     * </p>
+     */
+    public void dispose() {
+        cancelCommentsLoad();
+        if (imageLoad != null) {
+            imageLoad.cancel(true);
+            imageLoad = null;
         }
     }
 
@@ -213,11 +347,13 @@ public class IssueDetailGUI {
     /**
      * Handler del click su "Add Comment".
      * <p>
-     * Se {@link #issue} non è impostata o il testo del commento è vuoto/blank, non fa nulla.
-     * In caso contrario delega la creazione del commento ad {@link AppController}; al successo:
+     * Se {@link #issue} non è impostata o è provvisoria, oppure il testo del commento è vuoto/blank, non fa nulla.
+     * In caso contrario delega la creazione del commento ad {@link AppController}:
      * <ul>
-     *   <li>pulisce {@link #commentArea}</li>
-     *   <li>aggiunge il commento creato alla lista tramite {@link #addCommentToVBox(Comment)}</li>
+     *   <li>subito, pulisce {@link #commentArea} e aggiunge il commento provvisorio alla lista tramite
+     *       {@link #addCommentToVBox(Comment)}, attenuato finché il server non lo conferma;</li>
+     *   <li>al successo, mostra la cella a piena opacità;</li>
+     *   <li>in caso di errore, rimuove la cella e ripristina il testo in {@link #commentArea}.</li>
      * </ul>
      * </p>
      *
@@ -225,13 +361,22 @@ public class IssueDetailGUI {
      */
     @FXML
     void onAddComment(ActionEvent event) {
-        if (issue == null || commentArea.getText().trim().isEmpty())
+        if (issue == null || OptimisticUpdates.isProvisional(issue) || commentArea.getText().trim().isEmpty())
             return;
 
-        AppController.getInstance().addComment(issue, commentArea.getText(),
-                createdComment -> {
+        String text = commentArea.getText();
+        VBox[] pendingCell = new VBox[1];
+        AppController.getInstance().addComment(issue, text,
+                provisional -> {
                     commentArea.clear();
-                    addCommentToVBox(createdComment);
+                    pendingCell[0] = addCommentToVBox(provisional);
+                    pendingCell[0].setOpacity(PENDING_OPACITY);
+                },
+                createdComment -> pendingCell[0].setOpacity(1),
+                () -> {
+                    commentsList.getChildren().remove(pendingCell[0]);
+                    if (!hasCommentCells()) showCommentsPlaceholder("No comments yet.");
+                    if (commentArea.getText().isEmpty()) commentArea.setText(text);
                 });
 
     }
@@ -247,8 +392,9 @@ public class IssueDetailGUI {
      * </p>
      *
      * @param comment commento da visualizzare; non dovrebbe essere {@code null}
+     * @return cella aggiunta
      */
-    private void addCommentToVBox(Comment comment) {
+    private VBox addCommentToVBox(Comment comment) {
         VBox cell = new VBox(4);
         cell.setStyle(
                 "-fx-padding: 10; -fx-background-color: -color-bg-default; -fx-background-radius: 6; -fx-border-color: -color-border-subtle; -fx-border-radius: 6;");
@@ -261,6 +407,8 @@ public class IssueDetailGUI {
         content.setStyle("-fx-font-size: 14; -fx-text-fill: -color-fg-default;");
 
         cell.getChildren().addAll(header, content);
+        commentsList.getChildren().remove(commentsPlaceholder);
         commentsList.getChildren().add(cell);
+        return cell;
     }
 }
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.unina.bugboardapp.gui;
+
+import com.unina.bugboardapp.controller.IssueAttributeIndex;
+import com.unina.bugboardapp.controller.IssueSearchIndex;
+import com.unina.bugboardapp.manager.TaskManager;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.util.Duration;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Motore di filtro della tabella delle issue, che valuta i filtri fuori dal JavaFX Application Thread.
+ * <p>
+ * Invece di sostituire il predicato della {@link FilteredList} ad ogni modifica dei filtri (rivalutando
+ * tutte le righe nel thread JavaFX), il motore:
+ * <ul>
+ *   <li><strong>raggruppa</strong> le digitazioni ravvicinate nel campo di ricerca
+ *       ({@link #TEXT_DEBOUNCE});</li>
+ *   <li>valuta i filtri in <strong>background</strong> ({@link TaskManager.Category#BACKGROUND}) su una copia
+ *       della lista, usando {@link IssueSearchIndex} per il testo;</li>
+ *   <li><strong>annulla</strong> la valutazione precedente quando ne viene avviata una nuova;</li>
+ *   <li>pubblica nel thread JavaFX solo l'<strong>insieme degli id</strong> risultanti, in un unico
+ *       aggiornamento del predicato.</li>
+ * </ul>
+ * </p>
+ *
+ * <p>
+ * Anche le modifiche alla lista sorgente (es. un refresh) pianificano una nuova valutazione, raggruppata
+ * allo stesso modo: le issue aggiunte durante un filtro attivo compaiono al termine di quella valutazione.
+ * Senza filtri attivi il predicato viene rimosso subito, senza lavoro in background.
+ * </p>
+ *
+ * <p>
+ * Con i soli filtri per tipo e stato, senza testo, il predicato viene invece applicato subito e consulta gli
+ * insiemi di id di {@link IssueAttributeIndex}: sono aggiornati insieme alla lista, quindi non serve alcuna
+ * valutazione in background né alle modifiche dei filtri né a quelle della lista.
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * Tutti i metodi pubblici vanno invocati nel JavaFX Application Thread.
+ */
+public final class IssueFilterEngine {
+    /**
+     * Attesa dopo l'ultima digitazione prima di avviare la valutazione.
+     */
+    static final Duration TEXT_DEBOUNCE = Duration.millis(200);
+    /**
+     * Attesa per raggruppare le modifiche della lista sorgente (es. lotti di un refresh).
+     */
+    static final Duration SOURCE_DEBOUNCE = Duration.millis(300);
+    /**
+     * Ogni quante issue la valutazione controlla se è stata annullata.
+     */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    /**
+     * Criteri di filtro correnti.
+     *
+     * @param text  testo cercato in titolo e descrizione; {@code null} o vuoto = nessun filtro testuale
+     * @param type  tipo richiesto; {@code null} = tutti
+     * @param state stato richiesto; {@code null} = tutti
+     */
+    public record Criteria(String text, IssueType type, IssueState state) {
+
+        /**
+         * @return {@code true} se nessun filtro è attivo
+         */
+        public boolean isEmpty() {
+            return (text == null || text.isEmpty()) && type == null && state == null;
+        }
+
+        private boolean matchesFields(Issue issue) {
+            return (type == null || issue.getType() == type) && (state == null || issue.getState() == state);
+        }
+    }
+
+    private final ObservableList<Issue> source;
+    private final IssueSearchIndex searchIndex;
+    private final IssueAttributeIndex attributeIndex;
+    private final FilteredList<Issue> filtered;
+    private final PauseTransition debounce = new PauseTransition();
+
+    private Criteria criteria = new Criteria(null, null, null);
+    private Future<?> evaluation;
+    private long generation;
+
+    /**
+     * Crea il motore di filtro sulla lista indicata.
+     *
+     * @param source         lista da filtrare
+     * @param searchIndex    indice di ricerca testuale aggiornato con {@code source}
+     * @param attributeIndex indici per tipo e stato, aggiornati prima di {@code source}
+     */
+    public IssueFilterEngine(ObservableList<Issue> source, IssueSearchIndex searchIndex,
+                             IssueAttributeIndex attributeIndex) {
+        this.source = source;
+        this.searchIndex = searchIndex;
+        this.attributeIndex = attributeIndex;
+        this.filtered = new FilteredList<>(source, null);
+        debounce.setOnFinished(e -> evaluate());
+        source.addListener((ListChangeListener<Issue>) change -> {
+            if (hasText(criteria)) schedule(SOURCE_DEBOUNCE);
+        });
+    }
+
+    /**
+     * Restituisce la vista filtrata, da collegare alla tabella (eventualmente tramite una {@code SortedList}).
+     *
+     * @return lista filtrata
+     */
+    public FilteredList<Issue> getFilteredIssues() {
+        return filtered;
+    }
+
+    /**
+     * Aggiorna i criteri di filtro.
+     * <p>
+     * Le modifiche al solo testo vengono raggruppate per {@link #TEXT_DEBOUNCE}; le altre vengono valutate
+     * subito (sempre in background).
+     * </p>
+     *
+     * @param text  testo cercato
+     * @param type  tipo richiesto, o {@code null}
+     * @param state stato richiesto, o {@code null}
+     */
+    public void setCriteria(String text, IssueType type, IssueState state) {
+        Criteria next = new Criteria(text, type, state);
+        if (next.equals(criteria)) return;
+        boolean onlyText = next.type() == criteria.type() && next.state() == criteria.state();
+        criteria = next;
+        if (next.isEmpty()) {
+            cancel();
+            filtered.setPredicate(null);
+            return;
+        }
+        if (!hasText(next)) {
+            cancel();
+            filtered.setPredicate(indexedPredicate(next));
+            return;
+        }
+        schedule(onlyText ? TEXT_DEBOUNCE : Duration.ZERO);
+    }
+
+    /**
+     * Annulla la valutazione pianificata o in corso (es. alla chiusura della vista).
+     */
+    public void cancel() {
+        debounce.stop();
+        generation++;
+        if (evaluation != null) {
+            evaluation.cancel(true);
+            evaluation = null;
+        }
+    }
+
+    private void schedule(Duration delay) {
+        debounce.stop();
+        if (delay.lessThanOrEqualTo(Duration.ZERO)) {
+            evaluate();
+        } else {
+            debounce.setDuration(delay);
+            debounce.playFromStart();
+        }
+    }
+
+    /**
+     * Avvia la valutazione in background dei criteri correnti su una copia della lista sorgente,
+     * annullando quella eventualmente in corso.
+     */
+    private void evaluate() {
+        cancel();
+        Criteria current = criteria;
+        List<Issue> snapshot = List.copyOf(source);
+        long evaluationId = generation;
+        evaluation = TaskManager.getInstance().submit(TaskManager.Category.BACKGROUND, "filter-issues", () -> {
+            Set<Integer> ids = matchingIds(current, snapshot);
+            if (ids != null) {
+                Platform.runLater(() -> publish(evaluationId, current, ids));
+            }
+        });
+    }
+
+    /**
+     * Calcola gli id delle issue che soddisfano i criteri.
+     *
+     * @return insieme degli id, oppure {@code null} se la valutazione è stata annullata
+     */
+    private Set<Integer> matchingIds(Criteria current, List<Issue> snapshot) {
+        Set<Issue> textMatches = hasText(current) ? searchIndex.search(current.text()) : null;
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (i % CANCEL_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) return null;
+            Issue issue = snapshot.get(i);
+            if (issue.getId() != null && current.matchesFields(issue)
+                    && (textMatches == null || textMatches.contains(issue))) {
+                ids.add(issue.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Applica nel thread JavaFX il risultato di una valutazione, se non è stata superata da una successiva.
+     */
+    private void publish(long evaluationId, Criteria evaluated, Set<Integer> ids) {
+        if (evaluationId != generation) return;
+        evaluation = null;
+        filtered.setPredicate(issue -> issue.getId() != null ? ids.contains(issue.getId()) : matchesDirectly(evaluated, issue));
+    }
+
+    /**
+     * Predicato sui soli tipo e stato, basato sugli insiemi di id di {@link IssueAttributeIndex}.
+     */
+    private Predicate<Issue> indexedPredicate(Criteria current) {
+        Set<Integer> typeIds = current.type() != null ? attributeIndex.idsOf(current.type()) : null;
+        Set<Integer> stateIds = current.state() != null ? attributeIndex.idsOf(current.state()) : null;
+        return issue -> {
+            Integer id = issue.getId();
+            if (id == null) return current.matchesFields(issue);
+            return (typeIds == null || typeIds.contains(id)) && (stateIds == null || stateIds.contains(id));
+        };
+    }
+
+    private static boolean hasText(Criteria current) {
+        return current.text() != null && !current.text().isEmpty();
+    }
+
+    private boolean matchesDirectly(Criteria current, Issue issue) {
+        return current.matchesFields(issue) && searchIndex.matching(current.text()).test(issue);
+    }
+}
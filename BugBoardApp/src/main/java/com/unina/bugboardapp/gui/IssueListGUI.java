@@ -2,12 +2,17 @@ package com.unina.bugboardapp.gui;
 
 import com.unina.bugboardapp.StartApplication;
 import com.unina.bugboardapp.controller.AppController;
+import com.unina.bugboardapp.controller.OptimisticUpdates;
+import com.unina.bugboardapp.controller.PagedIssueList;
 import com.unina.bugboardapp.model.Issue;
 import com.unina.bugboardapp.model.enums.IssueType;
 import com.unina.bugboardapp.model.enums.Priority;
 import com.unina.bugboardapp.model.enums.IssueState;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
@@ -39,8 +44,13 @@ import java.io.IOException;
  *
  * <h2>Dati</h2>
  * La tabella si basa su una lista locale {@link #masterData} sincronizzata (binding) con la lista
- * restituita da {@link AppController#getAllIssues()}. I filtri sono applicati tramite
- * {@link FilteredList} e l'ordinamento tramite {@link SortedList}.
+ * restituita da {@link AppController#getAllIssues()}. I filtri sono valutati in background da
+ * {@link IssueFilterEngine}, che ne pubblica il risultato in una {@link FilteredList}; l'ordinamento
+ * avviene tramite {@link SortedList}.
+ * <p>
+ * Con {@code bugboard.issues.paged=true} la tabella usa invece una {@link PagedIssueList}, popolata a pagine
+ * durante lo scorrimento.
+ * </p>
  */
 public class IssueListGUI {
 
@@ -79,6 +89,12 @@ public class IssueListGUI {
     @FXML
     private TableColumn<Issue, String> colReporter;
 
+    /**
+     * Barra di avanzamento dell'upload degli allegati, visibile solo durante un upload.
+     */
+    @FXML
+    private ProgressBar uploadProgressBar;
+
     /**
      * Lista "master" locale a cui vengono applicati filtri e ordinamento.
      * <p>
@@ -87,11 +103,21 @@ public class IssueListGUI {
      */
     private final ObservableList<Issue> masterData = FXCollections.observableArrayList();
 
+    /**
+     * Motore che valuta i filtri in background e aggiorna la vista filtrata di {@link #masterData}.
+     */
+    private IssueFilterEngine filterEngine;
+
     /**
      * Logger della classe, usato per registrare errori nel caricamento delle viste.
      */
     private static final Logger logger = Logger.getLogger(IssueListGUI.class.getName());
 
+    /**
+     * Opacità delle righe delle issue in attesa di conferma dal server.
+     */
+    private static final double PENDING_OPACITY = 0.6;
+
     /**
      * Inizializza la vista dopo l'iniezione dei campi FXML.
      * <p>
@@ -100,22 +126,104 @@ public class IssueListGUI {
      *   <li>Configurazione delle colonne della tabella;</li>
      *   <li>Configurazione dei filtri e del comportamento della tabella (doppio click);</li>
      *   <li>Binding dei dati locali {@link #masterData} con la lista restituita da
-     *       {@link AppController#getAllIssues()}.</li>
+     *       {@link AppController#getAllIssues()};</li>
+     *   <li>Binding della barra di avanzamento degli upload;</li>
+     *   <li>Visualizzazione degli avvisi all'utente.</li>
      * </ol>
      * </p>
      */
     @FXML
     public void initialize() {
         setupColumns();
-        setupFiltersAndTable();
-        ObservableList<Issue> sourceList = AppController.getInstance().getAllIssues();
-        javafx.beans.binding.Bindings.bindContent(masterData, sourceList);
+        if (PagedIssueList.isEnabled()) {
+            setupPagedTable();
+        } else {
+            setupFiltersAndTable();
+            ObservableList<Issue> sourceList = AppController.getInstance().getAllIssues();
+            javafx.beans.binding.Bindings.bindContent(masterData, sourceList);
+        }
+        setupUploadProgress();
+        setupNotifications();
+    }
+
+    /**
+     * Configura la tabella in modalità paginata ({@link PagedIssueList#isEnabled()}).
+     * <p>
+     * Le righe vengono scaricate a pagine mentre l'utente scorre, invece di tenere in memoria tutte le issue;
+     * filtri e ordinamento lato client vengono disabilitati, perché richiederebbero di leggere tutte le righe.
+     * </p>
+     * <p>
+     * Quando una issue creata (o ricevuta dal flusso di modifiche) arriva in {@link AppController#getAllIssues()}
+     * le pagine vengono ricaricate, così che compaia anche in tabella. Quando la vista viene chiusa (cambio
+     * di vista o logout) i caricamenti in corso vengono annullati.
+     * </p>
+     */
+    private void setupPagedTable() {
+        PagedIssueList pagedIssues = new PagedIssueList();
+        searchField.setDisable(true);
+        typeFilter.setDisable(true);
+        stateFilter.setDisable(true);
+        issueTable.getColumns().forEach(column -> column.setSortable(false));
+        setupTableRowDoubleClick();
+        issueTable.setItems(pagedIssues);
+
+        ObservableList<Issue> issues = AppController.getInstance().getAllIssues();
+        ListChangeListener<Issue> onCreated = change -> {
+            while (change.next()) {
+                if (change.getAddedSubList().stream().anyMatch(issue -> !OptimisticUpdates.isProvisional(issue))) {
+                    pagedIssues.refresh();
+                    return;
+                }
+            }
+        };
+        issues.addListener(onCreated);
+        issueTable.sceneProperty().flatMap(Scene::windowProperty).addListener((obs, oldWindow, window) -> {
+            if (window == null) {
+                issues.removeListener(onCreated);
+                pagedIssues.cancelPending();
+            }
+        });
+        pagedIssues.refresh();
+    }
+
+    /**
+     * Mostra in un dialog gli avvisi pubblicati in {@link AppController#getNotifications()} (es. una issue
+     * o un commento rifiutati dal server) e li rimuove dalla lista.
+     */
+    private void setupNotifications() {
+        ObservableList<String> notifications = AppController.getInstance().getNotifications();
+        notifications.addListener((ListChangeListener<String>) change -> {
+            if (!notifications.isEmpty()) Platform.runLater(() -> showNotifications(notifications));
+        });
+        if (!notifications.isEmpty()) Platform.runLater(() -> showNotifications(notifications));
+    }
+
+    private void showNotifications(ObservableList<String> notifications) {
+        if (notifications.isEmpty()) return;
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Warning");
+        alert.setHeaderText("Some changes were not saved");
+        alert.setContentText(String.join("\n", notifications));
+        notifications.clear();
+        alert.show();
+    }
+
+    /**
+     * Collega {@link #uploadProgressBar} all'avanzamento dell'upload esposto da
+     * {@link AppController#uploadProgressProperty()}, mostrandola solo mentre un upload è in corso.
+     */
+    private void setupUploadProgress() {
+        ReadOnlyDoubleProperty progress = AppController.getInstance().uploadProgressProperty();
+        uploadProgressBar.progressProperty().bind(progress);
+        uploadProgressBar.visibleProperty().bind(progress.greaterThanOrEqualTo(0));
+        uploadProgressBar.managedProperty().bind(uploadProgressBar.visibleProperty());
     }
 
     /**
      * Configura il mapping tra proprietà del modello {@link Issue} e colonne della {@link #issueTable}.
      * <p>
-     * La colonna reporter è calcolata a partire da {@code issue.getReporter().getUsername()}.
+     * La colonna reporter è calcolata a partire da {@code issue.getReporter().getUsername()}; le righe
+     * segnaposto della modalità paginata (issue {@code null}) restano vuote.
      * </p>
      */
     private void setupColumns() {
@@ -123,7 +231,8 @@ public class IssueListGUI {
         colType.setCellValueFactory(new PropertyValueFactory<>("type"));
         colPriority.setCellValueFactory(new PropertyValueFactory<>("priority"));
         colState.setCellValueFactory(new PropertyValueFactory<>("state"));
-        colReporter.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getReporter().getUsername()));
+        colReporter.setCellValueFactory(cell -> new SimpleStringProperty(
+                cell.getValue() == null ? null : cell.getValue().getReporter().getUsername()));
     }
 
     /**
@@ -177,41 +286,44 @@ public class IssueListGUI {
     }
 
     /**
-     * Imposta i listener sui filtri e collega la pipeline FilteredList -> SortedList -> TableView.
+     * Imposta i listener sui filtri e collega la pipeline {@link IssueFilterEngine} -> SortedList -> TableView.
      */
     private void setupFilterListeners() {
-        FilteredList<Issue> filteredData = new FilteredList<>(masterData, p -> true);
+        filterEngine = new IssueFilterEngine(masterData, AppController.getInstance().getIssueSearchIndex(),
+                AppController.getInstance().getIssueAttributeIndex());
 
         searchField.textProperty().addListener((obs, oldVal, newVal) ->
-                updatePredicate(filteredData, newVal, typeFilter.getValue(), stateFilter.getValue()));
+                filterEngine.setCriteria(newVal, typeFilter.getValue(), stateFilter.getValue()));
 
         typeFilter.valueProperty().addListener((obs, oldVal, newVal) ->
-                updatePredicate(filteredData, searchField.getText(), newVal, stateFilter.getValue()));
+                filterEngine.setCriteria(searchField.getText(), newVal, stateFilter.getValue()));
 
         stateFilter.valueProperty().addListener((obs, oldVal, newVal) ->
-                updatePredicate(filteredData, searchField.getText(), typeFilter.getValue(), newVal));
+                filterEngine.setCriteria(searchField.getText(), typeFilter.getValue(), newVal));
 
-        SortedList<Issue> sortedData = new SortedList<>(filteredData);
+        SortedList<Issue> sortedData = new SortedList<>(filterEngine.getFilteredIssues());
         sortedData.comparatorProperty().bind(issueTable.comparatorProperty());
         issueTable.setItems(sortedData);
     }
 
-    /**
-     * Aggiorna il predicato della FilteredList con i valori correnti dei filtri. Evita duplicazione di codice.
-     */
-    private void updatePredicate(FilteredList<Issue> filteredData, String searchText,
-                                 IssueType type, IssueState state) {
-        filteredData.setPredicate(issue -> isMatch(issue, searchText, type, state));
-    }
-
     /**
      * Configura il doppio click sulle righe della tabella per aprire la vista dettaglio.
+     * <p>
+     * Le issue provvisorie ({@link OptimisticUpdates#isProvisional(Issue)}), in attesa di conferma dal server,
+     * vengono mostrate attenuate.
+     * </p>
      */
     private void setupTableRowDoubleClick() {
         issueTable.setRowFactory(tv -> {
-            TableRow<Issue> row = new TableRow<>();
+            TableRow<Issue> row = new TableRow<>() {
+                @Override
+                protected void updateItem(Issue item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setOpacity(!empty && OptimisticUpdates.isProvisional(item) ? PENDING_OPACITY : 1);
+                }
+            };
             row.setOnMouseClicked(event -> {
-                if (event.getClickCount() == 2 && !row.isEmpty()) {
+                if (event.getClickCount() == 2 && !row.isEmpty() && row.getItem() != null) {
                     openDetailView(row.getItem());
                 }
             });
@@ -219,40 +331,6 @@ public class IssueListGUI {
         });
     }
 
-    /**
-     * Verifica se una {@link Issue} soddisfa i criteri di filtro correnti.
-     * <p>
-     * Il match testuale viene effettuato (case-insensitive) su titolo e descrizione.
-     * I filtri di tipo e stato, se non nulli, richiedono uguaglianza esatta con i valori della issue.
-     * </p>
-     *
-     * @param issue      issue da valutare
-     * @param searchText testo cercato; se {@code null} o vuoto non viene applicato filtro testuale
-     * @param type       tipo richiesto; se {@code null} non viene applicato filtro per tipo
-     * @param state      stato richiesto; se {@code null} non viene applicato filtro per stato
-     * @return {@code true} se la issue passa tutti i filtri, {@code false} altrimenti
-     */
-    private boolean isMatch(Issue issue, String searchText, IssueType type, IssueState state) {
-        boolean matchText = true;
-        if (searchText != null && !searchText.isEmpty()) {
-            String lowerCaseFilter = searchText.toLowerCase();
-            matchText = issue.getTitle().toLowerCase().contains(lowerCaseFilter) ||
-                    issue.getDescription().toLowerCase().contains(lowerCaseFilter);
-        }
-
-        boolean matchType = true;
-        if (type != null) {
-            matchType = issue.getType() == type;
-        }
-
-        boolean matchState = true;
-        if (state != null) {
-            matchState = issue.getState() == state;
-        }
-
-        return matchText && matchType && matchState;
-    }
-
     /**
      * Handler del click su "New Issue".
      * <p>
@@ -284,7 +362,8 @@ public class IssueListGUI {
      * <p>
      * Carica {@code issue-detail-view.fxml}, imposta la issue nel relativo controller
      * {@link IssueDetailGUI} tramite {@link IssueDetailGUI#setIssue(Issue)} e mostra una nuova finestra
-     * (non bloccante) in modalità {@link Modality#APPLICATION_MODAL}.
+     * (non bloccante) in modalità {@link Modality#APPLICATION_MODAL}. Alla chiusura della finestra
+     * viene invocato {@link IssueDetailGUI#dispose()}.
      * </p>
      *
      * @param issue issue di cui mostrare i dettagli; non dovrebbe essere {@code null}
@@ -301,6 +380,7 @@ public class IssueListGUI {
             stage.initModality(Modality.APPLICATION_MODAL);
             stage.setTitle("Issue Details");
             stage.setScene(new Scene(root));
+            stage.setOnHidden(e -> controller.dispose());
             stage.show();
         } catch (IOException e) {
             logger.severe("Failed to load issue detail view");
@@ -65,7 +65,8 @@ public class LoginGUI {
      * Inizializza la schermata di login dopo l'iniezione dei campi FXML.
      * <p>
      * Nasconde inizialmente {@link #errorLabel}, abilita il login con invio nel campo password e
-     * aggiunge listener per nascondere l'errore quando l'utente modifica i campi.
+     * aggiunge listener per nascondere l'errore quando l'utente modifica i campi. Avvia inoltre
+     * l'apertura anticipata della connessione verso il backend.
      * </p>
      */
     @FXML
@@ -79,6 +80,9 @@ public class LoginGUI {
 
         emailField.textProperty().addListener((obs, oldVal, newVal) -> hideError());
         passwordField.textProperty().addListener((obs, oldVal, newVal) -> hideError());
+
+        // Apre la connessione mentre l'utente inserisce le credenziali
+        AppController.getInstance().warmUpConnection();
     }
     /**
      * Handler dell'azione di login (click bottone o invio nel campo password).
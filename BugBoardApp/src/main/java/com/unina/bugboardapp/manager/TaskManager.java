@@ -0,0 +1,263 @@
+package com.unina.bugboardapp.manager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scheduler centralizzato delle attività in background dell'applicazione.
+ * <p>
+ * Sostituisce la creazione di un nuovo {@link Thread} per ogni operazione: ogni attività viene
+ * eseguita su un thread virtuale, ma il numero di attività contemporaneamente in esecuzione è
+ * limitato per {@link Category}. Le attività in eccesso restano in coda (in attesa di un permesso)
+ * senza occupare thread di piattaforma.
+ * </p>
+ *
+ * <h2>Funzionalità</h2>
+ * <ul>
+ *   <li>limiti di concorrenza per categoria ({@link Category#getMaxConcurrency()});</li>
+ *   <li>nome descrittivo del thread per ogni attività (utile in log e thread dump);</li>
+ *   <li>handle di annullamento: ogni sottomissione restituisce un {@link Future};</li>
+ *   <li>annullamento di tutte le attività in corso al logout ({@link #cancelAll()}) e arresto
+ *       ordinato all'uscita ({@link #shutdown()});</li>
+ *   <li>metriche per categoria su profondità della coda e latenza ({@link #getMetrics()}).</li>
+ * </ul>
+ *
+ * <h2>Pattern</h2>
+ * Implementa un Singleton "lazy" (istanza creata al primo {@link #getInstance()}).
+ */
+public class TaskManager {
+    private static final Logger logger = Logger.getLogger(TaskManager.class.getName());
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static TaskManager instance;
+
+    /**
+     * Categorie di attività, ciascuna con un proprio limite di concorrenza.
+     */
+    public enum Category {
+        /**
+         * Chiamate REST verso il backend (issue, commenti, utenti).
+         */
+        NETWORK(6),
+        /**
+         * Download e decodifica di immagini allegate.
+         */
+        IMAGE(3),
+        /**
+         * Altre elaborazioni in background (es. helper generici della UI).
+         */
+        BACKGROUND(4);
+
+        private final int maxConcurrency;
+
+        Category(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+    }
+
+    /**
+     * Istantanea delle metriche di una categoria.
+     *
+     * @param queued        attività in attesa di un permesso di esecuzione
+     * @param running       attività attualmente in esecuzione
+     * @param completed     attività terminate (con successo, errore o annullate dopo l'avvio)
+     * @param failed        attività terminate con eccezione (escluse le interruzioni per annullamento)
+     * @param avgWaitMillis tempo medio di attesa in coda, in millisecondi
+     * @param avgRunMillis  tempo medio di esecuzione, in millisecondi
+     * @param maxRunMillis  tempo massimo di esecuzione osservato, in millisecondi
+     */
+    public record Metrics(int queued, int running, long completed, long failed,
+                          double avgWaitMillis, double avgRunMillis, long maxRunMillis) {
+    }
+
+    private final ExecutorService executor;
+    private final Map<Category, Semaphore> permits = new EnumMap<>(Category.class);
+    private final Map<Category, CategoryStats> stats = new EnumMap<>(Category.class);
+    private final Set<Future<?>> activeTasks = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private TaskManager() {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bugboard-task-", 0).factory());
+        for (Category category : Category.values()) {
+            permits.put(category, new Semaphore(category.getMaxConcurrency(), true));
+            stats.put(category, new CategoryStats());
+        }
+    }
+
+    /**
+     * Restituisce l'istanza singleton dello scheduler.
+     *
+     * @return istanza unica di {@link TaskManager}
+     */
+    public static synchronized TaskManager getInstance() {
+        if (instance == null) {
+            instance = new TaskManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Sottomette un'attività con valore di ritorno.
+     *
+     * @param category categoria dell'attività (determina il limite di concorrenza)
+     * @param name     nome descrittivo, usato per il thread che la esegue
+     * @param work     attività da eseguire
+     * @param <T>      tipo del risultato
+     * @return handle dell'attività; {@code cancel(true)} la rimuove dalla coda o la interrompe
+     * @throws RejectedExecutionException se lo scheduler è stato arrestato
+     */
+    public <T> Future<T> submit(Category category, String name, Callable<T> work) {
+        CategoryStats categoryStats = stats.get(category);
+        Semaphore categoryPermits = permits.get(category);
+        String threadName = category.name().toLowerCase() + "-" + name + "-" + sequence.incrementAndGet();
+        long enqueuedAt = System.nanoTime();
+
+        FutureTask<T> task = new FutureTask<>(() -> {
+            Thread.currentThread().setName(threadName);
+            categoryStats.queued.incrementAndGet();
+            try {
+                categoryPermits.acquire();
+            } finally {
+                categoryStats.queued.decrementAndGet();
+            }
+            long startedAt = System.nanoTime();
+            categoryStats.running.incrementAndGet();
+            try {
+                return work.call();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            } catch (Exception e) {
+                categoryStats.failed.increment();
+                throw e;
+            } finally {
+                categoryStats.running.decrementAndGet();
+                categoryPermits.release();
+                categoryStats.record(startedAt - enqueuedAt, System.nanoTime() - startedAt);
+            }
+        }) {
+            @Override
+            protected void done() {
+                activeTasks.remove(this);
+            }
+        };
+
+        activeTasks.add(task);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            activeTasks.remove(task);
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Sottomette un'attività senza valore di ritorno.
+     *
+     * @param category categoria dell'attività
+     * @param name     nome descrittivo, usato per il thread che la esegue
+     * @param work     attività da eseguire
+     * @return handle dell'attività, utilizzabile per annullarla
+     * @throws RejectedExecutionException se lo scheduler è stato arrestato
+     */
+    public Future<?> submit(Category category, String name, Runnable work) {
+        return submit(category, name, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Annulla tutte le attività in coda o in esecuzione (es. al logout).
+     * <p>
+     * Lo scheduler resta utilizzabile per nuove attività.
+     * </p>
+     */
+    public void cancelAll() {
+        int cancelled = 0;
+        for (Future<?> task : activeTasks) {
+            if (task.cancel(true)) cancelled++;
+        }
+        int count = cancelled;
+        logger.fine(() -> "Attività annullate: " + count);
+    }
+
+    /**
+     * Arresta lo scheduler in modo ordinato (es. all'uscita dall'applicazione).
+     * <p>
+     * Annulla le attività in corso e attende al più {@value #SHUTDOWN_TIMEOUT_SECONDS} secondi la loro
+     * terminazione. Dopo l'arresto nuove sottomissioni vengono rifiutate.
+     * </p>
+     */
+    public void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Alcune attività in background non sono terminate entro il timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.log(Level.INFO, () -> "TaskManager arrestato: " + getMetrics());
+    }
+
+    /**
+     * Restituisce le metriche correnti di tutte le categorie.
+     *
+     * @return mappa categoria &rarr; metriche
+     */
+    public Map<Category, Metrics> getMetrics() {
+        Map<Category, Metrics> snapshot = new EnumMap<>(Category.class);
+        stats.forEach((category, categoryStats) -> snapshot.put(category, categoryStats.snapshot()));
+        return snapshot;
+    }
+
+    /**
+     * Contatori di una categoria, aggiornati senza lock dai thread delle attività.
+     */
+    private static final class CategoryStats {
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger running = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAdder totalRunNanos = new LongAdder();
+        private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long waitNanos, long runNanos) {
+            completed.increment();
+            totalWaitNanos.add(waitNanos);
+            totalRunNanos.add(runNanos);
+            maxRunNanos.accumulate(runNanos);
+        }
+
+        private Metrics snapshot() {
+            long done = completed.sum();
+            double avgWait = done == 0 ? 0 : totalWaitNanos.sum() / (done * 1_000_000.0);
+            double avgRun = done == 0 ? 0 : totalRunNanos.sum() / (done * 1_000_000.0);
+            return new Metrics(queued.get(), running.get(), done, failed.sum(),
+                    avgWait, avgRun, TimeUnit.NANOSECONDS.toMillis(maxRunNanos.get()));
+        }
+    }
+}
@@ -84,4 +84,12 @@ public class Comment {
     public void setContent(String content) {
         this.content = content;
     }
+
+    @JsonProperty("data")
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
 }
@@ -143,6 +143,10 @@ public class Issue {
         this.state = state;
     }
 
+    public void setReporter(User reporter) {
+        this.reporter = reporter;
+    }
+
     public void setImagePath(String imagePath) {
         this.imagePath = imagePath;
     }
@@ -3,17 +3,24 @@ package com.unina.bugboardapp.service;
 import com.unina.bugboardapp.exception.ApiException;
 import com.unina.bugboardapp.manager.SessionManager;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.nio.file.Path;
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.nio.file.Files;
 import java.nio.charset.StandardCharsets;
 import java.net.http.HttpRequest.BodyPublisher;
@@ -24,7 +31,7 @@ import java.net.http.HttpRequest.BodyPublisher;
  * {@link java.net.http.HttpClient}, includendo automaticamente:
  * </p>
  * <ul>
- *   <li>Base URL comune ({@link #BASE_URL})</li>
+ *   <li>Base URL comune ({@link TransportProfile#baseUrl()})</li>
  *   <li>Header {@code Content-Type: application/json}</li>
  *   <li>Header {@code Authorization: Bearer ...} quando un token è presente in sessione</li>
  * </ul>
@@ -35,6 +42,55 @@ import java.net.http.HttpRequest.BodyPublisher;
  * con codice e payload della risposta, e viene scritto un log a livello {@link Level#WARNING}.
  * </p>
  *
+ * <h2>API asincrona</h2>
+ * <p>
+ * Accanto ai metodi bloccanti sono disponibili varianti non bloccanti ({@link #getAsync(String)},
+ * {@link #postAsync(String, String)}, {@link #getStreamAsync(String)}) basate su
+ * {@link HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)}: nessun thread resta bloccato in
+ * attesa della risposta. Il {@link CompletableFuture} restituito:
+ * </p>
+ * <ul>
+ *   <li>viene completato eccezionalmente con {@link ApiException} per status code &gt;= 400;</li>
+ *   <li>se annullato con {@code cancel(true)} annulla anche lo scambio HTTP sottostante;</li>
+ *   <li>può avere un timeout dedicato (es. {@link #getAsync(String, Duration)}), che lo completa con
+ *       {@link java.net.http.HttpTimeoutException} se la risposta non arriva in tempo.</li>
+ * </ul>
+ *
+ * <h2>Trasporto</h2>
+ * <p>
+ * Versione HTTP, executor dedicato, timeout di connessione e timeout per richiesta sono definiti da un
+ * {@link TransportProfile} (letto dalle proprietà di sistema alla creazione del singleton). Ogni richiesta
+ * riceve il timeout previsto per il proprio endpoint, così un backend bloccato non trattiene un thread
+ * indefinitamente. {@link #warmUp()} apre in anticipo la connessione (es. mentre è visibile la schermata
+ * di login), in modo che la prima richiesta reale non paghi handshake e upgrade del protocollo.
+ * </p>
+ *
+ * <h2>Compressione</h2>
+ * <p>
+ * Se abilitata dal profilo ({@link TransportProfile#compression()}), le richieste dichiarano
+ * {@code Accept-Encoding: gzip, deflate}; il body ricevuto viene decompresso in streaming secondo
+ * {@code Content-Encoding}, anche per gli stream restituiti da {@link #getStream(String)}. I byte trasferiti
+ * e quelli decompressi sono conteggiati in {@link #getTransferStats()}.
+ * </p>
+ *
+ * <h2>Formato binario</h2>
+ * <p>
+ * Se abilitato dal profilo ({@link TransportProfile#binaryFormat()}), {@link #getStreamIfModified(String)}
+ * dichiara di preferire il formato Smile ({@link JsonSupport#SMILE_CONTENT_TYPE}) rispetto al JSON; il
+ * chiamante sceglie il parser in base al {@code Content-Type} effettivo ({@link StreamBody#contentType()}).
+ * Se il server rifiuta la negoziazione ({@code 406 Not Acceptable}) la richiesta viene ripetuta in JSON e,
+ * per il resto della sessione, il formato binario non viene più richiesto.
+ * </p>
+ *
+ * <h2>GET condizionali</h2>
+ * <p>
+ * {@link #getConditional(String, ResponseParser)} e {@link #getStreamIfModified(String)} ricordano per ogni
+ * endpoint i validatori ({@code ETag}/{@code Last-Modified}) dell'ultima risposta e li reinviano come
+ * {@code If-None-Match}/{@code If-Modified-Since}. Su {@code 304 Not Modified} viene restituito il risultato
+ * già deserializzato (o, per gli stream, {@code null}), saltando trasferimento e parsing. La cache va
+ * svuotata al cambio di sessione ({@link #clearConditionalCache()}).
+ * </p>
+ *
  * <h2>Note di utilizzo</h2>
  * <p>
  * La classe è implementata come singleton tramite {@link #getInstance()}.
@@ -42,14 +98,56 @@ import java.net.http.HttpRequest.BodyPublisher;
  */
 public class ApiClient {
     private static final Logger logger = Logger.getLogger(ApiClient.class.getName());
-    private static final String BASE_URL = "http://4.178.64.157:8080/api";
+    private static final int NOT_MODIFIED = 304;
+    private static final int NOT_ACCEPTABLE = 406;
+    /**
+     * Header con cui il client identifica una scrittura ripetibile: il server applica una sola volta
+     * le richieste con la stessa chiave.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String STREAM_KEY_PREFIX = "stream:";
     private static ApiClient instance;
+    private final TransportProfile profile;
     private final HttpClient client;
+    private final ExecutorService executor;
+    private final ConditionalCache conditionalCache = new ConditionalCache();
+    private final TransferStats transferStats = new TransferStats();
+    private volatile boolean binaryRefused;
+
+    /**
+     * Conversione del body di una risposta nel risultato da memorizzare per le GET condizionali.
+     *
+     * @param <T> tipo del risultato
+     */
+    @FunctionalInterface
+    public interface ResponseParser<T> {
+        T parse(String body) throws IOException;
+    }
 
     private ApiClient() {
+        this(TransportProfile.fromSystemProperties());
+    }
+
+    /**
+     * Crea un client indipendente dal singleton con il profilo indicato (es. verso un backend di test).
+     *
+     * @param profile profilo di trasporto
+     */
+    ApiClient(TransportProfile profile) {
+        this.profile = profile;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(profile.executorThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "bugboard-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
         this.client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
+                .version(profile.version())
+                .connectTimeout(profile.connectTimeout())
+                .executor(executor)
                 .build();
+        logger.info(() -> "ApiClient configurato: " + profile);
     }
     /**
      * Restituisce l'istanza singleton del client.
@@ -62,6 +160,17 @@ public class ApiClient {
         }
         return instance;
     }
+    /**
+     * Chiude le connessioni e arresta l'executor dedicato (es. all'uscita dall'applicazione).
+     * <p>
+     * Le richieste in corso vengono interrotte; dopo l'arresto il client non può più essere usato.
+     * </p>
+     */
+    public void shutdown() {
+        client.shutdownNow();
+        executor.shutdownNow();
+        logger.fine("ApiClient arrestato");
+    }
     /**
      * Esegue una richiesta GET verso l'endpoint specificato.
      *
@@ -75,6 +184,29 @@ public class ApiClient {
         HttpRequest request = createGetRequest(endpoint);
         return executeRequest(request);
     }
+    /**
+     * Risposta testuale insieme ai relativi header.
+     *
+     * @param body    body della risposta (già decompresso)
+     * @param headers header della risposta
+     */
+    public record HeadedResponse(String body, HttpHeaders headers) {
+    }
+    /**
+     * Variante di {@link #get(String)} che restituisce anche gli header della risposta (es. cursori di
+     * sincronizzazione inviati dal backend).
+     *
+     * @param endpoint path relativo (es. {@code "/issues?modifiedSince=..."})
+     * @return body e header della risposta
+     * @throws IOException          in caso di errore I/O durante l'invio/ricezione
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa della risposta
+     * @throws ApiException         se lo status code è &gt;= 400
+     */
+    public HeadedResponse getWithHeaders(String endpoint) throws IOException, InterruptedException {
+        TextResponse response = sendForText(createGetRequest(endpoint));
+        handleError(response);
+        return new HeadedResponse(response.body(), response.raw().headers());
+    }
     /**
      * Esegue una richiesta POST verso l'endpoint specificato, con payload JSON.
      *
@@ -89,6 +221,25 @@ public class ApiClient {
         HttpRequest request = createPostRequest(endpoint, jsonBody);
         return executeRequest(request);
     }
+    /**
+     * Variante di {@link #post(String, String)} con header aggiuntivi (es. {@code Idempotency-Key}).
+     *
+     * @param endpoint path relativo (es. {@code "/issues"})
+     * @param jsonBody corpo della richiesta in formato JSON (stringa)
+     * @param headers  header aggiuntivi della richiesta
+     * @return body della risposta
+     * @throws IOException          in caso di errore I/O durante l'invio/ricezione
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa della risposta
+     * @throws ApiException         se lo status code è &gt;= 400
+     */
+    public String post(String endpoint, String jsonBody, Map<String, String> headers)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = getBaseRequestBuilder(endpoint)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody));
+        headers.forEach(builder::header);
+        return executeRequest(builder.build());
+    }
     /**
      * Esegue una richiesta GET che restituisce un contenuto binario come {@link java.io.InputStream}.
      * <p>
@@ -108,16 +259,350 @@ public class ApiClient {
         HttpRequest request = createGetRequest(endpoint);
         HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
         if (response.statusCode() >= 400) {
+            closeQuietly(response.body());
             logger.log(Level.WARNING, () -> "API Error " + response.statusCode());
             throw new ApiException(response.statusCode(), "API call failed for stream");
         }
-        return response.body();
+        return decodeStream(response);
+    }
+    /**
+     * Apre uno stream di eventi Server-Sent Events ({@code text/event-stream}).
+     * <p>
+     * Se {@code lastEventId} non è {@code null} viene inviato come {@code Last-Event-ID}, così che il server
+     * possa riprendere dagli eventi successivi. Il timeout della richiesta vale solo fino alla ricezione degli
+     * header: la lettura dello stream può restare in attesa indefinitamente e va interrotta chiudendo lo stream.
+     * <strong>Nota:</strong> lo stream restituito va chiuso dal chiamante.
+     * </p>
+     *
+     * @param endpoint    path relativo dell'API (es. {@code "/changes/stream"})
+     * @param lastEventId id dell'ultimo evento ricevuto, oppure {@code null}
+     * @return stream decodificato degli eventi
+     * @throws IOException          in caso di errore I/O durante l'invio/ricezione
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa della risposta
+     * @throws ApiException         se la risposta HTTP ha status code &gt;= 400
+     */
+    public InputStream openEventStream(String endpoint, String lastEventId) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = getBaseRequestBuilder(endpoint)
+                .header("Accept", "text/event-stream")
+                .header("Cache-Control", "no-cache")
+                .GET();
+        if (lastEventId != null) {
+            builder.header("Last-Event-ID", lastEventId);
+        }
+        HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() >= 400) {
+            closeQuietly(response.body());
+            logger.log(Level.WARNING, () -> "API Error " + response.statusCode());
+            throw new ApiException(response.statusCode(), "API call failed for event stream");
+        }
+        return decodeStream(response);
+    }
+
+    /**
+     * Risposta di una GET in streaming rivalidata con un {@code ETag} noto al chiamante.
+     *
+     * @param body        stream decodificato del body; {@code null} se {@code notModified}
+     * @param etag        {@code ETag} della risposta, o {@code null} se assente
+     * @param notModified {@code true} se il server ha risposto {@code 304 Not Modified}
+     */
+    public record StreamResponse(InputStream body, String etag, boolean notModified) {
+    }
+
+    /**
+     * Variante di {@link #getStream(String)} rivalidata con un {@code ETag} conservato dal chiamante
+     * (es. in una cache su disco).
+     * <p>
+     * Se {@code ifNoneMatch} non è {@code null} viene inviato come {@code If-None-Match}; su
+     * {@code 304 Not Modified} la risposta non ha body. <strong>Nota:</strong> lo stream restituito
+     * va chiuso dal chiamante.
+     * </p>
+     *
+     * @param endpoint    path relativo dell'API (es. {@code "/images/<nome-file>"})
+     * @param ifNoneMatch {@code ETag} della copia locale, oppure {@code null}
+     * @return risposta con stream ed {@code ETag}, oppure con {@code notModified} impostato
+     * @throws IOException          in caso di errore I/O durante l'invio/ricezione
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa della risposta
+     * @throws ApiException         se la risposta HTTP ha status code &gt;= 400
+     */
+    public StreamResponse getStream(String endpoint, String ifNoneMatch) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = getBaseRequestBuilder(endpoint).GET();
+        if (ifNoneMatch != null) {
+            builder.header("If-None-Match", ifNoneMatch);
+        }
+        HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        if (response.statusCode() == NOT_MODIFIED && ifNoneMatch != null) {
+            closeQuietly(response.body());
+            return new StreamResponse(null, etag != null ? etag : ifNoneMatch, true);
+        }
+        if (response.statusCode() >= 400) {
+            closeQuietly(response.body());
+            logger.log(Level.WARNING, () -> "API Error " + response.statusCode());
+            throw new ApiException(response.statusCode(), "API call failed for stream");
+        }
+        return new StreamResponse(decodeStream(response), etag, false);
+    }
+
+    /**
+     * Esegue una GET condizionale e restituisce il risultato deserializzato.
+     * <p>
+     * Se per l'endpoint è memorizzato un risultato precedente, la richiesta include i relativi validatori;
+     * su {@code 304 Not Modified} viene restituito direttamente il risultato memorizzato, senza invocare
+     * {@code parser}. Altrimenti il body viene convertito con {@code parser} e memorizzato insieme ai nuovi
+     * validatori. Il risultato può quindi essere condiviso tra più chiamate: è bene che sia immutabile.
+     * </p>
+     *
+     * @param endpoint path relativo (es. {@code "/issues"})
+     * @param parser   conversione del body nel risultato
+     * @param <T>      tipo del risultato
+     * @return risultato aggiornato o memorizzato
+     * @throws IOException          in caso di errore I/O, di conversione del body o di {@code 304} inatteso
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa della risposta
+     * @throws ApiException         se lo status code è &gt;= 400
+     */
+    public <T> T getConditional(String endpoint, ResponseParser<T> parser) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = getBaseRequestBuilder(endpoint).GET();
+        ConditionalCache.Entry cached = conditionalCache.applyValidators(endpoint, builder, true);
+        TextResponse response = sendForText(builder.build());
+        return resolveConditional(endpoint, cached, response, parser);
+    }
+
+    /**
+     * Variante non bloccante di {@link #getConditional(String, ResponseParser)}.
+     *
+     * @param endpoint path relativo (es. {@code "/comments/issue/1"})
+     * @param parser   conversione del body nel risultato
+     * @param <T>      tipo del risultato
+     * @return future completato con il risultato aggiornato o memorizzato
+     */
+    public <T> CompletableFuture<T> getConditionalAsync(String endpoint, ResponseParser<T> parser) {
+        HttpRequest.Builder builder = getBaseRequestBuilder(endpoint).GET();
+        ConditionalCache.Entry cached = conditionalCache.applyValidators(endpoint, builder, true);
+        CompletableFuture<TextResponse> exchange = sendForTextAsync(builder.build());
+        return propagateCancellation(exchange.thenApply(response -> {
+            try {
+                return resolveConditional(endpoint, cached, response, parser);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }), exchange);
+    }
+
+    /**
+     * Body di una risposta in streaming, con il formato in cui è stato inviato.
+     *
+     * @param body        stream decodificato del body
+     * @param contentType {@code Content-Type} della risposta, o {@code null} se assente
+     */
+    public record StreamBody(InputStream body, String contentType) {
+    }
+
+    /**
+     * Variante condizionale di {@link #getStream(String)}, con negoziazione del formato.
+     * <p>
+     * Restituisce {@code null} se il server risponde {@code 304 Not Modified}: il chiamante ha già
+     * elaborato la versione corrente della risorsa. I validatori della risposta vengono memorizzati subito;
+     * se l'elaborazione dello stream non va a buon fine il chiamante deve invocare
+     * {@link #invalidateValidators(String)}, così che la richiesta successiva scarichi di nuovo tutto.
+     * </p>
+     *
+     * <p>
+     * Se il formato binario è abilitato il body può essere in Smile: va letto con
+     * {@link JsonSupport#createParser(InputStream, String)} passando {@link StreamBody#contentType()}.
+     * </p>
+     *
+     * <p><strong>Nota:</strong> lo stream restituito va chiuso dal chiamante.</p>
+     *
+     * @param endpoint path relativo dell'API (es. {@code "/issues"})
+     * @return stream della risposta con il relativo formato, oppure {@code null} se la risorsa non è cambiata
+     * @throws IOException          in caso di errore I/O durante l'invio/ricezione
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa della risposta
+     * @throws ApiException         se la risposta HTTP ha status code &gt;= 400
+     */
+    public StreamBody getStreamIfModified(String endpoint) throws IOException, InterruptedException {
+        String key = STREAM_KEY_PREFIX + endpoint;
+        boolean binary = profile.binaryFormat() && !binaryRefused;
+        HttpRequest.Builder builder = createStreamRequestBuilder(endpoint, binary);
+        ConditionalCache.Entry cached = conditionalCache.applyValidators(key, builder, false);
+        HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        if (binary && response.statusCode() == NOT_ACCEPTABLE) {
+            closeQuietly(response.body());
+            binaryRefused = true;
+            logger.info("Formato binario rifiutato dal server: si prosegue in JSON");
+            builder = createStreamRequestBuilder(endpoint, false);
+            cached = conditionalCache.applyValidators(key, builder, false);
+            response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        }
+        int status = response.statusCode();
+        if (status == NOT_MODIFIED && cached != null) {
+            closeQuietly(response.body());
+            logger.fine(() -> "304 Not Modified per " + endpoint);
+            return null;
+        }
+        if (status >= 400) {
+            closeQuietly(response.body());
+            logger.log(Level.WARNING, () -> "API Error " + status);
+            throw new ApiException(status, "API call failed for stream");
+        }
+        conditionalCache.store(key, response, null);
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        return new StreamBody(decodeStream(response), contentType);
     }
+
+    /**
+     * Crea la GET di uno stream negoziato: con {@code binary} il formato Smile è preferito al JSON.
+     */
+    private HttpRequest.Builder createStreamRequestBuilder(String endpoint, boolean binary) {
+        return getBaseRequestBuilder(endpoint)
+                .header("Accept", binary
+                        ? JsonSupport.SMILE_CONTENT_TYPE + ", " + JSON_CONTENT_TYPE + ";q=0.5"
+                        : JSON_CONTENT_TYPE)
+                .GET();
+    }
+
+    /**
+     * Dimentica i validatori memorizzati per l'endpoint (sia per le GET condizionali sia per gli stream).
+     *
+     * @param endpoint path relativo dell'API
+     */
+    public void invalidateValidators(String endpoint) {
+        conditionalCache.invalidate(endpoint);
+        conditionalCache.invalidate(STREAM_KEY_PREFIX + endpoint);
+    }
+
+    /**
+     * Svuota la cache delle GET condizionali (es. al logout, perché i risultati dipendono dall'utente).
+     */
+    public void clearConditionalCache() {
+        conditionalCache.clear();
+    }
+
+    /**
+     * Variante non bloccante di {@link #get(String)}.
+     *
+     * @param endpoint path relativo (es. {@code "/issues"})
+     * @return future completato con il body della risposta
+     */
+    public CompletableFuture<String> getAsync(String endpoint) {
+        return executeRequestAsync(getBaseRequestBuilder(endpoint).GET().build());
+    }
+
+    /**
+     * Variante non bloccante di {@link #get(String)} con timeout dedicato.
+     *
+     * @param endpoint path relativo (es. {@code "/issues"})
+     * @param timeout  tempo massimo di attesa della risposta
+     * @return future completato con il body della risposta, o con
+     *         {@link java.net.http.HttpTimeoutException} allo scadere del timeout
+     */
+    public CompletableFuture<String> getAsync(String endpoint, Duration timeout) {
+        return executeRequestAsync(getBaseRequestBuilder(endpoint).timeout(timeout).GET().build());
+    }
+
+    /**
+     * Variante non bloccante di {@link #post(String, String)}.
+     *
+     * @param endpoint path relativo (es. {@code "/issues"})
+     * @param jsonBody corpo della richiesta in formato JSON (stringa)
+     * @return future completato con il body della risposta
+     */
+    public CompletableFuture<String> postAsync(String endpoint, String jsonBody) {
+        return executeRequestAsync(createPostRequest(endpoint, jsonBody));
+    }
+
+    /**
+     * Invia in modo non bloccante una PUT con body binario e header aggiuntivi.
+     * <p>
+     * Usata per i blocchi degli upload resumable: il body viene inviato con
+     * {@code Content-Type: application/octet-stream}.
+     * </p>
+     *
+     * @param endpoint path relativo (es. {@code "/images/uploads/<id>/chunks/0"})
+     * @param body     byte da inviare
+     * @param headers  header aggiuntivi della richiesta
+     * @return future completato con il body della risposta
+     */
+    public CompletableFuture<String> putAsync(String endpoint, byte[] body, Map<String, String> headers) {
+        HttpRequest.Builder builder = getBaseRequestBuilder(endpoint)
+                .header("Content-Type", "application/octet-stream")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach(builder::header);
+        return executeRequestAsync(builder.build());
+    }
+
+    /**
+     * Variante non bloccante di {@link #getStream(String)}.
+     * <p>
+     * Il future viene completato non appena sono disponibili gli header della risposta; il body viene
+     * poi letto dallo stream. <strong>Nota:</strong> lo stream restituito va chiuso dal chiamante.
+     * </p>
+     *
+     * @param endpoint path relativo dell'API (es. {@code "/images/<nome-file>"})
+     * @return future completato con lo stream della risposta HTTP
+     */
+    public CompletableFuture<InputStream> getStreamAsync(String endpoint) {
+        CompletableFuture<HttpResponse<InputStream>> exchange =
+                client.sendAsync(createGetRequest(endpoint), HttpResponse.BodyHandlers.ofInputStream());
+        return propagateCancellation(exchange.thenApply(response -> {
+            if (response.statusCode() >= 400) {
+                closeQuietly(response.body());
+                logger.log(Level.WARNING, () -> "API Error " + response.statusCode());
+                throw new ApiException(response.statusCode(), "API call failed for stream");
+            }
+            return decodeStream(response);
+        }), exchange);
+    }
+
+    /**
+     * Apre in anticipo la connessione verso il backend, senza bloccare il chiamante.
+     * <p>
+     * Invia una richiesta {@code HEAD} alla base URL ignorandone l'esito: lo scopo è solo stabilire la
+     * connessione (ed eventualmente negoziare HTTP/2), che resta poi nel pool del client.
+     * </p>
+     *
+     * @return future completato al termine del tentativo; non fallisce mai
+     */
+    public CompletableFuture<Void> warmUp() {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(profile.baseUrl() + "/"))
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .timeout(profile.connectTimeout())
+                .build();
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                    if (error != null) {
+                        logger.log(Level.FINE, "Warm-up della connessione non riuscito", error);
+                    } else {
+                        logger.fine(() -> "Connessione pronta in " + elapsedMillis + " ms (" + response.version() + ")");
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Restituisce i contatori del traffico ricevuto (byte in rete e byte decompressi).
+     *
+     * @return contatori del traffico
+     */
+    public TransferStats getTransferStats() {
+        return transferStats;
+    }
+
+    /**
+     * Restituisce il profilo di trasporto in uso.
+     *
+     * @return profilo di trasporto
+     */
+    public TransportProfile getProfile() {
+        return profile;
+    }
+
     /**
      * Esegue una POST multipart/form-data per caricare un file sul backend.
      * <p>
-     * Costruisce un body multipart con un'unica parte chiamata {@code file} e imposta l'header
-     * {@code Content-Type: multipart/form-data; boundary=...}.
+     * Equivale a {@link #postMultipart(String, Path, UploadProgressListener)} senza notifiche di avanzamento.
      * </p>
      *
      * @param endpoint endpoint relativo (es. {@code "/issues/<id>/image"}).
@@ -129,8 +614,32 @@ public class ApiClient {
      */
     public String postMultipart(String endpoint, Path file)
             throws IOException, InterruptedException {
+        return postMultipart(endpoint, file, null);
+    }
+
+    /**
+     * Esegue una POST multipart/form-data per caricare un file sul backend, notificando l'avanzamento.
+     * <p>
+     * Costruisce un body multipart con un'unica parte chiamata {@code file} e imposta l'header
+     * {@code Content-Type: multipart/form-data; boundary=...}. Il file viene letto in streaming durante
+     * l'invio, per cui la memoria occupata non dipende dalla sua dimensione.
+     * </p>
+     *
+     * @param endpoint endpoint relativo (es. {@code "/issues/<id>/image"}).
+     * @param file     path del file da inviare.
+     * @param listener callback opzionale di avanzamento (invocata dal thread del client HTTP)
+     * @return body della risposta come stringa.
+     * @throws IOException          in caso di errore I/O nella lettura del file o durante l'HTTP.
+     * @throws InterruptedException se il thread viene interrotto durante l'attesa della risposta.
+     * @throws ApiException         se la risposta HTTP ha status code &gt;= 400 (tramite {@code executeRequest}).
+     */
+    public String postMultipart(String endpoint, Path file, UploadProgressListener listener)
+            throws IOException, InterruptedException {
         String boundary = "---" + System.currentTimeMillis();
         HttpRequest.BodyPublisher bodyPublisher = buildMultipartBody(file, boundary);
+        if (listener != null) {
+            bodyPublisher = new ProgressBodyPublisher(bodyPublisher, listener);
+        }
 
         HttpRequest.Builder builder = getBaseRequestBuilder(endpoint)
                 .header("Content-Type", "multipart/form-data; boundary=" + boundary)
@@ -141,27 +650,31 @@ public class ApiClient {
     /**
      * Costruisce il {@link java.net.http.HttpRequest.BodyPublisher} per una richiesta multipart/form-data.
      * <p>
-     * Il payload include:
+     * Il payload è la concatenazione di tre publisher:
      * </p>
      * <ul>
      *   <li>intestazioni della parte (Content-Disposition e Content-Type)</li>
-     *   <li>byte del file</li>
+     *   <li>byte del file, letti a blocchi dal file system tramite {@link HttpRequest.BodyPublishers#ofFile(Path)}</li>
      *   <li>boundary di chiusura</li>
      * </ul>
+     * <p>
+     * La lunghezza totale è nota in anticipo, per cui la richiesta viene inviata con {@code Content-Length}.
+     * </p>
      *
      * @param file     file da includere nella parte multipart chiamata {@code file}.
      * @param boundary boundary multipart (senza i prefissi {@code --}).
-     * @return publisher con i byte dell'intero payload multipart.
-     * @throws IOException in caso di errore nella lettura del file o nel rilevamento del MIME type.
+     * @return publisher in streaming dell'intero payload multipart.
+     * @throws IOException in caso di file non leggibile o di errore nel rilevamento del MIME type.
      */
     private BodyPublisher buildMultipartBody(Path file, String boundary) throws IOException {
-        var byteArrays = new ArrayList<byte[]>();
+        String contentType = Files.probeContentType(file);
         String separator = "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\""
-                + file.getFileName() + "\"\r\nContent-Type: " + Files.probeContentType(file) + "\r\n\r\n";
-        byteArrays.add(separator.getBytes(StandardCharsets.UTF_8));
-        byteArrays.add(Files.readAllBytes(file));
-        byteArrays.add(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
-        return HttpRequest.BodyPublishers.ofByteArrays(byteArrays);
+                + file.getFileName() + "\"\r\nContent-Type: "
+                + (contentType != null ? contentType : "application/octet-stream") + "\r\n\r\n";
+        return HttpRequest.BodyPublishers.concat(
+                HttpRequest.BodyPublishers.ofByteArray(separator.getBytes(StandardCharsets.UTF_8)),
+                HttpRequest.BodyPublishers.ofFile(file),
+                HttpRequest.BodyPublishers.ofByteArray(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8)));
     }
 
 
@@ -179,11 +692,15 @@ public class ApiClient {
     }
 
     /**
-     * Crea un builder con URI e header comuni (Authorization e Content-Type).
+     * Crea un builder con URI, timeout dell'endpoint e header comuni (Authorization, Accept-Encoding).
      */
     private HttpRequest.Builder getBaseRequestBuilder(String endpoint) {
         HttpRequest.Builder builder = HttpRequest.newBuilder()
-                .uri(URI.create(BASE_URL + endpoint));
+                .uri(URI.create(profile.baseUrl() + endpoint))
+                .timeout(profile.timeoutFor(endpoint));
+        if (profile.compression()) {
+            builder.header("Accept-Encoding", "gzip, deflate");
+        }
 
         String token = SessionManager.getInstance().getToken();
         if (token != null && !token.isEmpty()) {
@@ -195,14 +712,116 @@ public class ApiClient {
      * Invia la richiesta e gestisce l'errore in base allo status code.
      */
     private String executeRequest(HttpRequest request) throws IOException, InterruptedException {
-        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        TextResponse response = sendForText(request);
         handleError(response);
         return response.body();
     }
+    /**
+     * Invia la richiesta in modo asincrono e gestisce l'errore in base allo status code.
+     */
+    private CompletableFuture<String> executeRequestAsync(HttpRequest request) {
+        CompletableFuture<TextResponse> exchange = sendForTextAsync(request);
+        return propagateCancellation(exchange.thenApply(response -> {
+            handleError(response);
+            return response.body();
+        }), exchange);
+    }
+
+    /**
+     * Risposta con body testuale già decodificato.
+     */
+    private record TextResponse(HttpResponse<?> raw, String body) {
+        int statusCode() {
+            return raw.statusCode();
+        }
+    }
+
+    /**
+     * Invia la richiesta e legge il body come testo, decomprimendolo in streaming nel thread chiamante.
+     */
+    private TextResponse sendForText(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = decodeStream(response)) {
+            return new TextResponse(response, ResponseDecoder.readText(response.headers(), body));
+        }
+    }
+
+    /**
+     * Variante asincrona di {@link #sendForText(HttpRequest)}.
+     * <p>
+     * Il body (eventualmente compresso) viene ricevuto per intero senza occupare thread e decodificato
+     * solo al completamento, nel thread che esegue la continuazione.
+     * </p>
+     */
+    private CompletableFuture<TextResponse> sendForTextAsync(HttpRequest request) {
+        CompletableFuture<HttpResponse<byte[]>> exchange = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        return propagateCancellation(exchange.thenApply(response -> {
+            InputStream raw = new ByteArrayInputStream(response.body());
+            try (InputStream body = ResponseDecoder.decode(response.headers(), raw, transferStats)) {
+                return new TextResponse(response, ResponseDecoder.readText(response.headers(), body));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }), exchange);
+    }
+
+    private InputStream decodeStream(HttpResponse<InputStream> response) {
+        return ResponseDecoder.decode(response.headers(), response.body(), transferStats);
+    }
+
+    /**
+     * Restituisce il risultato memorizzato su 304, altrimenti converte e memorizza il nuovo body.
+     * <p>
+     * Un 304 a una richiesta inviata senza validatori (es. da un proxy intermedio) non ha un risultato da
+     * riusare e viene segnalato come errore, invece di convertire il body vuoto.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T resolveConditional(String endpoint, ConditionalCache.Entry cached, TextResponse response,
+                                     ResponseParser<T> parser) throws IOException {
+        if (response.statusCode() == NOT_MODIFIED) {
+            if (cached == null) {
+                conditionalCache.invalidate(endpoint);
+                throw new IOException("Unexpected 304 Not Modified for " + endpoint + ": no cached response to reuse");
+            }
+            logger.fine(() -> "304 Not Modified per " + endpoint);
+            return (T) cached.value();
+        }
+        handleError(response);
+        T value = parser.parse(response.body());
+        conditionalCache.store(endpoint, response.raw(), value);
+        return value;
+    }
+
+    /**
+     * Fa sì che l'annullamento del future derivato annulli anche lo scambio HTTP da cui dipende.
+     * <p>
+     * I future ottenuti con {@code thenApply} non propagano l'annullamento a monte: senza questo
+     * collegamento la richiesta continuerebbe in background anche dopo {@code cancel(true)}.
+     * </p>
+     */
+    static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> dependent,
+                                                          CompletableFuture<?> exchange) {
+        dependent.whenComplete((result, error) -> {
+            if (dependent.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Errore nella chiusura dello stream", e);
+        }
+    }
+
     /**
      * Solleva {@link ApiException} per risposte HTTP con status code &gt;= 400.
      */
-    private void handleError(HttpResponse<String> response) {
+    private void handleError(TextResponse response) {
         if (response.statusCode() >= 400) {
             logger.log(Level.WARNING, () -> "API Error " + response.statusCode() + ": " + response.body());
             throw new ApiException(response.statusCode(), "API call failed: " + response.body());
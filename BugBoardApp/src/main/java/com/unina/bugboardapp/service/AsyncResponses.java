@@ -0,0 +1,95 @@
+package com.unina.bugboardapp.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+/**
+ * Utility interna per adattare le risposte asincrone di {@link ApiClient} ai service.
+ * <p>
+ * Converte il body di una risposta nel tipo atteso e traduce ogni errore (di trasporto o di parsing)
+ * nell'eccezione di dominio del service chiamante, come già avviene nelle varianti bloccanti.
+ * L'annullamento del future risultante viene propagato alla richiesta HTTP sottostante.
+ * </p>
+ */
+final class AsyncResponses {
+
+    /**
+     * Conversione del body di una risposta, che può fallire con eccezione checked.
+     *
+     * @param <T> tipo prodotto
+     */
+    @FunctionalInterface
+    interface BodyParser<T> {
+        T parse(String body) throws Exception;
+    }
+
+    private AsyncResponses() {
+    }
+
+    /**
+     * Applica {@code parser} al body della risposta e mappa gli errori con {@code errorMapper}.
+     *
+     * @param response    future della risposta HTTP
+     * @param parser      conversione del body nel tipo atteso
+     * @param errorMapper costruisce l'eccezione di dominio a partire da messaggio e causa
+     * @param message     messaggio da associare all'eccezione di dominio
+     * @param <T>         tipo del risultato
+     * @return future completato con il valore convertito o, in caso di errore, con l'eccezione di dominio
+     */
+    static <T> CompletableFuture<T> map(CompletableFuture<String> response, BodyParser<T> parser,
+                                        BiFunction<String, Throwable, ? extends Exception> errorMapper,
+                                        String message) {
+        CompletableFuture<T> result = response.handle((body, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                if (cause instanceof CancellationException cancellation) throw cancellation;
+                throw new CompletionException(errorMapper.apply(message, cause));
+            }
+            try {
+                return parser.parse(body);
+            } catch (Exception e) {
+                throw new CompletionException(errorMapper.apply(message, e));
+            }
+        });
+        return ApiClient.propagateCancellation(result, response);
+    }
+
+    /**
+     * Traduce gli errori di un future già tipizzato nell'eccezione di dominio, lasciando invariati i risultati.
+     *
+     * @param response    future da adattare
+     * @param errorMapper costruisce l'eccezione di dominio a partire da messaggio e causa
+     * @param message     messaggio da associare all'eccezione di dominio
+     * @param <T>         tipo del risultato
+     * @return future completato con lo stesso valore o, in caso di errore, con l'eccezione di dominio
+     */
+    static <T> CompletableFuture<T> mapErrors(CompletableFuture<T> response,
+                                              BiFunction<String, Throwable, ? extends Exception> errorMapper,
+                                              String message) {
+        CompletableFuture<T> result = response.handle((value, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                if (cause instanceof CancellationException cancellation) throw cancellation;
+                throw new CompletionException(errorMapper.apply(message, cause));
+            }
+            return value;
+        });
+        return ApiClient.propagateCancellation(result, response);
+    }
+
+    /**
+     * Rimuove gli involucri {@link CompletionException} aggiunti dalla composizione dei future.
+     *
+     * @param error errore ricevuto da un future
+     * @return causa effettiva
+     */
+    static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
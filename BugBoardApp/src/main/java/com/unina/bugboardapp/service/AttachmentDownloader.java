@@ -0,0 +1,336 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.exception.IssueException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Gestore dei download degli allegati (immagini) delle issue.
+ * <p>
+ * Centralizza i trasferimenti avviati da {@link ImageCache}, così che aprire più volte il dettaglio
+ * di una issue non moltiplichi connessioni e thread:
+ * </p>
+ * <ul>
+ *   <li><strong>concorrenza limitata</strong>: al più {@code maxConcurrent} download contemporanei,
+ *       gli altri restano in coda;</li>
+ *   <li><strong>de-duplicazione</strong>: richieste per lo stesso file mentre un download è in corso
+ *       attendono quel download invece di avviarne un altro;</li>
+ *   <li><strong>chiusura garantita</strong>: lo stream HTTP viene sempre letto e chiuso qui, mai
+ *       restituito al chiamante;</li>
+ *   <li><strong>annullamento</strong>: quando tutti i chiamanti in attesa di un download vengono
+ *       interrotti (es. alla chiusura della finestra di dettaglio) il download viene annullato e lo stream
+ *       chiuso, sbloccando la lettura in corso;</li>
+ *   <li><strong>metriche</strong>: byte scaricati e throughput medio ({@link #getMetrics()}).</li>
+ * </ul>
+ *
+ * <h2>Configurazione</h2>
+ * Proprietà di sistema (opzionale): {@code bugboard.downloads.maxConcurrent} (default 3).
+ *
+ * <h2>Threading</h2>
+ * {@link #fetch(String, String, Path, Commit)} è bloccante e va invocato fuori dal JavaFX Application Thread;
+ * ogni download viene eseguito su un proprio thread virtuale.
+ *
+ * <h2>Pattern</h2>
+ * Implementa un Singleton "lazy" (istanza creata al primo {@link #getInstance()}).
+ */
+public class AttachmentDownloader {
+    private static final Logger logger = Logger.getLogger(AttachmentDownloader.class.getName());
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static AttachmentDownloader instance;
+
+    /**
+     * Operazione che rende definitiva una copia scaricata (es. spostandola nella cache su disco).
+     * <p>
+     * Viene eseguita una sola volta per download, anche se più chiamanti lo stanno attendendo. Se il file
+     * temporaneo non viene spostato, viene eliminato al termine del download.
+     * </p>
+     */
+    @FunctionalInterface
+    public interface Commit {
+        /**
+         * @param temp file temporaneo con il contenuto scaricato
+         * @param etag {@code ETag} della risposta, o {@code null} se assente
+         * @throws IOException in caso di errore I/O
+         */
+        void commit(Path temp, String etag) throws IOException;
+    }
+
+    /**
+     * Esito di un download.
+     *
+     * @param etag        {@code ETag} della copia ora valida, o {@code null} se assente
+     * @param notModified {@code true} se il server ha risposto {@code 304 Not Modified} e la copia locale
+     *                    è ancora valida
+     */
+    public record Result(String etag, boolean notModified) {
+    }
+
+    /**
+     * Istantanea delle metriche dei download.
+     *
+     * @param active          download in esecuzione
+     * @param queued          download in attesa di un permesso
+     * @param completed       download conclusi con un nuovo contenuto
+     * @param notModified     download conclusi con {@code 304 Not Modified}
+     * @param failed          download falliti
+     * @param cancelled       download annullati
+     * @param deduplicated    richieste servite da un download già in corso
+     * @param bytes           byte scaricati (dopo l'eventuale decompressione)
+     * @param bytesPerSecond  throughput medio dei download completati, in byte al secondo
+     */
+    public record Metrics(int active, int queued, long completed, long notModified, long failed, long cancelled,
+                          long deduplicated, long bytes, double bytesPerSecond) {
+    }
+
+    private final IssueService issueService;
+    private final Semaphore permits;
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("attachment-download-", 0).factory());
+    private final Map<String, Transfer> inFlight = new HashMap<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder transferNanos = new LongAdder();
+
+    private AttachmentDownloader() {
+        this(new IssueService(), Integer.getInteger("bugboard.downloads.maxConcurrent", 3));
+    }
+
+    AttachmentDownloader(IssueService issueService, int maxConcurrent) {
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("maxConcurrent must be positive");
+        this.issueService = issueService;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Restituisce l'istanza singleton del gestore.
+     *
+     * @return istanza unica di {@link AttachmentDownloader}
+     */
+    public static synchronized AttachmentDownloader getInstance() {
+        if (instance == null) {
+            instance = new AttachmentDownloader();
+        }
+        return instance;
+    }
+
+    /**
+     * Scarica un allegato in {@code directory} e lo consegna a {@code commit}, attendendo il completamento.
+     * <p>
+     * Se per lo stesso file è già in corso un download, il chiamante ne attende l'esito invece di avviarne
+     * un altro (in tal caso {@code etag} e {@code commit} del chiamante vengono ignorati). Interrompere il
+     * thread chiamante lo toglie dall'attesa; se era l'ultimo in attesa il download viene annullato.
+     * </p>
+     *
+     * @param filename  nome file (o path) dell'allegato sul server
+     * @param etag      {@code ETag} della copia locale da rivalidare, oppure {@code null}
+     * @param directory cartella in cui creare il file temporaneo
+     * @param commit    operazione che rende definitiva la copia scaricata
+     * @return esito del download
+     * @throws IssueException       in caso di errore di comunicazione o di scrittura
+     * @throws InterruptedException se il thread chiamante viene interrotto durante l'attesa
+     */
+    public Result fetch(String filename, String etag, Path directory, Commit commit)
+            throws IssueException, InterruptedException {
+        String key = IssueService.imageFileName(filename);
+        Transfer transfer;
+        boolean owner = false;
+        synchronized (inFlight) {
+            transfer = inFlight.get(key);
+            if (transfer == null || transfer.result.isDone()) {
+                transfer = new Transfer(key);
+                inFlight.put(key, transfer);
+                owner = true;
+            } else {
+                deduplicated.increment();
+            }
+            transfer.waiters++;
+        }
+        if (owner) {
+            Transfer started = transfer;
+            started.task = executor.submit(() -> run(started, etag, directory, commit));
+        }
+
+        try {
+            return transfer.result.get();
+        } catch (InterruptedException e) {
+            release(transfer);
+            throw e;
+        } catch (CancellationException e) {
+            throw new IssueException("Download cancelled: " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IssueException issueException) throw issueException;
+            throw new IssueException("Error downloading image " + key, cause);
+        }
+    }
+
+    /**
+     * Toglie un chiamante dall'attesa; se non ne restano, annulla il download.
+     */
+    private void release(Transfer transfer) {
+        boolean cancel;
+        synchronized (inFlight) {
+            cancel = --transfer.waiters == 0 && !transfer.result.isDone();
+            if (cancel) inFlight.remove(transfer.key, transfer);
+        }
+        if (cancel) transfer.cancel();
+    }
+
+    /**
+     * Esegue il download sul thread dedicato, rispettando il limite di concorrenza.
+     */
+    private void run(Transfer transfer, String etag, Path directory, Commit commit) {
+        queued.incrementAndGet();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            cancelled.increment();
+            transfer.result.cancel(false);
+            forget(transfer);
+            return;
+        } finally {
+            queued.decrementAndGet();
+        }
+
+        active.incrementAndGet();
+        Path temp = null;
+        try {
+            if (transfer.cancelled) throw new CancellationException();
+            ApiClient.StreamResponse response = issueService.downloadImage(transfer.key, etag);
+            if (response.notModified()) {
+                notModified.increment();
+                transfer.result.complete(new Result(response.etag(), true));
+                return;
+            }
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, "download-", ".tmp");
+            long startedAt = System.nanoTime();
+            long count;
+            try (InputStream in = response.body(); OutputStream out = Files.newOutputStream(temp)) {
+                transfer.stream = in;
+                if (transfer.cancelled) throw new CancellationException();
+                count = copy(in, out);
+            }
+            if (transfer.cancelled) throw new CancellationException();
+            bytes.add(count);
+            transferNanos.add(System.nanoTime() - startedAt);
+            commit.commit(temp, response.etag());
+            completed.increment();
+            transfer.result.complete(new Result(response.etag(), false));
+        } catch (Exception e) {
+            if (transfer.cancelled || e instanceof CancellationException) {
+                cancelled.increment();
+                transfer.result.cancel(false);
+            } else {
+                failed.increment();
+                logger.log(Level.FINE, e, () -> "Download fallito: " + transfer.key);
+                transfer.result.completeExceptionally(e);
+            }
+        } finally {
+            if (temp != null) deleteQuietly(temp);
+            active.decrementAndGet();
+            permits.release();
+            forget(transfer);
+        }
+    }
+
+    private void forget(Transfer transfer) {
+        synchronized (inFlight) {
+            inFlight.remove(transfer.key, transfer);
+        }
+    }
+
+    private static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+            out.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.log(Level.FINE, e, () -> "Impossibile eliminare il file temporaneo " + file);
+        }
+    }
+
+    /**
+     * Restituisce le metriche correnti dei download.
+     *
+     * @return istantanea delle metriche
+     */
+    public Metrics getMetrics() {
+        long nanos = transferNanos.sum();
+        long total = bytes.sum();
+        double throughput = nanos == 0 ? 0 : total / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+        return new Metrics(active.get(), queued.get(), completed.sum(), notModified.sum(), failed.sum(),
+                cancelled.sum(), deduplicated.sum(), total, throughput);
+    }
+
+    /**
+     * Download in corso per un file, condiviso da tutti i chiamanti che lo attendono.
+     */
+    private static final class Transfer {
+        private final String key;
+        private final CompletableFuture<Result> result = new CompletableFuture<>();
+        /**
+         * Chiamanti in attesa; protetto dal lock su {@code inFlight}.
+         */
+        private int waiters;
+        private volatile boolean cancelled;
+        private volatile InputStream stream;
+        private volatile Future<?> task;
+
+        private Transfer(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Annulla il download: chiude lo stream (sbloccando un'eventuale lettura) e interrompe il thread.
+         */
+        private void cancel() {
+            cancelled = true;
+            InputStream open = stream;
+            if (open != null) {
+                try {
+                    open.close();
+                } catch (IOException e) {
+                    logger.log(Level.FINE, "Errore nella chiusura dello stream annullato", e);
+                }
+            }
+            Future<?> running = task;
+            if (running != null) running.cancel(true);
+        }
+    }
+}
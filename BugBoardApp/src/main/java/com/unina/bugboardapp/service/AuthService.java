@@ -1,8 +1,5 @@
 package com.unina.bugboardapp.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.unina.bugboardapp.dto.LoginRequestDTO;
 import com.unina.bugboardapp.dto.LoginResponseDTO;
 import com.unina.bugboardapp.exception.AuthenticationException;
@@ -19,24 +16,17 @@ import java.io.IOException;
  *
  * <h2>Serializzazione JSON</h2>
  * <p>
- * Usa Jackson ({@link ObjectMapper}) con {@link JavaTimeModule} e con
- * {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} disabilitata per gestire correttamente
- * eventuali campi data/ora in formato ISO-8601.
+ * Usa i reader/writer Jackson condivisi esposti da {@link JsonSupport}.
  * </p>
  */
 public class AuthService {
 
     private final ApiClient apiClient;
-    private final ObjectMapper mapper;
     /**
-     * Crea un nuovo {@link AuthService} inizializzando il client API singleton
-     * e configurando l'ObjectMapper per la (de)serializzazione JSON.
+     * Crea un nuovo {@link AuthService} inizializzando il client API singleton.
      */
     public AuthService() {
         this.apiClient = ApiClient.getInstance();
-        this.mapper = new ObjectMapper();
-        this.mapper.registerModule(new JavaTimeModule());
-        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
     /**
      * Esegue il login verso il backend usando email e password.
@@ -58,12 +48,12 @@ public class AuthService {
     public User login(String email, String password) throws AuthenticationException {
         try{
             LoginRequestDTO loginRequest = new LoginRequestDTO(email, password);
-            String requestBody = mapper.writeValueAsString(loginRequest);
+            String requestBody = JsonSupport.loginRequestWriter().writeValueAsString(loginRequest);
 
             String responseBody = apiClient.post("/auth/login", requestBody);
 
             if (responseBody != null && !responseBody.isEmpty()) {
-                LoginResponseDTO response = mapper.readValue(responseBody, LoginResponseDTO.class);
+                LoginResponseDTO response = JsonSupport.loginResponseReader().readValue(responseBody);
                 User user = new User(email, password,
                         "ADMIN".equalsIgnoreCase(response.getRole()) ? UserType.ADMIN : UserType.USER);
                 user.setId(response.getUserId());
@@ -71,11 +61,36 @@ public class AuthService {
                 return user;
             }
             throw new AuthenticationException("Login failed: Empty response from server.");
-        }catch(IOException | InterruptedException e){
+        }catch(IOException e){
+            throw new AuthenticationException("Communication error during login.", e);
+        }catch(InterruptedException e){
             Thread.currentThread().interrupt();
             throw new AuthenticationException("Communication error during login.", e);
         }catch(Exception e){
             throw new AuthenticationException("Login failed: unpredicted error.", e);
         }
     }
+    /**
+     * Chiude la sessione applicativa.
+     * <p>
+     * Azzera token e utente in {@link SessionManager} e svuota la cache delle GET condizionali di
+     * {@link ApiClient}, i cui risultati appartengono all'utente che esce. Viene svuotata anche la cache in
+     * memoria delle immagini ({@link ImageCache#clearMemory()}), mentre quella su disco resta disponibile.
+     * </p>
+     */
+    public void logout() {
+        SessionManager.getInstance().logout();
+        apiClient.clearConditionalCache();
+        ImageCache.getInstance().clearMemory();
+    }
+
+    /**
+     * Prepara in background la connessione verso il backend, in vista del login.
+     * <p>
+     * Delegato a {@link ApiClient#warmUp()}: non blocca il chiamante e non solleva eccezioni.
+     * </p>
+     */
+    public void warmUpConnection() {
+        apiClient.warmUp();
+    }
 }
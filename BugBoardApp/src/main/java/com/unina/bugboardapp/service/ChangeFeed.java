@@ -0,0 +1,378 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Client del flusso di modifiche del backend, ricevuto in push tramite Server-Sent Events.
+ * <p>
+ * Invece di interrogare periodicamente {@code /issues}, il client mantiene aperta una connessione verso
+ * {@link #ENDPOINT} e notifica al {@link Listener} ogni evento di creazione, modifica o eliminazione di
+ * issue e commenti. Ogni evento ha la forma:
+ * </p>
+ * <pre>
+ * id: 42
+ * event: change
+ * data: {"entity":"issue","action":"updated","id":7,"payload":{...}}
+ * </pre>
+ *
+ * <ul>
+ *   <li><strong>riconnessione</strong>: se la connessione cade viene riaperta con backoff esponenziale
+ *       (con jitter, da {@code bugboard.changes.minBackoffMillis} a {@code bugboard.changes.maxBackoffMillis},
+ *       default 1 s e 60 s), inviando {@code Last-Event-ID} per riprendere dall'ultimo evento ricevuto;</li>
+ *   <li><strong>rilevamento dei buchi</strong>: gli id degli eventi sono numeri di sequenza crescenti; se
+ *       uno o più eventi risultano mancanti, se il server invia un evento {@code resync} oppure se la
+ *       connessione viene riaperta senza che sia mai arrivato un evento, viene invocato
+ *       {@link Listener#onGap()} perché il chiamante esegua una risincronizzazione completa;</li>
+ *   <li>gli eventi duplicati (sequenza già ricevuta) vengono ignorati, così come entità o azioni sconosciute.</li>
+ * </ul>
+ *
+ * <p>
+ * Il flusso è opzionale e si abilita con {@code bugboard.changes.feed=true} ({@link #isEnabled()}).
+ * </p>
+ *
+ * <h2>Threading</h2>
+ * La connessione viene letta su un thread virtuale dedicato, da cui sono invocati i metodi del
+ * {@link Listener}: il listener deve passare al JavaFX Application Thread per aggiornare la UI.
+ */
+public class ChangeFeed {
+    private static final Logger logger = Logger.getLogger(ChangeFeed.class.getName());
+    /**
+     * Endpoint del flusso di eventi.
+     */
+    public static final String ENDPOINT = "/changes/stream";
+    private static final String RESYNC_EVENT = "resync";
+    private static final double JITTER = 0.2;
+
+    /**
+     * Entità a cui si riferisce un evento.
+     */
+    public enum Entity {
+        ISSUE, COMMENT
+    }
+
+    /**
+     * Tipo di modifica descritta da un evento.
+     */
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * Evento di modifica ricevuto dal backend.
+     *
+     * @param sequence numero di sequenza dell'evento, o {@code -1} se il server non lo fornisce
+     * @param entity   entità modificata
+     * @param action   tipo di modifica
+     * @param id       id dell'entità modificata
+     * @param issue    stato aggiornato della issue (solo per {@link Entity#ISSUE}, {@code null} se eliminata)
+     * @param comment  stato aggiornato del commento (solo per {@link Entity#COMMENT}, {@code null} se eliminato)
+     */
+    public record ChangeEvent(long sequence, Entity entity, Action action, Integer id, Issue issue, Comment comment) {
+    }
+
+    /**
+     * Destinatario degli eventi del flusso.
+     */
+    public interface Listener {
+        /**
+         * @param event evento ricevuto
+         */
+        void onEvent(ChangeEvent event);
+
+        /**
+         * Invocato quando alcuni eventi potrebbero essere andati persi: lo stato locale va risincronizzato.
+         */
+        void onGap();
+
+        /**
+         * @param connected {@code true} alla (ri)apertura della connessione, {@code false} alla sua caduta
+         */
+        void onConnectionChanged(boolean connected);
+    }
+
+    /**
+     * Contatori del flusso.
+     *
+     * @param connected  {@code true} se la connessione è aperta
+     * @param events     eventi applicati
+     * @param gaps       buchi rilevati (risincronizzazioni richieste)
+     * @param reconnects riaperture della connessione dopo la prima
+     */
+    public record Metrics(boolean connected, long events, long gaps, long reconnects) {
+    }
+
+    private final ApiClient apiClient;
+    private final Listener listener;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong reconnects = new AtomicLong();
+
+    private volatile boolean connected;
+    private Worker worker;
+
+    /**
+     * Crea il client con i parametri di backoff letti dalle proprietà di sistema.
+     *
+     * @param listener destinatario degli eventi
+     */
+    public ChangeFeed(Listener listener) {
+        this(ApiClient.getInstance(), listener,
+                Duration.ofMillis(Long.getLong("bugboard.changes.minBackoffMillis", 1_000)),
+                Duration.ofMillis(Long.getLong("bugboard.changes.maxBackoffMillis", 60_000)));
+    }
+
+    ChangeFeed(ApiClient apiClient, Listener listener, Duration minBackoff, Duration maxBackoff) {
+        this.apiClient = apiClient;
+        this.listener = listener;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Indica se il flusso di modifiche è abilitato ({@code bugboard.changes.feed=true}).
+     *
+     * @return {@code true} se il flusso di modifiche è abilitato
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("bugboard.changes.feed");
+    }
+
+    /**
+     * Apre la connessione in background. Non ha effetto se il client è già avviato.
+     * <p>
+     * Ogni avvio usa un nuovo worker con il proprio stato (ultimo id ricevuto, sequenza, attesa suggerita
+     * dal server): un worker fermato che non è ancora terminato non può più notificare eventi né
+     * interferire con quello nuovo.
+     * </p>
+     */
+    public synchronized void start() {
+        if (worker != null) return;
+        worker = new Worker();
+        worker.thread = Thread.ofVirtual().name("bugboard-change-feed").start(worker);
+    }
+
+    /**
+     * Chiude la connessione e arresta le riconnessioni (es. al logout). Dopo l'arresto non viene
+     * notificato alcun evento.
+     */
+    public synchronized void stop() {
+        if (worker == null) return;
+        worker.stop();
+        worker = null;
+        connected = false;
+    }
+
+    /**
+     * @return contatori correnti del flusso
+     */
+    public Metrics getMetrics() {
+        return new Metrics(connected, events.get(), gaps.get(), reconnects.get());
+    }
+
+    /**
+     * Connessione al flusso con il relativo stato; attiva finché non viene fermata con {@link #stop()}.
+     */
+    private final class Worker implements Runnable {
+        private volatile boolean running = true;
+        private volatile InputStream current;
+        private Thread thread;
+        private String lastEventId;
+        private long lastSequence = -1;
+        private Duration retry;
+        private boolean workerConnected;
+
+        private void stop() {
+            running = false;
+            InputStream stream = current;
+            if (stream != null) closeQuietly(stream);
+            thread.interrupt();
+        }
+
+        @Override
+        public void run() {
+            Duration delay = minBackoff;
+            boolean everConnected = false;
+            while (running) {
+                try (InputStream stream = apiClient.openEventStream(ENDPOINT, lastEventId)) {
+                    current = stream;
+                    if (!running) break;
+                    if (everConnected) {
+                        reconnects.incrementAndGet();
+                        // Senza id di riferimento il server non può riprendere: gli eventi intermedi sono persi
+                        if (lastEventId == null) gap();
+                    }
+                    everConnected = true;
+                    setConnected(true);
+                    delay = minBackoff;
+                    read(stream);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (IOException | RuntimeException e) {
+                    if (running) logger.log(Level.FINE, "Flusso di modifiche interrotto", e);
+                } finally {
+                    current = null;
+                    setConnected(false);
+                }
+                if (!running) break;
+                try {
+                    Thread.sleep(jittered(retry != null ? max(retry, delay) : delay).toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                delay = min(delay.multipliedBy(2), maxBackoff);
+            }
+        }
+
+        /**
+         * Legge gli eventi dallo stream fino alla sua chiusura, secondo il formato {@code text/event-stream}.
+         */
+        private void read(InputStream stream) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String id = null;
+            String event = null;
+            StringBuilder data = new StringBuilder();
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    dispatch(id, event, data.toString());
+                    id = null;
+                    event = null;
+                    data.setLength(0);
+                    continue;
+                }
+                if (line.startsWith(":")) continue; // commento/heartbeat
+                int colon = line.indexOf(':');
+                String field = colon < 0 ? line : line.substring(0, colon);
+                String value = colon < 0 ? "" : line.substring(colon + 1);
+                if (value.startsWith(" ")) value = value.substring(1);
+                switch (field) {
+                    case "id" -> id = value;
+                    case "event" -> event = value;
+                    case "data" -> {
+                        if (!data.isEmpty()) data.append('\n');
+                        data.append(value);
+                    }
+                    case "retry" -> {
+                        try {
+                            retry = Duration.ofMillis(Long.parseLong(value));
+                        } catch (NumberFormatException e) {
+                            // Valore non valido: ignorato come previsto dal formato
+                        }
+                    }
+                    default -> {
+                        // Campo sconosciuto: ignorato
+                    }
+                }
+            }
+        }
+
+        private void dispatch(String id, String event, String data) {
+            if (!running) return;
+            if (RESYNC_EVENT.equals(event)) {
+                if (id != null) lastEventId = id;
+                gap();
+                return;
+            }
+            if (data.isEmpty()) return;
+
+            long sequence = parseSequence(id);
+            if (sequence >= 0 && lastSequence >= 0) {
+                if (sequence <= lastSequence) return; // già ricevuto
+                if (sequence > lastSequence + 1) gap();
+            }
+            if (id != null) lastEventId = id;
+            if (sequence >= 0) lastSequence = sequence;
+
+            ChangeEvent change = parse(sequence, data);
+            if (change != null && running) {
+                events.incrementAndGet();
+                listener.onEvent(change);
+            }
+        }
+
+        private void gap() {
+            if (!running) return;
+            gaps.incrementAndGet();
+            listener.onGap();
+        }
+
+        private void setConnected(boolean value) {
+            if (workerConnected == value) return;
+            workerConnected = value;
+            if (!running) return;
+            connected = value;
+            listener.onConnectionChanged(value);
+        }
+    }
+
+    /**
+     * Converte il payload JSON di un evento.
+     *
+     * @return evento, oppure {@code null} se il payload non è valido o riguarda entità/azioni sconosciute
+     */
+    private static ChangeEvent parse(long sequence, String data) {
+        try {
+            JsonNode root = JsonSupport.mapper().readTree(data);
+            Entity entity = Entity.valueOf(root.path("entity").asText().toUpperCase(Locale.ROOT));
+            Action action = Action.valueOf(root.path("action").asText().toUpperCase(Locale.ROOT));
+            JsonNode payload = root.get("payload");
+            boolean hasPayload = action != Action.DELETED && payload != null && !payload.isNull();
+            Issue issue = entity == Entity.ISSUE && hasPayload ? JsonSupport.issueReader().readValue(payload) : null;
+            Comment comment = entity == Entity.COMMENT && hasPayload ? JsonSupport.commentReader().readValue(payload) : null;
+            Integer id = root.hasNonNull("id") ? Integer.valueOf(root.get("id").asInt())
+                    : issue != null ? issue.getId() : comment != null ? comment.getId() : null;
+            return new ChangeEvent(sequence, entity, action, id, issue, comment);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.log(Level.FINE, "Evento di modifica ignorato: " + data, e);
+            return null;
+        }
+    }
+
+    private static long parseSequence(String id) {
+        if (id == null) return -1;
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Duration jittered(Duration delay) {
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Duration.ofMillis((long) (delay.toMillis() * factor));
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Errore nella chiusura dello stream", e);
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.unina.bugboardapp.exception.ApiException;
+import com.unina.bugboardapp.manager.SessionManager;
+import com.unina.bugboardapp.model.User;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Upload resumable a blocchi degli allegati delle issue.
+ * <p>
+ * Alternativa a {@link ApiClient#postMultipart(String, Path, UploadProgressListener)} per file di grandi
+ * dimensioni: il file viene suddiviso in blocchi di dimensione fissa, inviati in parallelo (con un limite
+ * al numero di blocchi in volo) e confermati singolarmente dal server. Un'interruzione costa al più i
+ * blocchi in volo, non l'intero file.
+ * </p>
+ *
+ * <h2>Protocollo</h2>
+ * <ol>
+ *   <li>{@code POST /images/uploads} con {@code {issueId, filename, size, chunkSize}}: il server risponde
+ *       {@code {uploadId}};</li>
+ *   <li>{@code PUT /images/uploads/{uploadId}/chunks/{index}} per ogni blocco, con header
+ *       {@code Content-Range} e {@code X-Chunk-Checksum: sha-256=<base64>}; una risposta 2xx conferma il
+ *       blocco, una 422 segnala un checksum non valido;</li>
+ *   <li>{@code GET /images/uploads/{uploadId}} restituisce {@code {acknowledgedChunks: [...]}} per la ripresa
+ *       (404 se la sessione non esiste più);</li>
+ *   <li>{@code POST /images/uploads/{uploadId}/complete} assembla il file e ne restituisce il percorso
+ *       lato server, come l'upload multipart.</li>
+ * </ol>
+ *
+ * <h2>Affidabilità</h2>
+ * <ul>
+ *   <li>ogni blocco ha un checksum SHA-256 verificato dal server;</li>
+ *   <li>gli errori transitori (I/O, timeout, 408/422/429/5xx) vengono ritentati con backoff esponenziale;</li>
+ *   <li>i blocchi confermati sono registrati nel {@link UploadJournal} dell'account in sessione: un upload
+ *       interrotto, anche da un riavvio, riprende dai blocchi mancanti ({@link #resumePending()});</li>
+ *   <li>un upload già in corso (es. ripreso al login) non viene avviato una seconda volta.</li>
+ * </ul>
+ *
+ * <h2>Configurazione</h2>
+ * La modalità è opt-in ({@code bugboard.upload.chunked=true}), perché richiede il supporto del backend.
+ * Dimensione dei blocchi e parallelismo sono configurabili con {@code bugboard.upload.chunkSize} (byte)
+ * e {@code bugboard.upload.parallelism}.
+ *
+ * <h2>Pattern</h2>
+ * Singleton "lazy" ({@link #getInstance()}), condiviso da tutti i service.
+ */
+public class ChunkedUploader {
+    private static final Logger logger = Logger.getLogger(ChunkedUploader.class.getName());
+    /**
+     * Dimensione predefinita dei blocchi (1 MiB).
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    /**
+     * Numero predefinito di blocchi inviati contemporaneamente.
+     */
+    public static final int DEFAULT_PARALLELISM = 3;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final String UPLOADS_ENDPOINT = "/images/uploads";
+    private static final Pattern UPLOAD_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    private static ChunkedUploader instance;
+
+    private final ApiClient apiClient;
+    private final Supplier<UploadJournal> journals;
+    private final int chunkSize;
+    private final int parallelism;
+    /**
+     * Upload in corso, per id: impedisce di trasferire due volte lo stesso upload.
+     */
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Crea l'uploader condiviso: journal dell'account in sessione e parametri letti dalle proprietà di sistema.
+     */
+    private ChunkedUploader() {
+        this(ApiClient.getInstance(), () -> UploadJournal.forAccount(currentAccount()),
+                Integer.getInteger("bugboard.upload.chunkSize", DEFAULT_CHUNK_SIZE),
+                Integer.getInteger("bugboard.upload.parallelism", DEFAULT_PARALLELISM));
+    }
+
+    /**
+     * Crea un uploader con i parametri indicati.
+     *
+     * @param apiClient   client HTTP
+     * @param journal     journal degli upload incompleti
+     * @param chunkSize   dimensione dei blocchi, in byte
+     * @param parallelism numero massimo di blocchi in volo
+     */
+    public ChunkedUploader(ApiClient apiClient, UploadJournal journal, int chunkSize, int parallelism) {
+        this(apiClient, () -> journal, chunkSize, parallelism);
+    }
+
+    private ChunkedUploader(ApiClient apiClient, Supplier<UploadJournal> journals, int chunkSize, int parallelism) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Chunk size and parallelism must be positive");
+        }
+        this.apiClient = apiClient;
+        this.journals = journals;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Restituisce l'istanza singleton, creandola al primo utilizzo.
+     *
+     * @return uploader condiviso
+     */
+    public static synchronized ChunkedUploader getInstance() {
+        if (instance == null) {
+            instance = new ChunkedUploader();
+        }
+        return instance;
+    }
+
+    /**
+     * Indica se gli upload a blocchi sono abilitati ({@code bugboard.upload.chunked=true}).
+     *
+     * @return {@code true} se la modalità a blocchi è abilitata
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("bugboard.upload.chunked");
+    }
+
+    /**
+     * Indica se conviene caricare a blocchi un file della dimensione indicata.
+     *
+     * @param size dimensione del file
+     * @return {@code true} se il file occupa più di un blocco
+     */
+    public boolean shouldChunk(long size) {
+        return size > chunkSize;
+    }
+
+    /**
+     * Carica un file come allegato di una issue, riprendendo un eventuale upload precedente incompleto.
+     *
+     * @param issueId  id della issue di destinazione
+     * @param file     file da caricare
+     * @param listener callback opzionale di avanzamento
+     * @return percorso dell'immagine lato server
+     * @throws IOException          in caso di errore I/O non recuperato con i tentativi
+     * @throws InterruptedException se il thread viene interrotto
+     * @throws ApiException         se il server rifiuta l'upload con un errore non transitorio
+     */
+    public String upload(int issueId, Path file, UploadProgressListener listener)
+            throws IOException, InterruptedException {
+        UploadJournal journal = journals.get();
+        UploadJournal.Entry entry = journal.find(issueId, file);
+        if (entry != null && active.contains(entry.uploadId())) {
+            throw new IOException("Upload " + entry.uploadId() + " already in progress");
+        }
+        if (entry != null && !entry.matchesSource()) {
+            journal.remove(entry.uploadId());
+            entry = null;
+        }
+        if (entry != null) {
+            entry = reconcileWithServer(journal, entry);
+        }
+        if (entry == null) {
+            entry = start(journal, issueId, file);
+        }
+        if (!active.add(entry.uploadId())) {
+            throw new IOException("Upload " + entry.uploadId() + " already in progress");
+        }
+        try {
+            return transfer(journal, entry, listener);
+        } finally {
+            active.remove(entry.uploadId());
+        }
+    }
+
+    /**
+     * Riprende gli upload incompleti registrati nel journal (es. dopo il login).
+     * <p>
+     * Le voci il cui file sorgente è cambiato o non esiste più vengono scartate; quelle che falliscono
+     * di nuovo restano nel journal per un tentativo successivo. Gli upload già in corso (es. per una
+     * ripresa precedente non ancora terminata) vengono saltati.
+     * </p>
+     *
+     * @return numero di upload completati
+     * @throws InterruptedException se il thread viene interrotto
+     */
+    public int resumePending() throws InterruptedException {
+        UploadJournal journal = journals.get();
+        int completed = 0;
+        for (UploadJournal.Entry entry : journal.loadAll()) {
+            if (!active.add(entry.uploadId())) {
+                logger.fine(() -> "Upload " + entry.uploadId() + " già in corso, saltato");
+                continue;
+            }
+            try {
+                if (!entry.matchesSource()) {
+                    logger.info(() -> "Upload " + entry.uploadId() + " scartato: file sorgente modificato o assente");
+                    journal.remove(entry.uploadId());
+                    continue;
+                }
+                UploadJournal.Entry current = reconcileWithServer(journal, entry);
+                if (current == null) {
+                    logger.info(() -> "Upload " + entry.uploadId() + " scaduto sul server, scartato");
+                    continue;
+                }
+                transfer(journal, current, null);
+                completed++;
+            } catch (IOException | ApiException e) {
+                logger.log(Level.WARNING, "Ripresa dell'upload " + entry.uploadId() + " non riuscita", e);
+            } finally {
+                active.remove(entry.uploadId());
+            }
+        }
+        return completed;
+    }
+
+    private UploadJournal.Entry start(UploadJournal journal, int issueId, Path file) throws IOException, InterruptedException {
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        ObjectNode request = JsonSupport.mapper().createObjectNode()
+                .put("issueId", issueId)
+                .put("filename", file.getFileName().toString())
+                .put("size", size)
+                .put("chunkSize", chunkSize);
+        String response = apiClient.post(UPLOADS_ENDPOINT, request.toString());
+        String uploadId = JsonSupport.mapper().readTree(response).path("uploadId").asText("");
+        if (!UPLOAD_ID.matcher(uploadId).matches()) {
+            throw new IOException("Invalid upload id from server: " + uploadId);
+        }
+        UploadJournal.Entry entry = new UploadJournal.Entry(uploadId, issueId, file.toAbsolutePath(), size,
+                lastModified, chunkSize, new BitSet());
+        journal.save(entry);
+        return entry;
+    }
+
+    /**
+     * Allinea i blocchi confermati con lo stato del server, che è autorevole.
+     *
+     * @return voce aggiornata, oppure {@code null} se il server non conosce più l'upload
+     */
+    private UploadJournal.Entry reconcileWithServer(UploadJournal journal, UploadJournal.Entry entry)
+            throws IOException, InterruptedException {
+        try {
+            String response = apiClient.get(UPLOADS_ENDPOINT + "/" + entry.uploadId());
+            BitSet acknowledged = new BitSet();
+            for (JsonNode index : JsonSupport.mapper().readTree(response).path("acknowledgedChunks")) {
+                acknowledged.set(index.asInt());
+            }
+            return new UploadJournal.Entry(entry.uploadId(), entry.issueId(), entry.file(), entry.size(),
+                    entry.lastModified(), entry.chunkSize(), acknowledged);
+        } catch (ApiException e) {
+            if (e.getStatusCode() == 404 || e.getStatusCode() == 410) {
+                journal.remove(entry.uploadId());
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Invia i blocchi mancanti (al più {@link #parallelism} alla volta) e completa l'upload.
+     */
+    private String transfer(UploadJournal journal, UploadJournal.Entry entry, UploadProgressListener listener)
+            throws IOException, InterruptedException {
+        BitSet acknowledged = (BitSet) entry.acknowledged().clone();
+        AtomicLong sentBytes = new AtomicLong();
+        acknowledged.stream().forEach(index -> sentBytes.addAndGet(chunkLength(entry, index)));
+        if (listener != null) listener.onProgress(sentBytes.get(), entry.size());
+
+        Semaphore permits = new Semaphore(parallelism);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(entry.file(), StandardOpenOption.READ)) {
+            for (int index = 0; index < entry.chunkCount() && failure.get() == null; index++) {
+                if (acknowledged.get(index)) continue;
+                permits.acquire();
+                if (failure.get() != null) {
+                    permits.release();
+                    break;
+                }
+                int chunkIndex = index;
+                byte[] data = readChunk(channel, entry, chunkIndex);
+                inFlight.add(sendWithRetry(entry, chunkIndex, data, checksum(data), 1)
+                        .thenRun(() -> {
+                            acknowledge(journal, entry, acknowledged, chunkIndex);
+                            long sent = sentBytes.addAndGet(data.length);
+                            if (listener != null) listener.onProgress(sent, entry.size());
+                        })
+                        .whenComplete((ignored, error) -> {
+                            if (error != null) failure.compareAndSet(null, AsyncResponses.unwrap(error));
+                            permits.release();
+                        }));
+            }
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).get();
+        } catch (InterruptedException e) {
+            inFlight.forEach(chunk -> chunk.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            throw asIOException(AsyncResponses.unwrap(e.getCause()));
+        }
+        if (failure.get() != null) {
+            throw asIOException(failure.get());
+        }
+
+        String serverPath = apiClient.post(UPLOADS_ENDPOINT + "/" + entry.uploadId() + "/complete", "{}");
+        journal.remove(entry.uploadId());
+        logger.info(() -> "Upload " + entry.uploadId() + " completato (" + entry.chunkCount() + " blocchi)");
+        return serverPath;
+    }
+
+    private CompletableFuture<Void> sendWithRetry(UploadJournal.Entry entry, int index, byte[] data,
+                                                  String checksum, int attempt) {
+        long start = (long) index * entry.chunkSize();
+        Map<String, String> headers = Map.of(
+                "Content-Range", "bytes " + start + "-" + (start + data.length - 1) + "/" + entry.size(),
+                "X-Chunk-Checksum", "sha-256=" + checksum);
+        String endpoint = UPLOADS_ENDPOINT + "/" + entry.uploadId() + "/chunks/" + index;
+        return apiClient.putAsync(endpoint, data, headers)
+                .<Void>thenApply(body -> null)
+                .exceptionallyCompose(error -> {
+                    Throwable cause = AsyncResponses.unwrap(error);
+                    if (attempt >= MAX_ATTEMPTS || !isRetryable(cause)) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    long delay = INITIAL_BACKOFF_MILLIS << (attempt - 1);
+                    logger.fine(() -> "Blocco " + index + " fallito (" + cause + "), nuovo tentativo tra " + delay + " ms");
+                    Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, delayed)
+                            .thenCompose(ignored -> sendWithRetry(entry, index, data, checksum, attempt + 1));
+                });
+    }
+
+    private void acknowledge(UploadJournal journal, UploadJournal.Entry entry, BitSet acknowledged, int index) {
+        synchronized (acknowledged) {
+            acknowledged.set(index);
+            try {
+                journal.save(new UploadJournal.Entry(entry.uploadId(), entry.issueId(), entry.file(), entry.size(),
+                        entry.lastModified(), entry.chunkSize(), (BitSet) acknowledged.clone()));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Impossibile aggiornare il journal dell'upload " + entry.uploadId(), e);
+            }
+        }
+    }
+
+    /**
+     * Username dell'account in sessione, che identifica il journal degli upload.
+     */
+    private static String currentAccount() {
+        User user = SessionManager.getInstance().getUser();
+        if (user == null) {
+            throw new IllegalStateException("No user in session");
+        }
+        return user.getUsername();
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof ApiException apiException) {
+            int status = apiException.getStatusCode();
+            return status == 408 || status == 422 || status == 429 || status >= 500;
+        }
+        return error instanceof IOException;
+    }
+
+    private static byte[] readChunk(FileChannel channel, UploadJournal.Entry entry, int index) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(chunkLength(entry, index));
+        long position = (long) index * entry.chunkSize();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new EOFException("File truncated during upload: " + entry.file());
+        }
+        return buffer.array();
+    }
+
+    private static int chunkLength(UploadJournal.Entry entry, int index) {
+        long start = (long) index * entry.chunkSize();
+        return (int) Math.min(entry.chunkSize(), entry.size() - start);
+    }
+
+    private static String checksum(byte[] data) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static IOException asIOException(Throwable error) {
+        if (error instanceof ApiException apiException) throw apiException;
+        if (error instanceof IOException ioException) return ioException;
+        return new IOException("Chunk upload failed", error);
+    }
+}
@@ -1,14 +1,12 @@
 package com.unina.bugboardapp.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.unina.bugboardapp.exception.CommentException;
 import com.unina.bugboardapp.model.Comment;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 /**
  * Service per la gestione dei commenti tramite API REST.
  * <p>
@@ -18,23 +16,22 @@ import java.util.List;
  *
  * <h2>Serializzazione JSON</h2>
  * <p>
- * Configura {@link ObjectMapper} con {@link JavaTimeModule} e disabilita
- * {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} per gestire correttamente
- * date/ore in formato ISO-8601.
+ * Usa i reader/writer Jackson condivisi esposti da {@link JsonSupport}, già configurati
+ * per date/ore in formato ISO-8601.
  * </p>
  */
 public class CommentService {
 
     private final ApiClient apiClient;
-    private final ObjectMapper mapper;
     /**
-     * Costruisce il service inizializzando il client API singleton e l'ObjectMapper.
+     * Costruisce il service inizializzando il client API singleton.
      */
     public CommentService() {
         this.apiClient = ApiClient.getInstance();
-        this.mapper = new ObjectMapper();
-        this.mapper.registerModule(new JavaTimeModule());
-        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    CommentService(ApiClient apiClient) {
+        this.apiClient = apiClient;
     }
     /**
      * Crea un nuovo commento sul backend.
@@ -44,40 +41,117 @@ public class CommentService {
      * @throws CommentException se la risposta è vuota o se avvengono errori di comunicazione/parsing
      */
     public Comment createComment(Comment newComment) throws CommentException {
+        return createComment(newComment, null);
+    }
+    /**
+     * Variante di {@link #createComment(Comment)} ripetibile senza duplicati.
+     * <p>
+     * Se {@code idempotencyKey} non è {@code null} viene inviata come {@link ApiClient#IDEMPOTENCY_KEY_HEADER}:
+     * ripetere la richiesta con la stessa chiave restituisce il commento già creato.
+     * </p>
+     *
+     * @param newComment     commento da creare
+     * @param idempotencyKey chiave di idempotenza della richiesta, oppure {@code null}
+     * @return commento creato (come restituito dal server)
+     * @throws CommentException se la risposta è vuota o se avvengono errori di comunicazione/parsing
+     */
+    public Comment createComment(Comment newComment, String idempotencyKey) throws CommentException {
         try{
-            String requestBody = mapper.writeValueAsString(newComment);
-            String responseBody = apiClient.post("/comments", requestBody);
+            String requestBody = JsonSupport.commentWriter().writeValueAsString(newComment);
+            String responseBody = idempotencyKey != null
+                    ? apiClient.post("/comments", requestBody, Map.of(ApiClient.IDEMPOTENCY_KEY_HEADER, idempotencyKey))
+                    : apiClient.post("/comments", requestBody);
             if (responseBody != null && !responseBody.isEmpty()) {
-                return mapper.readValue(responseBody, Comment.class);
+                return JsonSupport.commentReader().readValue(responseBody);
             }
             throw new CommentException("Comment creation failed: Empty response from server");
-        }catch (IOException | InterruptedException e){
+        }catch (IOException e){
+            throw new CommentException("Communication error during comment creation.", e);
+        }catch (InterruptedException e){
             Thread.currentThread().interrupt();
             throw new CommentException("Communication error during comment creation.", e);
         }catch(Exception e){
             throw new CommentException("Comment creation failed: unpredicted error.", e);
         }
     }
+    /**
+     * Variante asincrona di {@link #createComment(Comment)}.
+     * <p>
+     * Non blocca il thread chiamante: la richiesta viene inviata con {@link ApiClient#postAsync(String, String)}.
+     * </p>
+     *
+     * @param newComment commento da creare
+     * @return future completato con il commento creato; in caso di errore fallisce con una
+     * {@link java.util.concurrent.CompletionException} che incapsula una {@link CommentException}
+     */
+    public CompletableFuture<Comment> createCommentAsync(Comment newComment) {
+        String requestBody;
+        try {
+            requestBody = JsonSupport.commentWriter().writeValueAsString(newComment);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new CommentException("Comment creation failed: unpredicted error.", e));
+        }
+        return AsyncResponses.map(apiClient.postAsync("/comments", requestBody), responseBody -> {
+            if (responseBody != null && !responseBody.isEmpty()) {
+                return JsonSupport.commentReader().readValue(responseBody);
+            }
+            throw new CommentException("Comment creation failed: Empty response from server");
+        }, CommentService::asCommentException, "Communication error during comment creation.");
+    }
     /**
      * Recupera l'elenco dei commenti associati a una specifica issue.
      *
+     * <p>
+     * La richiesta è condizionale: se i commenti non sono cambiati dall'ultima chiamata viene restituita
+     * la lista già deserializzata, senza trasferire né rielaborare il body.
+     * </p>
+     *
      * @param issueId id della issue
-     * @return lista commenti; lista vuota se la risposta è vuota
+     * @return lista immutabile di commenti; lista vuota se la risposta è vuota
      * @throws CommentException in caso di errori di comunicazione/parsing
      */
     public List<Comment> getCommentsByIssueId(Integer issueId) throws CommentException {
         try {
-            String responseBody = apiClient.get("/comments/issue/" + issueId);
-            if (responseBody != null && !responseBody.isEmpty()) {
-                return mapper.readValue(responseBody, new TypeReference<List<Comment>>() {
-                });
-            }
-            return List.of();
-        }catch (IOException | InterruptedException e){
+            return apiClient.getConditional("/comments/issue/" + issueId, CommentService::parseCommentList);
+        }catch (IOException e){
+            throw new CommentException("Communication error during comment retrieval.", e);
+        }catch (InterruptedException e){
             Thread.currentThread().interrupt();
             throw new CommentException("Communication error during comment retrieval.", e);
         }catch(Exception e){
             throw new CommentException("Comment retrieval failed: unpredicted error.", e);
         }
     }
+    /**
+     * Variante asincrona di {@link #getCommentsByIssueId(Integer)}.
+     * <p>
+     * Più caricamenti concorrenti (es. i commenti di diverse issue) condividono i thread del client HTTP
+     * invece di occuparne uno ciascuno in attesa della risposta. Annullare il future annulla la richiesta.
+     * </p>
+     *
+     * @param issueId id della issue
+     * @return future completato con la lista immutabile dei commenti (vuota se la risposta è vuota); in caso di errore
+     * fallisce con una {@link java.util.concurrent.CompletionException} che incapsula una {@link CommentException}
+     */
+    public CompletableFuture<List<Comment>> getCommentsByIssueIdAsync(Integer issueId) {
+        return AsyncResponses.mapErrors(
+                apiClient.getConditionalAsync("/comments/issue/" + issueId, CommentService::parseCommentList),
+                CommentService::asCommentException, "Communication error during comment retrieval.");
+    }
+
+    /**
+     * Converte il body in una lista immutabile, condivisibile tramite la cache delle GET condizionali.
+     */
+    private static List<Comment> parseCommentList(String responseBody) throws IOException {
+        if (responseBody == null || responseBody.isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(JsonSupport.commentListReader().<List<Comment>>readValue(responseBody));
+    }
+
+    private static CommentException asCommentException(String message, Throwable cause) {
+        return cause instanceof CommentException commentException
+                ? commentException
+                : new CommentException(message, cause);
+    }
 }
@@ -0,0 +1,77 @@
+package com.unina.bugboardapp.service;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache dei validatori HTTP ({@code ETag}/{@code Last-Modified}) usata da {@link ApiClient} per le
+ * richieste GET condizionali.
+ * <p>
+ * Per ogni chiave (tipicamente l'endpoint) conserva i validatori dell'ultima risposta {@code 200} e,
+ * se disponibile, il risultato già deserializzato. Quando il server risponde {@code 304 Not Modified}
+ * il chiamante riusa tale risultato, evitando sia il trasferimento sia il parsing del body.
+ * </p>
+ *
+ * <h2>Thread-safety</h2>
+ * Le voci sono immutabili e la mappa è concorrente: la cache può essere usata da più thread.
+ */
+final class ConditionalCache {
+
+    /**
+     * Validatori e risultato associati a una chiave.
+     *
+     * @param etag         valore dell'header {@code ETag}, o {@code null}
+     * @param lastModified valore dell'header {@code Last-Modified}, o {@code null}
+     * @param value        risultato deserializzato della risposta, o {@code null} se non memorizzato
+     */
+    record Entry(String etag, String lastModified, Object value) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Aggiunge alla richiesta gli header condizionali, se per la chiave sono noti dei validatori.
+     *
+     * @param key          chiave della voce
+     * @param builder      builder della richiesta da arricchire
+     * @param requireValue se {@code true} la voce viene usata solo se contiene anche il risultato da riusare
+     * @return voce usata per la richiesta, o {@code null} se assente
+     */
+    Entry applyValidators(String key, HttpRequest.Builder builder, boolean requireValue) {
+        Entry entry = entries.get(key);
+        if (entry == null || (requireValue && entry.value() == null)) return null;
+        if (entry.etag() != null) builder.header("If-None-Match", entry.etag());
+        if (entry.lastModified() != null) builder.header("If-Modified-Since", entry.lastModified());
+        return entry;
+    }
+
+    /**
+     * Memorizza i validatori di una risposta {@code 200} insieme al risultato deserializzato.
+     * <p>
+     * Se la risposta non contiene validatori la voce viene rimossa: la risorsa non è cacheabile.
+     * </p>
+     *
+     * @param key      chiave della voce
+     * @param response risposta da cui leggere gli header
+     * @param value    risultato deserializzato (può essere {@code null})
+     */
+    void store(String key, HttpResponse<?> response, Object value) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (etag == null && lastModified == null) {
+            entries.remove(key);
+        } else {
+            entries.put(key, new Entry(etag, lastModified, value));
+        }
+    }
+
+    void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+}
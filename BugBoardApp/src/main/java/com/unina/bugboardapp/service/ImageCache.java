@@ -0,0 +1,459 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.exception.IssueException;
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache a due livelli delle immagini allegate alle issue.
+ * <p>
+ * Evita di riscaricare e decodificare l'immagine ogni volta che si apre il dettaglio di una issue:
+ * </p>
+ * <ul>
+ *   <li><strong>memoria</strong>: LRU di miniature ({@link Image} già decodificate alla dimensione di
+ *       visualizzazione), limitata dal totale dei byte dei pixel ({@code larghezza × altezza × 4});
+ *       una miniatura presente in memoria si mostra subito;</li>
+ *   <li><strong>disco</strong>: copia dei byte scaricati in {@code ~/.bugboard/cache/images}, con l'{@code ETag}
+ *       del server in un file {@code .meta} affiancato. Sopravvive ai riavvii; trascorso l'intervallo di
+ *       rivalidazione la copia viene riconfermata con una GET condizionale ({@code If-None-Match}).</li>
+ * </ul>
+ *
+ * <h2>Miniature e risoluzione piena</h2>
+ * Le miniature ({@link #loadThumbnail(String, double, double)}) vengono decodificate direttamente alla
+ * dimensione richiesta, senza mai allocare l'immagine a risoluzione piena: uno screenshot 4K mostrato a
+ * 500 pixel di larghezza occupa così circa un sessantesimo della memoria. La risoluzione piena
+ * ({@link #loadFullResolution(String)}) va richiesta solo su azione esplicita dell'utente e non viene
+ * trattenuta in memoria.
+ *
+ * <h2>Evizione</h2>
+ * La memoria è liberata in ordine LRU oltre il limite. Il disco viene ripulito all'avvio e dopo ogni
+ * scrittura: prima le voci non usate da più di {@code maxAge}, poi le meno recenti finché l'occupazione
+ * non scende sotto il limite.
+ *
+ * <h2>Configurazione</h2>
+ * Proprietà di sistema (opzionali): {@code bugboard.imageCache.memoryBytes},
+ * {@code bugboard.imageCache.diskBytes}, {@code bugboard.imageCache.maxAgeDays},
+ * {@code bugboard.imageCache.revalidateMinutes}. Il numero di download contemporanei è limitato da
+ * {@link AttachmentDownloader}.
+ *
+ * <h2>Threading</h2>
+ * {@link #getIfPresent(String, double, double)} è non bloccante e adatto al JavaFX Application Thread;
+ * {@link #loadThumbnail(String, double, double)} e {@link #loadFullResolution(String)} eseguono I/O e
+ * vanno invocati in background.
+ *
+ * <h2>Pattern</h2>
+ * Implementa un Singleton "lazy" (istanza creata al primo {@link #getInstance()}).
+ */
+public class ImageCache {
+    private static final Logger logger = Logger.getLogger(ImageCache.class.getName());
+    private static final String DATA_EXTENSION = ".img";
+    private static final String META_EXTENSION = ".meta";
+    private static ImageCache instance;
+
+    /**
+     * Istantanea delle metriche della cache.
+     *
+     * @param memoryHits   miniature servite dalla memoria
+     * @param diskHits     richieste servite dal disco (incluse quelle rivalidate con 304)
+     * @param misses       richieste che hanno richiesto il download dell'immagine
+     * @param revalidated  rivalidazioni concluse con {@code 304 Not Modified}
+     * @param evictions    voci rimosse (memoria e disco) per limiti di dimensione o età
+     * @param memoryBytes  byte dei pixel attualmente in memoria
+     * @param memoryImages miniature attualmente in memoria
+     */
+    public record Metrics(long memoryHits, long diskHits, long misses, long revalidated, long evictions,
+                          long memoryBytes, int memoryImages) {
+    }
+
+    private final AttachmentDownloader downloader;
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final Duration maxAge;
+    private final Duration revalidateAfter;
+
+    private final LinkedHashMap<String, Image> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private final Object diskLock = new Object();
+    private final AtomicBoolean diskPruned = new AtomicBoolean();
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private ImageCache() {
+        this(AttachmentDownloader.getInstance(),
+                Path.of(System.getProperty("user.home"), ".bugboard", "cache", "images"),
+                Long.getLong("bugboard.imageCache.memoryBytes", 64L << 20),
+                Long.getLong("bugboard.imageCache.diskBytes", 256L << 20),
+                Duration.ofDays(Long.getLong("bugboard.imageCache.maxAgeDays", 30)),
+                Duration.ofMinutes(Long.getLong("bugboard.imageCache.revalidateMinutes", 60)));
+    }
+
+    ImageCache(AttachmentDownloader downloader, Path directory, long maxMemoryBytes, long maxDiskBytes,
+               Duration maxAge, Duration revalidateAfter) {
+        this.downloader = downloader;
+        this.directory = directory;
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.maxAge = maxAge;
+        this.revalidateAfter = revalidateAfter;
+    }
+
+    /**
+     * Restituisce l'istanza singleton della cache.
+     *
+     * @return istanza unica di {@link ImageCache}
+     */
+    public static synchronized ImageCache getInstance() {
+        if (instance == null) {
+            instance = new ImageCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Restituisce la miniatura se già decodificata in memoria, senza eseguire I/O.
+     *
+     * @param imagePath percorso (o nome file) dell'immagine sul server
+     * @param width     larghezza massima della miniatura ({@code 0} = non vincolata)
+     * @param height    altezza massima della miniatura ({@code 0} = non vincolata)
+     * @return miniatura in memoria, oppure {@code null}
+     */
+    public Image getIfPresent(String imagePath, double width, double height) {
+        String key = thumbnailKey(IssueService.imageFileName(imagePath), width, height);
+        Image image;
+        synchronized (memory) {
+            image = memory.get(key);
+        }
+        if (image != null) memoryHits.increment();
+        return image;
+    }
+
+    /**
+     * Restituisce una miniatura dell'immagine, decodificata in modo da stare in {@code width × height}
+     * preservando le proporzioni.
+     * <p>
+     * La miniatura è cercata in memoria; altrimenti viene decodificata dalla copia su disco, scaricata
+     * dal server se assente o non più valida. Operazione bloccante: va eseguita fuori dal JavaFX
+     * Application Thread.
+     * </p>
+     *
+     * @param imagePath percorso (o nome file) dell'immagine sul server
+     * @param width     larghezza massima della miniatura ({@code 0} = non vincolata)
+     * @param height    altezza massima della miniatura ({@code 0} = non vincolata)
+     * @return miniatura decodificata
+     * @throws IssueException in caso di errore di download o di decodifica
+     */
+    public Image loadThumbnail(String imagePath, double width, double height) throws IssueException {
+        Image image = getIfPresent(imagePath, width, height);
+        if (image != null) return image;
+        String key = IssueService.imageFileName(imagePath);
+        try {
+            return remember(thumbnailKey(key, width, height), decode(ensureOnDisk(key), width, height));
+        } catch (IOException e) {
+            throw new IssueException("Error caching image " + key, e);
+        }
+    }
+
+    /**
+     * Restituisce l'immagine a risoluzione piena (es. per lo zoom), dalla copia su disco o dal server.
+     * <p>
+     * L'immagine non viene trattenuta in memoria: il chiamante la rilascia quando non serve più.
+     * Operazione bloccante: va eseguita fuori dal JavaFX Application Thread.
+     * </p>
+     *
+     * @param imagePath percorso (o nome file) dell'immagine sul server
+     * @return immagine a risoluzione piena
+     * @throws IssueException in caso di errore di download o di decodifica
+     */
+    public Image loadFullResolution(String imagePath) throws IssueException {
+        String key = IssueService.imageFileName(imagePath);
+        try {
+            return decode(ensureOnDisk(key), 0, 0);
+        } catch (IOException e) {
+            throw new IssueException("Error caching image " + key, e);
+        }
+    }
+
+    /**
+     * Garantisce una copia valida dell'immagine su disco, rivalidandola o scaricandola se necessario.
+     *
+     * @return percorso della copia su disco
+     */
+    private Path ensureOnDisk(String key) throws IOException, IssueException {
+        pruneDiskOnce();
+        Path data = dataPath(key);
+        Properties meta = readMeta(key);
+        if (meta != null && Files.exists(data) && (isFresh(meta) || revalidate(key, meta))) {
+            diskHits.increment();
+            Files.setLastModifiedTime(data, FileTime.fromMillis(System.currentTimeMillis()));
+            return data;
+        }
+        misses.increment();
+        download(key, null);
+        return data;
+    }
+
+    /**
+     * Restituisce le metriche correnti della cache.
+     *
+     * @return istantanea delle metriche
+     */
+    public Metrics getMetrics() {
+        synchronized (memory) {
+            return new Metrics(memoryHits.sum(), diskHits.sum(), misses.sum(), revalidated.sum(), evictions.sum(),
+                    memoryBytes, memory.size());
+        }
+    }
+
+    /**
+     * Svuota la cache in memoria (es. al logout); la cache su disco resta disponibile.
+     */
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+    }
+
+    private boolean isFresh(Properties meta) {
+        long validatedAt = Long.parseLong(meta.getProperty("validatedAt", "0"));
+        return System.currentTimeMillis() - validatedAt < revalidateAfter.toMillis();
+    }
+
+    /**
+     * Rivalida la copia su disco con il server; se l'immagine è cambiata la sostituisce.
+     *
+     * @return {@code true} se la copia su disco è valida (confermata con 304 o appena sostituita),
+     *         {@code false} se manca l'{@code ETag} per rivalidarla
+     */
+    private boolean revalidate(String key, Properties meta) throws IOException, IssueException {
+        String etag = meta.getProperty("etag");
+        if (etag == null) return false;
+        if (!download(key, etag)) {
+            revalidated.increment();
+            writeMeta(key, etag);
+        }
+        return true;
+    }
+
+    /**
+     * Scarica l'immagine su disco tramite {@link AttachmentDownloader} (file temporaneo + spostamento atomico).
+     *
+     * @param etag {@code ETag} della copia locale da rivalidare, oppure {@code null}
+     * @return {@code true} se è stata scaricata una nuova copia, {@code false} se il server ha risposto 304
+     */
+    private boolean download(String key, String etag) throws IOException, IssueException {
+        try {
+            return !downloader.fetch(key, etag, directory, (temp, newEtag) -> {
+                synchronized (diskLock) {
+                    Files.move(temp, dataPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    writeMeta(key, newEtag);
+                    pruneDisk();
+                }
+                forgetThumbnails(key);
+            }).notModified();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IssueException("Image download interrupted: " + key, e);
+        }
+    }
+
+    /**
+     * Decodifica la copia su disco; con {@code width}/{@code height} maggiori di zero il ridimensionamento
+     * avviene durante la decodifica, senza allocare la bitmap a risoluzione piena.
+     */
+    private Image decode(Path data, double width, double height) throws IOException {
+        try (InputStream in = Files.newInputStream(data)) {
+            Image image = new Image(in, width, height, true, true);
+            if (image.isError()) {
+                Files.deleteIfExists(data);
+                throw new IOException("Unable to decode image", image.getException());
+            }
+            return image;
+        }
+    }
+
+    /**
+     * Inserisce l'immagine nella LRU in memoria, liberando le meno recenti oltre il limite.
+     */
+    private Image remember(String key, Image image) {
+        long size = pixelBytes(image);
+        if (size > maxMemoryBytes) return image;
+        synchronized (memory) {
+            Image previous = memory.put(key, image);
+            if (previous != null) memoryBytes -= pixelBytes(previous);
+            memoryBytes += size;
+            Iterator<Map.Entry<String, Image>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                Map.Entry<String, Image> entry = eldest.next();
+                memoryBytes -= pixelBytes(entry.getValue());
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Rimuove dalla memoria le miniature di un'immagine la cui copia su disco è stata sostituita.
+     */
+    private void forgetThumbnails(String key) {
+        String prefix = key + "@";
+        synchronized (memory) {
+            Iterator<Map.Entry<String, Image>> entries = memory.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Image> entry = entries.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= pixelBytes(entry.getValue());
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    private static String thumbnailKey(String key, double width, double height) {
+        return key + "@" + (int) width + "x" + (int) height;
+    }
+
+    private static long pixelBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4L;
+    }
+
+    private void pruneDiskOnce() {
+        if (diskPruned.compareAndSet(false, true)) {
+            synchronized (diskLock) {
+                pruneDisk();
+            }
+        }
+    }
+
+    /**
+     * Rimuove dal disco le voci troppo vecchie e, se serve, le meno recenti oltre il limite di spazio.
+     * Va invocato tenendo {@link #diskLock}.
+     */
+    private void pruneDisk() {
+        if (!Files.isDirectory(directory)) return;
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + DATA_EXTENSION)) {
+            stream.forEach(files::add);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Impossibile leggere la cache delle immagini", e);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long total = 0;
+        List<Path> retained = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                if (now - Files.getLastModifiedTime(file).toMillis() > maxAge.toMillis()) {
+                    deleteEntry(file);
+                } else {
+                    total += Files.size(file);
+                    retained.add(file);
+                }
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Voce della cache non accessibile: " + file, e);
+            }
+        }
+        if (total <= maxDiskBytes) return;
+        retained.sort(Comparator.comparingLong(ImageCache::lastModifiedMillis));
+        for (Path file : retained) {
+            if (total <= maxDiskBytes) break;
+            try {
+                long size = Files.size(file);
+                deleteEntry(file);
+                total -= size;
+            } catch (IOException e) {
+                logger.log(Level.FINE, "Impossibile rimuovere la voce della cache: " + file, e);
+            }
+        }
+    }
+
+    private void deleteEntry(Path dataFile) throws IOException {
+        String name = dataFile.getFileName().toString();
+        String base = name.substring(0, name.length() - DATA_EXTENSION.length());
+        Files.deleteIfExists(dataFile);
+        Files.deleteIfExists(directory.resolve(base + META_EXTENSION));
+        evictions.increment();
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private Properties readMeta(String key) {
+        Path metaPath = metaPath(key);
+        if (!Files.exists(metaPath)) return null;
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaPath)) {
+            meta.load(in);
+            return key.equals(meta.getProperty("filename")) ? meta : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeMeta(String key, String etag) throws IOException {
+        Properties meta = new Properties();
+        meta.setProperty("filename", key);
+        if (etag != null) meta.setProperty("etag", etag);
+        meta.setProperty("validatedAt", Long.toString(System.currentTimeMillis()));
+        Path temp = directory.resolve(hash(key) + META_EXTENSION + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            meta.store(out, null);
+        }
+        Files.move(temp, metaPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path dataPath(String key) {
+        return directory.resolve(hash(key) + DATA_EXTENSION);
+    }
+
+    private Path metaPath(String key) {
+        return directory.resolve(hash(key) + META_EXTENSION);
+    }
+
+    /**
+     * Nome del file su disco derivato dal nome dell'immagine (evita caratteri non validi nei path).
+     */
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,70 +1,289 @@
 package com.unina.bugboardapp.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.unina.bugboardapp.exception.IssueException;
 import com.unina.bugboardapp.model.Issue;
 import com.unina.bugboardapp.dto.IssueCreateRequest;
 
 import java.io.File;
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Files;
 import java.io.IOException;
-import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 /**
  * Service per la gestione delle issue tramite API REST.
  * <p>
  * Fornisce metodi per:
  * </p>
  * <ul>
- *   <li>Recuperare tutte le issue</li>
+ *   <li>Recuperare tutte le issue (in blocco o in streaming a lotti)</li>
+ *   <li>Recuperare una pagina di issue, per il caricamento lazy della tabella</li>
+ *   <li>Recuperare solo le issue modificate dopo un cursore (sincronizzazione incrementale)</li>
  *   <li>Creare una nuova issue</li>
  * </ul>
  *
  * <h2>Serializzazione JSON</h2>
  * <p>
- * Utilizza Jackson ({@link ObjectMapper}) con {@link JavaTimeModule} e disabilita
- * {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} per gestire correttamente
- * eventuali campi data/ora in formato ISO-8601.
+ * Utilizza i reader/writer Jackson condivisi esposti da {@link JsonSupport}, già configurati
+ * per eventuali campi data/ora in formato ISO-8601.
  * </p>
  */
 public class IssueService {
 
+    /**
+     * Valore restituito da {@link #streamAllIssues(int, Consumer)} quando le issue non sono cambiate
+     * dall'ultima lettura completa ({@code 304 Not Modified}).
+     */
+    public static final int NOT_MODIFIED = -1;
+    /**
+     * Header con cui il backend può indicare il cursore per la sincronizzazione incrementale successiva.
+     */
+    public static final String SYNC_CURSOR_HEADER = "X-Sync-Cursor";
+    private static final String ISSUES_ENDPOINT = "/issues";
+
     private final ApiClient apiClient;
-    private final ObjectMapper mapper;
+    private final ChunkedUploader chunkedUploader;
     /**
-     * Costruisce il service inizializzando il client API singleton e l'ObjectMapper.
+     * Costruisce il service inizializzando il client API singleton.
      */
     public IssueService() {
         this.apiClient = ApiClient.getInstance();
-        this.mapper = new ObjectMapper();
-        this.mapper.registerModule(new JavaTimeModule());
-        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.chunkedUploader = ChunkedUploader.getInstance();
+    }
+
+    IssueService(ApiClient apiClient, ChunkedUploader chunkedUploader) {
+        this.apiClient = apiClient;
+        this.chunkedUploader = chunkedUploader;
     }
     /**
      * Recupera tutte le issue dal backend.
+     * <p>
+     * La richiesta è condizionale ({@link ApiClient#getConditional(String, ApiClient.ResponseParser)}): se le
+     * issue non sono cambiate dall'ultima chiamata viene restituita la lista già deserializzata.
+     * </p>
      *
-     * @return lista di {@link Issue}; lista vuota se la risposta è vuota
+     * @return lista immutabile di {@link Issue}; lista vuota se la risposta è vuota
      * @throws IssueException in caso di errori di comunicazione o deserializzazione
      */
     public List<Issue> fetchAllIssues() throws IssueException {
         try {
-            String responseBody = apiClient.get("/issues");
-            if (responseBody != null && !responseBody.isEmpty()) {
-                return mapper.readValue(responseBody, new TypeReference<List<Issue>>() {
-                });
-            }
+            return apiClient.getConditional(ISSUES_ENDPOINT, IssueService::parseIssueList);
+        } catch (IOException e) {
+            throw new IssueException("Communication error during issue retrieval.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IssueException("Communication error during issue retrieval.", e);
+        } catch (Exception e) {
+            throw new IssueException("Issue retrieval failed: unpredicted error.", e);
+        }
+    }
+    /**
+     * Variante asincrona di {@link #fetchAllIssues()}, che non blocca il thread chiamante.
+     * <p>
+     * Annullare il future annulla anche la richiesta HTTP in corso.
+     * </p>
+     *
+     * @return future completato con la lista di {@link Issue} (vuota se la risposta è vuota); in caso di
+     * errore fallisce con una {@link java.util.concurrent.CompletionException} che incapsula una {@link IssueException}
+     */
+    public CompletableFuture<List<Issue>> fetchAllIssuesAsync() {
+        return AsyncResponses.mapErrors(apiClient.getConditionalAsync(ISSUES_ENDPOINT, IssueService::parseIssueList),
+                (message, cause) -> new IssueException(message, cause), "Communication error during issue retrieval.");
+    }
+
+    /**
+     * Converte il body di {@code /issues} in una lista immutabile, condivisibile tramite la cache
+     * delle GET condizionali.
+     */
+    private static List<Issue> parseIssueList(String responseBody) throws IOException {
+        if (responseBody == null || responseBody.isEmpty()) {
             return List.of();
-        } catch (IOException | InterruptedException e) {
+        }
+        return List.copyOf(JsonSupport.issueListReader().<List<Issue>>readValue(responseBody));
+    }
+    /**
+     * Recupera tutte le issue dal backend deserializzandole in streaming e consegnandole a lotti.
+     * <p>
+     * A differenza di {@link #fetchAllIssues()}, la risposta non viene mai bufferizzata per intero:
+     * un {@link JsonParser} legge direttamente dallo stream HTTP e ogni issue viene deserializzata
+     * appena i suoi token sono disponibili. Ogni volta che si accumulano {@code batchSize} issue
+     * il lotto viene passato a {@code onBatch}; la memoria occupata dipende quindi dalla dimensione
+     * del lotto e non da quella dell'intero payload.
+     * </p>
+     *
+     * <p>
+     * {@code onBatch} viene invocato nel thread chiamante; se blocca (es. in attesa che la UI consumi
+     * il lotto precedente) rallenta di conseguenza la lettura dallo stream.
+     * </p>
+     *
+     * <p>
+     * La richiesta è condizionale: se le issue non sono cambiate dall'ultima lettura completata con successo
+     * il server risponde {@code 304 Not Modified}, {@code onBatch} non viene mai invocato e viene restituito
+     * {@link #NOT_MODIFIED}. Se la lettura si interrompe, i validatori vengono scartati così che il refresh
+     * successivo scarichi di nuovo l'intera collezione.
+     * </p>
+     *
+     * <p>
+     * Se il formato binario è abilitato ({@link TransportProfile#binaryFormat()}) e il server lo accetta, la
+     * risposta arriva in Smile e viene letta con lo stesso parser in streaming, senza il costo della
+     * tokenizzazione del testo JSON.
+     * </p>
+     *
+     * @param batchSize numero massimo di issue per lotto (maggiore di zero)
+     * @param onBatch   callback invocata per ogni lotto di issue deserializzate
+     * @return numero totale di issue lette, oppure {@link #NOT_MODIFIED}
+     * @throws IssueException in caso di errori di comunicazione, di formato o di deserializzazione
+     */
+    public int streamAllIssues(int batchSize, Consumer<List<Issue>> onBatch) throws IssueException {
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        ApiClient.StreamBody body;
+        try {
+            body = apiClient.getStreamIfModified(ISSUES_ENDPOINT);
+        } catch (IOException e) {
+            throw new IssueException("Communication error during issue retrieval.", e);
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IssueException("Communication error during issue retrieval.", e);
         } catch (Exception e) {
             throw new IssueException("Issue retrieval failed: unpredicted error.", e);
         }
+        if (body == null) {
+            return NOT_MODIFIED;
+        }
+        boolean completed = false;
+        try (JsonParser parser = JsonSupport.createParser(body.body(), body.contentType())) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                completed = true;
+                return 0;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new IssueException("Issue retrieval failed: JSON array expected, found " + first);
+            }
+
+            int total = 0;
+            List<Issue> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                batch.add(JsonSupport.issueReader().readValue(parser));
+                if (batch.size() == batchSize) {
+                    onBatch.accept(batch);
+                    total += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                onBatch.accept(batch);
+                total += batch.size();
+            }
+            completed = true;
+            return total;
+        } catch (IOException e) {
+            throw new IssueException("Communication error during issue retrieval.", e);
+        } catch (IssueException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IssueException("Issue retrieval failed: unpredicted error.", e);
+        } finally {
+            if (!completed) {
+                apiClient.invalidateValidators(ISSUES_ENDPOINT);
+            }
+        }
+    }
+    /**
+     * Pagina di issue restituita da {@link #fetchIssuePage(int, int)}.
+     *
+     * @param issues        issue della pagina (lista immutabile)
+     * @param page          indice della pagina, a partire da 0
+     * @param size          dimensione richiesta della pagina
+     * @param totalElements numero totale di issue sul backend
+     */
+    public record IssuePage(List<Issue> issues, int page, int size, long totalElements) {
+    }
+    /**
+     * Recupera una singola pagina di issue ({@code GET /issues?page=<page>&size=<size>}).
+     * <p>
+     * La risposta attesa è una pagina in formato Spring Data ({@code content}, {@code totalElements}).
+     * Se il backend non supporta la paginazione e restituisce l'intero array, questo viene trattato come
+     * un'unica pagina contenente tutte le issue.
+     * </p>
+     *
+     * @param page indice della pagina, a partire da 0
+     * @param size numero di issue per pagina (maggiore di zero)
+     * @return pagina richiesta
+     * @throws IssueException in caso di errori di comunicazione o deserializzazione
+     */
+    public IssuePage fetchIssuePage(int page, int size) throws IssueException {
+        if (page < 0 || size <= 0) throw new IllegalArgumentException("Invalid page request");
+        try {
+            String responseBody = apiClient.get(ISSUES_ENDPOINT + "?page=" + page + "&size=" + size);
+            return parseIssuePage(responseBody, page, size);
+        } catch (IOException e) {
+            throw new IssueException("Communication error during issue page retrieval.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IssueException("Communication error during issue page retrieval.", e);
+        } catch (Exception e) {
+            throw new IssueException("Issue page retrieval failed: unpredicted error.", e);
+        }
+    }
+
+    private static IssuePage parseIssuePage(String responseBody, int page, int size) throws IOException {
+        if (responseBody == null || responseBody.isEmpty()) {
+            return new IssuePage(List.of(), page, size, 0);
+        }
+        JsonNode root = JsonSupport.mapper().readTree(responseBody);
+        if (root.isArray()) {
+            List<Issue> all = JsonSupport.issueListReader().readValue(root);
+            return new IssuePage(List.copyOf(all), 0, Math.max(all.size(), 1), all.size());
+        }
+        JsonNode content = root.path("content");
+        List<Issue> issues = content.isArray() ? JsonSupport.issueListReader().readValue(content) : List.of();
+        long total = root.path("totalElements").asLong((long) page * size + issues.size());
+        return new IssuePage(List.copyOf(issues), page, size, total);
+    }
+    /**
+     * Issue modificate restituite da {@link #fetchIssuesModifiedSince(String)}.
+     *
+     * @param issues issue create o modificate dopo il cursore richiesto (lista immutabile)
+     * @param cursor cursore da usare per la sincronizzazione successiva, se inviato dal backend
+     *               ({@value #SYNC_CURSOR_HEADER}); altrimenti {@code null}
+     */
+    public record IssueDelta(List<Issue> issues, String cursor) {
+    }
+    /**
+     * Recupera solo le issue create o modificate dopo {@code cursor}
+     * ({@code GET /issues?modifiedSince=<cursor>}).
+     * <p>
+     * Il cursore è opaco per il client: tipicamente un istante ISO-8601 o una versione. Le issue eliminate
+     * non compaiono nella risposta; per rilevarle serve una riconciliazione completa periodica.
+     * </p>
+     *
+     * @param cursor cursore dell'ultima sincronizzazione
+     * @return issue modificate ed eventuale nuovo cursore
+     * @throws IssueException in caso di errori di comunicazione o deserializzazione
+     */
+    public IssueDelta fetchIssuesModifiedSince(String cursor) throws IssueException {
+        try {
+            ApiClient.HeadedResponse response = apiClient.getWithHeaders(
+                    ISSUES_ENDPOINT + "?modifiedSince=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            List<Issue> issues = parseIssueList(response.body());
+            return new IssueDelta(issues, response.headers().firstValue(SYNC_CURSOR_HEADER).orElse(null));
+        } catch (IOException e) {
+            throw new IssueException("Communication error during issue sync.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IssueException("Communication error during issue sync.", e);
+        } catch (Exception e) {
+            throw new IssueException("Issue sync failed: unpredicted error.", e);
+        }
     }
     /**
      * Crea una nuova issue sul backend.
@@ -78,6 +297,40 @@ public class IssueService {
      * @throws IssueException se la risposta è vuota o se avvengono errori di comunicazione/parsing
      */
     public Issue createIssue(Issue newIssue) throws IssueException {
+        return createIssue(newIssue, null);
+    }
+    /**
+     * Crea una nuova issue sul backend, notificando l'avanzamento dell'eventuale upload dell'immagine.
+     * <p>
+     * L'immagine locale indicata da {@code newIssue.getImagePath()} viene inviata in streaming tramite
+     * {@link ApiClient#postMultipart(String, Path, UploadProgressListener)} oppure, se abilitato e il file
+     * è abbastanza grande, con un upload resumable a blocchi ({@link ChunkedUploader}).
+     * </p>
+     *
+     * @param newIssue       issue da creare
+     * @param uploadListener callback opzionale di avanzamento dell'upload dell'immagine
+     * @return issue creata (come restituita dal server)
+     * @throws IssueException se la risposta è vuota o se avvengono errori di comunicazione/parsing
+     */
+    public Issue createIssue(Issue newIssue, UploadProgressListener uploadListener) throws IssueException {
+        return createIssue(newIssue, uploadListener, null);
+    }
+    /**
+     * Variante di {@link #createIssue(Issue, UploadProgressListener)} ripetibile senza duplicati.
+     * <p>
+     * Se {@code idempotencyKey} non è {@code null} viene inviata come {@link ApiClient#IDEMPOTENCY_KEY_HEADER}:
+     * ripetere la richiesta con la stessa chiave (es. dopo un timeout) restituisce la issue già creata
+     * invece di crearne un'altra.
+     * </p>
+     *
+     * @param newIssue       issue da creare
+     * @param uploadListener callback opzionale di avanzamento dell'upload dell'immagine
+     * @param idempotencyKey chiave di idempotenza della richiesta, oppure {@code null}
+     * @return issue creata (come restituita dal server)
+     * @throws IssueException se la risposta è vuota o se avvengono errori di comunicazione/parsing
+     */
+    public Issue createIssue(Issue newIssue, UploadProgressListener uploadListener, String idempotencyKey)
+            throws IssueException {
         try {
             String localImagePath = newIssue.getImagePath();
 
@@ -88,12 +341,14 @@ public class IssueService {
                     null,
                     newIssue.getPriority(),
                     newIssue.getState());
-            String requestBody = mapper.writeValueAsString(request);
-            String responseBody = apiClient.post("/issues", requestBody);
+            String requestBody = JsonSupport.issueCreateWriter().writeValueAsString(request);
+            String responseBody = idempotencyKey != null
+                    ? apiClient.post(ISSUES_ENDPOINT, requestBody, Map.of(ApiClient.IDEMPOTENCY_KEY_HEADER, idempotencyKey))
+                    : apiClient.post(ISSUES_ENDPOINT, requestBody);
 
             Issue createdIssue;
             if (responseBody != null && !responseBody.isEmpty()) {
-                createdIssue = mapper.readValue(responseBody, Issue.class);
+                createdIssue = JsonSupport.issueReader().readValue(responseBody);
             } else {
                 throw new IssueException("Issue creation failed: Empty response from server");
             }
@@ -101,12 +356,14 @@ public class IssueService {
             if (localImagePath != null && !localImagePath.isEmpty()) {
                 Path path = Path.of(localImagePath);
                 if (Files.exists(path)) {
-                    String serverPath = apiClient.postMultipart("/images/upload/" + createdIssue.getId(), path);
+                    String serverPath = uploadImage(createdIssue.getId(), path, uploadListener);
                     createdIssue.setImagePath(serverPath);
                 }
             }
             return createdIssue;
-        } catch (IOException | InterruptedException e) {
+        } catch (IOException e) {
+            throw new IssueException("Communication error during issue creation.", e);
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IssueException("Communication error during issue creation.", e);
         } catch (Exception e) {
@@ -114,29 +371,67 @@ public class IssueService {
         }
     }
     /**
-     * Scarica un'immagine dal backend e restituisce lo stream dei bytes.
+     * Carica l'immagine di una issue scegliendo tra upload multipart e upload a blocchi.
+     */
+    private String uploadImage(Integer issueId, Path path, UploadProgressListener listener)
+            throws IOException, InterruptedException {
+        if (ChunkedUploader.isEnabled() && chunkedUploader.shouldChunk(Files.size(path))) {
+            return chunkedUploader.upload(issueId, path, listener);
+        }
+        return apiClient.postMultipart("/images/upload/" + issueId, path, listener);
+    }
+    /**
+     * Riprende gli upload a blocchi rimasti incompleti (es. per un'interruzione o un riavvio).
+     *
+     * @return numero di upload completati
+     * @throws IssueException se la ripresa viene interrotta
+     */
+    public int resumePendingUploads() throws IssueException {
+        try {
+            return chunkedUploader.resumePending();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IssueException("Upload resume interrupted.", e);
+        }
+    }
+    /**
+     * Scarica un'immagine rivalidando la copia locale identificata da {@code etag}.
      * <p>
      * Il parametro {@code filename} può contenere anche un path (con {@code /} o {@code \});
-     * in tal caso viene estratto solo il nome del file per evitare di inviare percorsi
-     * al server e ridurre il rischio di path traversal lato client.
+     * in tal caso viene inviato al server solo il nome del file ({@link #imageFileName(String)}).
+     * I download delle immagini passano da {@link AttachmentDownloader}, che limita la concorrenza e
+     * garantisce la chiusura dello stream.
+     * </p>
+     * <p>
+     * Se il server risponde {@code 304 Not Modified} la copia locale è ancora valida e la risposta non
+     * contiene alcuno stream. <strong>Nota:</strong> l'eventuale stream restituito va chiuso dal chiamante.
      * </p>
-     *
-     * <p><strong>Nota:</strong> lo stream restituito va chiuso dal chiamante.</p>
      *
      * @param filename nome file (o path) dell'immagine da scaricare
-     * @return {@link java.io.InputStream} con il contenuto dell'immagine
+     * @param etag     {@code ETag} della copia locale, oppure {@code null} se assente
+     * @return risposta con lo stream dell'immagine e il suo {@code ETag}
      * @throws IssueException in caso di errore di comunicazione durante il download
      */
-    public InputStream downloadImage(String filename) throws IssueException {
+    public ApiClient.StreamResponse downloadImage(String filename, String etag) throws IssueException {
         try {
-            String actualFilename = filename;
-            if (filename.contains("/") || filename.contains("\\")) {
-                actualFilename = new File(filename).getName();
-            }
-            return apiClient.getStream("/images/" + actualFilename);
-        } catch (IOException | InterruptedException e) {
+            return apiClient.getStream("/images/" + imageFileName(filename), etag);
+        } catch (IOException e) {
+            throw new IssueException("Error downloading image", e);
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IssueException("Error downloading image", e);
         }
     }
+    /**
+     * Estrae il solo nome del file da un percorso che può contenere separatori {@code /} o {@code \}.
+     *
+     * @param filename nome file o percorso dell'immagine
+     * @return nome del file, senza componenti di percorso
+     */
+    public static String imageFileName(String filename) {
+        if (filename.contains("/") || filename.contains("\\")) {
+            return new File(filename).getName();
+        }
+        return filename;
+    }
 }
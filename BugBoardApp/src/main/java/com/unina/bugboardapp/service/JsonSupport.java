@@ -0,0 +1,233 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.unina.bugboardapp.dto.IssueCreateRequest;
+import com.unina.bugboardapp.dto.LoginRequestDTO;
+import com.unina.bugboardapp.dto.LoginResponseDTO;
+import com.unina.bugboardapp.dto.UserCreateRequest;
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Registro centralizzato della configurazione Jackson condivisa da tutti i service.
+ * <p>
+ * Mantiene un unico {@link ObjectMapper}, configurato una sola volta con {@link JavaTimeModule} e con
+ * {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} disabilitata (date/ore in formato ISO-8601),
+ * ed espone {@link ObjectReader}/{@link ObjectWriter} già costruiti per i tipi scambiati con il backend,
+ * incluse le forme a lista.
+ * </p>
+ *
+ * <h2>Thread-safety</h2>
+ * <p>
+ * {@link ObjectReader} e {@link ObjectWriter} sono immutabili e thread-safe: possono essere condivisi
+ * tra thread senza sincronizzazione. Costruirli una volta sola evita di ripetere ad ogni chiamata la
+ * risoluzione dei tipi generici (es. {@code TypeReference<List<Issue>>}) e la ricerca dei deserializzatori.
+ * </p>
+ *
+ * <h2>Formato binario</h2>
+ * <p>
+ * Oltre al JSON testuale è supportato il formato binario Smile ({@value #SMILE_CONTENT_TYPE}), con lo stesso
+ * modello di dati: {@link #createParser(InputStream, String)} sceglie il parser in base al
+ * {@code Content-Type} della risposta e i reader condivisi leggono indifferentemente da entrambi.
+ * </p>
+ */
+public final class JsonSupport {
+
+    /**
+     * Content type del formato binario Smile.
+     */
+    public static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+
+    private static final ObjectMapper MAPPER = createMapper();
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory(MAPPER);
+
+    private static final ObjectReader ISSUE_READER = MAPPER.readerFor(Issue.class);
+    private static final ObjectReader ISSUE_LIST_READER = MAPPER.readerFor(new TypeReference<List<Issue>>() {
+    });
+    private static final ObjectReader COMMENT_READER = MAPPER.readerFor(Comment.class);
+    private static final ObjectReader COMMENT_LIST_READER = MAPPER.readerFor(new TypeReference<List<Comment>>() {
+    });
+    private static final ObjectReader USER_READER = MAPPER.readerFor(User.class);
+    private static final ObjectReader USER_LIST_READER = MAPPER.readerFor(new TypeReference<List<User>>() {
+    });
+    private static final ObjectReader LOGIN_RESPONSE_READER = MAPPER.readerFor(LoginResponseDTO.class);
+
+    private static final ObjectWriter ISSUE_WRITER = MAPPER.writerFor(Issue.class);
+    private static final ObjectWriter ISSUE_CREATE_WRITER = MAPPER.writerFor(IssueCreateRequest.class);
+    private static final ObjectWriter COMMENT_WRITER = MAPPER.writerFor(Comment.class);
+    private static final ObjectWriter USER_WRITER = MAPPER.writerFor(User.class);
+    private static final ObjectWriter USER_CREATE_WRITER = MAPPER.writerFor(UserCreateRequest.class);
+    private static final ObjectWriter LOGIN_REQUEST_WRITER = MAPPER.writerFor(LoginRequestDTO.class);
+
+    private JsonSupport() {
+        // Classe di sole costanti/metodi statici
+    }
+
+    private static ObjectMapper createMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    /**
+     * Restituisce il mapper condiviso.
+     * <p>
+     * Da usare solo per casi non coperti dai reader/writer dedicati; il mapper non deve essere
+     * riconfigurato dopo l'avvio.
+     * </p>
+     *
+     * @return {@link ObjectMapper} condiviso
+     */
+    public static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    /**
+     * Crea un {@link JsonParser} in streaming sullo stream indicato, usando la factory del mapper condiviso.
+     * <p>
+     * Il parser legge i token in modo incrementale, senza bufferizzare l'intero payload; chiuderlo
+     * chiude anche lo stream sottostante.
+     * </p>
+     *
+     * @param in stream sorgente del JSON
+     * @return parser pronto per la lettura del primo token
+     * @throws IOException in caso di errore nella creazione del parser
+     */
+    public static JsonParser createParser(InputStream in) throws IOException {
+        return MAPPER.createParser(in);
+    }
+
+    /**
+     * Crea un parser in streaming adatto al {@code Content-Type} della risposta: Smile per
+     * {@value #SMILE_CONTENT_TYPE}, JSON altrimenti.
+     *
+     * @param in          stream sorgente
+     * @param contentType {@code Content-Type} della risposta, o {@code null}
+     * @return parser pronto per la lettura del primo token
+     * @throws IOException in caso di errore nella creazione del parser
+     */
+    public static JsonParser createParser(InputStream in, String contentType) throws IOException {
+        return isSmile(contentType) ? SMILE_FACTORY.createParser(in) : MAPPER.createParser(in);
+    }
+
+    /**
+     * @param contentType {@code Content-Type} di una risposta, o {@code null}
+     * @return {@code true} se indica il formato Smile
+     */
+    public static boolean isSmile(String contentType) {
+        return contentType != null && contentType.trim().toLowerCase(Locale.ROOT).startsWith(SMILE_CONTENT_TYPE);
+    }
+
+    /**
+     * Reader di una singola {@link Issue}; usato anche per leggere le issue una alla volta da un
+     * {@link JsonParser} in streaming, JSON o Smile.
+     *
+     * @return reader condiviso per {@link Issue}
+     */
+    public static ObjectReader issueReader() {
+        return ISSUE_READER;
+    }
+
+    /**
+     * @return reader condiviso per {@code List<Issue>}
+     */
+    public static ObjectReader issueListReader() {
+        return ISSUE_LIST_READER;
+    }
+
+    /**
+     * @return reader condiviso per {@link Comment}
+     */
+    public static ObjectReader commentReader() {
+        return COMMENT_READER;
+    }
+
+    /**
+     * @return reader condiviso per {@code List<Comment>}
+     */
+    public static ObjectReader commentListReader() {
+        return COMMENT_LIST_READER;
+    }
+
+    /**
+     * @return reader condiviso per {@link User}
+     */
+    public static ObjectReader userReader() {
+        return USER_READER;
+    }
+
+    /**
+     * @return reader condiviso per {@code List<User>}
+     */
+    public static ObjectReader userListReader() {
+        return USER_LIST_READER;
+    }
+
+    /**
+     * @return reader condiviso per la risposta di login ({@link LoginResponseDTO})
+     */
+    public static ObjectReader loginResponseReader() {
+        return LOGIN_RESPONSE_READER;
+    }
+
+    /**
+     * Writer di una {@link Issue} completa, con tutti i campi del modello.
+     *
+     * @return writer condiviso per {@link Issue}
+     */
+    public static ObjectWriter issueWriter() {
+        return ISSUE_WRITER;
+    }
+
+    /**
+     * Writer del corpo di creazione di una issue ({@link IssueCreateRequest}), con i soli campi accettati dal
+     * backend.
+     *
+     * @return writer condiviso per {@link IssueCreateRequest}
+     */
+    public static ObjectWriter issueCreateWriter() {
+        return ISSUE_CREATE_WRITER;
+    }
+
+    /**
+     * @return writer condiviso per {@link Comment}
+     */
+    public static ObjectWriter commentWriter() {
+        return COMMENT_WRITER;
+    }
+
+    /**
+     * @return writer condiviso per {@link User}
+     */
+    public static ObjectWriter userWriter() {
+        return USER_WRITER;
+    }
+
+    /**
+     * @return writer condiviso per il corpo di creazione di un utente ({@link UserCreateRequest})
+     */
+    public static ObjectWriter userCreateWriter() {
+        return USER_CREATE_WRITER;
+    }
+
+    /**
+     * @return writer condiviso per le credenziali di login ({@link LoginRequestDTO})
+     */
+    public static ObjectWriter loginRequestWriter() {
+        return LOGIN_REQUEST_WRITER;
+    }
+}
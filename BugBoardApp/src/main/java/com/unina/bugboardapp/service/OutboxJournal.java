@@ -0,0 +1,259 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import com.unina.bugboardapp.model.enums.Priority;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Journal su disco delle scritture (issue e commenti) in attesa di essere inviate al backend.
+ * <p>
+ * Il journal è un file <strong>append-only</strong> per account ({@code ~/.bugboard/outbox/<hash>.journal}),
+ * con un record JSON per riga:
+ * </p>
+ * <ul>
+ *   <li>{@code add}: una nuova operazione, con la sua chiave di idempotenza;</li>
+ *   <li>{@code done}: l'operazione con la chiave indicata è stata applicata dal server (o scartata).</li>
+ * </ul>
+ *
+ * <p>
+ * Ogni scrittura viene forzata su disco prima di restituire: un'operazione accodata sopravvive a un crash
+ * o a un riavvio. I completamenti di un lotto vengono registrati con un'unica scrittura. Le operazioni
+ * pendenti sono quelle aggiunte e non ancora completate; una riga troncata da un'interruzione viene ignorata.
+ * Quando non restano operazioni pendenti il file viene eliminato, e alla lettura viene riscritto
+ * compattato (solo le operazioni pendenti).
+ * </p>
+ *
+ * <p>
+ * Per ogni file esiste una sola istanza ({@link #forAccount(String)}), che tiene l'insieme delle chiavi
+ * pendenti: un invio ancora in corso da una sessione precedente e quello della sessione corrente
+ * aggiornano lo stesso stato, e completare due volte la stessa chiave non ha effetto.
+ * </p>
+ */
+public class OutboxJournal {
+    private static final Logger logger = Logger.getLogger(OutboxJournal.class.getName());
+    private static final String EXTENSION = ".journal";
+    private static final String ADD = "add";
+    private static final String DONE = "done";
+
+    /**
+     * Tipo di scrittura accodata.
+     */
+    public enum Kind {
+        ISSUE, COMMENT
+    }
+
+    /**
+     * Scrittura in attesa di invio.
+     *
+     * @param key         chiave di idempotenza, inviata al server ad ogni tentativo
+     * @param kind        tipo di scrittura
+     * @param createdAt   istante di accodamento (millisecondi epoch)
+     * @param title       titolo della issue (solo {@link Kind#ISSUE})
+     * @param description descrizione della issue (solo {@link Kind#ISSUE})
+     * @param type        tipologia della issue (solo {@link Kind#ISSUE})
+     * @param priority    priorità della issue (solo {@link Kind#ISSUE})
+     * @param state       stato della issue (solo {@link Kind#ISSUE})
+     * @param imagePath   immagine locale da allegare alla issue, o {@code null}
+     * @param issueId     id della issue commentata (solo {@link Kind#COMMENT})
+     * @param content     testo del commento (solo {@link Kind#COMMENT})
+     */
+    public record Operation(String key, Kind kind, long createdAt,
+                            String title, String description, IssueType type, Priority priority, IssueState state,
+                            String imagePath, Integer issueId, String content) {
+
+        /**
+         * Crea l'operazione di creazione di una issue, con una nuova chiave di idempotenza.
+         *
+         * @return nuova operazione
+         */
+        public static Operation issue(String title, String description, IssueType type, Priority priority,
+                                      IssueState state, String imagePath) {
+            return new Operation(UUID.randomUUID().toString(), Kind.ISSUE, System.currentTimeMillis(),
+                    title, description, type, priority, state, imagePath, null, null);
+        }
+
+        /**
+         * Crea l'operazione di creazione di un commento, con una nuova chiave di idempotenza.
+         *
+         * @return nuova operazione
+         */
+        public static Operation comment(int issueId, String content) {
+            return new Operation(UUID.randomUUID().toString(), Kind.COMMENT, System.currentTimeMillis(),
+                    null, null, null, null, null, null, issueId, content);
+        }
+    }
+
+    /**
+     * Riga del journal.
+     */
+    private record Entry(String op, String key, Operation operation) {
+    }
+
+    private static final ObjectWriter ENTRY_WRITER = JsonSupport.mapper().writerFor(Entry.class);
+    private static final ObjectReader ENTRY_READER = JsonSupport.mapper().readerFor(Entry.class);
+
+    private static final Map<Path, OutboxJournal> INSTANCES = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Set<String> pending = new HashSet<>();
+
+    /**
+     * Restituisce il journal dell'account indicato nella cartella predefinita {@code ~/.bugboard/outbox}.
+     *
+     * @param account username dell'account
+     * @return journal dell'account, condiviso da tutte le sessioni dello stesso account
+     */
+    public static OutboxJournal forAccount(String account) {
+        Path directory = Path.of(System.getProperty("user.home"), ".bugboard", "outbox");
+        return forFile(directory.resolve(SnapshotStore.accountKey(account) + EXTENSION));
+    }
+
+    /**
+     * Restituisce il journal sul file indicato.
+     *
+     * @param file file del journal (creato alla prima scrittura)
+     * @return journal del file, condiviso da tutti i chiamanti
+     */
+    public static OutboxJournal forFile(Path file) {
+        return INSTANCES.computeIfAbsent(file.toAbsolutePath().normalize(), OutboxJournal::new);
+    }
+
+    private OutboxJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Legge le operazioni pendenti, nell'ordine di accodamento, e compatta il file.
+     *
+     * @return operazioni aggiunte e non ancora completate
+     */
+    public synchronized List<Operation> load() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        if (Files.isRegularFile(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) continue;
+                    try {
+                        Entry entry = ENTRY_READER.readValue(line);
+                        if (ADD.equals(entry.op()) && entry.operation() != null) {
+                            operations.put(entry.operation().key(), entry.operation());
+                        } else if (DONE.equals(entry.op())) {
+                            operations.remove(entry.key());
+                        }
+                    } catch (IOException e) {
+                        logger.log(Level.WARNING, "Riga di journal non valida, ignorata", e);
+                    }
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Impossibile leggere il journal delle scritture: " + file, e);
+            }
+        }
+        List<Operation> result = new ArrayList<>(operations.values());
+        pending.clear();
+        pending.addAll(operations.keySet());
+        try {
+            compact(result);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Impossibile compattare il journal delle scritture", e);
+        }
+        return result;
+    }
+
+    /**
+     * Aggiunge un'operazione e la forza su disco.
+     *
+     * @param operation operazione da accodare
+     * @throws IOException in caso di errore di scrittura
+     */
+    public synchronized void append(Operation operation) throws IOException {
+        write(List.of(new Entry(ADD, operation.key(), operation)));
+        pending.add(operation.key());
+    }
+
+    /**
+     * Registra con un'unica scrittura il completamento delle operazioni indicate.
+     * <p>
+     * Le chiavi non pendenti (es. già completate da un'altra sessione) vengono ignorate; il file viene
+     * eliminato solo quando non resta alcuna operazione pendente.
+     * </p>
+     *
+     * @param keys chiavi di idempotenza delle operazioni completate
+     * @throws IOException in caso di errore di scrittura
+     */
+    public synchronized void complete(Collection<String> keys) throws IOException {
+        List<Entry> entries = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            if (pending.remove(key)) entries.add(new Entry(DONE, key, null));
+        }
+        if (entries.isEmpty()) return;
+        if (pending.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        write(entries);
+    }
+
+    /**
+     * @return numero di operazioni pendenti nel journal
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void write(List<Entry> entries) throws IOException {
+        Files.createDirectories(file.getParent());
+        StringBuilder lines = new StringBuilder();
+        for (Entry entry : entries) {
+            lines.append(ENTRY_WRITER.writeValueAsString(entry)).append('\n');
+        }
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(lines.toString());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) channel.write(bytes);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Riscrive il journal con le sole operazioni pendenti (file temporaneo e spostamento atomico).
+     */
+    private void compact(List<Operation> operations) throws IOException {
+        if (operations.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            for (Operation operation : operations) {
+                out.write(ENTRY_WRITER.writeValueAsBytes(new Entry(ADD, operation.key(), operation)));
+                out.write('\n');
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
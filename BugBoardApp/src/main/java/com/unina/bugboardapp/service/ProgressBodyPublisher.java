@@ -0,0 +1,60 @@
+package com.unina.bugboardapp.service;
+
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link HttpRequest.BodyPublisher} che inoltra i byte di un publisher sottostante notificando
+ * l'avanzamento a un {@link UploadProgressListener}.
+ * <p>
+ * Non copia né bufferizza i dati: conta soltanto i byte di ogni {@link ByteBuffer} prima di consegnarlo
+ * al client HTTP.
+ * </p>
+ */
+final class ProgressBodyPublisher implements HttpRequest.BodyPublisher {
+    private final HttpRequest.BodyPublisher delegate;
+    private final UploadProgressListener listener;
+
+    ProgressBodyPublisher(HttpRequest.BodyPublisher delegate, UploadProgressListener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public long contentLength() {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        long total = delegate.contentLength();
+        delegate.subscribe(new Flow.Subscriber<>() {
+            private long sent;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                sent = 0;
+                listener.onProgress(0, total);
+                subscriber.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                sent += item.remaining();
+                subscriber.onNext(item);
+                listener.onProgress(sent, total);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+}
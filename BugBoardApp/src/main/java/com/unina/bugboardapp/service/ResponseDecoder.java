@@ -0,0 +1,155 @@
+package com.unina.bugboardapp.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpHeaders;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decodifica in streaming dei body di risposta secondo l'header {@code Content-Encoding}.
+ * <p>
+ * Il body ricevuto viene avvolto in {@link GZIPInputStream} o {@link InflaterInputStream} a seconda della
+ * codifica dichiarata ({@code gzip}/{@code deflate}); le altre codifiche (o l'assenza dell'header) lasciano
+ * lo stream invariato. Per {@code deflate} si assume il formato zlib previsto da HTTP. La decompressione
+ * avviene durante la lettura, nel thread di chi consuma lo stream, senza bufferizzare il payload compresso.
+ * I byte letti prima e dopo la decodifica vengono conteggiati in {@link TransferStats}.
+ * </p>
+ */
+final class ResponseDecoder {
+
+    private ResponseDecoder() {
+    }
+
+    /**
+     * Restituisce lo stream decodificato del body.
+     *
+     * @param headers header della risposta
+     * @param body    stream del body così come ricevuto dalla rete
+     * @param stats   contatori da aggiornare durante la lettura
+     * @return stream dei byte decodificati; chiuderlo chiude anche {@code body}
+     */
+    static InputStream decode(HttpHeaders headers, InputStream body, TransferStats stats) {
+        String encoding = headers.firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        InputStream wire = new CountingInputStream(body, stats::addWireBytes);
+        InputStream decoded = switch (encoding) {
+            case "gzip", "x-gzip" -> new LazyGzipInputStream(wire);
+            case "deflate" -> new InflaterInputStream(wire);
+            default -> wire;
+        };
+        stats.recordResponse(decoded != wire);
+        return new CountingInputStream(decoded, stats::addDecodedBytes);
+    }
+
+    /**
+     * Legge per intero uno stream decodificato come testo, nel charset dichiarato dalla risposta.
+     *
+     * @param headers header della risposta (per il charset di {@code Content-Type})
+     * @param decoded stream già decodificato
+     * @return body testuale
+     * @throws IOException in caso di errore di lettura o di decompressione
+     */
+    static String readText(HttpHeaders headers, InputStream decoded) throws IOException {
+        return new String(decoded.readAllBytes(), charsetOf(headers));
+    }
+
+    private static Charset charsetOf(HttpHeaders headers) {
+        String contentType = headers.firstValue("Content-Type").orElse("");
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", ""));
+                } catch (IllegalArgumentException e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * {@link GZIPInputStream} creato alla prima lettura.
+     * <p>
+     * Il costruttore di {@link GZIPInputStream} legge subito l'intestazione gzip: rimandarlo evita di
+     * bloccare il thread che riceve gli header della risposta, spostando la lettura in quello del consumatore.
+     * </p>
+     */
+    private static final class LazyGzipInputStream extends InputStream {
+        private final InputStream source;
+        private InputStream delegate;
+
+        private LazyGzipInputStream(InputStream source) {
+            this.source = source;
+        }
+
+        private InputStream delegate() throws IOException {
+            if (delegate == null) {
+                delegate = new GZIPInputStream(source);
+            }
+            return delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return delegate().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return delegate().read(buffer, offset, length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return delegate == null ? 0 : delegate.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            } else {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * Stream che notifica il numero di byte letti.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private final LongConsumer counter;
+
+        private CountingInputStream(InputStream in, LongConsumer counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) counter.accept(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) counter.accept(n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) counter.accept(skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import com.unina.bugboardapp.model.enums.Priority;
+import com.unina.bugboardapp.model.enums.UserType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Archivio locale dell'ultimo stato sincronizzato (issue, commenti già caricati e utenti), per account.
+ * <p>
+ * Permette di mostrare subito la tabella delle issue dopo il login, prima che il refresh dal backend
+ * termini. Ogni account ha un file {@code <hash>.snapshot} nella cartella dell'archivio (di default
+ * {@code ~/.bugboard/snapshots}); il nome deriva dall'hash SHA-256 dello username, così che l'email non
+ * compaia sul disco.
+ * </p>
+ *
+ * <h2>Formato</h2>
+ * Binario compatto e versionato: intestazione (magic, versione, istanti di salvataggio e dell'ultima
+ * sincronizzazione completa, cursore di sincronizzazione), tabella degli utenti senza duplicati, poi le
+ * issue con i relativi commenti. Reporter e autori sono riferiti per indice nella tabella degli utenti;
+ * le password non vengono mai salvate. Un file illeggibile, troncato o di una versione diversa viene
+ * ignorato: conteggi, lunghezze e riferimenti vengono validati prima dell'uso.
+ *
+ * <h2>Lettura e scrittura</h2>
+ * Il file viene letto mappandolo in memoria ({@link FileChannel#map}), senza copie intermedie. Ogni
+ * salvataggio scrive un file temporaneo e lo sostituisce con uno spostamento atomico: un'interruzione
+ * durante la scrittura lascia intatta la versione precedente.
+ *
+ * <p>
+ * L'archivio è opzionale e si abilita con {@code bugboard.snapshot.enabled=true} ({@link #isEnabled()}).
+ * </p>
+ */
+public class SnapshotStore {
+    private static final Logger logger = Logger.getLogger(SnapshotStore.class.getName());
+    private static final int MAGIC = 0x42425353; // "BBSS"
+    private static final short VERSION = 1;
+    private static final String EXTENSION = ".snapshot";
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    /**
+     * Dimensioni minime in byte di un utente, di una issue e di un commento codificati: limitano i
+     * conteggi letti dal file a quanto il file può effettivamente contenere.
+     */
+    private static final int MIN_USER_BYTES = 4 + 4 + 1;
+    private static final int MIN_ISSUE_BYTES = 4 + 4 + 4 + 3 + 4 + 4 + 4;
+    private static final int MIN_COMMENT_BYTES = 4 + 4 + 4 + 8 + 4;
+
+    private static final IssueType[] ISSUE_TYPES = IssueType.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final IssueState[] ISSUE_STATES = IssueState.values();
+    private static final UserType[] USER_TYPES = UserType.values();
+
+    private final Path directory;
+
+    /**
+     * Stato salvato di un account.
+     *
+     * @param savedAt            istante del salvataggio
+     * @param lastFullSyncMillis istante dell'ultima sincronizzazione completa (millisecondi epoch), o 0
+     * @param syncCursor         cursore per la sincronizzazione incrementale, o {@code null}
+     * @param issues             issue, con i commenti già caricati
+     * @param users              utenti noti allo stato applicativo
+     */
+    public record Snapshot(Instant savedAt, long lastFullSyncMillis, String syncCursor, List<Issue> issues,
+                           List<User> users) {
+    }
+
+    /**
+     * Crea un archivio nella cartella predefinita {@code ~/.bugboard/snapshots}.
+     */
+    public SnapshotStore() {
+        this(Path.of(System.getProperty("user.home"), ".bugboard", "snapshots"));
+    }
+
+    /**
+     * Crea un archivio nella cartella indicata.
+     *
+     * @param directory cartella dei file di snapshot (creata se assente)
+     */
+    public SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Indica se l'archivio locale è abilitato ({@code bugboard.snapshot.enabled=true}).
+     *
+     * @return {@code true} se l'archivio locale è abilitato
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("bugboard.snapshot.enabled");
+    }
+
+    /**
+     * Legge lo snapshot dell'account indicato.
+     *
+     * @param account username dell'account
+     * @return snapshot salvato, oppure {@code null} se assente, illeggibile o di un'altra versione
+     */
+    public Snapshot load(String account) {
+        Path file = fileFor(account);
+        if (!Files.isRegularFile(file)) return null;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            // Qualsiasi file corrotto o troncato viene ignorato: lo stato verrà riscaricato dal backend
+            logger.log(Level.WARNING, "Snapshot locale illeggibile, ignorato: " + file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Salva lo snapshot dell'account indicato, sostituendo quello precedente.
+     *
+     * @param account  username dell'account
+     * @param snapshot stato da salvare
+     * @throws IOException in caso di errore di scrittura
+     */
+    public void save(String account, Snapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        Path file = fileFor(account);
+        Path temp = Files.createTempFile(directory, "snapshot", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                encode(snapshot, out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Elimina lo snapshot dell'account indicato, se presente.
+     *
+     * @param account username dell'account
+     */
+    public void delete(String account) {
+        try {
+            Files.deleteIfExists(fileFor(account));
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Impossibile eliminare lo snapshot locale", e);
+        }
+    }
+
+    private Path fileFor(String account) {
+        return directory.resolve(accountKey(account) + EXTENSION);
+    }
+
+    /**
+     * Deriva dallo username un nome di file stabile che non contiene l'email (hash SHA-256 troncato).
+     *
+     * @param account username dell'account
+     * @return chiave esadecimale dell'account
+     */
+    static String accountKey(String account) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(account.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // --- Scrittura ---
+
+    private static void encode(Snapshot snapshot, DataOutputStream out) throws IOException {
+        Map<String, Integer> userIndex = new LinkedHashMap<>();
+        List<User> userTable = new ArrayList<>();
+        for (User user : snapshot.users()) indexUser(user, userIndex, userTable);
+        for (Issue issue : snapshot.issues()) {
+            indexUser(issue.getReporter(), userIndex, userTable);
+            if (issue.getComments() != null) {
+                for (Comment comment : issue.getComments()) indexUser(comment.getAuthor(), userIndex, userTable);
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(snapshot.savedAt().toEpochMilli());
+        out.writeLong(snapshot.lastFullSyncMillis());
+        writeString(out, snapshot.syncCursor());
+
+        out.writeInt(userTable.size());
+        for (User user : userTable) {
+            writeInt(out, user.getId());
+            writeString(out, user.getUsername());
+            out.writeByte(ordinal(user.getType()));
+        }
+        out.writeInt(snapshot.users().size());
+        for (User user : snapshot.users()) {
+            out.writeInt(userRef(user, userIndex));
+        }
+
+        out.writeInt(snapshot.issues().size());
+        for (Issue issue : snapshot.issues()) {
+            writeInt(out, issue.getId());
+            writeString(out, issue.getTitle());
+            writeString(out, issue.getDescription());
+            out.writeByte(ordinal(issue.getType()));
+            out.writeByte(ordinal(issue.getPriority()));
+            out.writeByte(ordinal(issue.getState()));
+            out.writeInt(userRef(issue.getReporter(), userIndex));
+            writeString(out, issue.getImagePath());
+            List<Comment> comments = issue.getComments() != null ? issue.getComments() : List.of();
+            out.writeInt(comments.size());
+            for (Comment comment : comments) {
+                writeInt(out, comment.getId());
+                out.writeInt(userRef(comment.getAuthor(), userIndex));
+                writeString(out, comment.getContent());
+                LocalDateTime timestamp = comment.getTimestamp();
+                out.writeLong(timestamp != null ? timestamp.toEpochSecond(ZoneOffset.UTC) : NULL_LONG);
+                out.writeInt(timestamp != null ? timestamp.getNano() : 0);
+            }
+        }
+    }
+
+    private static void indexUser(User user, Map<String, Integer> index, List<User> table) {
+        if (user == null || index.containsKey(user.getUsername())) return;
+        index.put(user.getUsername(), table.size());
+        table.add(user);
+    }
+
+    private static int userRef(User user, Map<String, Integer> index) {
+        return user != null ? index.get(user.getUsername()) : -1;
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        out.writeInt(value != null ? value : NULL_INT);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int ordinal(Enum<?> value) {
+        return value != null ? value.ordinal() : -1;
+    }
+
+    // --- Lettura ---
+
+    private static Snapshot decode(ByteBuffer in) throws IOException {
+        if (in.getInt() != MAGIC || in.getShort() != VERSION) {
+            throw new IOException("Unrecognized snapshot format");
+        }
+        Instant savedAt = Instant.ofEpochMilli(in.getLong());
+        long lastFullSyncMillis = in.getLong();
+        String syncCursor = readString(in);
+
+        User[] userTable = new User[readCount(in, MIN_USER_BYTES)];
+        for (int i = 0; i < userTable.length; i++) {
+            Integer id = readInt(in);
+            String username = readString(in);
+            User user = new User(username, "", valueOf(USER_TYPES, in.get()));
+            user.setId(id);
+            userTable[i] = user;
+        }
+        int userCount = readCount(in, 4);
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            User user = userRef(userTable, in.getInt());
+            if (user == null) throw new IOException("Missing user in snapshot");
+            users.add(user);
+        }
+
+        int issueCount = readCount(in, MIN_ISSUE_BYTES);
+        List<Issue> issues = new ArrayList<>(issueCount);
+        for (int i = 0; i < issueCount; i++) {
+            Integer id = readInt(in);
+            String title = readString(in);
+            String description = readString(in);
+            IssueType type = valueOf(ISSUE_TYPES, in.get());
+            Priority priority = valueOf(PRIORITIES, in.get());
+            IssueState state = valueOf(ISSUE_STATES, in.get());
+            User reporter = userRef(userTable, in.getInt());
+            String imagePath = readString(in);
+            Issue issue = new Issue(type, title, description, imagePath, state, priority, reporter);
+            issue.setId(id);
+            int commentCount = readCount(in, MIN_COMMENT_BYTES);
+            for (int c = 0; c < commentCount; c++) {
+                Comment comment = new Comment();
+                comment.setId(readInt(in));
+                comment.setAuthor(userRef(userTable, in.getInt()));
+                comment.setContent(readString(in));
+                comment.setIssue(id);
+                long seconds = in.getLong();
+                int nanos = in.getInt();
+                comment.setTimestamp(seconds != NULL_LONG ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null);
+                issue.addComment(comment);
+            }
+            issues.add(issue);
+        }
+        return new Snapshot(savedAt, lastFullSyncMillis, syncCursor, issues, users);
+    }
+
+    private static User userRef(User[] table, int index) throws IOException {
+        if (index == -1) return null;
+        if (index < 0 || index >= table.length) throw new IOException("Invalid user index: " + index);
+        return table[index];
+    }
+
+    /**
+     * Legge un numero di elementi, verificando che sia non negativo e compatibile con i byte rimanenti.
+     */
+    private static int readCount(ByteBuffer in, int minBytesPerItem) throws IOException {
+        int count = in.getInt();
+        if (count < 0 || (long) count * minBytesPerItem > in.remaining()) {
+            throw new IOException("Invalid element count: " + count);
+        }
+        return count;
+    }
+
+    private static Integer readInt(ByteBuffer in) {
+        int value = in.getInt();
+        return value != NULL_INT ? value : null;
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length == -1) return null;
+        if (length < 0 || length > in.remaining()) throw new IOException("Invalid length: " + length);
+        String value = StandardCharsets.UTF_8.decode(in.slice(in.position(), length)).toString();
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static <E extends Enum<E>> E valueOf(E[] values, byte ordinal) throws IOException {
+        if (ordinal == -1) return null;
+        if (ordinal < 0 || ordinal >= values.length) throw new IOException("Invalid enum ordinal: " + ordinal);
+        return values[ordinal];
+    }
+}
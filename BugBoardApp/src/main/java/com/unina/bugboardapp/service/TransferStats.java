@@ -0,0 +1,73 @@
+package com.unina.bugboardapp.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contatori del traffico ricevuto da {@link ApiClient}.
+ * <p>
+ * Distingue i byte effettivamente trasferiti in rete (eventualmente compressi) da quelli ottenuti dopo
+ * la decompressione, così da poter verificare il risparmio di banda della trasmissione compressa.
+ * I byte vengono conteggiati man mano che il body viene letto: per gli stream restituiti al chiamante
+ * il conteggio avanza durante la lettura.
+ * </p>
+ *
+ * <h2>Thread-safety</h2>
+ * I contatori sono {@link LongAdder}: possono essere aggiornati da più thread senza lock.
+ */
+public final class TransferStats {
+
+    /**
+     * Istantanea dei contatori.
+     *
+     * @param responses           risposte con body ricevute
+     * @param compressedResponses risposte ricevute con {@code Content-Encoding} gzip o deflate
+     * @param wireBytes           byte letti dalla rete
+     * @param decodedBytes        byte ottenuti dopo l'eventuale decompressione
+     */
+    public record Snapshot(long responses, long compressedResponses, long wireBytes, long decodedBytes) {
+
+        /**
+         * @return frazione di byte risparmiati grazie alla compressione (0 se non ci sono dati)
+         */
+        public double savingRatio() {
+            return decodedBytes == 0 ? 0 : 1.0 - (double) wireBytes / decodedBytes;
+        }
+    }
+
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+
+    void recordResponse(boolean compressed) {
+        responses.increment();
+        if (compressed) compressedResponses.increment();
+    }
+
+    void addWireBytes(long count) {
+        wireBytes.add(count);
+    }
+
+    void addDecodedBytes(long count) {
+        decodedBytes.add(count);
+    }
+
+    /**
+     * Restituisce i valori correnti dei contatori.
+     *
+     * @return istantanea dei contatori
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(responses.sum(), compressedResponses.sum(), wireBytes.sum(), decodedBytes.sum());
+    }
+
+    /**
+     * Azzera i contatori (es. prima di una misurazione).
+     */
+    public void reset() {
+        responses.reset();
+        compressedResponses.reset();
+        wireBytes.reset();
+        decodedBytes.reset();
+    }
+}
@@ -0,0 +1,184 @@
+package com.unina.bugboardapp.service;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Profilo di trasporto usato da {@link ApiClient} per configurare il proprio {@link HttpClient}.
+ * <p>
+ * Raccoglie in un unico punto i parametri di connessione:
+ * </p>
+ * <ul>
+ *   <li>URL base delle API, a cui vengono accodati i path degli endpoint;</li>
+ *   <li>versione HTTP preferita: con {@link HttpClient.Version#HTTP_2} le richieste verso URL {@code http://}
+ *       tentano l'upgrade a HTTP/2 in chiaro (h2c) e, se il server lo supporta, vengono multiplexate su
+ *       un'unica connessione; altrimenti si ricade automaticamente su HTTP/1.1;</li>
+ *   <li>numero di thread dell'executor dedicato del client;</li>
+ *   <li>timeout di connessione;</li>
+ *   <li>timeout per richiesta, di default e per prefisso di endpoint (es. upload di immagini più lunghi);</li>
+ *   <li>trasferimento compresso delle risposte (opt-in);</li>
+ *   <li>formato binario Smile per gli elenchi scaricati in streaming (opt-in).</li>
+ * </ul>
+ *
+ * <h2>Configurazione</h2>
+ * <p>
+ * {@link #fromSystemProperties()} parte da {@link #defaults()} e applica le eventuali proprietà di sistema:
+ * </p>
+ * <ul>
+ *   <li>{@code bugboard.api.baseUrl}: URL base delle API (es. quello di un backend locale);</li>
+ *   <li>{@code bugboard.http.version}: {@code HTTP_2} (default) oppure {@code HTTP_1_1};</li>
+ *   <li>{@code bugboard.http.threads}: thread dell'executor dedicato;</li>
+ *   <li>{@code bugboard.http.connectTimeout}: timeout di connessione, in secondi;</li>
+ *   <li>{@code bugboard.http.timeout}: timeout di default delle richieste, in secondi;</li>
+ *   <li>{@code bugboard.http.timeouts}: timeout per endpoint, nella forma {@code /images=60,/auth=15};</li>
+ *   <li>{@code bugboard.http.compression}: {@code true} per richiedere risposte gzip/deflate;</li>
+ *   <li>{@code bugboard.http.binary}: {@code true} per preferire il formato Smile negli stream.</li>
+ * </ul>
+ *
+ * @param baseUrl          URL base delle API, senza {@code /} finale
+ * @param version          versione HTTP preferita
+ * @param executorThreads  numero di thread dell'executor dedicato
+ * @param connectTimeout   timeout di connessione
+ * @param requestTimeout   timeout di default delle richieste
+ * @param endpointTimeouts timeout per prefisso di endpoint (vince il prefisso più lungo)
+ * @param compression      se {@code true} le richieste inviano {@code Accept-Encoding: gzip, deflate}
+ * @param binaryFormat     se {@code true} gli stream negoziano il formato Smile, con fallback su JSON
+ */
+public record TransportProfile(String baseUrl,
+                               HttpClient.Version version,
+                               int executorThreads,
+                               Duration connectTimeout,
+                               Duration requestTimeout,
+                               Map<String, Duration> endpointTimeouts,
+                               boolean compression,
+                               boolean binaryFormat) {
+
+    private static final Logger logger = Logger.getLogger(TransportProfile.class.getName());
+    /**
+     * URL base predefinito delle API.
+     */
+    public static final String DEFAULT_BASE_URL = "http://4.178.64.157:8080/api";
+
+    public TransportProfile {
+        if (baseUrl == null || baseUrl.isBlank()) throw new IllegalArgumentException("Base URL must not be empty");
+        if (executorThreads <= 0) throw new IllegalArgumentException("Executor threads must be positive");
+        baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        endpointTimeouts = sortByPrefixLength(endpointTimeouts);
+    }
+
+    /**
+     * Profilo predefinito: {@link #DEFAULT_BASE_URL}, HTTP/2 con fallback, 4 thread, richieste entro 30 secondi,
+     * 60 secondi per le immagini e 15 per l'autenticazione, nessuna compressione, solo JSON.
+     *
+     * @return profilo predefinito
+     */
+    public static TransportProfile defaults() {
+        Map<String, Duration> timeouts = new LinkedHashMap<>();
+        timeouts.put("/images", Duration.ofSeconds(60));
+        timeouts.put("/auth", Duration.ofSeconds(15));
+        return new TransportProfile(DEFAULT_BASE_URL, HttpClient.Version.HTTP_2, 4, Duration.ofSeconds(10),
+                Duration.ofSeconds(30), timeouts, false, false);
+    }
+
+    /**
+     * Profilo predefinito con le personalizzazioni lette dalle proprietà di sistema.
+     * <p>
+     * Valori non validi vengono ignorati (con un log) mantenendo quelli predefiniti.
+     * </p>
+     *
+     * @return profilo configurato
+     */
+    public static TransportProfile fromSystemProperties() {
+        TransportProfile base = defaults();
+        String baseUrl = System.getProperty("bugboard.api.baseUrl", base.baseUrl()).trim();
+        if (baseUrl.isEmpty()) {
+            logger.warning("URL base delle API vuoto, uso quello predefinito");
+            baseUrl = base.baseUrl();
+        }
+        HttpClient.Version version = base.version();
+        String versionProperty = System.getProperty("bugboard.http.version");
+        if (versionProperty != null) {
+            try {
+                version = HttpClient.Version.valueOf(versionProperty.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.warning("Versione HTTP non valida: " + versionProperty);
+            }
+        }
+        int threads = (int) readLong("bugboard.http.threads", base.executorThreads());
+        Duration connect = Duration.ofSeconds(readLong("bugboard.http.connectTimeout", base.connectTimeout().toSeconds()));
+        Duration request = Duration.ofSeconds(readLong("bugboard.http.timeout", base.requestTimeout().toSeconds()));
+
+        Map<String, Duration> timeouts = new LinkedHashMap<>(base.endpointTimeouts());
+        String timeoutsProperty = System.getProperty("bugboard.http.timeouts");
+        if (timeoutsProperty != null) {
+            for (String entry : timeoutsProperty.split(",")) {
+                String[] parts = entry.split("=");
+                try {
+                    if (parts.length != 2) throw new NumberFormatException(entry);
+                    timeouts.put(parts[0].trim(), Duration.ofSeconds(Long.parseLong(parts[1].trim())));
+                } catch (NumberFormatException e) {
+                    logger.warning("Timeout per endpoint non valido: " + entry);
+                }
+            }
+        }
+        String compressionProperty = System.getProperty("bugboard.http.compression");
+        boolean compression = compressionProperty != null ? Boolean.parseBoolean(compressionProperty.trim())
+                : base.compression();
+        String binaryProperty = System.getProperty("bugboard.http.binary");
+        boolean binaryFormat = binaryProperty != null ? Boolean.parseBoolean(binaryProperty.trim())
+                : base.binaryFormat();
+        return new TransportProfile(baseUrl, version, threads, connect, request, timeouts, compression, binaryFormat);
+    }
+
+    /**
+     * Restituisce un profilo uguale a questo ma con l'URL base indicato (es. per un backend di test).
+     *
+     * @param url URL base delle API
+     * @return nuovo profilo
+     */
+    public TransportProfile withBaseUrl(String url) {
+        return new TransportProfile(url, version, executorThreads, connectTimeout, requestTimeout, endpointTimeouts,
+                compression, binaryFormat);
+    }
+
+    /**
+     * Restituisce il timeout da applicare a una richiesta verso l'endpoint indicato.
+     *
+     * @param endpoint path relativo (es. {@code "/images/upload/3"})
+     * @return timeout del prefisso più lungo che corrisponde, oppure {@link #requestTimeout()}
+     */
+    public Duration timeoutFor(String endpoint) {
+        for (Map.Entry<String, Duration> entry : endpointTimeouts.entrySet()) {
+            if (endpoint.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return requestTimeout;
+    }
+
+    private static long readLong(String property, long fallback) {
+        String value = System.getProperty(property);
+        if (value == null) return fallback;
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed > 0) return parsed;
+        } catch (NumberFormatException e) {
+            // gestito sotto
+        }
+        logger.warning("Valore non valido per " + property + ": " + value);
+        return fallback;
+    }
+
+    private static Map<String, Duration> sortByPrefixLength(Map<String, Duration> timeouts) {
+        Map<String, Duration> sorted = new LinkedHashMap<>();
+        timeouts.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByKey(Comparator.comparingInt(String::length)).reversed())
+                .forEachOrdered(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(sorted);
+    }
+}
@@ -0,0 +1,214 @@
+package com.unina.bugboardapp.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Journal locale degli upload a blocchi non ancora completati.
+ * <p>
+ * Ogni upload è descritto da un file {@code <uploadId>.upload} (formato {@link Properties}) nella cartella
+ * del journal. Ogni account ha la propria cartella ({@link #forAccount(String)}), così che al login vengano
+ * ripresi solo i propri upload. Il file registra issue di destinazione, file
+ * sorgente (percorso, dimensione e data di modifica) e i blocchi già confermati dal server, così che un
+ * upload interrotto (anche da un riavvio dell'applicazione) possa riprendere senza reinviarli.
+ * </p>
+ *
+ * <h2>Scrittura</h2>
+ * Ogni salvataggio scrive un file temporaneo e lo sostituisce con uno spostamento atomico: un'interruzione
+ * durante la scrittura lascia intatta la versione precedente.
+ */
+public class UploadJournal {
+    private static final Logger logger = Logger.getLogger(UploadJournal.class.getName());
+    private static final String EXTENSION = ".upload";
+    private static final Map<Path, UploadJournal> INSTANCES = new ConcurrentHashMap<>();
+
+    private final Path directory;
+
+    /**
+     * Stato persistito di un upload.
+     *
+     * @param uploadId     identificativo della sessione di upload assegnato dal server
+     * @param issueId      id della issue a cui è destinato l'allegato
+     * @param file         file sorgente
+     * @param size         dimensione del file all'avvio dell'upload
+     * @param lastModified data di modifica del file all'avvio (millisecondi epoch)
+     * @param chunkSize    dimensione dei blocchi
+     * @param acknowledged blocchi già confermati dal server
+     */
+    public record Entry(String uploadId, int issueId, Path file, long size, long lastModified, int chunkSize,
+                        BitSet acknowledged) {
+
+        /**
+         * @return numero totale di blocchi del file
+         */
+        public int chunkCount() {
+            return (int) ((size + chunkSize - 1) / chunkSize);
+        }
+
+        /**
+         * Indica se il file sorgente è ancora quello per cui l'upload è stato avviato.
+         *
+         * @return {@code true} se dimensione e data di modifica coincidono
+         */
+        public boolean matchesSource() {
+            try {
+                return Files.isRegularFile(file)
+                        && Files.size(file) == size
+                        && Files.getLastModifiedTime(file).toMillis() == lastModified;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Restituisce il journal dell'account indicato, in {@code ~/.bugboard/uploads/<account>}.
+     * <p>
+     * Il nome della cartella è la stessa chiave usata per lo snapshot locale
+     * ({@link SnapshotStore#accountKey(String)}), che non contiene l'email.
+     * </p>
+     *
+     * @param account username dell'account
+     * @return journal dell'account, condiviso da tutti i chiamanti
+     */
+    public static UploadJournal forAccount(String account) {
+        Path directory = Path.of(System.getProperty("user.home"), ".bugboard", "uploads",
+                SnapshotStore.accountKey(account));
+        return INSTANCES.computeIfAbsent(directory.toAbsolutePath().normalize(), UploadJournal::new);
+    }
+
+    /**
+     * Crea un journal nella cartella indicata.
+     *
+     * @param directory cartella in cui salvare le voci
+     */
+    public UploadJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Salva (o sovrascrive) la voce indicata.
+     *
+     * @param entry voce da salvare
+     * @throws IOException in caso di errore di scrittura
+     */
+    public synchronized void save(Entry entry) throws IOException {
+        Files.createDirectories(directory);
+        Properties properties = new Properties();
+        properties.setProperty("uploadId", entry.uploadId());
+        properties.setProperty("issueId", Integer.toString(entry.issueId()));
+        properties.setProperty("file", entry.file().toAbsolutePath().toString());
+        properties.setProperty("size", Long.toString(entry.size()));
+        properties.setProperty("lastModified", Long.toString(entry.lastModified()));
+        properties.setProperty("chunkSize", Integer.toString(entry.chunkSize()));
+        properties.setProperty("acknowledged", encode(entry.acknowledged()));
+
+        Path target = pathOf(entry.uploadId());
+        Path temp = directory.resolve(entry.uploadId() + EXTENSION + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "BugBoard upload journal");
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Rimuove la voce di un upload (es. dopo il completamento).
+     *
+     * @param uploadId identificativo dell'upload
+     */
+    public synchronized void remove(String uploadId) {
+        try {
+            Files.deleteIfExists(pathOf(uploadId));
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Impossibile rimuovere la voce di journal " + uploadId, e);
+        }
+    }
+
+    /**
+     * Cerca un upload incompleto per la coppia issue/file.
+     *
+     * @param issueId id della issue
+     * @param file    file sorgente
+     * @return voce trovata, oppure {@code null}
+     */
+    public synchronized Entry find(int issueId, Path file) {
+        Path absolute = file.toAbsolutePath();
+        for (Entry entry : loadAll()) {
+            if (entry.issueId() == issueId && entry.file().equals(absolute)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Legge tutte le voci presenti; quelle illeggibili vengono scartate.
+     *
+     * @return voci degli upload incompleti
+     */
+    public synchronized List<Entry> loadAll() {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return entries;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path path : files) {
+                Entry entry = read(path);
+                if (entry != null) entries.add(entry);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Impossibile leggere il journal degli upload", e);
+        }
+        return entries;
+    }
+
+    private Entry read(Path path) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+            return new Entry(
+                    properties.getProperty("uploadId"),
+                    Integer.parseInt(properties.getProperty("issueId")),
+                    Path.of(properties.getProperty("file")),
+                    Long.parseLong(properties.getProperty("size")),
+                    Long.parseLong(properties.getProperty("lastModified")),
+                    Integer.parseInt(properties.getProperty("chunkSize")),
+                    decode(properties.getProperty("acknowledged", "")));
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Voce di journal non valida, ignorata: " + path, e);
+            return null;
+        }
+    }
+
+    private Path pathOf(String uploadId) {
+        return directory.resolve(uploadId + EXTENSION);
+    }
+
+    private static String encode(BitSet chunks) {
+        StringBuilder sb = new StringBuilder();
+        chunks.stream().forEach(index -> {
+            if (!sb.isEmpty()) sb.append(',');
+            sb.append(index);
+        });
+        return sb.toString();
+    }
+
+    private static BitSet decode(String value) {
+        BitSet chunks = new BitSet();
+        for (String index : value.split(",")) {
+            if (!index.isBlank()) chunks.set(Integer.parseInt(index.trim()));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,20 @@
+package com.unina.bugboardapp.service;
+
+/**
+ * Callback di avanzamento di un upload.
+ * <p>
+ * Viene invocata dal thread del client HTTP ogni volta che un blocco del body viene consegnato alla rete:
+ * le implementazioni devono essere rapide e, per aggiornare la UI, passare dal JavaFX Application Thread.
+ * </p>
+ */
+@FunctionalInterface
+public interface UploadProgressListener {
+
+    /**
+     * Notifica l'avanzamento dell'upload.
+     *
+     * @param bytesSent  byte inviati finora
+     * @param totalBytes dimensione totale del body, oppure {@code -1} se non nota
+     */
+    void onProgress(long bytesSent, long totalBytes);
+}
@@ -1,13 +1,11 @@
 package com.unina.bugboardapp.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.unina.bugboardapp.exception.UserException;
 import com.unina.bugboardapp.model.User;
 import com.unina.bugboardapp.dto.UserCreateRequest;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service layer per le operazioni utente lato client.
@@ -20,9 +18,8 @@ import java.io.IOException;
  * </p>
  *
  * <h2>Serializzazione</h2>
- * Utilizza {@link ObjectMapper} di Jackson configurato con {@link JavaTimeModule} e con
- * {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} disabilitata, in modo da serializzare
- * eventuali campi data/ora in formato leggibile (ISO-8601) anziché timestamp.
+ * Utilizza i reader/writer Jackson condivisi esposti da {@link JsonSupport}, configurati per
+ * serializzare eventuali campi data/ora in formato leggibile (ISO-8601) anziché timestamp.
  *
  * <h2>Trasporto</h2>
  * Le richieste sono eseguite tramite {@link ApiClient} (ottenuto come Singleton).
@@ -30,20 +27,12 @@ import java.io.IOException;
 public class UserService {
 
     private final ApiClient apiClient;
-    private final ObjectMapper mapper;
 
     /**
-     * Costruisce un {@code UserService} inizializzando:
-     * <ul>
-     *   <li>il client HTTP ({@link ApiClient})</li>
-     *   <li>il mapper Jackson ({@link ObjectMapper}) con supporto alle date Java Time</li>
-     * </ul>
+     * Costruisce un {@code UserService} inizializzando il client HTTP ({@link ApiClient}).
      */
     public UserService() {
         this.apiClient = ApiClient.getInstance();
-        this.mapper = new ObjectMapper();
-        this.mapper.registerModule(new JavaTimeModule());
-        this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     }
 
     /**
@@ -62,14 +51,16 @@ public class UserService {
         try {
             UserCreateRequest request = new UserCreateRequest(newUser.getUsername(), newUser.getPassword(),
                     newUser.getType());
-            String requestBody = mapper.writeValueAsString(request);
+            String requestBody = JsonSupport.userCreateWriter().writeValueAsString(request);
             String responseBody = apiClient.post("/users", requestBody);
 
             if (responseBody != null && !responseBody.isEmpty()) {
-                return mapper.readValue(responseBody, User.class);
+                return JsonSupport.userReader().readValue(responseBody);
             }
             throw new UserException("User creation failed: Empty response from server");
-        } catch (IOException | InterruptedException e) {
+        } catch (IOException e) {
+            throw new UserException("Communication error during user creation.", e);
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new UserException("Communication error during user creation.", e);
         } catch (Exception e) {
@@ -77,6 +68,30 @@ public class UserService {
         }
     }
 
+    /**
+     * Variante asincrona di {@link #createUser(User)}, che non blocca il thread chiamante.
+     *
+     * @param newUser utente da creare
+     * @return future completato con l'utente creato; in caso di errore fallisce con una
+     * {@link java.util.concurrent.CompletionException} che incapsula una {@link UserException}
+     */
+    public CompletableFuture<User> createUserAsync(User newUser) {
+        String requestBody;
+        try {
+            UserCreateRequest request = new UserCreateRequest(newUser.getUsername(), newUser.getPassword(),
+                    newUser.getType());
+            requestBody = JsonSupport.userCreateWriter().writeValueAsString(request);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new UserException("User creation failed: unpredicted error.", e));
+        }
+        return AsyncResponses.map(apiClient.postAsync("/users", requestBody), responseBody -> {
+            if (responseBody != null && !responseBody.isEmpty()) {
+                return JsonSupport.userReader().readValue(responseBody);
+            }
+            throw new UserException("User creation failed: Empty response from server");
+        }, UserService::asUserException, "Communication error during user creation.");
+    }
+
     /**
      * Verifica se esiste un utente con la specifica email sul backend.
      * <p>
@@ -93,4 +108,10 @@ public class UserService {
         String responseBody = apiClient.get("/users/email/" + email);
         return (responseBody != null && !responseBody.isEmpty());
     }
-}
\ No newline at end of file
+
+    private static UserException asUserException(String message, Throwable cause) {
+        return cause instanceof UserException userException
+                ? userException
+                : new UserException(message, cause);
+    }
+}
@@ -1,5 +1,6 @@
 package com.unina.bugboardapp.utils;
 
+import com.unina.bugboardapp.manager.TaskManager;
 import javafx.concurrent.Task;
 import javafx.application.Platform;
 import javafx.scene.control.ProgressIndicator;
@@ -39,8 +40,7 @@ public class AsyncHelper {
             // callback
         });
 
-        Thread thread = new Thread(task);
-        thread.setDaemon(true); // Ensure thread doesn't prevent app exit
-        thread.start();
+        // Runs on a virtual thread managed (and shut down) by the TaskManager
+        TaskManager.getInstance().submit(TaskManager.Category.BACKGROUND, "async-helper", task);
     }
 }
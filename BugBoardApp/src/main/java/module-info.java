@@ -6,6 +6,7 @@ module com.unina.bugboardapp {
     requires atlantafx.base;
     requires com.fasterxml.jackson.databind;
     requires com.fasterxml.jackson.datatype.jsr310;
+    requires com.fasterxml.jackson.dataformat.smile;
     requires java.logging;
 
     opens com.unina.bugboardapp to javafx.fxml;
@@ -0,0 +1,81 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.unina.bugboardapp.service.IssueFixtures.issue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IssueReconcilerTest {
+    private ObservableList<Issue> issues;
+    private IssueReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        issues = FXCollections.observableArrayList(issue(1, "One"), issue(2, "Two"), issue(3, "Three"));
+        reconciler = new IssueReconciler(issues);
+    }
+
+    @Test
+    void unchangedRefreshFiresNoChangeEvents() {
+        AtomicInteger events = new AtomicInteger();
+        issues.addListener((ListChangeListener<Issue>) change -> events.incrementAndGet());
+
+        IssueReconciler.Session session = reconciler.begin();
+        session.apply(List.of(issue(1, "One"), issue(2, "Two")));
+        session.apply(List.of(issue(3, "Three")));
+        IssueReconciler.ChangeSummary summary = session.finish();
+
+        assertTrue(summary.isEmpty());
+        assertEquals(0, events.get());
+    }
+
+    @Test
+    void appliesOnlyTheDifferences() {
+        Comment comment = new Comment(null, "Loaded comment", 2);
+        issues.get(1).addComment(comment);
+        Issue first = issues.get(0);
+
+        IssueReconciler.Session session = reconciler.begin();
+        session.apply(List.of(issue(1, "One"), issue(2, "Two, edited"), issue(4, "Four")));
+        IssueReconciler.ChangeSummary summary = session.finish();
+
+        assertEquals(new IssueReconciler.ChangeSummary(1, 1, 1), summary);
+        assertEquals(List.of(1, 2, 4), issues.stream().map(Issue::getId).toList());
+        assertSame(first, issues.get(0));
+        assertEquals("Two, edited", issues.get(1).getTitle());
+        assertEquals(List.of(comment), issues.get(1).getComments());
+    }
+
+    @Test
+    void fullReconciliationKeepsProvisionalIssues() {
+        Issue provisional = new OptimisticUpdates(new AppState()).insertIssue(issue(0, "Draft"));
+        issues.add(provisional);
+
+        IssueReconciler.Session session = reconciler.begin();
+        session.apply(List.of(issue(1, "One")));
+        session.finish();
+
+        assertEquals(List.of(1, provisional.getId()), issues.stream().map(Issue::getId).toList());
+    }
+
+    @Test
+    void upsertDoesNotRemoveAndRemoveDropsById() {
+        IssueReconciler.ChangeSummary summary = reconciler.upsert(List.of(issue(5, "Five")));
+
+        assertEquals(new IssueReconciler.ChangeSummary(1, 0, 0), summary);
+        assertEquals(4, issues.size());
+        assertEquals(2, reconciler.remove(List.of(1, 5, 42)));
+        assertEquals(List.of(2, 3), issues.stream().map(Issue::getId).toList());
+    }
+}
@@ -0,0 +1,159 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Issue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static com.unina.bugboardapp.service.IssueFixtures.issue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IssueRefreshSchedulerTest {
+    private static final Duration MIN = Duration.ofMillis(20);
+    private static final Duration MAX = Duration.ofMillis(80);
+
+    private final ObservableList<Issue> issues = FXCollections.observableArrayList();
+    private final AtomicInteger refreshes = new AtomicInteger();
+    private IssueRefreshScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) scheduler.stop();
+    }
+
+    private IssueRefreshScheduler scheduler(Supplier<? extends Future<?>> refreshAction) {
+        scheduler = new IssueRefreshScheduler(refreshAction, null, () -> {}, issues, MIN, MAX);
+        return scheduler;
+    }
+
+    /**
+     * Aggiornamento che non modifica la lista.
+     */
+    private Future<?> unchanged() {
+        refreshes.incrementAndGet();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private List<Long> delays() {
+        return scheduler.getRecentCycles().stream().map(IssueRefreshScheduler.CycleMetrics::nextDelayMillis).toList();
+    }
+
+    @Test
+    void startsFromTheMinimumInterval() {
+        IssueRefreshScheduler scheduler = scheduler(this::unchanged);
+
+        assertEquals(MIN, scheduler.getInterval());
+        assertTrue(scheduler.getRecentCycles().isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidIntervals() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new IssueRefreshScheduler(this::unchanged, null, () -> {}, issues, Duration.ZERO, MAX));
+        assertThrows(IllegalArgumentException.class,
+                () -> new IssueRefreshScheduler(this::unchanged, null, () -> {}, issues, MAX, MIN));
+    }
+
+    @Test
+    void stopWithoutStartIsHarmless() {
+        IssueRefreshScheduler scheduler = scheduler(this::unchanged);
+
+        scheduler.stop();
+        scheduler.setPaused(true);
+        scheduler.setPaused(false);
+
+        assertEquals(MIN, scheduler.getInterval());
+        assertEquals(0, refreshes.get());
+    }
+
+    @Test
+    void unchangedCyclesBackOffUpToTheMaximum() throws Exception {
+        scheduler(this::unchanged).start();
+
+        awaitUntil(() -> scheduler.getRecentCycles().size() >= 4);
+
+        assertEquals(List.of(40L, 80L, 80L), delays().subList(0, 3));
+        assertEquals(MAX, scheduler.getInterval());
+    }
+
+    @Test
+    void aChangedListResetsTheInterval() throws Exception {
+        scheduler(() -> {
+            // Il terzo ciclo porta una nuova issue
+            if (refreshes.incrementAndGet() == 3) issues.add(issue(3, "Nuova"));
+            return CompletableFuture.completedFuture(null);
+        }).start();
+
+        awaitUntil(() -> scheduler.getRecentCycles().size() >= 4);
+
+        List<IssueRefreshScheduler.CycleMetrics> cycles = scheduler.getRecentCycles();
+        assertEquals(List.of(40L, 80L, 20L, 40L), delays().subList(0, 4));
+        assertTrue(cycles.get(2).changed());
+    }
+
+    @Test
+    void nudgeResetsTheInterval() throws Exception {
+        scheduler(this::unchanged).start();
+        awaitUntil(() -> MAX.equals(scheduler.getInterval()));
+
+        scheduler.nudge();
+
+        assertEquals(MIN, scheduler.getInterval());
+        int before = refreshes.get();
+        awaitUntil(() -> refreshes.get() > before);
+    }
+
+    @Test
+    void noCyclesRunWhilePaused() throws Exception {
+        scheduler(this::unchanged);
+        scheduler.setPaused(true);
+        scheduler.start();
+
+        Thread.sleep(MAX.toMillis() * 3);
+        assertEquals(0, refreshes.get());
+
+        scheduler.setPaused(false);
+        awaitUntil(() -> refreshes.get() > 0);
+    }
+
+    @Test
+    void cyclesNeverOverlap() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        scheduler(() -> {
+            refreshes.incrementAndGet();
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            // Aggiornamento più lento dell'intervallo minimo, completato su un altro thread
+            return CompletableFuture.runAsync(running::decrementAndGet,
+                    CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS));
+        }).start();
+
+        for (int i = 0; i < 20; i++) {
+            scheduler.nudge();
+            Thread.sleep(10);
+        }
+        awaitUntil(() -> refreshes.get() >= 3);
+
+        assertEquals(1, peak.get());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean(), "condition not reached in time");
+    }
+}
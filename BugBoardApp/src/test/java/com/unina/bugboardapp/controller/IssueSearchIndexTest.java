@@ -0,0 +1,73 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Issue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.unina.bugboardapp.service.IssueFixtures.issue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IssueSearchIndexTest {
+    private ObservableList<Issue> issues;
+    private IssueSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        issues = FXCollections.observableArrayList(
+                issue(1, "Crash al salvataggio", "L'app si chiude quando si preme Salva"),
+                issue(2, "Perché il login è lento?", "Attesa di dieci secondi"),
+                issue(3, "Documentazione API", "Manca la pagina sugli allegati"));
+        index = new IssueSearchIndex(issues);
+    }
+
+    private Set<Integer> ids(String query) {
+        return index.search(query).stream().map(Issue::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    void matchesSubstringsIgnoringCaseAndAccents() {
+        assertEquals(Set.of(1), ids("SALVA"));
+        assertEquals(Set.of(2), ids("perche"));
+        assertEquals(Set.of(3), ids("ocument"));
+        assertEquals(Set.of(1, 2, 3), ids(""));
+        assertTrue(ids("inesistente").isEmpty());
+    }
+
+    @Test
+    void multiWordQueriesMatchAsASingleSubstring() {
+        assertEquals(Set.of(2), ids("login e len"));
+        assertTrue(ids("login secondi").isEmpty());
+    }
+
+    @Test
+    void followsChangesToTheList() {
+        assertEquals(Set.of(1), ids("crash"));
+
+        issues.add(issue(4, "Crash all'avvio", null));
+        assertEquals(Set.of(1, 4), ids("crash"));
+
+        issues.set(0, issue(1, "Salvataggio lento", null));
+        assertEquals(Set.of(4), ids("crash"));
+
+        issues.remove(2);
+        assertTrue(ids("documentazione").isEmpty());
+    }
+
+    @Test
+    void predicateSeesIssuesAddedAfterItsCreation() {
+        var predicate = index.matching("allegat");
+        Issue added = issue(5, "Allegati persi", null);
+        assertFalse(predicate.test(added));
+
+        issues.add(added);
+        assertTrue(predicate.test(added));
+        assertTrue(index.matching(null).test(added));
+    }
+}
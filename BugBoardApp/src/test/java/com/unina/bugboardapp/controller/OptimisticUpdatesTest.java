@@ -0,0 +1,95 @@
+package com.unina.bugboardapp.controller;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.Priority;
+import com.unina.bugboardapp.model.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.unina.bugboardapp.service.IssueFixtures.issue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimisticUpdatesTest {
+    private static final User AUTHOR = new User("dev@example.com", null, UserType.USER);
+
+    private AppState appState;
+    private OptimisticUpdates updates;
+    private Issue existing;
+
+    @BeforeEach
+    void setUp() {
+        appState = new AppState();
+        updates = new OptimisticUpdates(appState);
+        existing = issue(1, "Esistente");
+        appState.getIssues().add(existing);
+    }
+
+    @Test
+    void insertedIssueIsProvisionalUntilConfirmedInPlace() {
+        Issue draft = issue(null, "Nuova", "Descrizione", AUTHOR);
+        draft.setImagePath("/img/nuova.png");
+        Issue provisional = updates.insertIssue(draft);
+        appState.getIssues().add(issue(2, "Arrivata dopo"));
+
+        assertTrue(OptimisticUpdates.isProvisional(provisional));
+        assertEquals(1, appState.getIssues().indexOf(provisional));
+
+        Issue created = new Issue();
+        created.setId(50);
+        Issue confirmed = updates.confirmIssue(provisional, created);
+
+        assertSame(created, appState.getIssues().get(1));
+        assertFalse(OptimisticUpdates.isProvisional(confirmed));
+        assertEquals("Nuova", confirmed.getTitle());
+        assertEquals(Priority.LOW, confirmed.getPriority());
+        assertSame(AUTHOR, confirmed.getReporter());
+        assertEquals("/img/nuova.png", confirmed.getImagePath());
+        assertEquals(List.of(1, 50, 2), appState.getIssues().stream().map(Issue::getId).toList());
+    }
+
+    @Test
+    void confirmationDropsThePlaceholderWhenTheIssueAlreadyArrived() {
+        Issue provisional = updates.insertIssue(issue(null, "Nuova"));
+        Issue fromRefresh = issue(50, "Nuova");
+        appState.getIssues().add(fromRefresh);
+
+        assertSame(fromRefresh, updates.confirmIssue(provisional, issue(50, "Nuova")));
+        assertEquals(List.of(1, 50), appState.getIssues().stream().map(Issue::getId).toList());
+    }
+
+    @Test
+    void rolledBackIssueIsRemovedAndReported() {
+        Issue provisional = updates.insertIssue(issue(null, "Fallita"));
+
+        updates.rollbackIssue(provisional);
+
+        assertEquals(List.of(existing), appState.getIssues());
+        assertEquals(1, appState.getNotifications().size());
+        assertTrue(appState.getNotifications().get(0).contains("Fallita"));
+    }
+
+    @Test
+    void commentsAreConfirmedOrRolledBack() {
+        Comment kept = updates.insertComment(existing, new Comment(AUTHOR, "Confermato", 1));
+        Comment failed = updates.insertComment(existing, new Comment(AUTHOR, "Fallito", 1));
+        assertTrue(OptimisticUpdates.isProvisional(kept));
+
+        Comment created = new Comment();
+        created.setId(900);
+        updates.confirmComment(existing, kept, created);
+        updates.rollbackComment(existing, failed);
+
+        assertEquals(List.of(created), existing.getComments());
+        assertEquals("Confermato", created.getContent());
+        assertEquals(1, created.getIssueId());
+        assertSame(AUTHOR, created.getAuthor());
+        assertEquals(1, appState.getNotifications().size());
+    }
+}
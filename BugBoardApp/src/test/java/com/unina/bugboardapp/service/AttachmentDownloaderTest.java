@@ -0,0 +1,193 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.exception.IssueException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AttachmentDownloaderTest {
+    private static final byte[] CONTENT = "image bytes".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    private StandInBackend backend;
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger serving = new AtomicInteger();
+    private final AtomicInteger peakServing = new AtomicInteger();
+    private final AtomicInteger commits = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        backend.close();
+    }
+
+    /**
+     * Registra un'immagine il cui download resta in sospeso finché il test non lo sblocca.
+     */
+    private void blockingImage(String name) {
+        backend.on("GET", "/images/" + name, (request, exchange) -> {
+            peakServing.accumulateAndGet(serving.incrementAndGet(), Math::max);
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.getResponseHeaders().set("ETag", "\"" + name + "\"");
+                exchange.sendResponseHeaders(200, 0);
+                out.write(CONTENT, 0, 5);
+                out.flush();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    // Prima degli ultimi byte: il client non può completare il download prima del decremento
+                    serving.decrementAndGet();
+                }
+                out.write(CONTENT, 5, CONTENT.length - 5);
+            }
+        });
+    }
+
+    private CompletableFuture<AttachmentDownloader.Result> fetchAsync(AttachmentDownloader downloader, String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetch(downloader, name);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private AttachmentDownloader.Result fetch(AttachmentDownloader downloader, String name)
+            throws IssueException, InterruptedException {
+        return downloader.fetch(name, null, directory, (temp, etag) -> {
+            commits.incrementAndGet();
+            Files.move(temp, directory.resolve(name));
+        });
+    }
+
+    private static AttachmentDownloader downloader(StandInBackend backend, int maxConcurrent) {
+        return new AttachmentDownloader(new IssueService(backend.client(), null), maxConcurrent);
+    }
+
+    @Test
+    void concurrentFetchesOfTheSameFileShareOneDownload() throws Exception {
+        blockingImage("shared.png");
+        AttachmentDownloader downloader = downloader(backend, 3);
+
+        List<CompletableFuture<AttachmentDownloader.Result>> fetches = new ArrayList<>();
+        for (int i = 0; i < 3; i++) fetches.add(fetchAsync(downloader, "shared.png"));
+        awaitUntil(() -> downloader.getMetrics().deduplicated() == 2);
+        release.countDown();
+
+        for (CompletableFuture<AttachmentDownloader.Result> fetch : fetches) {
+            assertEquals("\"shared.png\"", fetch.get(5, TimeUnit.SECONDS).etag());
+        }
+        assertEquals(1, backend.requests("/images/shared.png").size());
+        assertEquals(1, commits.get());
+        assertEquals(1, downloader.getMetrics().completed());
+    }
+
+    @Test
+    void aFetchAfterCompletionStartsANewDownload() throws Exception {
+        backend.on("GET", "/images/again.png", (request, exchange) ->
+                StandInBackend.respond(exchange, 200, "image/png", CONTENT));
+        AttachmentDownloader downloader = downloader(backend, 3);
+
+        for (int i = 0; i < 20; i++) {
+            downloader.fetch("again.png", null, directory, (temp, etag) -> commits.incrementAndGet());
+        }
+
+        assertEquals(20, backend.requests("/images/again.png").size());
+        assertEquals(20, commits.get());
+        assertEquals(0, downloader.getMetrics().deduplicated());
+    }
+
+    @Test
+    void concurrentDownloadsAreCapped() throws Exception {
+        AttachmentDownloader downloader = downloader(backend, 2);
+        List<CompletableFuture<AttachmentDownloader.Result>> fetches = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            blockingImage("image-" + i + ".png");
+            fetches.add(fetchAsync(downloader, "image-" + i + ".png"));
+        }
+
+        awaitUntil(() -> serving.get() == 2 && downloader.getMetrics().queued() == 3);
+        assertTrue(downloader.getMetrics().active() <= 2);
+        release.countDown();
+        CompletableFuture.allOf(fetches.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        awaitUntil(() -> downloader.getMetrics().active() == 0);
+        assertEquals(2, peakServing.get());
+        assertEquals(5, downloader.getMetrics().completed());
+    }
+
+    @Test
+    void interruptingTheLastWaiterCancelsTheDownload() throws Exception {
+        blockingImage("abandoned.png");
+        AttachmentDownloader downloader = downloader(backend, 3);
+        AtomicReference<Throwable> outcome = new AtomicReference<>();
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                fetch(downloader, "abandoned.png");
+            } catch (Exception e) {
+                outcome.set(e);
+            }
+        });
+
+        awaitUntil(() -> serving.get() == 1 && downloader.getMetrics().active() == 1);
+        caller.interrupt();
+        caller.join(5_000);
+        awaitUntil(() -> downloader.getMetrics().cancelled() == 1 && downloader.getMetrics().active() == 0);
+
+        assertInstanceOf(InterruptedException.class, outcome.get());
+        assertEquals(0, commits.get());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void failuresAreReportedToTheCaller() {
+        AttachmentDownloader downloader = downloader(backend, 1);
+
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> fetchAsync(downloader, "missing.png").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IssueException.class, failure.getCause().getCause());
+        assertEquals(1, downloader.getMetrics().failed());
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), "condition not reached in time");
+    }
+}
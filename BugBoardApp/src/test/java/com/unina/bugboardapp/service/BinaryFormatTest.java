@@ -0,0 +1,85 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.unina.bugboardapp.model.Issue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryFormatTest {
+    private StandInBackend backend;
+    private IssueService service;
+    private byte[] json;
+    private byte[] smile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        service = new IssueService(backend.client(true), null);
+        List<Issue> issues = IssueFixtures.issues(20);
+        json = IssueFixtures.json(issues);
+        smile = JsonSupport.mapper().copyWith(new SmileFactory()).writeValueAsBytes(issues);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    private List<Integer> fetchIds() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        service.streamAllIssues(50, batch -> batch.forEach(issue -> ids.add(issue.getId())));
+        return ids;
+    }
+
+    @Test
+    void prefersSmileAndParsesIt() throws Exception {
+        backend.on("GET", "/issues", (request, exchange) -> {
+            if (request.header("Accept").startsWith(JsonSupport.SMILE_CONTENT_TYPE)) {
+                StandInBackend.respond(exchange, 200, JsonSupport.SMILE_CONTENT_TYPE, smile);
+            } else {
+                StandInBackend.respond(exchange, 200, "application/json", json);
+            }
+        });
+
+        assertEquals(20, fetchIds().size());
+        assertTrue(backend.requests("/issues").get(0).header("Accept").contains("application/json;q=0.5"));
+        assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    void fallsBackToJsonForTheSessionAfterNotAcceptable() throws Exception {
+        backend.on("GET", "/issues", (request, exchange) -> {
+            if (request.header("Accept").contains(JsonSupport.SMILE_CONTENT_TYPE)) {
+                StandInBackend.respond(exchange, 406, null, new byte[0]);
+            } else {
+                StandInBackend.respond(exchange, 200, "application/json", json);
+            }
+        });
+
+        assertEquals(20, fetchIds().size());
+        assertEquals(20, fetchIds().size());
+
+        List<StandInBackend.Request> requests = backend.requests("/issues");
+        assertEquals(3, requests.size());
+        assertTrue(requests.get(0).header("Accept").contains(JsonSupport.SMILE_CONTENT_TYPE));
+        assertEquals("application/json", requests.get(1).header("Accept"));
+        assertEquals("application/json", requests.get(2).header("Accept"));
+    }
+
+    @Test
+    void jsonOnlyClientsNeverAskForSmile() throws Exception {
+        service = new IssueService(backend.client(), null);
+        backend.on("GET", "/issues", (request, exchange) ->
+                StandInBackend.respond(exchange, 200, "application/json", json));
+
+        assertEquals(20, fetchIds().size());
+        assertEquals("application/json", backend.requests("/issues").get(0).header("Accept"));
+    }
+}
@@ -0,0 +1,180 @@
+package com.unina.bugboardapp.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedTest {
+    private static final Duration BACKOFF = Duration.ofMillis(20);
+
+    private StandInBackend backend;
+    private ChangeFeed feed;
+    private final RecordingListener listener = new RecordingListener();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (feed != null) feed.stop();
+        backend.close();
+    }
+
+    private ChangeFeed feed() {
+        feed = new ChangeFeed(backend.client(), listener, BACKOFF, BACKOFF);
+        return feed;
+    }
+
+    /**
+     * Evento SSE di modifica di una issue.
+     */
+    private static String event(long sequence, int issueId) {
+        return "id: " + sequence + "\nevent: change\ndata: {\"entity\":\"issue\",\"action\":\"updated\",\"id\":"
+                + issueId + ",\"payload\":{\"id\":" + issueId + ",\"titolo\":\"Issue " + issueId + "\"}}\n\n";
+    }
+
+    private static OutputStream openStream(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        return exchange.getResponseBody();
+    }
+
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Test
+    void reportsSequenceGapsAndResumesFromTheLastEventId() throws Exception {
+        CountDownLatch resumed = new CountDownLatch(1);
+        backend.on("GET", ChangeFeed.ENDPOINT, (request, exchange) -> {
+            try (OutputStream out = openStream(exchange)) {
+                switch (connections.incrementAndGet()) {
+                    case 1 -> write(out, ": heartbeat\n\n" + event(1, 10) + event(2, 11) + event(4, 12));
+                    case 2 -> {
+                        write(out, event(4, 12) + event(5, 13));
+                        resumed.countDown();
+                    }
+                    default -> { }
+                }
+            }
+        });
+
+        feed().start();
+        assertTrue(resumed.await(5, TimeUnit.SECONDS));
+        listener.awaitEvents(4);
+
+        List<StandInBackend.Request> requests = backend.requests(ChangeFeed.ENDPOINT);
+        assertNull(requests.get(0).header("Last-Event-ID"));
+        assertEquals("4", requests.get(1).header("Last-Event-ID"));
+        assertEquals(List.of(10, 11, 12, 13), listener.events.stream().map(ChangeFeed.ChangeEvent::id).toList());
+        assertEquals(ChangeFeed.Entity.ISSUE, listener.events.get(0).entity());
+        assertEquals("Issue 10", listener.events.get(0).issue().getTitle());
+        assertEquals(1, listener.gaps.get());
+        assertTrue(feed.getMetrics().reconnects() >= 1);
+    }
+
+    @Test
+    void resyncEventReportsAGapAndResumesFromItsId() throws Exception {
+        backend.on("GET", ChangeFeed.ENDPOINT, (request, exchange) -> {
+            try (OutputStream out = openStream(exchange)) {
+                if (connections.incrementAndGet() == 1) write(out, "id: 9\nevent: resync\ndata: {}\n\n");
+            }
+        });
+
+        feed().start();
+        listener.awaitGaps(1);
+        assertEquals("9", awaitRequest(2).header("Last-Event-ID"));
+        feed.stop();
+
+        assertTrue(listener.events.isEmpty());
+    }
+
+    @Test
+    void noEventsAreDeliveredAfterStop() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        backend.on("GET", ChangeFeed.ENDPOINT, (request, exchange) -> {
+            try (OutputStream out = openStream(exchange)) {
+                write(out, event(1, 10));
+                release.await(5, TimeUnit.SECONDS);
+                write(out, event(2, 11));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        feed().start();
+        listener.awaitEvents(1);
+        feed.stop();
+        release.countDown();
+        Thread.sleep(BACKOFF.multipliedBy(5).toMillis());
+
+        assertEquals(1, listener.events.size());
+        assertEquals(1, backend.requests(ChangeFeed.ENDPOINT).size());
+        assertFalse(feed.getMetrics().connected());
+    }
+
+    private StandInBackend.Request awaitRequest(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.requests(ChangeFeed.ENDPOINT).size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return backend.requests(ChangeFeed.ENDPOINT).get(count - 1);
+    }
+
+    private static final class RecordingListener implements ChangeFeed.Listener {
+        private final List<ChangeFeed.ChangeEvent> events = new CopyOnWriteArrayList<>();
+        private final AtomicInteger gaps = new AtomicInteger();
+
+        @Override
+        public void onEvent(ChangeFeed.ChangeEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onGap() {
+            gaps.incrementAndGet();
+        }
+
+        @Override
+        public void onConnectionChanged(boolean connected) {
+            // Non rilevante per questi test
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            awaitUntil(() -> events.size() >= count);
+        }
+
+        void awaitGaps(int count) throws InterruptedException {
+            awaitUntil(() -> gaps.get() >= count);
+        }
+
+        private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(condition.getAsBoolean(), "condition not reached in time");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.exception.ApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedUploaderTest {
+    private static final int CHUNK_SIZE = 16;
+    private static final String UPLOADS = "/images/uploads";
+    private static final String UPLOAD = UPLOADS + "/u1";
+
+    @TempDir
+    Path directory;
+
+    private StandInBackend backend;
+    private UploadJournal journal;
+    private ChunkedUploader uploader;
+    private final Set<Integer> received = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rejectLastChunk = new AtomicBoolean(true);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        journal = new UploadJournal(directory.resolve("journal"));
+        uploader = new ChunkedUploader(backend.client(), journal, CHUNK_SIZE, 2);
+
+        backend.on("POST", UPLOADS, (request, exchange) -> StandInBackend.json(exchange, 200, "{\"uploadId\":\"u1\"}"));
+        backend.on("GET", UPLOAD, (request, exchange) -> StandInBackend.json(exchange, 200,
+                "{\"acknowledgedChunks\":[" + received.stream().map(String::valueOf).collect(Collectors.joining(","))
+                        + "]}"));
+        for (int index = 0; index < 3; index++) {
+            int chunk = index;
+            backend.on("PUT", UPLOAD + "/chunks/" + index, (request, exchange) -> {
+                if (chunk == 2 && rejectLastChunk.get()) {
+                    StandInBackend.json(exchange, 400, "{}");
+                    return;
+                }
+                received.add(chunk);
+                StandInBackend.json(exchange, 200, "{}");
+            });
+        }
+        backend.on("POST", UPLOAD + "/complete", (request, exchange) -> StandInBackend.json(exchange, 200, "/img/u1.png"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    void interruptedUploadResumesFromTheMissingChunks() throws Exception {
+        Path file = directory.resolve("screenshot.png");
+        Files.write(file, new byte[CHUNK_SIZE * 2 + 5]);
+
+        assertThrows(ApiException.class, () -> uploader.upload(3, file, null));
+        List<UploadJournal.Entry> pending = journal.loadAll();
+        assertEquals(1, pending.size());
+        assertEquals(Set.of(0, 1), pending.get(0).acknowledged().stream().boxed().collect(Collectors.toSet()));
+
+        rejectLastChunk.set(false);
+        assertEquals(1, uploader.resumePending());
+
+        assertEquals(1, backend.requests(UPLOAD + "/chunks/0").size());
+        assertEquals(1, backend.requests(UPLOAD + "/chunks/1").size());
+        assertEquals(2, backend.requests(UPLOAD + "/chunks/2").size());
+        assertEquals(1, backend.requests(UPLOAD + "/complete").size());
+        assertTrue(journal.loadAll().isEmpty());
+    }
+
+    @Test
+    void changedSourceFileIsDiscardedOnResume() throws Exception {
+        Path file = directory.resolve("screenshot.png");
+        Files.write(file, new byte[CHUNK_SIZE * 2 + 5]);
+        assertThrows(ApiException.class, () -> uploader.upload(3, file, null));
+
+        Files.write(file, new byte[CHUNK_SIZE]);
+        assertEquals(0, uploader.resumePending());
+
+        assertTrue(journal.loadAll().isEmpty());
+        assertTrue(backend.requests(UPLOAD + "/complete").isEmpty());
+    }
+
+    @Test
+    void journalsAreKeptPerAccount() {
+        assertSame(UploadJournal.forAccount("Dev@Example.com"), UploadJournal.forAccount("dev@example.com"));
+        assertNotSame(UploadJournal.forAccount("dev@example.com"), UploadJournal.forAccount("other@example.com"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.unina.bugboardapp.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressionTest {
+    private StandInBackend backend;
+    private byte[] body;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        body = IssueFixtures.json(IssueFixtures.issues(200));
+        byte[] gzip = compress(body, true);
+        byte[] deflate = compress(body, false);
+        backend.on("GET", "/issues", (request, exchange) -> serve(request, exchange, "gzip", gzip));
+        backend.on("GET", "/comments", (request, exchange) -> serve(request, exchange, "deflate", deflate));
+        backend.on("GET", "/images/export.json", (request, exchange) -> serve(request, exchange, "gzip", gzip));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    /**
+     * Risponde compresso solo se il client dichiara di accettare la codifica, come un backend reale.
+     */
+    private void serve(StandInBackend.Request request, HttpExchange exchange,
+                       String encoding, byte[] compressed) throws IOException {
+        String accepted = request.header("Accept-Encoding");
+        if (accepted != null && accepted.contains(encoding)) {
+            exchange.getResponseHeaders().set("Content-Encoding", encoding);
+            StandInBackend.respond(exchange, 200, "application/json", compressed);
+        } else {
+            StandInBackend.respond(exchange, 200, "application/json", body);
+        }
+    }
+
+    private static byte[] compress(byte[] data, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream encoder = gzip ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) {
+            encoder.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static ApiClient compressing(StandInBackend backend) {
+        return backend.client(HttpClient.Version.HTTP_1_1, true, false);
+    }
+
+    @Test
+    void gzipResponsesAreDecodedAndCountedOnTheWire() throws Exception {
+        ApiClient client = compressing(backend);
+
+        assertEquals(new String(body, StandardCharsets.UTF_8), client.get("/issues"));
+
+        TransferStats.Snapshot stats = client.getTransferStats().snapshot();
+        assertEquals(1, stats.compressedResponses());
+        assertEquals(body.length, stats.decodedBytes());
+        assertTrue(stats.wireBytes() < stats.decodedBytes() / 5, () -> "wire " + stats.wireBytes() + " B");
+        assertEquals("gzip, deflate", backend.requests("/issues").get(0).header("Accept-Encoding"));
+    }
+
+    @Test
+    void deflateResponsesAreDecoded() throws Exception {
+        ApiClient client = compressing(backend);
+
+        assertEquals(new String(body, StandardCharsets.UTF_8), client.get("/comments"));
+
+        TransferStats.Snapshot stats = client.getTransferStats().snapshot();
+        assertEquals(1, stats.compressedResponses());
+        assertTrue(stats.wireBytes() < stats.decodedBytes());
+    }
+
+    @Test
+    void streamsAreDecodedWhileReading() throws Exception {
+        ApiClient client = compressing(backend);
+
+        byte[] read;
+        try (InputStream in = client.getStream("/images/export.json")) {
+            read = in.readAllBytes();
+        }
+
+        assertArrayEquals(body, read);
+        TransferStats.Snapshot stats = client.getTransferStats().snapshot();
+        assertEquals(body.length, stats.decodedBytes());
+        assertTrue(stats.wireBytes() < stats.decodedBytes());
+        assertTrue(stats.savingRatio() > 0.8);
+    }
+
+    @Test
+    void uncompressedProfileSendsNoAcceptEncoding() throws Exception {
+        ApiClient client = backend.client();
+
+        client.get("/issues");
+
+        TransferStats.Snapshot stats = client.getTransferStats().snapshot();
+        assertNull(backend.requests("/issues").get(0).header("Accept-Encoding"));
+        assertEquals(0, stats.compressedResponses());
+        assertEquals(stats.decodedBytes(), stats.wireBytes());
+    }
+}
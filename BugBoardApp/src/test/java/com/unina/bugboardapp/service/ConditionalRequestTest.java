@@ -0,0 +1,74 @@
+package com.unina.bugboardapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConditionalRequestTest {
+    private static final String ETAG = "\"v1\"";
+
+    private StandInBackend backend;
+    private ApiClient client;
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        client = backend.client();
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    private String parse(String body) {
+        parsed.incrementAndGet();
+        return body;
+    }
+
+    @Test
+    void notModifiedReusesTheCachedResult() throws Exception {
+        backend.on("GET", "/comments/issue/1", (request, exchange) -> {
+            if (ETAG.equals(request.header("If-None-Match"))) {
+                StandInBackend.respond(exchange, 304, null, new byte[0]);
+            } else {
+                exchange.getResponseHeaders().set("ETag", ETAG);
+                StandInBackend.json(exchange, 200, "[]");
+            }
+        });
+
+        String first = client.getConditional("/comments/issue/1", this::parse);
+
+        assertSame(first, client.getConditional("/comments/issue/1", this::parse));
+        assertSame(first, client.getConditionalAsync("/comments/issue/1", this::parse).get(5, TimeUnit.SECONDS));
+        assertEquals(1, parsed.get());
+    }
+
+    @Test
+    void notModifiedWithoutACachedResultIsAnError() {
+        // Es. un proxy che risponde 304 a una richiesta senza validatori
+        backend.on("GET", "/comments/issue/2", (request, exchange) ->
+                StandInBackend.respond(exchange, 304, null, new byte[0]));
+
+        IOException failure = assertThrows(IOException.class,
+                () -> client.getConditional("/comments/issue/2", this::parse));
+        ExecutionException asyncFailure = assertThrows(ExecutionException.class,
+                () -> client.getConditionalAsync("/comments/issue/2", this::parse).get(5, TimeUnit.SECONDS));
+
+        assertTrue(failure.getMessage().contains("304"));
+        assertInstanceOf(IOException.class, asyncFailure.getCause());
+        assertEquals(0, parsed.get());
+    }
+}
@@ -0,0 +1,96 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.unina.bugboardapp.model.Issue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaSyncTest {
+    private static final Logger logger = Logger.getLogger(DeltaSyncTest.class.getName());
+    private static final int ISSUES = 100_000;
+    /** Issue modificate tra due sincronizzazioni: lo 0,05% del totale. */
+    private static final int CHURN = 50;
+    private static final String CURSOR = "2026-01-01T10:00:00Z";
+    private static final String NEXT_CURSOR = "2026-01-01T10:05:00Z";
+
+    private StandInBackend backend;
+    private ApiClient client;
+    private IssueService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        client = backend.client();
+        service = new IssueService(client, null);
+
+        backend.on("GET", "/issues", (request, exchange) -> {
+            if (request.query() == null) {
+                stream(exchange, 1, ISSUES);
+                return;
+            }
+            exchange.getResponseHeaders().set(IssueService.SYNC_CURSOR_HEADER, NEXT_CURSOR);
+            stream(exchange, ISSUES - CHURN + 1, ISSUES);
+        });
+    }
+
+    /**
+     * Scrive le issue con id da {@code from} a {@code to} una alla volta, senza tenere in memoria l'intero corpo.
+     */
+    private static void stream(HttpExchange exchange, int from, int to) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody();
+             JsonGenerator generator = JsonSupport.mapper().getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            for (int id = from; id <= to; id++) {
+                generator.writeObject(IssueFixtures.issue(id, "Issue " + id, "Description " + id));
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    void deltaCarriesTheCursorAndReturnsTheNextOne() throws Exception {
+        IssueService.IssueDelta delta = service.fetchIssuesModifiedSince(CURSOR);
+
+        assertEquals("modifiedSince=2026-01-01T10%3A00%3A00Z", backend.requests("/issues").get(0).query());
+        assertEquals(IntStream.rangeClosed(ISSUES - CHURN + 1, ISSUES).boxed().toList(),
+                delta.issues().stream().map(Issue::getId).toList());
+        assertEquals(NEXT_CURSOR, delta.cursor());
+    }
+
+    @Test
+    void deltaSyncTransfersAFractionOfAFullRefresh() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        service.streamAllIssues(1_000, batch -> received.addAndGet(batch.size()));
+        long fullBytes = client.getTransferStats().snapshot().wireBytes();
+        client.getTransferStats().reset();
+
+        int changed = service.fetchIssuesModifiedSince(CURSOR).issues().size();
+        long deltaBytes = client.getTransferStats().snapshot().wireBytes();
+        logger.info(() -> "Sincronizzazione completa: " + fullBytes + " B per " + ISSUES + " issue; delta: "
+                + deltaBytes + " B per " + changed + " issue");
+
+        assertEquals(ISSUES, received.get());
+        assertEquals(CHURN, changed);
+        assertTrue(deltaBytes > 0);
+        // Con lo 0,05% di issue modificate il delta pesa circa 1/2000 della sincronizzazione completa
+        assertTrue(deltaBytes * 1_000 < fullBytes, () -> "delta " + deltaBytes + " B, full " + fullBytes + " B");
+    }
+}
@@ -0,0 +1,157 @@
+package com.unina.bugboardapp.service;
+
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ImageCacheTest {
+    private static final String IMAGE = "/images/shot.png";
+    private static final String ETAG = "\"img-1\"";
+
+    @TempDir
+    Path directory;
+
+    private StandInBackend backend;
+    private volatile String etag = ETAG;
+    private volatile byte[] png;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        png = png(400, 200);
+        backend.on("GET", IMAGE, (request, exchange) -> {
+            String current = etag;
+            if (current.equals(request.header("If-None-Match"))) {
+                StandInBackend.respond(exchange, 304, null, new byte[0]);
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", current);
+            StandInBackend.respond(exchange, 200, "image/png", png);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    private ImageCache cache(Duration revalidateAfter) {
+        AttachmentDownloader downloader = new AttachmentDownloader(new IssueService(backend.client(), null), 2);
+        return new ImageCache(downloader, directory, 1 << 20, 1 << 20, Duration.ofDays(30), revalidateAfter);
+    }
+
+    @Test
+    void servesThumbnailsFromMemoryThenFromDisk() throws Exception {
+        ImageCache cache = cache(Duration.ofHours(1));
+
+        Image first = cache.loadThumbnail("uploads/shot.png", 100, 100);
+        assertSame(first, cache.loadThumbnail("shot.png", 100, 100));
+        cache.clearMemory();
+        assertNull(cache.getIfPresent("shot.png", 100, 100));
+        cache.loadThumbnail("shot.png", 100, 100);
+
+        ImageCache.Metrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.misses());
+        assertEquals(1, metrics.diskHits());
+        assertEquals(1, backend.requests(IMAGE).size());
+    }
+
+    @Test
+    void revalidatesStaleCopiesWithTheirEtag() throws Exception {
+        ImageCache cache = cache(Duration.ZERO);
+
+        cache.loadFullResolution("shot.png");
+        cache.loadFullResolution("shot.png");
+
+        assertEquals(2, backend.requests(IMAGE).size());
+        assertEquals(ETAG, backend.requests(IMAGE).get(1).header("If-None-Match"));
+        assertEquals(1, cache.getMetrics().revalidated());
+    }
+
+    @Test
+    void changedImageIsDownloadedOnceAndReplacesItsThumbnails() throws Exception {
+        ImageCache cache = cache(Duration.ZERO);
+        cache.loadThumbnail("shot.png", 100, 0);
+
+        etag = "\"img-2\"";
+        png = png(200, 200);
+        Image full = cache.loadFullResolution("shot.png");
+
+        assertEquals(200, full.getHeight());
+        assertEquals(2, backend.requests(IMAGE).size());
+        assertEquals(ETAG, backend.requests(IMAGE).get(1).header("If-None-Match"));
+        assertNull(cache.getIfPresent("shot.png", 100, 0));
+        ImageCache.Metrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.misses());
+        assertEquals(1, metrics.diskHits());
+        assertEquals(0, metrics.revalidated());
+        assertEquals(0, metrics.memoryBytes());
+        assertEquals(100, cache.loadThumbnail("shot.png", 100, 0).getHeight());
+    }
+
+    @Test
+    void decodesThumbnailsAtDisplaySizeAndKeepsFullResolutionOutOfMemory() throws Exception {
+        ImageCache cache = cache(Duration.ofHours(1));
+
+        Image thumbnail = cache.loadThumbnail("shot.png", 100, 0);
+        Image full = cache.loadFullResolution("shot.png");
+
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(50, thumbnail.getHeight());
+        assertEquals(400, full.getWidth());
+        assertEquals(200, full.getHeight());
+        ImageCache.Metrics metrics = cache.getMetrics();
+        assertEquals(1, metrics.memoryImages());
+        assertEquals(100 * 50 * 4, metrics.memoryBytes());
+    }
+
+    /**
+     * Crea un PNG RGB uniforme delle dimensioni indicate.
+     */
+    static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(raw)) {
+            byte[] row = new byte[1 + width * 3];
+            for (int y = 0; y < height; y++) deflater.write(row);
+        }
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream ihdr = new DataOutputStream(header);
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.write(new byte[]{8, 2, 0, 0, 0});
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(png);
+        out.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+        chunk(out, "IHDR", header.toByteArray());
+        chunk(out, "IDAT", raw.toByteArray());
+        chunk(out, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
+
+    private static void chunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,62 @@
+package com.unina.bugboardapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import com.unina.bugboardapp.model.enums.Priority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Issue di prova condivise dai test, con valori predefiniti per i campi non rilevanti.
+ */
+public final class IssueFixtures {
+
+    private IssueFixtures() {
+    }
+
+    /**
+     * Crea una issue {@code BUG}/{@code TODO}/{@code LOW} senza autore.
+     */
+    public static Issue issue(Integer id, String title) {
+        return issue(id, title, "Description", null);
+    }
+
+    /**
+     * Crea una issue {@code BUG}/{@code TODO}/{@code LOW} senza autore, con la descrizione indicata.
+     */
+    public static Issue issue(Integer id, String title, String description) {
+        return issue(id, title, description, null);
+    }
+
+    /**
+     * Crea una issue {@code BUG}/{@code TODO}/{@code LOW} con descrizione e autore indicati.
+     */
+    public static Issue issue(Integer id, String title, String description, User reporter) {
+        Issue issue = new Issue(IssueType.BUG, title, description, null, IssueState.TODO, Priority.LOW, reporter);
+        issue.setId(id);
+        return issue;
+    }
+
+    /**
+     * Crea le issue con id da 1 a {@code count}, titolo {@code "Issue <id>"} e descrizione
+     * {@code "Description <id>"}.
+     */
+    public static List<Issue> issues(int count) {
+        List<Issue> issues = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            issues.add(issue(id, "Issue " + id, "Description " + id));
+        }
+        return issues;
+    }
+
+    /**
+     * Serializza le issue come le restituisce il backend.
+     */
+    public static byte[] json(List<Issue> issues) throws JsonProcessingException {
+        return JsonSupport.mapper().writeValueAsBytes(issues);
+    }
+}
@@ -0,0 +1,62 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.model.Issue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IssuePagingTest {
+    private StandInBackend backend;
+    private IssueService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        service = new IssueService(backend.client(), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    void requestsOnlyTheWantedPage() throws Exception {
+        String content = new String(IssueFixtures.json(IssueFixtures.issues(100).subList(20, 30)),
+                StandardCharsets.UTF_8);
+        backend.on("GET", "/issues", (request, exchange) -> StandInBackend.json(exchange, 200,
+                "{\"content\":" + content + ",\"totalElements\":100}"));
+
+        IssueService.IssuePage page = service.fetchIssuePage(2, 10);
+
+        assertEquals("page=2&size=10", backend.requests("/issues").get(0).query());
+        assertEquals(2, page.page());
+        assertEquals(100, page.totalElements());
+        assertEquals(10, page.issues().size());
+        assertEquals(21, page.issues().get(0).getId());
+    }
+
+    @Test
+    void unpagedBackendIsTreatedAsASinglePage() throws Exception {
+        byte[] body = IssueFixtures.json(IssueFixtures.issues(7));
+        backend.on("GET", "/issues", (request, exchange) -> StandInBackend.respond(exchange, 200, "application/json", body));
+
+        IssueService.IssuePage page = service.fetchIssuePage(3, 5);
+
+        assertEquals(0, page.page());
+        assertEquals(7, page.size());
+        assertEquals(7, page.totalElements());
+        assertEquals(7, page.issues().stream().map(Issue::getId).distinct().count());
+    }
+
+    @Test
+    void rejectsInvalidPageRequests() {
+        assertThrows(IllegalArgumentException.class, () -> service.fetchIssuePage(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.fetchIssuePage(0, 0));
+    }
+}
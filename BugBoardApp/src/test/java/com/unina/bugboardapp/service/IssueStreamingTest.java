@@ -0,0 +1,88 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.exception.IssueException;
+import com.unina.bugboardapp.model.Issue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.unina.bugboardapp.service.IssueFixtures.issues;
+import static com.unina.bugboardapp.service.IssueFixtures.json;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IssueStreamingTest {
+    private static final String ETAG = "\"v1\"";
+
+    private StandInBackend backend;
+    private IssueService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        service = new IssueService(backend.client(), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    void deliversIssuesInBoundedBatches() throws Exception {
+        byte[] body = json(issues(250));
+        backend.on("GET", "/issues", (request, exchange) -> StandInBackend.respond(exchange, 200, "application/json", body));
+
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        int total = service.streamAllIssues(100, batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(issue -> ids.add(issue.getId()));
+        });
+
+        assertEquals(250, total);
+        assertEquals(List.of(100, 100, 50), batchSizes);
+        assertEquals(1, ids.get(0));
+        assertEquals(250, ids.get(249));
+    }
+
+    @Test
+    void returnsNotModifiedWithoutBatchesWhenTheListIsUnchanged() throws Exception {
+        byte[] body = json(issues(3));
+        backend.on("GET", "/issues", (request, exchange) -> {
+            if (ETAG.equals(request.header("If-None-Match"))) {
+                StandInBackend.respond(exchange, 304, null, new byte[0]);
+            } else {
+                exchange.getResponseHeaders().set("ETag", ETAG);
+                StandInBackend.respond(exchange, 200, "application/json", body);
+            }
+        });
+
+        assertEquals(3, service.streamAllIssues(10, batch -> { }));
+        List<List<Issue>> batches = new ArrayList<>();
+        assertEquals(IssueService.NOT_MODIFIED, service.streamAllIssues(10, batches::add));
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void truncatedStreamFailsAndDropsTheValidators() throws Exception {
+        byte[] full = json(issues(5));
+        byte[] truncated = new String(full, StandardCharsets.UTF_8).substring(0, full.length / 2)
+                .getBytes(StandardCharsets.UTF_8);
+        backend.on("GET", "/issues", (request, exchange) -> {
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            StandInBackend.respond(exchange, 200, "application/json", truncated);
+        });
+
+        assertThrows(IssueException.class, () -> service.streamAllIssues(2, batch -> { }));
+        assertThrows(IssueException.class, () -> service.streamAllIssues(2, batch -> { }));
+        List<StandInBackend.Request> requests = backend.requests("/issues");
+        assertNull(requests.get(1).header("If-None-Match"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import com.unina.bugboardapp.model.enums.Priority;
+import com.unina.bugboardapp.model.enums.UserType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonSupportTest {
+
+    @Test
+    void readersAndWritersAreShared() {
+        assertSame(JsonSupport.issueReader(), JsonSupport.issueReader());
+        assertSame(JsonSupport.issueListReader(), JsonSupport.issueListReader());
+        assertSame(JsonSupport.issueWriter(), JsonSupport.issueWriter());
+        assertSame(JsonSupport.mapper(), JsonSupport.mapper());
+    }
+
+    @Test
+    void issueRoundTripKeepsFieldsAndIgnoresUnknownOnes() throws Exception {
+        Issue issue = new Issue(IssueType.BUG, "Crash", "Crash on save", null, IssueState.TODO, Priority.HIGH,
+                new User("dev@example.com", null, UserType.USER));
+        issue.setId(7);
+
+        String json = JsonSupport.issueWriter().writeValueAsString(issue);
+        String withUnknown = json.substring(0, json.length() - 1) + ",\"unknown\":true}";
+        Issue read = JsonSupport.issueReader().readValue(withUnknown);
+
+        assertEquals(7, read.getId());
+        assertEquals("Crash", read.getTitle());
+        assertEquals(IssueType.BUG, read.getType());
+        assertEquals(Priority.HIGH, read.getPriority());
+        assertEquals(IssueState.TODO, read.getState());
+        assertEquals("dev@example.com", read.getReporter().getUsername());
+    }
+
+    @Test
+    void baseUrlIsConfigurable() throws Exception {
+        assertEquals("http://localhost:9/api", TransportProfile.defaults().withBaseUrl("http://localhost:9/api/").baseUrl());
+        assertThrows(IllegalArgumentException.class, () -> TransportProfile.defaults().withBaseUrl(" "));
+
+        try (StandInBackend backend = StandInBackend.start()) {
+            backend.on("GET", "/issues", (request, exchange) -> StandInBackend.json(exchange, 200, "[{\"id\":1}]"));
+            List<Issue> issues = JsonSupport.issueListReader().readValue(backend.client().get("/issues"));
+
+            assertEquals(1, issues.size());
+            assertEquals(1, backend.requests("/issues").size());
+        }
+    }
+}
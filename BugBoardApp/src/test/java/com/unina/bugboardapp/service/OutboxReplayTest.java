@@ -0,0 +1,123 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import com.unina.bugboardapp.model.enums.Priority;
+import com.unina.bugboardapp.model.enums.UserType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboxReplayTest {
+    private static final User AUTHOR = new User("dev@example.com", null, UserType.USER);
+
+    @TempDir
+    Path directory;
+
+    private StandInBackend backend;
+    private IssueService issueService;
+    private CommentService commentService;
+    private final Map<String, Integer> createdByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(100);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        ApiClient client = backend.client();
+        issueService = new IssueService(client, null);
+        commentService = new CommentService(client);
+
+        // Come il backend reale: una richiesta ripetuta con la stessa chiave restituisce la risorsa già creata
+        backend.on("POST", "/issues", (request, exchange) -> {
+            Issue issue = JsonSupport.issueReader().readValue(request.body());
+            issue.setId(createdByKey.computeIfAbsent(request.header(ApiClient.IDEMPOTENCY_KEY_HEADER),
+                    key -> nextId.getAndIncrement()));
+            StandInBackend.json(exchange, 201, JsonSupport.issueWriter().writeValueAsString(issue));
+        });
+        backend.on("POST", "/comments", (request, exchange) -> {
+            Comment comment = JsonSupport.commentReader().readValue(request.body());
+            comment.setId(createdByKey.computeIfAbsent(request.header(ApiClient.IDEMPOTENCY_KEY_HEADER),
+                    key -> nextId.getAndIncrement()));
+            StandInBackend.json(exchange, 201, JsonSupport.mapper().writeValueAsString(comment));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    private Object send(OutboxJournal.Operation operation) throws Exception {
+        return switch (operation.kind()) {
+            case ISSUE -> issueService.createIssue(new Issue(operation.type(), operation.title(),
+                    operation.description(), operation.imagePath(), operation.state(), operation.priority(), AUTHOR),
+                    null, operation.key());
+            case COMMENT -> commentService.createComment(
+                    new Comment(AUTHOR, operation.content(), operation.issueId()), operation.key());
+        };
+    }
+
+    @Test
+    void replayedWritesAreCreatedOnceAndCompleted() throws Exception {
+        Path file = directory.resolve("replay.journal");
+        OutboxJournal journal = OutboxJournal.forFile(file);
+        journal.append(OutboxJournal.Operation.issue("Crash offline", "Scritta senza rete", IssueType.BUG,
+                Priority.HIGH, IssueState.TODO, null));
+        journal.append(OutboxJournal.Operation.comment(7, "Commento offline"));
+
+        List<OutboxJournal.Operation> pending = journal.load();
+        assertEquals(List.of(OutboxJournal.Kind.ISSUE, OutboxJournal.Kind.COMMENT),
+                pending.stream().map(OutboxJournal.Operation::kind).toList());
+
+        // Primo invio con risposta persa (es. timeout) e nuovo tentativo con la stessa chiave
+        Issue first = (Issue) send(pending.get(0));
+        Issue retried = (Issue) send(pending.get(0));
+        Comment comment = (Comment) send(pending.get(1));
+
+        assertEquals(first.getId(), retried.getId());
+        assertEquals(2, createdByKey.size());
+        List<StandInBackend.Request> issueRequests = backend.requests("/issues");
+        assertEquals(pending.get(0).key(), issueRequests.get(0).header(ApiClient.IDEMPOTENCY_KEY_HEADER));
+        assertEquals(pending.get(0).key(), issueRequests.get(1).header(ApiClient.IDEMPOTENCY_KEY_HEADER));
+        assertEquals("Commento offline", comment.getContent());
+
+        journal.complete(List.of(pending.get(0).key(), pending.get(1).key()));
+        assertEquals(0, journal.pendingCount());
+        assertFalse(Files.exists(file));
+        assertTrue(journal.load().isEmpty());
+    }
+
+    @Test
+    void partialCompletionKeepsTheRestAcrossReloads() throws Exception {
+        Path file = directory.resolve("partial.journal");
+        OutboxJournal journal = OutboxJournal.forFile(file);
+        OutboxJournal.Operation sent = OutboxJournal.Operation.comment(1, "Inviato");
+        OutboxJournal.Operation waiting = OutboxJournal.Operation.comment(1, "In attesa");
+        journal.append(sent);
+        journal.append(waiting);
+
+        journal.complete(List.of(sent.key(), "unknown-key"));
+        Files.writeString(file, "not json\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(1, journal.pendingCount());
+        assertEquals(List.of(waiting.key()), journal.load().stream().map(OutboxJournal.Operation::key).toList());
+        assertEquals(1, journal.pendingCount());
+    }
+}
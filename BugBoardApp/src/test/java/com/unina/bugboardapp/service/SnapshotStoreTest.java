@@ -0,0 +1,121 @@
+package com.unina.bugboardapp.service;
+
+import com.unina.bugboardapp.model.Comment;
+import com.unina.bugboardapp.model.Issue;
+import com.unina.bugboardapp.model.User;
+import com.unina.bugboardapp.model.enums.IssueState;
+import com.unina.bugboardapp.model.enums.IssueType;
+import com.unina.bugboardapp.model.enums.Priority;
+import com.unina.bugboardapp.model.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SnapshotStoreTest {
+    private static final String ACCOUNT = "dev@example.com";
+
+    @TempDir
+    Path directory;
+
+    private SnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new SnapshotStore(directory);
+    }
+
+    private static SnapshotStore.Snapshot snapshot() {
+        User admin = new User("admin@example.com", null, UserType.ADMIN);
+        User dev = new User(ACCOUNT, null, UserType.USER);
+        dev.setId(2);
+
+        Issue issue = new Issue(IssueType.FEATURE, "Esportazione CSV", "Esportare la lista delle issue", null,
+                IssueState.IN_PROGRESS, Priority.HIGH, dev);
+        issue.setId(7);
+        Comment comment = new Comment(admin, "Pianificata per la prossima release", 7);
+        comment.setId(70);
+        comment.setTimestamp(LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_000_000));
+        issue.addComment(comment);
+
+        Issue bare = new Issue(IssueType.QUESTION, "Domanda", null, "/img/screenshot.png", IssueState.TODO,
+                Priority.LOW, null);
+        bare.setId(8);
+
+        return new SnapshotStore.Snapshot(Instant.ofEpochMilli(1_700_000_000_000L), 1_699_999_000_000L,
+                "cursor-42", List.of(issue, bare), List.of(admin, dev));
+    }
+
+    @Test
+    void roundTripKeepsIssuesCommentsAndUsers() throws Exception {
+        store.save(ACCOUNT, snapshot());
+
+        SnapshotStore.Snapshot loaded = store.load(ACCOUNT);
+
+        assertEquals(Instant.ofEpochMilli(1_700_000_000_000L), loaded.savedAt());
+        assertEquals(1_699_999_000_000L, loaded.lastFullSyncMillis());
+        assertEquals("cursor-42", loaded.syncCursor());
+        assertEquals(List.of("admin@example.com", ACCOUNT), loaded.users().stream().map(User::getUsername).toList());
+        assertEquals(2, loaded.users().get(1).getId());
+
+        Issue issue = loaded.issues().get(0);
+        assertEquals(7, issue.getId());
+        assertEquals("Esportazione CSV", issue.getTitle());
+        assertEquals(IssueType.FEATURE, issue.getType());
+        assertEquals(Priority.HIGH, issue.getPriority());
+        assertEquals(IssueState.IN_PROGRESS, issue.getState());
+        assertEquals(ACCOUNT, issue.getReporter().getUsername());
+
+        Comment comment = issue.getComments().get(0);
+        assertEquals(70, comment.getId());
+        assertEquals("admin@example.com", comment.getAuthor().getUsername());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 9, 30, 15, 123_000_000), comment.getTimestamp());
+
+        Issue bare = loaded.issues().get(1);
+        assertNull(bare.getDescription());
+        assertNull(bare.getReporter());
+        assertEquals("/img/screenshot.png", bare.getImagePath());
+        assertEquals(0, bare.getComments().size());
+    }
+
+    @Test
+    void snapshotsAreKeptPerAccount() throws Exception {
+        store.save(ACCOUNT, snapshot());
+
+        assertNull(store.load("other@example.com"));
+        assertEquals(2, store.load("DEV@example.com").issues().size());
+
+        store.delete(ACCOUNT);
+        assertNull(store.load(ACCOUNT));
+    }
+
+    @Test
+    void corruptOrTruncatedFilesLoadAsMissing() throws Exception {
+        store.save(ACCOUNT, snapshot());
+        Path file;
+        try (var files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(store.load(ACCOUNT));
+
+        byte[] corrupt = bytes.clone();
+        for (int i = 30; i < corrupt.length; i += 7) corrupt[i] = (byte) 0xFF;
+        Files.write(file, corrupt);
+        assertNull(store.load(ACCOUNT));
+
+        Files.write(file, new byte[0]);
+        assertNull(store.load(ACCOUNT));
+    }
+}
@@ -0,0 +1,184 @@
+package com.unina.bugboardapp.service;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Backend di prova basato su {@link HttpServer}, in ascolto su una porta libera di loopback.
+ * <p>
+ * Le rotte vengono registrate per metodo e path (senza query string); ogni richiesta ricevuta viene
+ * registrata, così che i test possano verificare header e body inviati dal client. Le richieste senza
+ * rotta ricevono {@code 404}.
+ * </p>
+ */
+final class StandInBackend implements AutoCloseable {
+    static final String API_PREFIX = "/api";
+
+    /**
+     * Richiesta ricevuta dal backend.
+     *
+     * @param method  metodo HTTP
+     * @param path    path relativo all'API (es. {@code /issues})
+     * @param query   query string, oppure {@code null}
+     * @param headers header della richiesta
+     * @param body    body della richiesta
+     */
+    record Request(String method, String path, String query, Headers headers, byte[] body) {
+        String header(String name) {
+            return headers.getFirst(name);
+        }
+
+        String bodyText() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Gestore di una rotta.
+     */
+    @FunctionalInterface
+    interface Handler {
+        void handle(Request request, HttpExchange exchange) throws IOException;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "stand-in-backend");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, Handler> routes = new ConcurrentHashMap<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final List<ApiClient> clients = new CopyOnWriteArrayList<>();
+
+    private StandInBackend(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Avvia un backend su una porta libera.
+     */
+    static StandInBackend start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        StandInBackend backend = new StandInBackend(server);
+        server.createContext(API_PREFIX, backend::dispatch);
+        server.setExecutor(backend.executor);
+        server.start();
+        return backend;
+    }
+
+    /**
+     * @return URL base delle API del backend
+     */
+    String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + API_PREFIX;
+    }
+
+    /**
+     * Crea un client JSON verso questo backend.
+     */
+    ApiClient client() {
+        return client(false);
+    }
+
+    /**
+     * Crea un client verso questo backend, con o senza negoziazione del formato Smile.
+     */
+    ApiClient client(boolean binaryFormat) {
+        return client(HttpClient.Version.HTTP_1_1, false, binaryFormat);
+    }
+
+    /**
+     * Crea un client verso questo backend con la versione HTTP e le opzioni di formato indicate; il
+     * client viene arrestato alla chiusura del backend.
+     */
+    ApiClient client(HttpClient.Version version, boolean compression, boolean binaryFormat) {
+        TransportProfile defaults = TransportProfile.defaults();
+        ApiClient client = new ApiClient(new TransportProfile(baseUrl(), version, 2,
+                defaults.connectTimeout(), defaults.requestTimeout(), defaults.endpointTimeouts(),
+                compression, binaryFormat));
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Registra (o sostituisce) il gestore della rotta indicata.
+     */
+    void on(String method, String path, Handler handler) {
+        routes.put(method + " " + path, handler);
+    }
+
+    /**
+     * @return richieste ricevute sul path indicato, in ordine di arrivo
+     */
+    List<Request> requests(String path) {
+        return requests.stream().filter(request -> request.path().equals(path)).toList();
+    }
+
+    /**
+     * Invia una risposta completa.
+     */
+    static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (body.length == 0 || status == 304) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    /**
+     * Invia una risposta JSON.
+     */
+    static void json(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+        clients.forEach(ApiClient::shutdown);
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try {
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            String path = exchange.getRequestURI().getPath().substring(API_PREFIX.length());
+            Request request = new Request(exchange.getRequestMethod(), path, exchange.getRequestURI().getRawQuery(),
+                    exchange.getRequestHeaders(), body);
+            requests.add(request);
+            Handler handler = routes.get(request.method() + " " + path);
+            if (handler == null) {
+                respond(exchange, 404, null, new byte[0]);
+            } else {
+                handler.handle(request, exchange);
+            }
+        } catch (IOException | RuntimeException e) {
+            exchange.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.unina.bugboardapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransportLatencyTest {
+    private static final Logger logger = Logger.getLogger(TransportLatencyTest.class.getName());
+    private static final int REQUESTS = 100;
+    private static final long SERVER_DELAY_MILLIS = 20;
+
+    private StandInBackend backend;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        backend = StandInBackend.start();
+        backend.on("GET", "/issues", (request, exchange) -> {
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StandInBackend.json(exchange, 200, "[]");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+    }
+
+    @Test
+    void hundredConcurrentGetsWithTheHttp11Profile() throws Exception {
+        measureConcurrentGets(HttpClient.Version.HTTP_1_1);
+    }
+
+    /**
+     * Il backend di prova parla solo HTTP/1.1: con il profilo HTTP/2 il client tenta l'upgrade h2c e
+     * ripiega su HTTP/1.1: il test misura anche il costo di questo ripiego.
+     */
+    @Test
+    void hundredConcurrentGetsWithTheHttp2Profile() throws Exception {
+        measureConcurrentGets(HttpClient.Version.HTTP_2);
+    }
+
+    private void measureConcurrentGets(HttpClient.Version version) throws Exception {
+        ApiClient client = backend.client(version, false, false);
+        client.get("/issues");
+
+        List<CompletableFuture<Long>> calls = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            long sent = System.nanoTime();
+            calls.add(client.getAsync("/issues").thenApply(body -> System.nanoTime() - sent));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        long[] latencies = calls.stream().mapToLong(CompletableFuture::join).sorted().toArray();
+        long p50 = TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS / 2]);
+        long p95 = TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS * 95 / 100]);
+        long max = TimeUnit.NANOSECONDS.toMillis(latencies[REQUESTS - 1]);
+        logger.info(() -> version + ": " + REQUESTS + " GET concorrenti in " + totalMillis + " ms, p50 " + p50
+                + " ms, p95 " + p95 + " ms, max " + max + " ms");
+
+        assertEquals(REQUESTS + 1, backend.requests("/issues").size());
+        assertTrue(Arrays.stream(latencies).allMatch(latency -> latency > 0));
+        // Richieste servite in parallelo: ben sotto i 100 × 20 ms di un'esecuzione seriale
+        assertTrue(totalMillis < REQUESTS * SERVER_DELAY_MILLIS, () -> version + " took " + totalMillis + " ms");
+    }
+}